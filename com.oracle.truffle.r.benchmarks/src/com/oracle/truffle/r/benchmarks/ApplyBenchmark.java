@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * The apply family with a small R closure as the function.
+ */
+public class ApplyBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "100000"}) public int size;
+
+    private Value lapply;
+    private Value vapply;
+    private Value sapply;
+    private Value mapply;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); x <- runif(" + size + "); l <- as.list(x)");
+        lapply = eval("function() lapply(l, function(e) e * 2)");
+        vapply = eval("function() vapply(x, function(e) e + 1, 0)");
+        sapply = eval("function() sapply(l, function(e) if (e > 0.5) 1L else 0L)");
+        mapply = eval("function() mapply(function(a, b) a + b, x, x)");
+    }
+
+    @Benchmark
+    public Value lapply() {
+        return lapply.execute();
+    }
+
+    @Benchmark
+    public Value vapply() {
+        return vapply.execute();
+    }
+
+    @Benchmark
+    public Value sapply() {
+        return sapply.execute();
+    }
+
+    @Benchmark
+    public Value mapply() {
+        return mapply.execute();
+    }
+}
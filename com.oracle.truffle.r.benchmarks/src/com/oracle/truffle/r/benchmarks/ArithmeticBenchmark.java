@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Element-wise arithmetic on long vectors, the vectors have no attributes and no NAs.
+ */
+public class ArithmeticBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "1000000"}) public int size;
+
+    @Param({"double", "integer"}) public String type;
+
+    private Value add;
+    private Value scalar;
+    private Value expression;
+    private Value unary;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); x <- as." + type + "(sample(1000L, " + size + ", replace = TRUE)); y <- rev(x)");
+        add = eval("function() x + y");
+        scalar = eval("function() x * 2L");
+        expression = eval("function() (x - y) * (x + y) / 3");
+        unary = eval("function() -abs(x)");
+    }
+
+    @Benchmark
+    public Value add() {
+        return add.execute();
+    }
+
+    @Benchmark
+    public Value scalar() {
+        return scalar.execute();
+    }
+
+    @Benchmark
+    public Value expression() {
+        return expression.execute();
+    }
+
+    @Benchmark
+    public Value unary() {
+        return unary.execute();
+    }
+}
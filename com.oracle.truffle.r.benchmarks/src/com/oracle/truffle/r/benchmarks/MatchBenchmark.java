@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code match}, {@code %in%}, {@code unique} and {@code duplicated}, which are all hash based.
+ */
+public class MatchBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "1000000"}) public int size;
+
+    @Param({"double", "integer", "character"}) public String type;
+
+    private Value match;
+    private Value in;
+    private Value unique;
+    private Value duplicated;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); x <- as." + type + "(sample(" + size + "L, replace = TRUE)); table <- unique(as." + type + "(sample(" + size + "L, " + size + "L %/% 2L)))");
+        match = eval("function() match(x, table)");
+        in = eval("function() x %in% table");
+        unique = eval("function() unique(x)");
+        duplicated = eval("function() duplicated(x)");
+    }
+
+    @Benchmark
+    public Value match() {
+        return match.execute();
+    }
+
+    @Benchmark
+    public Value in() {
+        return in.execute();
+    }
+
+    @Benchmark
+    public Value unique() {
+        return unique.execute();
+    }
+
+    @Benchmark
+    public Value duplicated() {
+        return duplicated.execute();
+    }
+}
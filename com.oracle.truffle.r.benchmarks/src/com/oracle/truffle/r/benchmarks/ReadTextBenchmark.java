@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code readLines} and {@code scan} of a temporary text file with one number per line.
+ */
+public class ReadTextBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "100000"}) public int lines;
+
+    private Value readLines;
+    private Value scanNumeric;
+    private Value scanCharacter;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); f <- tempfile(); writeLines(format(runif(" + lines + ")), f)");
+        readLines = eval("function() readLines(f)");
+        scanNumeric = eval("function() scan(f, what = numeric(), quiet = TRUE)");
+        scanCharacter = eval("function() scan(f, what = character(), quiet = TRUE)");
+    }
+
+    @Override
+    protected void cleanup() {
+        eval("unlink(f)");
+    }
+
+    @Benchmark
+    public Value readLines() {
+        return readLines.execute();
+    }
+
+    @Benchmark
+    public Value scanNumeric() {
+        return scanNumeric.execute();
+    }
+
+    @Benchmark
+    public Value scanCharacter() {
+        return scanCharacter.execute();
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code serialize} and {@code unserialize} in memory, i.e., {@code RSerialize}, of an atomic
+ * vector, a list of small vectors and a data frame.
+ */
+public class SerializeBenchmark extends RBenchmarkState {
+
+    @Param({"double", "list", "data.frame"}) public String kind;
+
+    @Param({"false", "true"}) public boolean xdr;
+
+    private Value serialize;
+    private Value unserialize;
+    private Value roundTrip;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); n <- 100000L");
+        switch (kind) {
+            case "double":
+                eval("obj <- runif(n)");
+                break;
+            case "list":
+                eval("obj <- lapply(seq_len(n %/% 10L), function(i) list(i, as.character(i), runif(3)))");
+                break;
+            case "data.frame":
+                eval("obj <- data.frame(a = seq_len(n), b = runif(n), c = sample(letters, n, replace = TRUE), stringsAsFactors = TRUE)");
+                break;
+            default:
+                throw new IllegalArgumentException(kind);
+        }
+        eval("xdr <- " + (xdr ? "TRUE" : "FALSE") + "; bytes <- serialize(obj, NULL, xdr = xdr)");
+        serialize = eval("function() serialize(obj, NULL, xdr = xdr)");
+        unserialize = eval("function() unserialize(bytes)");
+        roundTrip = eval("function() unserialize(serialize(obj, NULL, xdr = xdr))");
+    }
+
+    @Benchmark
+    public Value serialize() {
+        return serialize.execute();
+    }
+
+    @Benchmark
+    public Value unserialize() {
+        return unserialize.execute();
+    }
+
+    @Benchmark
+    public Value roundTrip() {
+        return roundTrip.execute();
+    }
+}
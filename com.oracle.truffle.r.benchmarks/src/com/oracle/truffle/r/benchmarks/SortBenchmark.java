@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * {@code sort} and {@code order} of random vectors, with few and with many distinct values.
+ */
+public class SortBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "1000000"}) public int size;
+
+    @Param({"double", "integer", "character"}) public String type;
+
+    private Value sort;
+    private Value sortRadix;
+    private Value order;
+    private Value orderTwoKeys;
+    private Value orderDecreasing;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); x <- as." + type + "(sample(" + size + "L, replace = TRUE)); y <- as." + type + "(sample(100L, " + size + "L, replace = TRUE))");
+        sort = eval("function() sort(x)");
+        sortRadix = eval("function() sort(x, method = 'radix')");
+        order = eval("function() order(x)");
+        orderTwoKeys = eval("function() order(y, x)");
+        orderDecreasing = eval("function() order(y, decreasing = TRUE)");
+    }
+
+    @Benchmark
+    public Value sort() {
+        return sort.execute();
+    }
+
+    @Benchmark
+    public Value sortRadix() {
+        return sortRadix.execute();
+    }
+
+    @Benchmark
+    public Value order() {
+        return order.execute();
+    }
+
+    @Benchmark
+    public Value orderTwoKeys() {
+        return orderTwoKeys.execute();
+    }
+
+    @Benchmark
+    public Value orderDecreasing() {
+        return orderDecreasing.execute();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.benchmarks;
+
+import org.graalvm.polyglot.Value;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Subsetting ({@code [}, {@code [[}) and sub-assignment ({@code [<-}, {@code [[<-}) of vectors and
+ * lists, i.e., {@code ExtractVectorNode} and {@code ReplaceVectorNode}.
+ */
+public class SubsetBenchmark extends RBenchmarkState {
+
+    @Param({"1000", "100000"}) public int size;
+
+    private Value extractIndex;
+    private Value extractLogical;
+    private Value extractElementLoop;
+    private Value extractName;
+    private Value replaceIndex;
+    private Value replaceElementLoop;
+
+    @Override
+    protected void init() {
+        eval("set.seed(1); x <- runif(" + size + "); idx <- sample(" + size + "L)");
+        eval("l <- as.list(x); names(l) <- paste0('n', seq_along(l)); keys <- sample(names(l), 1000L, replace = TRUE)");
+        extractIndex = eval("function() x[idx]");
+        extractLogical = eval("function() x[x > 0.5]");
+        extractElementLoop = eval("function() { s <- 0; for (i in idx) s <- s + x[[i]]; s }");
+        extractName = eval("function() { s <- 0; for (k in keys) s <- s + l[[k]]; s }");
+        replaceIndex = eval("function() { v <- x; v[idx] <- 0; v }");
+        replaceElementLoop = eval("function() { v <- x; for (i in idx) v[[i]] <- i; v }");
+    }
+
+    @Benchmark
+    public Value extractIndex() {
+        return extractIndex.execute();
+    }
+
+    @Benchmark
+    public Value extractLogical() {
+        return extractLogical.execute();
+    }
+
+    @Benchmark
+    public Value extractElementLoop() {
+        return extractElementLoop.execute();
+    }
+
+    @Benchmark
+    public Value extractName() {
+        return extractName.execute();
+    }
+
+    @Benchmark
+    public Value replaceIndex() {
+        return replaceIndex.execute();
+    }
+
+    @Benchmark
+    public Value replaceElementLoop() {
+        return replaceElementLoop.execute();
+    }
+}
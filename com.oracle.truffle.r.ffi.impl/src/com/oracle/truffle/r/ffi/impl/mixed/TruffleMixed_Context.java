@@ -37,6 +37,7 @@ import com.oracle.truffle.r.runtime.context.RContext.ContextState;
 import com.oracle.truffle.r.runtime.ffi.AfterDownCallProfiles;
 import com.oracle.truffle.r.runtime.ffi.AltrepRFFI;
 import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
+import com.oracle.truffle.r.runtime.ffi.BlasRFFI;
 import com.oracle.truffle.r.runtime.ffi.DLL.DLLInfo;
 import com.oracle.truffle.r.runtime.ffi.LapackRFFI;
 import com.oracle.truffle.r.runtime.ffi.MiscRFFI;
@@ -63,7 +64,7 @@ public final class TruffleMixed_Context extends RFFIContext {
                         new TruffleLLVM_UserRng(),
                         new ZipRFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE),
                         new PCRERFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE),
-                        new LapackRFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE),
+                        new LapackRFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE), new BlasRFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE),
                         createStatsDowncallNode(),
                         new ToolsRFFI(),
                         new REmbedRFFI(TruffleLLVM_DownCallNodeFactory.INSTANCE),
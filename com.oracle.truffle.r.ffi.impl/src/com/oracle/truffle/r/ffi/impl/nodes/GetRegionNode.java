@@ -37,6 +37,17 @@ abstract class GetRegionNode extends FFIUpCallNode.Arg4 {
         }
     }
 
+    /**
+     * Returns the number of elements that a region of the given size starting at {@code fromIdx}
+     * has in a vector of the given length.
+     */
+    protected static int regionLength(int vectorLength, long fromIdx, long size) {
+        if (fromIdx < 0 || fromIdx >= vectorLength) {
+            return 0;
+        }
+        return (int) Math.max(0, Math.min(size, vectorLength - fromIdx));
+    }
+
     protected static long bufferToNative(Object buffer, InteropLibrary bufferInterop) {
         bufferInterop.toNative(buffer);
         try {
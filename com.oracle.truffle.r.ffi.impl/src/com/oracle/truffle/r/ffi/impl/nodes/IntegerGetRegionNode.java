@@ -28,9 +28,14 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
+import com.oracle.truffle.r.runtime.data.RIntNativeVectorData;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ffi.util.NativeArrayWrapper;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 
 @ImportStatic(DSLConfig.class)
 @GenerateUncached
@@ -48,6 +53,32 @@ public abstract class IntegerGetRegionNode extends GetRegionNode {
         return dataLibrary.getIntRegion(vec.getData(), (int) fromIdx, (int) size, buffer, bufferInterop);
     }
 
+    /**
+     * The data are in a Java array and the buffer is in native memory: single memory copy.
+     */
+    @Specialization(guards = {"!bufferInterop.hasArrayElements(buffer)", "isArrayData(vec)"}, limit = "getGenericDataLibraryCacheSize()")
+    protected long doArrayData(RIntVector vec, long fromIdx, long size, Object buffer,
+                    @CachedLibrary("buffer") InteropLibrary bufferInterop) {
+        validateArguments(fromIdx, size);
+        int[] data = ((RIntArrayVectorData) vec.getData()).getReadonlyIntData();
+        int count = regionLength(data.length, fromIdx, size);
+        NativeMemory.copyMemory(data, (int) fromIdx, bufferToNative(buffer, bufferInterop), ElementType.INT, count);
+        return count;
+    }
+
+    /**
+     * The data and the buffer are in native memory: single memory copy.
+     */
+    @Specialization(guards = {"!bufferInterop.hasArrayElements(buffer)", "isNativeData(vec)"}, limit = "getGenericDataLibraryCacheSize()")
+    protected long doNativeData(RIntVector vec, long fromIdx, long size, Object buffer,
+                    @CachedLibrary("buffer") InteropLibrary bufferInterop) {
+        validateArguments(fromIdx, size);
+        int count = regionLength(vec.getLength(), fromIdx, size);
+        long elementSize = ElementType.INT.getBytes();
+        NativeMemory.copyMemory(NativeDataAccess.getNativeDataAddress(vec) + fromIdx * elementSize, bufferToNative(buffer, bufferInterop), count * elementSize);
+        return count;
+    }
+
     @Specialization(guards = "!bufferInterop.hasArrayElements(buffer)", limit = "getGenericDataLibraryCacheSize()")
     protected long doGenericBuffer(RIntVector vec, long fromIdx, long size, Object buffer,
                     @CachedLibrary("vec.getData()") VectorDataLibrary dataLibrary,
@@ -55,8 +86,17 @@ public abstract class IntegerGetRegionNode extends GetRegionNode {
                     @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop) {
         validateArguments(fromIdx, size);
         long bufferAddr = bufferToNative(buffer, bufferInterop);
-        int sizeInt = (int) size;
-        Object bufferWrapper = NativeArrayWrapper.createIntWrapper(bufferAddr, sizeInt);
-        return dataLibrary.getIntRegion(vec.getData(), (int) fromIdx, sizeInt, bufferWrapper, bufferWrapperInterop);
+        // clipped to the vector length like the bulk copies
+        int count = regionLength(vec.getLength(), fromIdx, size);
+        Object bufferWrapper = NativeArrayWrapper.createIntWrapper(bufferAddr, count);
+        return dataLibrary.getIntRegion(vec.getData(), (int) fromIdx, count, bufferWrapper, bufferWrapperInterop);
+    }
+
+    protected static boolean isArrayData(RIntVector vec) {
+        return vec.getData() instanceof RIntArrayVectorData;
+    }
+
+    protected static boolean isNativeData(RIntVector vec) {
+        return vec.getData() instanceof RIntNativeVectorData;
     }
 }
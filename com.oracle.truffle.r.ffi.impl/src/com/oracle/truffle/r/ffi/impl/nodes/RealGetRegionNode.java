@@ -28,9 +28,14 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.InteropLibrary;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.r.runtime.DSLConfig;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleNativeVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.ffi.util.NativeArrayWrapper;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 
 @ImportStatic(DSLConfig.class)
 @GenerateUncached
@@ -47,6 +52,32 @@ public abstract class RealGetRegionNode extends GetRegionNode {
         return dataLibrary.getDoubleRegion(doubleVec.getData(), (int) fromIdx, (int) size, buffer, bufferInterop);
     }
 
+    /**
+     * The data are in a Java array and the buffer is in native memory: single memory copy.
+     */
+    @Specialization(guards = {"!bufferInterop.hasArrayElements(buffer)", "isArrayData(vec)"}, limit = "getGenericDataLibraryCacheSize()")
+    protected long doArrayData(RDoubleVector vec, long fromIdx, long size, Object buffer,
+                    @CachedLibrary("buffer") InteropLibrary bufferInterop) {
+        validateArguments(fromIdx, size);
+        double[] data = ((RDoubleArrayVectorData) vec.getData()).getReadonlyDoubleData();
+        int count = regionLength(data.length, fromIdx, size);
+        NativeMemory.copyMemory(data, (int) fromIdx, bufferToNative(buffer, bufferInterop), ElementType.DOUBLE, count);
+        return count;
+    }
+
+    /**
+     * The data and the buffer are in native memory: single memory copy.
+     */
+    @Specialization(guards = {"!bufferInterop.hasArrayElements(buffer)", "isNativeData(vec)"}, limit = "getGenericDataLibraryCacheSize()")
+    protected long doNativeData(RDoubleVector vec, long fromIdx, long size, Object buffer,
+                    @CachedLibrary("buffer") InteropLibrary bufferInterop) {
+        validateArguments(fromIdx, size);
+        int count = regionLength(vec.getLength(), fromIdx, size);
+        long elementSize = ElementType.DOUBLE.getBytes();
+        NativeMemory.copyMemory(NativeDataAccess.getNativeDataAddress(vec) + fromIdx * elementSize, bufferToNative(buffer, bufferInterop), count * elementSize);
+        return count;
+    }
+
     @Specialization(guards = "!bufferInterop.hasArrayElements(buffer)", limit = "getGenericDataLibraryCacheSize()")
     protected long doGenericBuffer(RDoubleVector vec, long fromIdx, long size, Object buffer,
                     @CachedLibrary("vec.getData()") VectorDataLibrary dataLibrary,
@@ -54,7 +85,17 @@ public abstract class RealGetRegionNode extends GetRegionNode {
                     @CachedLibrary(limit = "1") InteropLibrary bufferWrapperInterop) {
         validateArguments(fromIdx, size);
         long bufferAddr = bufferToNative(buffer, bufferInterop);
-        Object bufferWrapper = NativeArrayWrapper.createDoubleWrapper(bufferAddr, (int) size);
-        return dataLibrary.getDoubleRegion(vec.getData(), (int) fromIdx, (int) size, bufferWrapper, bufferWrapperInterop);
+        // clipped to the vector length like the bulk copies
+        int count = regionLength(vec.getLength(), fromIdx, size);
+        Object bufferWrapper = NativeArrayWrapper.createDoubleWrapper(bufferAddr, count);
+        return dataLibrary.getDoubleRegion(vec.getData(), (int) fromIdx, count, bufferWrapper, bufferWrapperInterop);
+    }
+
+    protected static boolean isArrayData(RDoubleVector vec) {
+        return vec.getData() instanceof RDoubleArrayVectorData;
+    }
+
+    protected static boolean isNativeData(RDoubleVector vec) {
+        return vec.getData() instanceof RDoubleNativeVectorData;
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,12 +24,17 @@ package com.oracle.truffle.r.ffi.impl.nodes;
 
 import com.oracle.truffle.api.CompilerAsserts;
 import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.TruffleLanguage.ContextReference;
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.CachedContext;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.ReportPolymorphism;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.TruffleRLanguage;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.gnur.SEXPTYPE;
@@ -55,7 +60,8 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
 
     @Specialization(guards = "mode == type.code", limit = "SEXPTYPE_COUNT")
     protected static Object doIt(@SuppressWarnings("unused") int mode, long n,
-                    @Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type) {
+                    @Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type,
+                    @CachedContext(TruffleRLanguage.class) ContextReference<RContext> ctxRef) {
         CompilerAsserts.compilationConstant(type);
         if (n > Integer.MAX_VALUE) {
             CompilerDirectives.transferToInterpreter();
@@ -63,7 +69,7 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
         }
         int ni = (int) n;
         try {
-            return allocate(type, ni);
+            return allocate(type, ni, ctxRef.get().getOption(FastROptions.NativeVectorAllocThreshold));
         } catch (OutOfMemoryError ex) {
             CompilerDirectives.transferToInterpreter();
             String msg = String.format("Cannot allocate new vector of type %s and size %d: not enough memory.", type.toString(), n);
@@ -71,11 +77,22 @@ public abstract class RfAllocVectorNode extends FFIUpCallNode.Arg2 {
         }
     }
 
-    private static Object allocate(@Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type, int ni) {
+    /**
+     * Large integer and double vectors are allocated in native memory, because the native code
+     * that allocated them is likely to access their data via {@code INTEGER} or {@code REAL},
+     * which would otherwise copy the data to native memory.
+     */
+    private static Object allocate(@Cached(value = "getType(mode)", allowUncached = true) SEXPTYPE type, int ni, int nativeThreshold) {
         switch (type) {
             case INTSXP:
+                if (nativeThreshold > 0 && ni >= nativeThreshold) {
+                    return RDataFactory.createIntVectorNative(ni);
+                }
                 return RDataFactory.createIntVector(new int[ni], RDataFactory.COMPLETE_VECTOR);
             case REALSXP:
+                if (nativeThreshold > 0 && ni >= nativeThreshold) {
+                    return RDataFactory.createDoubleVectorNative(ni);
+                }
                 return RDataFactory.createDoubleVector(new double[ni], RDataFactory.COMPLETE_VECTOR);
             case LGLSXP:
                 return RDataFactory.createLogicalVector(new byte[ni], RDataFactory.COMPLETE_VECTOR);
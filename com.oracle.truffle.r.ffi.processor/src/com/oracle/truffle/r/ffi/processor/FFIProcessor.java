@@ -315,6 +315,7 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("import com.oracle.truffle.r.ffi.impl.upcalls.UpCallBase;");
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFIContext;\n");
         w.append("import com.oracle.truffle.r.runtime.ffi.RFFILog;\n");
+        w.append("import com.oracle.truffle.r.runtime.ffi.RFFIProfile;\n");
         w.append("import com.oracle.truffle.api.interop.InteropLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportLibrary;\n");
         w.append("import com.oracle.truffle.api.library.ExportMessage;\n");
@@ -427,6 +428,8 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("        UpCallsRFFI impl = upCallProfile.profile(upCallsImpl);\n");
         w.append("        rffiCtx.beforeUpcall(ctx, " + canRunGc + ", impl.getRFFIType());\n");
         w.append(unwrappedArgs);
+        // the profiled call is exited however the up-call completes
+        w.append("        RFFIProfile.Call profiledCall = RFFIProfile.isEnabled() ? RFFIProfile.enterUpCall(\"" + name + "\") : null;\n");
         w.append("        try {\n");
 
         w.append("            ");
@@ -474,6 +477,10 @@ public final class FFIProcessor extends AbstractProcessor {
         w.append("            RFFILog.logException(ex);\n");
         w.append("            handleExceptionNode.execute(ex);\n");
         appendCreateDummyResultObj(returnKind, needsReturnWrap, w);
+        w.append("        } finally {\n");
+        w.append("            if (profiledCall != null) {\n");
+        w.append("                RFFIProfile.exitUpCall(profiledCall);\n");
+        w.append("            }\n");
         w.append("        }\n");
         w.append("        rffiCtx.afterUpcall(" + canRunGc + ", impl.getRFFIType());\n");
         if (returnKind == TypeKind.VOID) {
@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2015, The R Core Team
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -77,17 +77,100 @@ public abstract class LPoints extends RExternalBuiltinNode.Arg4 {
         // Note: unlike in other drawing primitives, we only consider length of x
         int length = Unit.getLength(xVec);
         ContextCache contextCache = new ContextCache(null);
+        SymbolBatch batch = pchVec.getLength() == 1 && SymbolBatch.isBatched(pchVec.getDataAt(0)) ? new SymbolBatch(dev, pchVec.getDataAt(0), length) : null;
         for (int i = 0; i < length; i++) {
             Point loc = TransformMatrix.transLocation(Point.fromUnits(xVec, yVec, i, conversionCtx), vpTransform.transform);
             double size = Unit.convertWidth(sizeVec, i, conversionCtx);
             if (loc.isFinite() && Double.isFinite(size)) {
-                contextCache = contextCache.from(gpar.getDrawingContext(i));
-                drawSymbol(contextCache, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
+                DrawingContext drawingCtx = gpar.getDrawingContext(i);
+                if (batch != null) {
+                    if (contextCache.original != drawingCtx) {
+                        batch.flush(contextCache);
+                    }
+                    contextCache = contextCache.from(drawingCtx);
+                    batch.add(size * SIZE_FACTOR, loc.x, loc.y);
+                } else {
+                    contextCache = contextCache.from(drawingCtx);
+                    drawSymbol(contextCache, dev, pchVec.getDataAt(i % pchVec.getLength()), size * SIZE_FACTOR, loc.x, loc.y);
+                }
             }
         }
+        if (batch != null) {
+            batch.flush(contextCache);
+        }
         return RNull.instance;
     }
 
+    /**
+     * Collects symbols that are drawn as a single circle or square, so that consecutive symbols
+     * with the same drawing context are drawn by one call to the device. The shapes are the same as
+     * those drawn by {@link #drawSymbol}.
+     */
+    private static final class SymbolBatch {
+        private final GridDevice dev;
+        private final int pch;
+        private final boolean circles;
+        // left bottom corner of squares or center of circles
+        private final double[] x;
+        private final double[] y;
+        // side of squares or radius of circles
+        private final double[] size;
+        private int count;
+
+        SymbolBatch(GridDevice dev, int pch, int length) {
+            this.dev = dev;
+            this.pch = pch;
+            this.circles = !(pch == 0 || pch == 15 || pch == 22 || pch == 46);
+            this.x = new double[length];
+            this.y = new double[length];
+            this.size = new double[length];
+        }
+
+        static boolean isBatched(int pch) {
+            switch (pch) {
+                case 0:
+                case 1:
+                case 15:
+                case 16:
+                case 19:
+                case 20:
+                case 21:
+                case 22:
+                case 46:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+
+        void add(double halfSize, double centerX, double centerY) {
+            if (circles) {
+                x[count] = centerX;
+                y[count] = centerY;
+                size[count] = pch == 20 ? halfSize * .6 : halfSize;
+            } else {
+                double side = pch == 46 ? PIXEL_SIZE : halfSize * 2;
+                x[count] = centerX - side / 2;
+                y[count] = centerY - side / 2;
+                size[count] = side;
+            }
+            count++;
+        }
+
+        void flush(ContextCache ctxCache) {
+            if (count == 0) {
+                return;
+            }
+            DrawingContext ctx = pch == 0 || pch == 1 ? ctxCache.getTransparentFill() : ctxCache.getFilled();
+            if (circles) {
+                dev.drawCircles(ctx, x, y, size, 0, count);
+            } else {
+                dev.drawRects(ctx, x, y, size, size, 0, 0, count);
+            }
+            count = 0;
+        }
+    }
+
     private static void drawSymbol(ContextCache ctxCache, GridDevice dev, int pch, double halfSize, double x, double y) {
         // pch 0 - 25 are interpreted as geometrical shapes, pch from ascii code of ' ' are
         // interpreted as corresponding ascii character, which should be drawn
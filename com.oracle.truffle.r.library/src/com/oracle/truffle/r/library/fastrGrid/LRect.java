@@ -26,6 +26,7 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.numericValue
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.library.fastrGrid.Unit.UnitConversionContext;
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
 import com.oracle.truffle.r.library.fastrGrid.device.GridDevice;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
@@ -66,12 +67,34 @@ public abstract class LRect extends RExternalBuiltinNode.Arg6 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(xVec, yVec, wVec, hVec);
+        double rotation = Math.toRadians(vpTransform.rotationAngle);
+        double[] x = new double[length];
+        double[] y = new double[length];
+        double[] w = new double[length];
+        double[] h = new double[length];
+        // consecutive rectangles with the same drawing context are drawn at once
+        DrawingContext batchCtx = null;
+        int batchStart = 0;
         for (int i = 0; i < length; i++) {
             Size size = Size.fromUnits(wVec, hVec, i, conversionCtx);
             Point origLoc = Point.fromUnits(xVec, yVec, i, conversionCtx);
             Point transLoc = TransformMatrix.transLocation(origLoc, vpTransform.transform);
             Point loc = transLoc.justify(size, getDataAtMod(hjust, i), getDataAtMod(vjust, i));
-            dev.drawRect(gpar.getDrawingContext(i), loc.x, loc.y, size.getWidth(), size.getHeight(), Math.toRadians(vpTransform.rotationAngle));
+            DrawingContext drawingCtx = gpar.getDrawingContext(i);
+            if (drawingCtx != batchCtx) {
+                if (batchCtx != null) {
+                    dev.drawRects(batchCtx, x, y, w, h, rotation, batchStart, i - batchStart);
+                }
+                batchCtx = drawingCtx;
+                batchStart = i;
+            }
+            x[i] = loc.x;
+            y[i] = loc.y;
+            w[i] = size.getWidth();
+            h[i] = size.getHeight();
+        }
+        if (batchCtx != null) {
+            dev.drawRects(batchCtx, x, y, w, h, rotation, batchStart, length - batchStart);
         }
         return RNull.instance;
     }
@@ -1,7 +1,7 @@
 /*
  * Copyright (C) 2001-3 Paul Murrell
  * Copyright (c) 1998-2013, The R Core Team
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -24,6 +24,7 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.abstractVect
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.library.fastrGrid.Unit.UnitConversionContext;
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
 import com.oracle.truffle.r.library.fastrGrid.device.GridDevice;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
 import com.oracle.truffle.r.runtime.data.RList;
@@ -66,6 +67,10 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
         UnitConversionContext conversionCtx = new UnitConversionContext(vpTransform.size, vpContext, dev, gpar);
 
         int length = GridUtils.maxLength(x0, y0, x1, y1);
+        if (arrow == null) {
+            drawSegments(dev, gpar, x0, y0, x1, y1, length, vpTransform, conversionCtx);
+            return RNull.instance;
+        }
         double[] xx = new double[2];
         double[] yy = new double[2];
         for (int i = 0; i < length; i++) {
@@ -79,10 +84,45 @@ public abstract class LSegments extends RExternalBuiltinNode.Arg5 {
             yy[0] = loc1.y;
             yy[1] = loc2.y;
             dev.drawPolyLines(gpar.getDrawingContext(i), xx, yy, 0, 2);
-            if (arrow != null) {
-                Arrows.drawArrows(xx, yy, 0, 2, i, arrow, true, true, conversionCtx);
-            }
+            Arrows.drawArrows(xx, yy, 0, 2, i, arrow, true, true, conversionCtx);
         }
         return RNull.instance;
     }
+
+    /**
+     * Draws the segments without arrows, consecutive segments with the same drawing context are
+     * drawn at once.
+     */
+    private static void drawSegments(GridDevice dev, GPar gpar, RAbstractVector x0, RAbstractVector y0, RAbstractVector x1, RAbstractVector y1, int length, ViewPortTransform vpTransform,
+                    UnitConversionContext conversionCtx) {
+        double[] xx0 = new double[length];
+        double[] yy0 = new double[length];
+        double[] xx1 = new double[length];
+        double[] yy1 = new double[length];
+        int count = 0;
+        DrawingContext batchCtx = null;
+        for (int i = 0; i < length; i++) {
+            Point loc1 = TransformMatrix.transLocation(Point.fromUnits(x0, y0, i, conversionCtx), vpTransform.transform);
+            Point loc2 = TransformMatrix.transLocation(Point.fromUnits(x1, y1, i, conversionCtx), vpTransform.transform);
+            if (!loc1.isFinite() || !loc2.isFinite()) {
+                continue;
+            }
+            DrawingContext drawingCtx = gpar.getDrawingContext(i);
+            if (drawingCtx != batchCtx) {
+                if (count > 0) {
+                    dev.drawSegments(batchCtx, xx0, yy0, xx1, yy1, 0, count);
+                    count = 0;
+                }
+                batchCtx = drawingCtx;
+            }
+            xx0[count] = loc1.x;
+            yy0[count] = loc1.y;
+            xx1[count] = loc2.x;
+            yy1[count] = loc2.y;
+            count++;
+        }
+        if (count > 0) {
+            dev.drawSegments(batchCtx, xx0, yy0, xx1, yy1, 0, count);
+        }
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -94,6 +94,47 @@ public interface GridDevice {
 
     void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius);
 
+    /**
+     * Draws {@code length} rectangles starting at {@code startIndex} with the same drawing context
+     * and rotation, see {@link #drawRect(DrawingContext, double, double, double, double, double)}.
+     * Devices should override this if they can draw many shapes at once more efficiently, the
+     * result should look the same as if the rectangles were drawn one by one.
+     */
+    default void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] width, double[] height, double rotationAnticlockWise, int startIndex, int length) {
+        for (int i = startIndex; i < startIndex + length; i++) {
+            drawRect(ctx, leftX[i], bottomY[i], width[i], height[i], rotationAnticlockWise);
+        }
+    }
+
+    /**
+     * Draws {@code length} line segments from {@code (x0[i], y0[i])} to {@code (x1[i], y1[i])}
+     * starting at {@code startIndex} with the same drawing context.
+     *
+     * @see #drawRects(DrawingContext, double[], double[], double[], double[], double, int, int)
+     */
+    default void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int startIndex, int length) {
+        double[] xx = new double[2];
+        double[] yy = new double[2];
+        for (int i = startIndex; i < startIndex + length; i++) {
+            xx[0] = x0[i];
+            xx[1] = x1[i];
+            yy[0] = y0[i];
+            yy[1] = y1[i];
+            drawPolyLines(ctx, xx, yy, 0, 2);
+        }
+    }
+
+    /**
+     * Draws {@code length} circles starting at {@code startIndex} with the same drawing context.
+     *
+     * @see #drawRects(DrawingContext, double[], double[], double[], double[], double, int, int)
+     */
+    default void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int startIndex, int length) {
+        for (int i = startIndex; i < startIndex + length; i++) {
+            drawCircle(ctx, centerX[i], centerY[i], radius[i]);
+        }
+    }
+
     /**
      * Draws a raster image at specified position. The pixels array shall be treated as by row
      * matrix, the values are values compatible with the internal {@link GridColor} representation,
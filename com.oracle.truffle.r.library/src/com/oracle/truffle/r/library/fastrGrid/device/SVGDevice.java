@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,28 +28,77 @@ import static java.lang.Math.round;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.nio.charset.StandardCharsets;
-import java.text.DecimalFormat;
+import java.nio.file.StandardCopyOption;
 import java.util.Base64;
+import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 import com.oracle.truffle.api.TruffleFile;
 import com.oracle.truffle.r.library.fastrGrid.GridColorUtils;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridFontStyle;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineEnd;
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext.GridLineJoin;
+import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
-import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.TempPathName;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Device that produces SVG code. Unless the output goes to {@code /dev/null}, which is how
+ * {@code svg.string} and {@code svg.off} are typically used, the page is streamed to a temporary
+ * file, which is moved to the target path when the page is saved, so that the whole document is
+ * never held in memory. A page for {@code /dev/null} is kept in memory until it is longer than
+ * {@link #MAX_IN_MEMORY_LENGTH} and then continues in a temporary file as well. In all modes,
+ * {@link #data} is the buffer of the markup that has not been written yet.
+ *
+ * The styles of the shapes are emitted as CSS classes, which are defined by a {@code style}
+ * element when they are used for the first time on the page. The rules apply only within the root
+ * element of the page, which has a unique id, so that several documents can be inlined in one
+ * HTML page.
+ */
 public class SVGDevice implements GridDevice, FileGridDevice {
-    private static final DecimalFormat DECIMAL_FORMAT = new DecimalFormat("0.000");
     private static final double COORD_FACTOR = INCH_TO_POINTS_FACTOR;
 
-    private final StringBuilder data = new StringBuilder(1024);
+    /**
+     * In the streaming mode, the buffered markup is written out once it is at least this long.
+     */
+    private static final int FLUSH_THRESHOLD = 8192;
+
+    /**
+     * A page that is kept in memory is moved to a temporary file once its markup is this long.
+     */
+    private static final int MAX_IN_MEMORY_LENGTH = 1 << 20;
+
+    /**
+     * The in-memory buffer is replaced by a new one on a new page if it grew beyond this capacity.
+     */
+    private static final int MAX_RETAINED_CAPACITY = 1 << 20;
+
+    /**
+     * Once there are this many style classes on a page, further styles are emitted inline.
+     */
+    private static final int MAX_STYLE_CLASSES = 4096;
+
+    private static final AtomicLong PAGE_IDS = new AtomicLong();
+
+    private StringBuilder data = new StringBuilder(1024);
     private String filename;
     private final double width;
     private final double height;
 
+    private boolean pageOpen;
+    private String pageId;
+    private Writer writer;
+    private TruffleFile pageFile;
+    private boolean pageFileFailed;
+    private IOException writeError;
+
+    private final HashMap<String, String> styleClasses = new HashMap<>();
+    private final StringBuilder styleText = new StringBuilder();
+
     private DrawingContext cachedCtx;
 
     public SVGDevice(String filename, double width, double height) {
@@ -59,27 +108,46 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     }
 
     public String closeAndGetContents() {
-        closeSVGDocument(data);
-        return data.toString();
+        String result = getContents();
+        discardPage();
+        return result;
     }
 
     public String getContents() {
-        StringBuilder result = new StringBuilder(data);
-        closeSVGDocument(result);
-        return result.toString();
+        if (!pageOpen) {
+            return "";
+        }
+        if (writer == null) {
+            return new StringBuilder(data.length() + 8).append(data).append(getClosingTags()).toString();
+        }
+        writeData();
+        try {
+            if (writeError != null) {
+                // the temporary file misses some of the markup
+                throw writeError;
+            }
+            writer.flush();
+            String written = new String(pageFile.readAllBytes(), StandardCharsets.UTF_8);
+            return written + getClosingTags();
+        } catch (IOException e) {
+            throw RError.error(RError.NO_CALLER, RError.Message.GENERIC, "Cannot get the SVG contents. Details: " + e.getMessage());
+        }
     }
 
     @Override
     public void openNewPage() {
         // We stay compatible with GnuR: opening new page wipes out what has been drawn without
         // saving it anywhere.
-        data.setLength(0);
-        cachedCtx = null;
+        discardPage();
+        if (!isDevNull()) {
+            openPageFile();
+        }
+        pageOpen = true;
+        pageId = "fastr-svg-" + PAGE_IDS.incrementAndGet();
         data.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
         data.append("<!DOCTYPE svg PUBLIC \"-//W3C//DTD SVG 1.1//EN\" \"http://www.w3.org/Graphics/SVG/1.1/DTD/svg11.dtd\">\n");
-        append("<svg xmlns='http://www.w3.org/2000/svg' xmlns:xlink='http://www.w3.org/1999/xlink' version='1.1' viewBox='0 0 %d %d' style='fill:transparent'>\n",
-                        trRound(width),
-                        trRound(height));
+        data.append("<svg id='").append(pageId).append("' xmlns='http://www.w3.org/2000/svg' xmlns:xlink='http://www.w3.org/1999/xlink' version='1.1' viewBox='0 0 ").append(trRound(width)).append(' ').append(
+                        trRound(height)).append("' style='fill:transparent'>\n");
     }
 
     @Override
@@ -97,13 +165,42 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     @Override
     public void drawRect(DrawingContext ctx, double leftX, double bottomY, double newWidth, double newHeight, double rotationAnticlockWise) {
         appendStyle(ctx);
+        String colorStyle = getColorStyle(ctx, false);
         data.append("<rect x='").append(trRound(leftX)).append("' y='").append(trRound(transY(bottomY + newHeight))).append("' width='").append(trRound(newWidth)).append("' height='").append(
                         trRound(newHeight)).append('\'');
         if (rotationAnticlockWise != 0) {
             appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX + newWidth / 2.), trRound(transY(bottomY + newHeight / 2.)));
         }
-        appendColorStyle(ctx);
+        data.append(colorStyle);
         data.append("/>\n"); // end of 'rect' tag
+        flushData();
+    }
+
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] newWidth, double[] newHeight, double rotationAnticlockWise, int startIndex, int length) {
+        openColorGroup(ctx, false);
+        int degrees = (int) round(toDegrees(rotationAnticlockWise));
+        for (int i = startIndex; i < startIndex + length; i++) {
+            data.append("<rect x='").append(trRound(leftX[i])).append("' y='").append(trRound(transY(bottomY[i] + newHeight[i]))).append("' width='").append(trRound(newWidth[i])).append(
+                            "' height='").append(trRound(newHeight[i])).append('\'');
+            if (rotationAnticlockWise != 0) {
+                appendTransform(degrees, trRound(leftX[i] + newWidth[i] / 2.), trRound(transY(bottomY[i] + newHeight[i] / 2.)));
+            }
+            data.append("/>\n");
+            flushData();
+        }
+        data.append("</g>\n");
+    }
+
+    @Override
+    public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int startIndex, int length) {
+        openColorGroup(ctx, true);
+        for (int i = startIndex; i < startIndex + length; i++) {
+            data.append("<polyline points='").append(trRound(x0[i])).append(',').append(trRound(transY(y0[i]))).append(' ').append(trRound(x1[i])).append(',').append(
+                            trRound(transY(y1[i]))).append("'/>\n");
+            flushData();
+        }
+        data.append("</g>\n");
     }
 
     @Override
@@ -119,9 +216,21 @@ public class SVGDevice implements GridDevice, FileGridDevice {
     @Override
     public void drawCircle(DrawingContext ctx, double centerX, double centerY, double radius) {
         appendStyle(ctx);
+        String colorStyle = getColorStyle(ctx, false);
         data.append("<circle cx='").append(trRound(centerX)).append("' cy='").append(trRound(transY(centerY))).append("' r='").append(trRound(radius)).append('\'');
-        appendColorStyle(ctx);
+        data.append(colorStyle);
         data.append("/>\n");
+        flushData();
+    }
+
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int startIndex, int length) {
+        openColorGroup(ctx, false);
+        for (int i = startIndex; i < startIndex + length; i++) {
+            data.append("<circle cx='").append(trRound(centerX[i])).append("' cy='").append(trRound(transY(centerY[i]))).append("' r='").append(trRound(radius[i])).append("'/>\n");
+            flushData();
+        }
+        data.append("</g>\n");
     }
 
     @Override
@@ -131,20 +240,23 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         data.append("<image x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY + h)));
         data.append("' width='").append(round(w * COORD_FACTOR)).append("' height='").append(trRound(h));
         data.append("' preserveAspectRatio='none' xlink:href='data:image/bmp;base64,").append(base64).append("'/>\n");
+        flushData();
     }
 
     @Override
     public void drawString(DrawingContext ctx, double leftX, double bottomY, double rotationAnticlockWise, String text) {
         closeStyle();
+        String fontStyle = getFontStyle(ctx);
         data.append("<text x='").append(round(leftX * COORD_FACTOR)).append("' y='").append(trRound(transY(bottomY)));
         data.append("' lengthAdjust='spacingAndGlyphs' textLength='").append(round(getStringWidth(ctx, text) * COORD_FACTOR)).append("px'");
-        appendFontStyle(ctx);
+        data.append(fontStyle);
         if (rotationAnticlockWise != 0) {
             appendTransform((int) round(toDegrees(rotationAnticlockWise)), trRound(leftX), trRound(transY(bottomY)));
         }
         data.append('>');
         xmlEncodeAppend(data, text);
         data.append("</text>\n");
+        flushData();
     }
 
     @Override
@@ -200,6 +312,7 @@ public class SVGDevice implements GridDevice, FileGridDevice {
 
     private void drawPoly(DrawingContext ctx, double[] x, double[] y, int startIndex, int length, boolean noFill) {
         appendStyle(ctx);
+        String colorStyle = getColorStyle(ctx, noFill);
         data.append("<polyline points='");
         for (int i = 0; i < length; i++) {
             data.append(trRound(x[i + startIndex]));
@@ -210,34 +323,110 @@ public class SVGDevice implements GridDevice, FileGridDevice {
             }
         }
         data.append('\'');
-        appendColorStyle(ctx, noFill);
+        data.append(colorStyle);
         data.append("/>\n");
+        flushData();
+    }
+
+    private boolean isDevNull() {
+        return "/dev/null".equals(filename) || FileGridDevice.isDevNull(RContext.getInstance().getSafeTruffleFile(filename));
+    }
+
+    /**
+     * Starts streaming the page into a temporary file. If the file cannot be created, the page is
+     * kept in memory.
+     */
+    private void openPageFile() {
+        RContext context = RContext.getInstance();
+        try {
+            TruffleFile file = context.getSafeTruffleFile(TempPathName.createNonExistingFilePath(context, "svg", TempPathName.tempDirPath(context), ".svg"));
+            writer = new OutputStreamWriter(file.newOutputStream(), StandardCharsets.UTF_8);
+            pageFile = file;
+        } catch (IOException e) {
+            writer = null;
+            pageFileFailed = true;
+        }
+    }
+
+    private void discardPage() {
+        if (writer != null) {
+            try {
+                writer.close();
+                pageFile.delete();
+            } catch (IOException e) {
+                // the temporary directory is removed when the context is disposed
+            }
+            writer = null;
+            pageFile = null;
+        }
+        pageFileFailed = false;
+        writeError = null;
+        pageOpen = false;
+        pageId = null;
+        cachedCtx = null;
+        styleClasses.clear();
+        if (data.capacity() > MAX_RETAINED_CAPACITY) {
+            data = new StringBuilder(1024);
+        } else {
+            data.setLength(0);
+        }
+    }
+
+    private void flushData() {
+        if (writer == null && !pageFileFailed && data.length() >= MAX_IN_MEMORY_LENGTH) {
+            openPageFile();
+        }
+        if (writer != null && data.length() >= FLUSH_THRESHOLD) {
+            writeData();
+        }
+    }
+
+    private void writeData() {
+        try {
+            writer.append(data);
+        } catch (IOException e) {
+            if (writeError == null) {
+                writeError = e;
+            }
+        }
+        data.setLength(0);
     }
 
     private void saveFile() throws DeviceCloseException {
-        closeSVGDocument(data);
         try {
             TruffleFile file = RContext.getInstance().getSafeTruffleFile(filename);
             if (FileGridDevice.isDevNull(file)) {
                 return;
             }
-            try (OutputStream stream = file.newOutputStream()) {
-                stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+            if (writer == null) {
+                data.append(getClosingTags());
+                try (OutputStream stream = file.newOutputStream()) {
+                    stream.write(data.toString().getBytes(StandardCharsets.UTF_8));
+                }
+            } else {
+                data.append(getClosingTags());
+                writeData();
+                writer.close();
+                writer = null;
+                if (writeError != null) {
+                    throw writeError;
+                }
+                pageFile.move(file, StandardCopyOption.REPLACE_EXISTING);
+                pageFile = null;
             }
         } catch (IOException e) {
             throw new DeviceCloseException(e);
+        } finally {
+            discardPage();
         }
     }
 
-    private void closeSVGDocument(StringBuilder sb) {
-        if (sb.length() == 0) {
-            return;
+    private String getClosingTags() {
+        if (!pageOpen) {
+            return "";
         }
-        if (cachedCtx != null) {
-            // see #appendStyle
-            sb.append("</g>");
-        }
-        sb.append("</svg>");
+        // see #appendStyle
+        return cachedCtx != null ? "</g></svg>" : "</svg>";
     }
 
     // closes opened <g> tag if necessary
@@ -253,67 +442,95 @@ public class SVGDevice implements GridDevice, FileGridDevice {
             if (cachedCtx != null) {
                 data.append("</g>"); // close the previous style definition
             }
-            data.append("<g");
-            appendStyleUncached(ctx);
-            data.append('>').append('\n');
+            styleText.setLength(0);
+            appendStyleUncached(styleText, ctx);
+            String style = getStyleAttribute('s');
+            data.append("<g").append(style).append('>').append('\n');
         }
         cachedCtx = ctx;
     }
 
-    private void appendStyleUncached(DrawingContext ctx) {
+    /**
+     * Opens a group whose style is shared by all the shapes drawn by one of the batch drawing
+     * methods, so that the color style is emitted once and not for every shape. The caller closes
+     * the group.
+     */
+    private void openColorGroup(DrawingContext ctx, boolean noFill) {
+        appendStyle(ctx);
+        String colorStyle = getColorStyle(ctx, noFill);
+        data.append("<g").append(colorStyle).append(">\n");
+    }
+
+    /**
+     * Returns the {@code class} attribute for the style in {@link #styleText}, the class is defined
+     * by a {@code style} element appended to {@link #data} when it is used for the first time,
+     * therefore this must not be called in the middle of a tag. The classes of different kinds of
+     * styles are distinguished by the prefix, the rules are scoped by the id of the page.
+     */
+    private String getStyleAttribute(char prefix) {
+        String style = styleText.toString();
+        String name = styleClasses.get(style);
+        if (name == null) {
+            if (styleClasses.size() >= MAX_STYLE_CLASSES) {
+                return " style='" + style + '\'';
+            }
+            name = prefix + Integer.toString(styleClasses.size());
+            styleClasses.put(style, name);
+            data.append("<style>#").append(pageId).append(" .").append(name).append('{').append(style).append("}</style>\n");
+        }
+        return " class='" + name + '\'';
+    }
+
+    private static void appendStyleUncached(StringBuilder sb, DrawingContext ctx) {
         byte[] lineType = ctx.getLineType();
-        data.append(" style='stroke-width:").append(ctx.getLineWidth());
+        sb.append("stroke-width:").append(ctx.getLineWidth());
         if (lineType != DrawingContext.GRID_LINE_SOLID && lineType != DrawingContext.GRID_LINE_BLANK) {
-            data.append(";stroke-dasharray:");
+            sb.append(";stroke-dasharray:");
             for (int i = 0; i < lineType.length; i++) {
-                data.append(lineType[i]);
+                sb.append(lineType[i]);
                 if (i != lineType.length - 1) {
-                    data.append(',');
+                    sb.append(',');
                 }
             }
         }
-        data.append(";stroke-linejoin:").append(getSVGLineJoin(ctx.getLineJoin()));
-        data.append(";stroke-linecap:").append(getSVGLineCap(ctx.getLineEnd()));
+        sb.append(";stroke-linejoin:").append(getSVGLineJoin(ctx.getLineJoin()));
+        sb.append(";stroke-linecap:").append(getSVGLineCap(ctx.getLineEnd()));
         if (ctx.getLineJoin() == GridLineJoin.MITRE) {
-            data.append(";stroke-miterlimit:").append(ctx.getLineMitre());
+            sb.append(";stroke-miterlimit:").append(ctx.getLineMitre());
         }
-        data.append('\'');
-    }
-
-    private void appendColorStyle(DrawingContext ctx) {
-        appendColorStyle(ctx, false);
     }
 
-    private void appendColorStyle(DrawingContext ctx, boolean noFill) {
+    private String getColorStyle(DrawingContext ctx, boolean noFill) {
+        styleText.setLength(0);
         byte[] lineType = ctx.getLineType();
         if (lineType == GRID_LINE_BLANK) {
-            data.append(" style='stroke:transparent");
+            styleText.append("stroke:transparent");
         } else {
-            data.append(" style='");
-            appendStyleColorAttrs("stroke", ctx.getColor());
+            appendStyleColorAttrs(styleText, "stroke", ctx.getColor());
         }
         if (!noFill && !ctx.getFillColor().equals(GridColor.TRANSPARENT)) {
-            data.append(';');
-            appendStyleColorAttrs("fill", ctx.getFillColor());
+            styleText.append(';');
+            appendStyleColorAttrs(styleText, "fill", ctx.getFillColor());
         }
-        data.append('\'');
+        return getStyleAttribute('c');
     }
 
-    private void appendFontStyle(DrawingContext ctx) {
+    private String getFontStyle(DrawingContext ctx) {
         // Note: SVG interprets the "fill" as the color of the text
-        data.append(" style='font-size:").append(ctx.getFontSize()).append("px;");
-        appendStyleColorAttrs("fill", ctx.getColor());
+        styleText.setLength(0);
+        styleText.append("font-size:").append(ctx.getFontSize()).append("px;");
+        appendStyleColorAttrs(styleText, "fill", ctx.getColor());
         if (!ctx.getFontFamily().isEmpty()) {
             // Font-family strings 'mono', 'sans', and 'serif' are OK for us
-            data.append(";font-family:").append(ctx.getFontFamily());
+            styleText.append(";font-family:").append(ctx.getFontFamily());
         }
         if (ctx.getFontStyle().isBold()) {
-            data.append(";font-weight:bold");
+            styleText.append(";font-weight:bold");
         }
         if (ctx.getFontStyle().isItalic()) {
-            data.append(";font-style:italic");
+            styleText.append(";font-style:italic");
         }
-        data.append('\'');
+        return getStyleAttribute('f');
     }
 
     private static String getSVGLineCap(GridLineEnd lineEnd) {
@@ -342,24 +559,37 @@ public class SVGDevice implements GridDevice, FileGridDevice {
         }
     }
 
-    private void appendStyleColorAttrs(String prefix, GridColor color) {
-        data.append(prefix).append(':');
+    private static void appendStyleColorAttrs(StringBuilder sb, String prefix, GridColor color) {
+        sb.append(prefix).append(':');
         if (color.getAlpha() == GridColor.OPAQUE_ALPHA) {
-            data.append('#');
-            data.append(GridColorUtils.getHexDigit(color.getRed() >> 4));
-            data.append(GridColorUtils.getHexDigit(color.getRed()));
-            data.append(GridColorUtils.getHexDigit(color.getGreen() >> 4));
-            data.append(GridColorUtils.getHexDigit(color.getGreen()));
-            data.append(GridColorUtils.getHexDigit(color.getBlue() >> 4));
-            data.append(GridColorUtils.getHexDigit(color.getBlue()));
+            sb.append('#');
+            sb.append(GridColorUtils.getHexDigit(color.getRed() >> 4));
+            sb.append(GridColorUtils.getHexDigit(color.getRed()));
+            sb.append(GridColorUtils.getHexDigit(color.getGreen() >> 4));
+            sb.append(GridColorUtils.getHexDigit(color.getGreen()));
+            sb.append(GridColorUtils.getHexDigit(color.getBlue() >> 4));
+            sb.append(GridColorUtils.getHexDigit(color.getBlue()));
         } else {
-            data.append("rgb(").append(color.getRed()).append(',').append(color.getGreen()).append(',').append(color.getBlue()).append(')').append(';');
-            data.append(prefix).append("-opacity:").append(DECIMAL_FORMAT.format(color.getAlpha() / 255d));
+            sb.append("rgb(").append(color.getRed()).append(',').append(color.getGreen()).append(',').append(color.getBlue()).append(')').append(';');
+            sb.append(prefix).append("-opacity:");
+            appendOpacity(sb, color.getAlpha());
         }
     }
 
-    private void append(String fmt, Object... args) {
-        data.append(Utils.stringFormat(fmt, args));
+    /**
+     * Appends {@code alpha / 255} with three decimal places.
+     */
+    private static void appendOpacity(StringBuilder sb, int alpha) {
+        int thousandths = (int) round(alpha * 1000 / 255d);
+        sb.append(thousandths / 1000).append('.');
+        int fraction = thousandths % 1000;
+        if (fraction < 100) {
+            sb.append('0');
+        }
+        if (fraction < 10) {
+            sb.append('0');
+        }
+        sb.append(fraction);
     }
 
     private void appendTransform(int a, int b, int c) {
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -35,7 +35,10 @@ import java.awt.Paint;
 import java.awt.Rectangle;
 import java.awt.RenderingHints;
 import java.awt.Toolkit;
+import java.awt.Shape;
 import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
 import java.awt.image.MemoryImageSource;
 
 import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
@@ -161,6 +164,57 @@ public class Graphics2DDevice implements GridDevice {
         }
     }
 
+    @Override
+    public void drawRects(DrawingContext ctx, double[] leftXIn, double[] bottomYIn, double[] widthIn, double[] heightIn, double rotationAnticlockWise, int startIndex, int length) {
+        if (rotationAnticlockWise != 0. || !isSinglePass(ctx)) {
+            GridDevice.super.drawRects(ctx, leftXIn, bottomYIn, widthIn, heightIn, rotationAnticlockWise, startIndex, length);
+            return;
+        }
+        Path2D.Double path = new Path2D.Double();
+        Rectangle rect = new Rectangle();
+        for (int i = startIndex; i < startIndex + length; i++) {
+            double leftXReal = transX(leftXIn[i]);
+            double topYReal = transY(bottomYIn[i] + heightIn[i]);
+            rect.setBounds(iround(leftXReal), iround(topYReal), transDim(widthIn[i], leftXReal), transDim(heightIn[i], topYReal));
+            path.append(rect, false);
+        }
+        drawSinglePass(ctx, path);
+    }
+
+    @Override
+    public void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int startIndex, int length) {
+        if (!isOpaque(ctx.getColor()) || ctx.getLineType() != DrawingContext.GRID_LINE_SOLID) {
+            GridDevice.super.drawSegments(ctx, x0, y0, x1, y1, startIndex, length);
+            return;
+        }
+        Path2D.Double path = new Path2D.Double();
+        for (int i = startIndex; i < startIndex + length; i++) {
+            path.moveTo(iround(transX(x0[i])), iround(transY(y0[i])));
+            path.lineTo(iround(transX(x1[i])), iround(transY(y1[i])));
+        }
+        setStroke(ctx);
+        setColor(ctx.getColor());
+        graphics.draw(path);
+    }
+
+    @Override
+    public void drawCircles(DrawingContext ctx, double[] centerXIn, double[] centerYIn, double[] radiusIn, int startIndex, int length) {
+        if (!isSinglePass(ctx)) {
+            GridDevice.super.drawCircles(ctx, centerXIn, centerYIn, radiusIn, startIndex, length);
+            return;
+        }
+        Path2D.Double path = new Path2D.Double();
+        Ellipse2D.Double circle = new Ellipse2D.Double();
+        for (int i = startIndex; i < startIndex + length; i++) {
+            double xRel = transX(centerXIn[i] - radiusIn[i]);
+            double yRel = transY(centerYIn[i] + radiusIn[i]);
+            int diameter = transDim(radiusIn[i] * 2d, Math.max(xRel % 1, yRel % 1));
+            circle.setFrame(iround(xRel), iround(yRel), diameter, diameter);
+            path.append(circle, false);
+        }
+        drawSinglePass(ctx, path);
+    }
+
     @Override
     public void drawRaster(double leftX, double bottomY, double w, double h, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
         graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, fromInterpolation(interpolation));
@@ -281,6 +335,34 @@ public class Graphics2DDevice implements GridDevice {
         }
     }
 
+    /**
+     * Many shapes can be drawn as one path if each of them is either only filled or only outlined
+     * and the color is opaque, otherwise the result would differ where the shapes overlap.
+     */
+    private static boolean isSinglePass(DrawingContext ctx) {
+        GridColor fillColor = ctx.getFillColor();
+        if (fillColor.equals(GridColor.TRANSPARENT)) {
+            return isOpaque(ctx.getColor());
+        }
+        return fillColor.equals(ctx.getColor()) && isOpaque(fillColor);
+    }
+
+    private static boolean isOpaque(GridColor color) {
+        return color.getAlpha() == GridColor.OPAQUE_ALPHA;
+    }
+
+    private void drawSinglePass(DrawingContext ctx, Shape shape) {
+        setStroke(ctx);
+        GridColor fillColor = ctx.getFillColor();
+        if (fillColor.equals(GridColor.TRANSPARENT)) {
+            setColor(ctx.getColor());
+            graphics.draw(shape);
+        } else {
+            setColor(fillColor);
+            graphics.fill(shape);
+        }
+    }
+
     private void setColor(GridColor color) {
         Color awtColor = fromGridColor(color);
         Paint paint = graphics.getPaint();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2017, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2017, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -153,6 +153,24 @@ public final class JFrameDevice implements GridDevice, ImageSaver {
         repaint();
     }
 
+    @Override
+    public synchronized void drawRects(DrawingContext ctx, double[] leftX, double[] bottomY, double[] width, double[] height, double rotationAnticlockWise, int startIndex, int length) {
+        inner.drawRects(ctx, leftX, bottomY, width, height, rotationAnticlockWise, startIndex, length);
+        repaint();
+    }
+
+    @Override
+    public synchronized void drawSegments(DrawingContext ctx, double[] x0, double[] y0, double[] x1, double[] y1, int startIndex, int length) {
+        inner.drawSegments(ctx, x0, y0, x1, y1, startIndex, length);
+        repaint();
+    }
+
+    @Override
+    public synchronized void drawCircles(DrawingContext ctx, double[] centerX, double[] centerY, double[] radius, int startIndex, int length) {
+        inner.drawCircles(ctx, centerX, centerY, radius, startIndex, length);
+        repaint();
+    }
+
     @Override
     public synchronized void drawRaster(double leftX, double bottomY, double width, double height, int[] pixels, int pixelsColumnsCount, ImageInterpolation interpolation) {
         inner.drawRaster(leftX, bottomY, width, height, pixels, pixelsColumnsCount, interpolation);
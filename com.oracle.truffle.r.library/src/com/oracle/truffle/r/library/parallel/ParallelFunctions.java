@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -22,10 +22,15 @@
  */
 package com.oracle.truffle.r.library.parallel;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.nodes.builtin.RExternalBuiltinNode;
+import com.oracle.truffle.r.runtime.RError.Message;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.rng.lecuyer.LecuyerCMRG;
 
 /**
  * The .Call support for the parallel package.
@@ -37,4 +42,45 @@ public class ParallelFunctions {
             return RRuntime.asLogical(RContext.getInstance().getParent() != null);
         }
     }
+
+    /**
+     * Advances a {@code .Random.seed} of the "L'Ecuyer-CMRG" generator to the start of the next
+     * stream ({@code nextRNGStream}).
+     */
+    public abstract static class NextStream extends RExternalBuiltinNode.Arg1 {
+        static {
+            Casts casts = new Casts(NextStream.class);
+            casts.arg(0).mustNotBeMissing().asIntegerVector();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RIntVector nextStream(RIntVector seed) {
+            return RDataFactory.createIntVector(LecuyerCMRG.nextStream(getSeeds(this, seed)), RDataFactory.COMPLETE_VECTOR);
+        }
+    }
+
+    /**
+     * Advances a {@code .Random.seed} of the "L'Ecuyer-CMRG" generator to the start of the next
+     * sub-stream ({@code nextRNGSubStream}).
+     */
+    public abstract static class NextSubStream extends RExternalBuiltinNode.Arg1 {
+        static {
+            Casts casts = new Casts(NextSubStream.class);
+            casts.arg(0).mustNotBeMissing().asIntegerVector();
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RIntVector nextSubStream(RIntVector seed) {
+            return RDataFactory.createIntVector(LecuyerCMRG.nextSubStream(getSeeds(this, seed)), RDataFactory.COMPLETE_VECTOR);
+        }
+    }
+
+    private static int[] getSeeds(RExternalBuiltinNode node, RIntVector seed) {
+        if (seed.getLength() < 7) {
+            throw node.error(Message.SEED_LENGTH);
+        }
+        return seed.getReadonlyData();
+    }
 }
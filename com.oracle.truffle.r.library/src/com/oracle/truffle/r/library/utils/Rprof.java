@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -27,10 +27,13 @@ import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElemen
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.stringValue;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.function.Function;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
@@ -40,6 +43,7 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.frame.Frame;
 import com.oracle.truffle.api.frame.FrameInstance.FrameAccess;
 import com.oracle.truffle.api.frame.VirtualFrame;
+import com.oracle.truffle.api.instrumentation.EventBinding;
 import com.oracle.truffle.api.instrumentation.EventContext;
 import com.oracle.truffle.api.instrumentation.ExecutionEventListener;
 import com.oracle.truffle.api.instrumentation.SourceSectionFilter;
@@ -63,6 +67,7 @@ import com.oracle.truffle.r.runtime.data.RBaseObject;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RObjectSize;
+import com.oracle.truffle.r.runtime.data.RStringVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
@@ -84,9 +89,17 @@ import java.nio.file.StandardOpenOption;
  * and then the {@code N} is used in line number references of the form {@code N#L},which precede
  * the function name.
  *
+ * The samples are written to the output file as they are taken, so the memory used by profiling
+ * does not grow with the length of the profiled run. If the R option {@code fastr.rprof.folded} is
+ * set to a file name when profiling starts, the stacks are also aggregated in the "folded" format
+ * (one line per distinct stack, functions from the outermost to the innermost separated by
+ * {@code ;}, followed by the number of samples), which is written to that file when profiling
+ * ends and can be used to produce flame graphs.
  */
 public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryCopyTracer.Listener {
 
+    private static final String FOLDED_OPTION = "fastr.rprof.folded";
+
     static {
         Casts casts = new Casts(Rprof.class);
         casts.arg(0, "filename").mustBe(stringValue()).asStringVector().mustBe(singleElement()).findFirst();
@@ -116,9 +129,20 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             if (profState != null && profState.out() != null) {
                 endProfiling();
             }
+            RContext context = ctxRef.get();
+            String foldedFilename = getFoldedFilename(context);
             try {
-                PrintStream out = new PrintStream(
-                                ctxRef.get().getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING));
+                PrintStream out = new PrintStream(new BufferedOutputStream(
+                                context.getSafeTruffleFile(filename).newOutputStream(append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)));
+                PrintStream foldedOut = null;
+                if (foldedFilename != null) {
+                    try {
+                        foldedOut = new PrintStream(new BufferedOutputStream(context.getSafeTruffleFile(foldedFilename).newOutputStream(StandardOpenOption.TRUNCATE_EXISTING)));
+                    } catch (IOException ex) {
+                        out.close();
+                        throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", foldedFilename));
+                    }
+                }
                 if (gcProfiling) {
                     warning(RError.Message.GENERIC, "Rprof: gc profiling not supported");
                 }
@@ -129,10 +153,11 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
                 }
                 // interval is in seconds, we convert to millis
                 long intervalInMillis = (long) (1E3 * intervalD);
+                profState.initialize(out, foldedOut, intervalInMillis, lineProfiling, memProfiling);
                 StatementListener statementListener = new StatementListener();
                 ProfileThread profileThread = new ProfileThread(intervalInMillis, statementListener);
                 profileThread.setDaemon(true);
-                profState.initialize(out, profileThread, statementListener, intervalInMillis, lineProfiling, memProfiling);
+                profState.start(profileThread, statementListener);
                 profileThread.start();
             } catch (IOException ex) {
                 throw error(RError.Message.GENERIC, String.format("Rprof: cannot open profile file '%s'", filename));
@@ -141,6 +166,18 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
         return RNull.instance;
     }
 
+    private static String getFoldedFilename(RContext context) {
+        Object value = context.stateROptions.getValue(FOLDED_OPTION);
+        if (value instanceof String) {
+            return ((String) value).isEmpty() ? null : (String) value;
+        }
+        if (value instanceof RStringVector && ((RStringVector) value).getLength() == 1) {
+            String result = ((RStringVector) value).getDataAt(0);
+            return RRuntime.isNA(result) || result.isEmpty() ? null : result;
+        }
+        return null;
+    }
+
     private static final RDataFactory.Listener LISTENER = new RDataFactory.Listener() {
         @Override
         @TruffleBoundary
@@ -206,18 +243,17 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
 
     /**
      * Emulates a sampling timer by checking when the sample interval rolls over and at that point
-     * collects the stack of functions.
+     * collects the stack of functions and writes it out.
      */
     private final class StatementListener implements ExecutionEventListener {
-        private final ArrayList<ArrayList<RSyntaxElement>> intervalStacks = new ArrayList<>();
-        private final ArrayList<RprofState.MemoryQuad> intervalMemory = new ArrayList<>();
+        private final EventBinding<StatementListener> binding;
         private volatile boolean newInterval;
 
         private StatementListener() {
             SourceSectionFilter.Builder builder = SourceSectionFilter.newBuilder();
             builder.tagIs(StandardTags.StatementTag.class);
             SourceSectionFilter filter = builder.build();
-            RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
+            binding = RInstrumentation.getInstrumenter().attachExecutionEventListener(filter, this);
         }
 
         private void intervalElapsed() {
@@ -238,11 +274,7 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             ArrayList<RSyntaxElement> stack = new ArrayList<>();
             stack.add((RSyntaxElement) context.getInstrumentedNode());
             collectStack(stack);
-            intervalStacks.add(stack);
-            RprofState profState = RprofState.get();
-            if (profState.memoryProfiling) {
-                intervalMemory.add(profState.memoryQuad.copyAndClear());
-            }
+            RprofState.get().writeSample(stack);
         }
 
         @TruffleBoundary
@@ -281,6 +313,9 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
         private boolean lineProfiling;
         private boolean memoryProfiling;
         private MemoryQuad memoryQuad;
+        private HashMap<String, Integer> fileMap;
+        private PrintStream foldedOut;
+        private LinkedHashMap<String, long[]> foldedStacks;
 
         public static final class MemoryQuad {
             public long smallV;
@@ -311,67 +346,97 @@ public abstract class Rprof extends RExternalBuiltinNode.Arg8 implements MemoryC
             return state;
         }
 
-        public void initialize(PrintStream outA, ProfileThread profileThreadA, StatementListener statementListenerA, long intervalInMillisA,
-                        boolean lineProfilingA, boolean memoryProfilingA) {
+        public void initialize(PrintStream outA, PrintStream foldedOutA, long intervalInMillisA, boolean lineProfilingA, boolean memoryProfilingA) {
             setOut(outA);
-            this.profileThread = profileThreadA;
-            this.statementListener = statementListenerA;
             this.intervalInMillis = intervalInMillisA;
             this.lineProfiling = lineProfilingA;
             this.memoryProfiling = memoryProfilingA;
             this.memoryQuad = memoryProfilingA ? new MemoryQuad() : null;
+            this.fileMap = lineProfilingA ? new HashMap<>() : null;
+            this.foldedOut = foldedOutA;
+            this.foldedStacks = foldedOutA != null ? new LinkedHashMap<>() : null;
+            if (memoryProfilingA) {
+                outA.print("memory profiling: ");
+            }
+            if (lineProfilingA) {
+                outA.print("line profiling: ");
+            }
+            outA.printf("sample.interval=%d\n", intervalInMillisA * 1000);
         }
 
-        @Override
-        public void cleanup(int status) {
-            profileThread.running = false;
-            HashMap<String, Integer> fileMap = null;
-            PrintStream out = this.out();
-            if (this.memoryProfiling) {
-                out.print("memory profiling: ");
+        public void start(ProfileThread profileThreadA, StatementListener statementListenerA) {
+            this.profileThread = profileThreadA;
+            this.statementListener = statementListenerA;
+        }
+
+        private void writeSample(ArrayList<RSyntaxElement> stack) {
+            PrintStream out = out();
+            if (out == null) {
+                return;
             }
-            if (this.lineProfiling) {
-                out.print("line profiling: ");
+            ArrayList<String> names = new ArrayList<>(stack.size());
+            ArrayList<RSyntaxElement> nodes = new ArrayList<>(stack.size());
+            for (RSyntaxElement node : stack) {
+                RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
+                if (rootNode instanceof FunctionDefinitionNode) {
+                    names.add(rootNode.getName());
+                    nodes.add(node);
+                }
             }
-            out.printf("sample.interval=%d\n", this.intervalInMillis * 1000);
-            if (this.lineProfiling) {
-                // scan stacks to find files
-                fileMap = new HashMap<>();
-                int fileIndex = 0;
-                for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                    for (RSyntaxElement node : intervalStack) {
-                        String path = getPath(node);
-                        if (path != null && fileMap.get(path) == null) {
-                            fileMap.put(path, ++fileIndex);
-                            out.printf("#File %d: %s\n", fileIndex, path);
-                        }
+            if (lineProfiling) {
+                // new files have to be listed before the sample that refers to them
+                for (RSyntaxElement node : nodes) {
+                    String path = getPath(node);
+                    if (path != null && fileMap.get(path) == null) {
+                        int fileIndex = fileMap.size() + 1;
+                        fileMap.put(path, fileIndex);
+                        out.printf("#File %d: %s\n", fileIndex, path);
                     }
                 }
             }
-            int index = 0;
-            for (ArrayList<RSyntaxElement> intervalStack : statementListener.intervalStacks) {
-                if (this.memoryProfiling) {
-                    RprofState.MemoryQuad mq = statementListener.intervalMemory.get(index);
-                    out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
+            if (memoryProfiling) {
+                MemoryQuad mq = memoryQuad.copyAndClear();
+                out.printf(":%d:%d:%d:%d:", mq.largeV, mq.smallV, mq.nodes, mq.copied);
+            }
+            for (int i = 0; i < names.size(); i++) {
+                if (lineProfiling) {
+                    RSyntaxElement node = nodes.get(i);
+                    Integer fileIndex = fileMap.get(getPath(node));
+                    if (fileIndex != null) {
+                        out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
+                    }
                 }
-                for (RSyntaxElement node : intervalStack) {
-                    RootNode rootNode = ((RSyntaxNode) node).asRNode().getRootNode();
-                    if (rootNode instanceof FunctionDefinitionNode) {
-                        String name = rootNode.getName();
-                        if (this.lineProfiling) {
-                            Integer fileIndex = fileMap.get(getPath(node));
-                            if (fileIndex != null) {
-                                out.printf("%d#%d ", fileIndex, node.getSourceSection().getStartLine());
-                            }
-                        }
-                        out.printf("\"%s\" ", name);
+                out.printf("\"%s\" ", names.get(i));
+            }
+            out.println();
+            if (foldedStacks != null && !names.isEmpty()) {
+                StringBuilder folded = new StringBuilder();
+                for (int i = names.size() - 1; i >= 0; i--) {
+                    folded.append(names.get(i));
+                    if (i > 0) {
+                        folded.append(';');
                     }
                 }
-                out.println();
-                index++;
+                foldedStacks.computeIfAbsent(folded.toString(), k -> new long[1])[0]++;
             }
+        }
+
+        @Override
+        public void cleanup(int status) {
+            profileThread.running = false;
+            statementListener.binding.dispose();
+            PrintStream out = this.out();
             out.close();
             this.setOut(null);
+            if (foldedOut != null) {
+                for (Map.Entry<String, long[]> entry : foldedStacks.entrySet()) {
+                    foldedOut.printf("%s %d\n", entry.getKey(), entry.getValue()[0]);
+                }
+                foldedOut.close();
+                foldedOut = null;
+                foldedStacks = null;
+            }
+            fileMap = null;
             if (this.memoryProfiling) {
                 RDataFactory.removeListener(LISTENER);
                 MemoryCopyTracer.setTracingState(false);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -23,32 +23,6 @@
 
 #include <rffiutils.h>
 
-double call_misc_exactSumFunc(double* contents, int length, int hasNa, int naRm) {
-
-	long double sum = 0;
-	int i = 0;
-	if (!hasNa) {
-		for (; i < length - 3; i+= 4) {
-			sum += contents[i];
-			sum += contents[i + 1];
-			sum += contents[i + 2];
-			sum += contents[i + 3];
-		}
-	}
-	for (; i < length; i++) {
-		double value = contents[i];
-		if (R_IsNA(value)) {
-			if (!naRm) {
-				return R_NaReal;
-			}
-		} else {
-			sum += value;
-		}
-	}
-
-	return sum;
-}
-
 extern void dqrls_(double *x, int *n, int *p, double *y, int *ny, double *tol, double *b, double *rsd, double *qty, int *k, int *jpvt, double *qraux, double *work);
 
 void call_misc_dqrls(double *x, int n, int p, double *y, int ny, double tol, double *b, double *rsd, double *qty, int *k, int *jpvt, double *qraux, double *work) {
@@ -106,6 +106,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRContextFactory;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebug;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDebugNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRDispatchNativeHandlers;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFFIProfile;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRFFIProfileNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRGetExecutor;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRAddHelpPath;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRHelp.FastRHelpPath;
@@ -131,6 +133,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRInteropFactory.FastRInterop
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRJavaGDResize;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPaths;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRLibPathsNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMemStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRMemStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastROptionBuiltin;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackage;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPatchPackageNodeGen;
@@ -140,6 +144,8 @@ import com.oracle.truffle.r.nodes.builtin.fastr.FastRPrintError;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRPrintErrorNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfo;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRefCountInfoNodeGen;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegexCacheStats;
+import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegexCacheStatsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctions;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRRegisterFunctionsNodeGen;
 import com.oracle.truffle.r.nodes.builtin.fastr.FastRSetConsoleHandler;
@@ -481,6 +487,10 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRContext.Spawn.class, FastRContextFactory.SpawnNodeGen::create);
         add(FastRContext.Interrupt.class, FastRContextFactory.InterruptNodeGen::create);
         add(FastRContext.Join.class, FastRContextFactory.JoinNodeGen::create);
+        add(FastRContext.Pool.class, FastRContextFactory.PoolNodeGen::create);
+        add(FastRContext.TaskQueueCreate.class, FastRContextFactory.TaskQueueCreateNodeGen::create);
+        add(FastRContext.TaskQueueNext.class, FastRContextFactory.TaskQueueNextNodeGen::create);
+        add(FastRContext.TaskQueueClose.class, FastRContextFactory.TaskQueueCloseNodeGen::create);
         add(FastRRegisterFunctions.class, FastRRegisterFunctionsNodeGen::create);
         add(FastrDqrls.class, FastrDqrlsNodeGen::create);
         add(FastRDebug.class, FastRDebugNodeGen::create);
@@ -519,6 +529,9 @@ public class BasePackage extends RBuiltinPackage {
         add(FastRInterop.ToLong.class, FastRInteropFactory.ToLongNodeGen::create);
         add(FastRInterop.ToShort.class, FastRInteropFactory.ToShortNodeGen::create);
         add(FastRRefCountInfo.class, FastRRefCountInfoNodeGen::create);
+        add(FastRRegexCacheStats.class, FastRRegexCacheStatsNodeGen::create);
+        add(FastRFFIProfile.class, FastRFFIProfileNodeGen::create);
+        add(FastRMemStats.class, FastRMemStatsNodeGen::create);
         add(FastRPkgSource.class, FastRPkgSourceNodeGen::create);
         add(FastRPrintError.class, FastRPrintErrorNodeGen::create);
         add(FastRSourceInfo.class, FastRSourceInfoNodeGen::create);
@@ -578,6 +591,7 @@ public class BasePackage extends RBuiltinPackage {
         add(FrameFunctions.SysParent.class, FrameFunctionsFactory.SysParentNodeGen::create);
         add(FrameFunctions.SysParents.class, FrameFunctionsFactory.SysParentsNodeGen::create);
         add(GcFunctions.Gc.class, GcFunctionsFactory.GcNodeGen::create);
+        add(GcFunctions.GcInfo.class, GcFunctionsFactory.GcInfoNodeGen::create);
         add(GcFunctions.Gctorture.class, GcFunctionsFactory.GctortureNodeGen::create);
         add(GcFunctions.Gctorture2.class, GcFunctionsFactory.Gctorture2NodeGen::create);
         add(GetClass.class, GetClassNodeGen::create);
@@ -25,6 +25,7 @@ package com.oracle.truffle.r.nodes.builtin.base;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.ConditionProfile;
@@ -37,8 +38,10 @@ import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.ExactSum;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
+@ImportStatic(ExactSum.class)
 @RBuiltin(name = "colSums", kind = INTERNAL, parameterNames = {"X", "m", "n", "na.rm"}, behavior = PURE)
 public abstract class ColSums extends ColSumsBase {
 
@@ -50,6 +53,18 @@ public abstract class ColSums extends ColSumsBase {
         createCasts(ColSums.class);
     }
 
+    @Specialization(guards = "isFullPrecision()", limit = "getTypedVectorDataLibraryCacheSize()")
+    protected RDoubleVector colSumsExact(RDoubleVector x, int rowNum, int colNum, boolean rnaParam,
+                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
+        checkVectorLength(xDataLib, x, rowNum, colNum);
+        double[] result = ExactSum.sumColumns(xDataLib.getReadonlyDoubleData(x.getData()), rowNum, colNum, removeNA.profile(rnaParam));
+        boolean isComplete = true;
+        for (int c = 0; c < colNum; c++) {
+            isComplete &= !RRuntime.isNA(result[c]);
+        }
+        return RDataFactory.createDoubleVector(result, isComplete);
+    }
+
     @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RDoubleVector colSums(RDoubleVector x, int rowNum, int colNum, boolean rnaParam,
                     @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
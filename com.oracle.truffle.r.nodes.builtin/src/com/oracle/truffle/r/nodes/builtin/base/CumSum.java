@@ -37,6 +37,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 import java.util.Arrays;
 
 import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
 import com.oracle.truffle.api.profiles.BranchProfile;
@@ -57,8 +58,10 @@ import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.WarningInfo;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.ExactSum;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
+@ImportStatic(ExactSum.class)
 @RBuiltin(name = "cumsum", kind = PRIMITIVE, parameterNames = {"x"}, dispatch = MATH_GROUP_GENERIC, behavior = PURE)
 public abstract class CumSum extends RBuiltinNode.Arg1 {
 
@@ -133,6 +136,31 @@ public abstract class CumSum extends RBuiltinNode.Arg1 {
         return RDataFactory.createIntVector(array, naCheck.neverSeenNA() && !add.introducesNA(), extractNamesNode.execute(x));
     }
 
+    @Specialization(guards = "isFullPrecision()", limit = "getVectorAccessCacheSize()")
+    protected RDoubleVector cumsumDoubleExact(RDoubleVector x,
+                    @Cached NACheck naCheck,
+                    @CachedLibrary("x.getData()") VectorDataLibrary xDataLib) {
+        Object xData = x.getData();
+        naCheck.enable(xDataLib, xData);
+        SeqIterator iter = xDataLib.iterator(xData);
+        double[] array = new double[iter.getLength()];
+        ExactSum sum = new ExactSum();
+        while (xDataLib.nextLoopCondition(xData, iter)) {
+            double value = xDataLib.getNextDouble(xData, iter);
+            if (naCheck.check(value)) {
+                Arrays.fill(array, iter.getIndex(), array.length, RRuntime.DOUBLE_NA);
+                break;
+            }
+            if (naCheck.checkNAorNaN(value)) {
+                Arrays.fill(array, iter.getIndex(), array.length, Double.NaN);
+                break;
+            }
+            sum.add(value);
+            array[iter.getIndex()] = sum.get();
+        }
+        return RDataFactory.createDoubleVector(array, naCheck.neverSeenNA(), extractNamesNode.execute(x));
+    }
+
     @Specialization(limit = "getVectorAccessCacheSize()")
     protected RDoubleVector cumsumDouble(RDoubleVector x,
                     @Cached NACheck naCheck,
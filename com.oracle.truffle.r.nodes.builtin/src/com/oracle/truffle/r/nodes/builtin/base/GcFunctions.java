@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -28,17 +28,18 @@ import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
-import java.util.Arrays;
+import java.io.IOException;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
-import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Specialization;
-import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.conn.StdConnections;
 import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.GCTortureState;
+import com.oracle.truffle.r.runtime.context.MemoryStatistics;
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
@@ -59,28 +60,86 @@ public final class GcFunctions {
             casts.arg("full").asLogicalVector().findFirst().map(toBoolean());
         }
 
-        @SuppressWarnings("unused")
+        /**
+         * Returns the values of GNU R's {@code gc} matrix (column-major, the rows are
+         * {@code Ncells} and {@code Vcells}). The {@code Vcells} row describes the Java heap in
+         * 8-byte units: used, committed ({@code gc trigger}), maximum ({@code limit}) and peak
+         * ({@code max used}) size. The {@code Ncells} row holds the estimated number and size of
+         * the live R vectors if the {@code VectorCensusSampling} option is set. The Java heap is
+         * only collected for {@code full = TRUE} and if explicit GC is enabled.
+         */
         @Specialization
-        protected RDoubleVector gc(boolean verbose, boolean reset, boolean full,
-                        @Cached BranchProfile doRunGCProfile) {
-            /*
-             * It is rarely advisable to actually force a gc in Java, therefore we simply ignore
-             * this builtin unless explicitly specified.
-             */
+        @TruffleBoundary
+        protected RDoubleVector gc(boolean verbose, boolean reset, boolean full) {
             RContext ctx = RContext.getInstance();
-            if (ctx.getOption(FastROptions.EnableExplicitGC)) {
-                doRunGCProfile.enter();
-                doRunGC();
+            if (full && ctx.getOption(FastROptions.EnableExplicitGC)) {
+                System.gc();
+            }
+            MemoryStatistics stats = MemoryStatistics.collect();
+            if (reset) {
+                MemoryStatistics.resetPeak();
+            }
+            if (verbose || ctx.gcInfo) {
+                printReport(stats);
             }
-            // produce at-least similarly shaped data:
             double[] data = new double[14];
-            Arrays.fill(data, RRuntime.DOUBLE_NA);
+            long vectorCount = stats.getVectorCount();
+            data[0] = vectorCount < 0 ? RRuntime.DOUBLE_NA : vectorCount;
+            data[1] = stats.heapUsed / 8;
+            data[2] = vectorCount < 0 ? RRuntime.DOUBLE_NA : megabytes(stats.getVectorBytes());
+            data[3] = megabytes(stats.heapUsed);
+            data[4] = RRuntime.DOUBLE_NA;
+            data[5] = stats.heapCommitted / 8;
+            data[6] = RRuntime.DOUBLE_NA;
+            data[7] = megabytes(stats.heapCommitted);
+            data[8] = RRuntime.DOUBLE_NA;
+            data[9] = stats.heapMax < 0 ? RRuntime.DOUBLE_NA : megabytes(stats.heapMax);
+            data[10] = RRuntime.DOUBLE_NA;
+            data[11] = stats.heapPeak / 8;
+            data[12] = RRuntime.DOUBLE_NA;
+            data[13] = megabytes(stats.heapPeak);
             return RDataFactory.createDoubleVector(data, RDataFactory.INCOMPLETE_VECTOR);
         }
 
+        private static double megabytes(long bytes) {
+            // rounded up to 0.1 like in GNU R
+            return 0.1 * Math.ceil(10.0 * bytes / (1024 * 1024));
+        }
+
+        private static void printReport(MemoryStatistics stats) {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Garbage collection %d (%d ms)\n", stats.getCollectionCount(), stats.getCollectionTime()));
+            if (stats.heapMax > 0) {
+                sb.append(String.format("%.1f Mbytes of heap used (%d%%)\n", stats.heapUsed / 1048576.0, stats.heapUsed * 100 / stats.heapMax));
+            } else {
+                sb.append(String.format("%.1f Mbytes of heap used\n", stats.heapUsed / 1048576.0));
+            }
+            sb.append(String.format("%.1f Mbytes of native memory held by R objects", stats.nativeWrapped / 1048576.0));
+            try {
+                StdConnections.getStderr().writeString(sb.toString(), true);
+            } catch (IOException ex) {
+                throw RError.error(RError.SHOW_CALLER, RError.Message.GENERIC, ex.getMessage());
+            }
+        }
+    }
+
+    @RBuiltin(name = "gcinfo", kind = INTERNAL, parameterNames = {"verbose"}, behavior = COMPLEX)
+    public abstract static class GcInfo extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(GcInfo.class);
+            casts.arg("verbose").asLogicalVector().findFirst(RRuntime.LOGICAL_NA);
+        }
+
+        @Specialization
         @TruffleBoundary
-        private static void doRunGC() {
-            System.gc();
+        protected byte gcinfo(byte verbose) {
+            RContext ctx = RContext.getInstance();
+            boolean previous = ctx.gcInfo;
+            if (!RRuntime.isNA(verbose)) {
+                ctx.gcInfo = RRuntime.fromLogical(verbose);
+            }
+            return RRuntime.asLogical(previous);
         }
     }
 
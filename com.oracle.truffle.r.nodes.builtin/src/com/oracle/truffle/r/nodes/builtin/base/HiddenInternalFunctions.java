@@ -53,6 +53,7 @@ import com.oracle.truffle.r.nodes.function.call.CallRFunctionCachedNode;
 import com.oracle.truffle.r.nodes.function.call.CallRFunctionCachedNodeGen;
 import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
 import com.oracle.truffle.r.runtime.ArgumentsSignature;
+import com.oracle.truffle.r.runtime.LazyDBCache;
 import com.oracle.truffle.r.runtime.RCaller;
 import com.oracle.truffle.r.runtime.RCompression;
 import com.oracle.truffle.r.runtime.RError;
@@ -73,7 +74,9 @@ import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RPairList;
 import com.oracle.truffle.r.runtime.data.RPromise;
 import com.oracle.truffle.r.runtime.data.RPromise.PromiseState;
+import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
 import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
 import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.env.REnvironment.PutException;
 import com.oracle.truffle.r.runtime.ffi.DLL;
@@ -243,14 +246,18 @@ public class HiddenInternalFunctions {
                         CallRFunctionCachedNode callCache) {
             String dbPath = datafile.getDataAt(0);
             String packageName = context.getSafeTruffleFile(dbPath).getName();
-            byte[] dbData = RContext.getInstance().stateLazyDBCache.getData(context, dbPath);
+            LazyDBCache.ContextStateImpl dbCache = context.stateLazyDBCache;
+            int offset = key.getDataAt(0);
+            Object cached = dbCache.getValue(dbPath, offset);
+            if (cached != null) {
+                return cached;
+            }
+            ByteBuffer dbData = dbCache.getData(context, dbPath).duplicate();
             int dotIndex;
             if ((dotIndex = packageName.lastIndexOf('.')) > 0) {
                 packageName = packageName.substring(0, dotIndex);
             }
-            int offset = key.getDataAt(0);
             int length = key.getDataAt(1);
-            int outlen = getOutlen(dbData, offset); // length of uncompressed data
             byte[] udata = null;
             boolean rc = true;
             /*
@@ -259,26 +266,27 @@ public class HiddenInternalFunctions {
              * " and the data starts at "offset + 5". The type field is 'Z' for lzma, '2' for bzip,
              * '1' for zip and '0' for no compression. From GnuR code, the only difference between
              * compression=2 and compression=3 is that type='Z' is only possible for the latter.
+             * The data are read directly from the (memory-mapped) database.
              */
             if (compression == 0) {
                 udata = new byte[length];
-                System.arraycopy(dbData, offset, udata, 0, length);
+                dbData.position(offset);
+                dbData.get(udata);
             } else {
+                int outlen = dbData.getInt(offset); // length of uncompressed data
                 udata = new byte[outlen];
                 if (compression == 2 || compression == 3) {
-                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData[4]);
+                    RCompression.Type type = RCompression.Type.fromTypeChar(dbData.get(offset + 4));
                     if (type == null) {
                         warning(RError.Message.GENERIC, "unknown compression type");
                         return RNull.instance;
                     }
-                    byte[] data = new byte[length - 5];
-                    System.arraycopy(dbData, offset + 5, data, 0, data.length);
-                    rc = RCompression.uncompress(type, udata, data);
+                    dbData.limit(offset + length).position(offset + 5);
+                    rc = RCompression.uncompress(type, udata, dbData);
                 } else {
                     // GnuR treats any other value as 1
-                    byte[] data = new byte[length - 4];
-                    System.arraycopy(dbData, offset + 4, data, 0, data.length);
-                    rc = RCompression.uncompress(RCompression.Type.GZIP, udata, data);
+                    dbData.limit(offset + length).position(offset + 4);
+                    rc = RCompression.uncompress(RCompression.Type.GZIP, udata, dbData);
                 }
             }
             if (!rc) {
@@ -303,6 +311,11 @@ public class HiddenInternalFunctions {
                 };
                 String functionName = ReadVariableNode.getSlowPathEvaluationName();
                 Object result = RSerialize.unserialize(udata, callHook, packageName, functionName);
+                if (dbCache.isValueCacheEnabled() && result instanceof RAbstractAtomicVector && result instanceof RSharingAttributeStorage) {
+                    // the cached vector is shared by all the variables it is fetched into
+                    ((RSharingAttributeStorage) result).makeSharedPermanent();
+                    dbCache.putValue(dbPath, offset, result);
+                }
                 return result;
             } catch (IOException ex) {
                 // unexpected
@@ -310,13 +323,6 @@ public class HiddenInternalFunctions {
             }
         }
 
-        private static int getOutlen(byte[] dbData, int offset) {
-            ByteBuffer dataLengthBuf = ByteBuffer.allocate(4);
-            dataLengthBuf.put(dbData, offset, 4);
-            dataLengthBuf.position(0);
-            return dataLengthBuf.getInt();
-        }
-
         private static final class EvaluateAndSharePromiseNode extends Node {
             @Child private PromiseHelperNode promiseHelperNode;
             @Child private ShareObjectNode shareObjectNode;
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Merge sort of an array of indexes by the keys they refer to, used by {@link Order}. Elements with
+ * equal keys are ordered by the index itself, which, given that the indexes are initially in
+ * increasing order, is the same as a stable sort. The sort is adaptive: runs that are already in
+ * order are not merged again, so sorted input takes linear time. Ranges longer than
+ * {@link #PARALLEL_THRESHOLD} are sorted by a fork-join parallel merge sort on the common pool.
+ *
+ * There are two variants: one for keys that can be represented as {@code long} values with the
+ * same ordering (integers, doubles), which avoids any virtual call in the comparisons, and one
+ * taking an {@link IndexComparator} for everything else (strings, complex numbers).
+ */
+final class IndexSort {
+
+    /**
+     * Ranges up to this length are sorted by an insertion sort.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    /**
+     * Ranges longer than this are sorted in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    interface IndexComparator {
+        /**
+         * Compares the values at (original) positions {@code a} and {@code b}.
+         */
+        int compare(int a, int b);
+    }
+
+    private IndexSort() {
+        // only static methods
+    }
+
+    /**
+     * Returns a {@code long} whose signed ordering is the ordering of the given doubles, with
+     * {@code -0.0} equal to {@code 0.0}.
+     */
+    static long doubleKey(double value) {
+        long bits = Double.doubleToRawLongBits(value == 0.0 ? 0.0 : value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Sorts {@code indx[from, to)} so that {@code keys[indx[i]]} is non-decreasing.
+     */
+    static void sort(int[] indx, int from, int to, long[] keys) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buf = new int[indx.length];
+        if (to - from > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new LongKeySortTask(indx, buf, from, to, keys));
+        } else {
+            mergeSort(indx, buf, from, to, keys);
+        }
+    }
+
+    /**
+     * Sorts {@code indx[from, to)} so that the values referenced by the indexes are non-decreasing
+     * according to {@code cmp}.
+     */
+    static void sort(int[] indx, int from, int to, IndexComparator cmp) {
+        if (to - from < 2) {
+            return;
+        }
+        int[] buf = new int[indx.length];
+        if (to - from > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new ComparatorSortTask(indx, buf, from, to, cmp));
+        } else {
+            mergeSort(indx, buf, from, to, cmp);
+        }
+    }
+
+    private static boolean less(int a, int b, long[] keys) {
+        long ka = keys[a];
+        long kb = keys[b];
+        return ka < kb || (ka == kb && a < b);
+    }
+
+    private static boolean less(int a, int b, IndexComparator cmp) {
+        int c = cmp.compare(a, b);
+        return c < 0 || (c == 0 && a < b);
+    }
+
+    private static void mergeSort(int[] a, int[] buf, int from, int to, long[] keys) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int x = a[i];
+                int j = i - 1;
+                while (j >= from && less(x, a[j], keys)) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, buf, from, mid, keys);
+        mergeSort(a, buf, mid, to, keys);
+        merge(a, buf, from, mid, to, keys);
+    }
+
+    private static void merge(int[] a, int[] buf, int from, int mid, int to, long[] keys) {
+        if (!less(a[mid], a[mid - 1], keys)) {
+            // already in order
+            return;
+        }
+        System.arraycopy(a, from, buf, from, mid - from);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            if (less(a[j], buf[i], keys)) {
+                a[k++] = a[j++];
+            } else {
+                a[k++] = buf[i++];
+            }
+        }
+        while (i < mid) {
+            a[k++] = buf[i++];
+        }
+    }
+
+    private static void mergeSort(int[] a, int[] buf, int from, int to, IndexComparator cmp) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            for (int i = from + 1; i < to; i++) {
+                int x = a[i];
+                int j = i - 1;
+                while (j >= from && less(x, a[j], cmp)) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(a, buf, from, mid, cmp);
+        mergeSort(a, buf, mid, to, cmp);
+        merge(a, buf, from, mid, to, cmp);
+    }
+
+    private static void merge(int[] a, int[] buf, int from, int mid, int to, IndexComparator cmp) {
+        if (!less(a[mid], a[mid - 1], cmp)) {
+            // already in order
+            return;
+        }
+        System.arraycopy(a, from, buf, from, mid - from);
+        int i = from;
+        int j = mid;
+        int k = from;
+        while (i < mid && j < to) {
+            if (less(a[j], buf[i], cmp)) {
+                a[k++] = a[j++];
+            } else {
+                a[k++] = buf[i++];
+            }
+        }
+        while (i < mid) {
+            a[k++] = buf[i++];
+        }
+    }
+
+    private static final class LongKeySortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] buf;
+        private final int from;
+        private final int to;
+        private final long[] keys;
+
+        LongKeySortTask(int[] a, int[] buf, int from, int to, long[] keys) {
+            this.a = a;
+            this.buf = buf;
+            this.from = from;
+            this.to = to;
+            this.keys = keys;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                mergeSort(a, buf, from, to, keys);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LongKeySortTask(a, buf, from, mid, keys), new LongKeySortTask(a, buf, mid, to, keys));
+                merge(a, buf, from, mid, to, keys);
+            }
+        }
+    }
+
+    private static final class ComparatorSortTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] a;
+        private final int[] buf;
+        private final int from;
+        private final int to;
+        private final transient IndexComparator cmp;
+
+        ComparatorSortTask(int[] a, int[] buf, int from, int to, IndexComparator cmp) {
+            this.a = a;
+            this.buf = buf;
+            this.from = from;
+            this.to = to;
+            this.cmp = cmp;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                mergeSort(a, buf, from, to, cmp);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ComparatorSortTask(a, buf, from, mid, cmp), new ComparatorSortTask(a, buf, mid, to, cmp));
+                merge(a, buf, from, mid, to, cmp);
+            }
+        }
+    }
+}
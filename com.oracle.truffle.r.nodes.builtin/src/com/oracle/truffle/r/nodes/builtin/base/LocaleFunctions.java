@@ -120,6 +120,10 @@ public class LocaleFunctions {
             } else {
                 context.stateRLocale.setLocale(MAPPING[category - MAPPING_START], value);
             }
+            if (category == LC_ALL || MAPPING[category - MAPPING_START] == RLocale.CTYPE) {
+                // the cached PCRE character tables were made for the previous locale
+                context.regexCache.invalidatePCRE();
+            }
             return GetLocale.getLocale(category);
         }
     }
@@ -47,6 +47,8 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
@@ -54,6 +56,10 @@ import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractAtomicVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ffi.BlasRFFI;
+import com.oracle.truffle.r.runtime.ffi.BlasRFFI.DgemmNode;
+import com.oracle.truffle.r.runtime.ffi.BlasRFFI.DgemvNode;
+import com.oracle.truffle.r.runtime.ffi.BlasRFFI.DsyrkNode;
 import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
@@ -631,6 +637,11 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
         private final ConditionProfile bigProfile = ConditionProfile.createBinaryProfile();
         private final BranchProfile incompleteProfile = BranchProfile.create();
         @CompilationFinal private boolean seenLargeMatrix;
+        private final ConditionProfile blasProfile = ConditionProfile.createBinaryProfile();
+
+        @Child private DgemmNode dgemmNode;
+        @Child private DgemvNode dgemvNode;
+        @Child private DsyrkNode dsyrkNode;
 
         private final LoopConditionProfile mainLoopProfile = LoopConditionProfile.createCountingProfile();
         private final LoopConditionProfile remainingLoopProfile = LoopConditionProfile.createCountingProfile();
@@ -798,7 +809,9 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
                 CompilerDirectives.transferToInterpreterAndInvalidate();
                 seenLargeMatrix = true;
             }
-            if (seenLargeMatrix) {
+            if (seenLargeMatrix && blasProfile.profile(useBlas(dataA, dataB, aRows, aCols, bCols, aRowStride, aColStride, bRowStride, bColStride))) {
+                blasMultiply(dataA, dataB, aRows, aCols, bRows, bCols, aRowStride, bRowStride, mirrored, result);
+            } else if (seenLargeMatrix) {
                 for (int row = 0; row < aRows; row += BLOCK_SIZE) {
                     for (int col = mirrored ? row : 0; col < bCols; col += BLOCK_SIZE) {
                         for (int k = 0; k < aCols; k += BLOCK_SIZE) {
@@ -861,6 +874,74 @@ public abstract class MatMult extends RBuiltinNode.Arg2 {
             return resultVec;
         }
 
+        /**
+         * Large products are delegated to the native BLAS, unless it is not available or disabled
+         * or the input contains non-finite values: like GNU R, we rely on the simple Java loop to
+         * propagate NA, NaN and Inf in the way R users expect.
+         */
+        private boolean useBlas(double[] dataA, double[] dataB, int aRows, int aCols, int bCols, int aRowStride, int aColStride, int bRowStride, int bColStride) {
+            int threshold = RContext.getInstance().getOption(FastROptions.BlasMatMultThreshold);
+            if (threshold <= 0 || (long) aRows * aCols * bCols < threshold || !BlasRFFI.isAvailable()) {
+                return false;
+            }
+            if (!isColumnMajor(aRows, aCols, aRowStride, aColStride) || !isColumnMajor(aCols, bCols, bRowStride, bColStride)) {
+                return false;
+            }
+            return allFinite(dataA) && allFinite(dataB);
+        }
+
+        /**
+         * Tests whether the strides describe the matrix or its transposition stored in column-major
+         * order, i.e., whether BLAS can read it directly.
+         */
+        private static boolean isColumnMajor(int rows, int cols, int rowStride, int colStride) {
+            return (rowStride == 1 && colStride == rows) || (rowStride == cols && colStride == 1);
+        }
+
+        @TruffleBoundary
+        private static boolean allFinite(double[] data) {
+            for (int i = 0; i < data.length; i++) {
+                if (!Double.isFinite(data[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void blasMultiply(double[] dataA, double[] dataB, int aRows, int aCols, int bRows, int bCols, int aRowStride, int bRowStride, boolean mirrored, double[] result) {
+            // a stride of 1 between rows means that the matrix is not transposed
+            char transA = aRowStride == 1 ? 'N' : 'T';
+            int lda = Math.max(1, transA == 'N' ? aRows : aCols);
+            int ldc = Math.max(1, aRows);
+            if (mirrored) {
+                // only the upper triangle is computed, like in the Java version
+                if (dsyrkNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    dsyrkNode = insert(DsyrkNode.create());
+                }
+                dsyrkNode.execute('U', transA, aRows, aCols, 1.0, dataA, lda, 0.0, result, ldc);
+            } else if (bCols == 1) {
+                if (dgemvNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    dgemvNode = insert(DgemvNode.create());
+                }
+                // dgemv takes the dimensions of the stored matrix, not of op(A)
+                if (transA == 'N') {
+                    dgemvNode.execute(transA, aRows, aCols, 1.0, dataA, lda, dataB, 1, 0.0, result, 1);
+                } else {
+                    dgemvNode.execute(transA, aCols, aRows, 1.0, dataA, lda, dataB, 1, 0.0, result, 1);
+                }
+            } else {
+                if (dgemmNode == null) {
+                    CompilerDirectives.transferToInterpreterAndInvalidate();
+                    dgemmNode = insert(DgemmNode.create());
+                }
+                char transB = bRowStride == 1 ? 'N' : 'T';
+                int ldb = Math.max(1, transB == 'N' ? bRows : bCols);
+                dgemmNode.execute(transA, transB, aRows, bCols, aCols, 1.0, dataA, lda, dataB, ldb, 0.0, result, ldc);
+            }
+        }
+
         private static void fixNARows(double[] dataA, int aRows, int aCols, int bCols, int aRowStride, int aColStride, double[] result) {
             // NA's in a cause the whole row to be NA in the result
             outer: for (int row = 0; row < aRows; row++) {
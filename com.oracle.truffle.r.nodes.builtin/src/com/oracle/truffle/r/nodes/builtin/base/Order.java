@@ -28,6 +28,7 @@ import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
 import java.text.CollationKey;
 import java.text.Collator;
+import java.util.Arrays;
 import java.util.Locale;
 
 import com.oracle.truffle.api.CompilerDirectives;
@@ -39,10 +40,10 @@ import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.r.nodes.builtin.RPrecedenceBuiltinNode;
+import com.oracle.truffle.r.nodes.builtin.base.IndexSort.IndexComparator;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.CmpNodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.IsAtomicNANodeGen;
 import com.oracle.truffle.r.nodes.builtin.base.OrderNodeGen.OrderVector1NodeGen;
-import com.oracle.truffle.r.nodes.builtin.base.SortFunctions.RadixSort;
 import com.oracle.truffle.r.runtime.nodes.unary.CastToVectorNode;
 import com.oracle.truffle.r.runtime.nodes.unary.CastToVectorNodeGen;
 import com.oracle.truffle.r.runtime.RError;
@@ -77,11 +78,6 @@ public abstract class Order extends RPrecedenceBuiltinNode {
     private final ConditionProfile notRemoveNAs = ConditionProfile.createBinaryProfile();
     private final ValueProfile vectorProfile = ValueProfile.createClassProfile();
 
-    /**
-     * For use by {@link RadixSort}.
-     */
-    public abstract Object execute(byte naLast, boolean decreasing, RArgsValuesAndNames args);
-
     private static final int[] SINCS = {1073790977, 268460033, 67121153, 16783361, 4197377, 1050113, 262913, 65921, 16577, 4193, 1073, 281, 77, 23, 8, 1, 0};
 
     private RIntVector executeOrderVector1(RAbstractVector vIn, byte naLast, boolean dec) {
@@ -320,7 +316,6 @@ public abstract class Order extends RPrecedenceBuiltinNode {
      */
 
     abstract static class OrderVector1Node extends RBaseNode {
-        private final ConditionProfile decProfile = ConditionProfile.createBinaryProfile();
 
         public abstract Object execute(int[] v, Object dv, byte naLast, boolean dec, boolean sortNA);
 
@@ -481,197 +476,83 @@ public abstract class Order extends RPrecedenceBuiltinNode {
             return indx;
         }
 
-        private void sort(int[] indx, RDoubleVector dv, int lo, int hi, boolean dec) {
-            int t = 0;
-            for (; SINCS[t] > hi - lo + 1; t++) {
-            }
-            for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-                for (int i = lo + h; i <= hi; i++) {
-                    int itmp = indx[i];
-                    int j = i;
-                    while (j >= lo + h) {
-                        int a = indx[j - h];
-                        int b = itmp;
-                        if (decProfile.profile(dec)) {
-                            if (!((dv.getDataAt(a)) < dv.getDataAt(b) || (dv.getDataAt(a) == dv.getDataAt(b) && a > b))) {
-                                break;
-                            }
-                        } else {
-                            if (!((dv.getDataAt(a)) > dv.getDataAt(b) || (dv.getDataAt(a) == dv.getDataAt(b) && a > b))) {
-                                break;
-                            }
-                        }
-                        indx[j] = indx[j - h];
-                        j -= h;
-                    }
-                    indx[j] = itmp;
-                }
+        @TruffleBoundary
+        private static void sort(int[] indx, RDoubleVector dv, int lo, int hi, boolean dec) {
+            double[] data = dv.getReadonlyData();
+            long[] keys = new long[data.length];
+            for (int i = 0; i < data.length; i++) {
+                long key = IndexSort.doubleKey(data[i]);
+                keys[i] = dec ? ~key : key;
             }
+            IndexSort.sort(indx, lo, hi + 1, keys);
         }
 
-        private void sort(int[] indx, RIntVector dv, int lo, int hi, boolean dec) {
-            int t = 0;
-            for (; SINCS[t] > hi - lo + 1; t++) {
-            }
-            for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-                for (int i = lo + h; i <= hi; i++) {
-                    int itmp = indx[i];
-                    int j = i;
-                    while (j >= lo + h) {
-                        int a = indx[j - h];
-                        int b = itmp;
-                        if (decProfile.profile(dec)) {
-                            if (!((dv.getDataAt(a)) < dv.getDataAt(b) || (dv.getDataAt(a) == dv.getDataAt(b) && a > b))) {
-                                break;
-                            }
-                        } else {
-                            if (!((dv.getDataAt(a)) > dv.getDataAt(b) || (dv.getDataAt(a) == dv.getDataAt(b) && a > b))) {
-                                break;
-                            }
-                        }
-                        indx[j] = indx[j - h];
-                        j -= h;
-                    }
-                    indx[j] = itmp;
-                }
+        @TruffleBoundary
+        private static void sort(int[] indx, RIntVector dv, int lo, int hi, boolean dec) {
+            int[] data = dv.getReadonlyData();
+            long[] keys = new long[data.length];
+            for (int i = 0; i < data.length; i++) {
+                keys[i] = dec ? ~(long) data[i] : data[i];
             }
+            IndexSort.sort(indx, lo, hi + 1, keys);
         }
 
         @TruffleBoundary
-        private void sort(int[] indx, RStringVector dv, int lo, int hi, boolean dec) {
-            int t = 0;
-            for (; SINCS[t] > hi - lo + 1; t++) {
-            }
-
+        private static void sort(int[] indx, RStringVector dv, int lo, int hi, boolean dec) {
+            String[] data = dv.getReadonlyStringData();
+            IndexComparator cmp;
             Locale locale = RContext.getInstance().stateRLocale.getLocale(RLocale.COLLATE);
             if (locale == Locale.ROOT) {
                 // simple comparison based on numeric value of characters
-                for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-                    for (int i = lo + h; i <= hi; i++) {
-                        int itmp = indx[i];
-                        int j = i;
-                        while (j >= lo + h) {
-                            int a = indx[j - h];
-                            int b = itmp;
-                            int c = dv.getDataAt(a).compareTo(dv.getDataAt(b));
-                            if (decProfile.profile(dec)) {
-                                if (!(c < 0 || (c == 0 && a > b))) {
-                                    break;
-                                }
-                            } else {
-                                if (!(c > 0 || (c == 0 && a > b))) {
-                                    break;
-                                }
-                            }
-                            indx[j] = indx[j - h];
-                            j -= h;
-                        }
-                        indx[j] = itmp;
-                    }
-                }
+                cmp = dec ? (a, b) -> data[b].compareTo(data[a]) : (a, b) -> data[a].compareTo(data[b]);
             } else {
-                int length = dv.getLength();
                 Collator collator = RLocale.getOrderCollator(locale);
-                CollationKey[] entries = new CollationKey[length];
-                for (int i = 0; i < length; i++) {
-                    entries[i] = collator.getCollationKey(dv.getDataAt(i));
-                }
-
-                for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-                    for (int i = lo + h; i <= hi; i++) {
-                        int itmp = indx[i];
-                        int j = i;
-                        while (j >= lo + h) {
-                            int a = indx[j - h];
-                            int b = itmp;
-                            int c = entries[a].compareTo(entries[b]);
-                            if (decProfile.profile(dec)) {
-                                if (!(c < 0 || (c == 0 && a > b))) {
-                                    break;
-                                }
-                            } else {
-                                if (!(c > 0 || (c == 0 && a > b))) {
-                                    break;
-                                }
-                            }
-                            indx[j] = indx[j - h];
-                            j -= h;
-                        }
-                        indx[j] = itmp;
-                    }
+                CollationKey[] entries = new CollationKey[data.length];
+                for (int i = 0; i < data.length; i++) {
+                    entries[i] = collator.getCollationKey(data[i]);
                 }
+                cmp = dec ? (a, b) -> entries[b].compareTo(entries[a]) : (a, b) -> entries[a].compareTo(entries[b]);
             }
+            IndexSort.sort(indx, lo, hi + 1, cmp);
         }
 
-        private static boolean lt(RComplex a, RComplex b) {
-            if (a.getRealPart() == b.getRealPart()) {
-                return a.getImaginaryPart() < b.getImaginaryPart();
-            } else {
-                return a.getRealPart() < b.getRealPart();
+        private static int compareComplex(double[] data, int a, int b) {
+            double x = data[2 * a];
+            double y = data[2 * b];
+            if (x == y) {
+                x = data[2 * a + 1];
+                y = data[2 * b + 1];
             }
+            return x < y ? -1 : (x > y ? 1 : 0);
         }
 
-        private static boolean gt(RComplex a, RComplex b) {
-            if (a.getRealPart() == b.getRealPart()) {
-                return a.getImaginaryPart() > b.getImaginaryPart();
-            } else {
-                return a.getRealPart() > b.getRealPart();
-            }
-        }
-
-        private static boolean eq(RComplex a, RComplex b) {
-            return a.getRealPart() == b.getRealPart() && a.getImaginaryPart() == b.getImaginaryPart();
-        }
-
-        private void sort(int[] indx, RComplexVector dv, int lo, int hi, boolean dec) {
-            int t = 0;
-            for (; SINCS[t] > hi - lo + 1; t++) {
-            }
-            for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-                for (int i = lo + h; i <= hi; i++) {
-                    int itmp = indx[i];
-                    int j = i;
-                    while (j >= lo + h) {
-                        int a = indx[j - h];
-                        int b = itmp;
-                        if (decProfile.profile(dec)) {
-                            if (!(lt(dv.getDataAt(a), dv.getDataAt(b)) || (eq(dv.getDataAt(a), dv.getDataAt(b)) && a > b))) {
-                                break;
-                            }
-                        } else {
-                            if (!(gt(dv.getDataAt(a), dv.getDataAt(b)) || (eq(dv.getDataAt(a), dv.getDataAt(b)) && a > b))) {
-                                break;
-                            }
-                        }
-                        indx[j] = indx[j - h];
-                        j -= h;
-                    }
-                    indx[j] = itmp;
-                }
-            }
+        @TruffleBoundary
+        private static void sort(int[] indx, RComplexVector dv, int lo, int hi, boolean dec) {
+            double[] data = dv.getReadonlyData();
+            IndexComparator cmp = dec ? (a, b) -> compareComplex(data, b, a) : (a, b) -> compareComplex(data, a, b);
+            IndexSort.sort(indx, lo, hi + 1, cmp);
         }
     }
 
+    /**
+     * Moves the indexes {@code i} in {@code indx[lo, hi]} with {@code isNa[i]} to the end, both
+     * parts ordered by the index.
+     */
     private static void sortNA(int[] indx, boolean[] isNa, int lo, int hi) {
-        int t = 0;
-        for (; SINCS[t] > indx.length; t++) {
-        }
-        for (int h = SINCS[t]; t < 16; h = SINCS[++t]) {
-            for (int i = lo + h; i <= hi; i++) {
-                int itmp = indx[i];
-                int j = i;
-                while (j >= lo + h) {
-                    int a = indx[j - h];
-                    int b = itmp;
-                    if (!((isNa[a] && !isNa[b]) || (isNa[a] == isNa[b] && a > b))) {
-                        break;
-                    }
-                    indx[j] = indx[j - h];
-                    j -= h;
-                }
-                indx[j] = itmp;
+        int[] na = new int[hi - lo + 1];
+        int naCount = 0;
+        int pos = lo;
+        for (int i = lo; i <= hi; i++) {
+            int index = indx[i];
+            if (isNa[index]) {
+                na[naCount++] = index;
+            } else {
+                indx[pos++] = index;
             }
         }
+        System.arraycopy(na, 0, indx, pos, naCount);
+        Arrays.sort(indx, lo, pos);
+        Arrays.sort(indx, pos, hi + 1);
     }
 
     protected boolean isFirstIntegerPrecedence(RArgsValuesAndNames args) {
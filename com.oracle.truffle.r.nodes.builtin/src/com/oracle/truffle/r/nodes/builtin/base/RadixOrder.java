@@ -0,0 +1,382 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.base;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntVector;
+import com.oracle.truffle.r.runtime.data.RLogicalVector;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * The sorting engine behind {@code .Internal(radixsort)}.
+ *
+ * Every key vector is first transformed into an array of unsigned 64-bit keys whose unsigned
+ * ordering is the requested R ordering of the values, including the direction ({@code decreasing})
+ * and the placement of {@code NA}s. Doubles are bit-twiddled (the sign bit is flipped for positive
+ * values and all bits for negative ones), integers and logicals are offset, strings are replaced by
+ * the rank of the value among the distinct strings. The index vector is then sorted by a stable
+ * least-significant-digit radix sort, one key at a time starting with the last one, which yields
+ * the lexicographic order over all keys. Digits that are the same for all elements are skipped, so
+ * e.g. factors are usually sorted in a single pass.
+ *
+ * As in GNU R, {@code NA} and {@code NaN} are tied and strings are always compared in the C
+ * locale, i.e. by their code points. {@code NA} values are always at the end (or at the beginning)
+ * regardless of {@code decreasing}.
+ */
+final class RadixOrder {
+
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /**
+     * Below this length, an insertion sort is cheaper than the histogram passes.
+     */
+    private static final int INSERTION_SORT_THRESHOLD = 64;
+
+    /**
+     * Keys of {@code NA} values when they should be sorted first. No other value maps to this key.
+     */
+    private static final long NA_FIRST = 0L;
+
+    /**
+     * Result of {@link #order}: the one-based order and, if requested, the one-based start
+     * positions of groups of equal elements (with respect to all keys).
+     */
+    static final class Result {
+        final int[] order;
+        final int[] starts;
+        final int maxGroupSize;
+
+        private Result(int[] order, int[] starts, int maxGroupSize) {
+            this.order = order;
+            this.starts = starts;
+            this.maxGroupSize = maxGroupSize;
+        }
+    }
+
+    private RadixOrder() {
+        // only static methods
+    }
+
+    /**
+     * Computes the order of the given vectors.
+     *
+     * @param keys the vectors to order by, all of the same length {@code n} and of type integer,
+     *            double, logical or character.
+     * @param decreasing the direction for each key.
+     * @param naLast {@link RRuntime#LOGICAL_TRUE} to put {@code NA}s last,
+     *            {@link RRuntime#LOGICAL_FALSE} to put them first and {@link RRuntime#LOGICAL_NA}
+     *            to remove them from the result.
+     * @param retgrp whether to compute the group start positions.
+     * @param sortStr if {@code false}, strings are kept in the order of their first appearance
+     *            (only groups are computed).
+     */
+    @TruffleBoundary
+    static Result order(RAbstractVector[] keys, boolean[] decreasing, int n, byte naLast, boolean retgrp, boolean sortStr) {
+        boolean removeNA = RRuntime.isNA(naLast);
+        boolean naLastFlag = RRuntime.fromLogical(naLast);
+        long[] scratch = new long[n];
+
+        int[] o;
+        if (removeNA) {
+            // with the NA keys mapped to NA_FIRST, any NA_FIRST key marks a row to remove
+            boolean[] isNA = new boolean[n];
+            int naCount = 0;
+            for (int j = 0; j < keys.length; j++) {
+                computeKeys(keys[j], false, false, sortStr, scratch);
+                for (int i = 0; i < n; i++) {
+                    if (scratch[i] == NA_FIRST && !isNA[i]) {
+                        isNA[i] = true;
+                        naCount++;
+                    }
+                }
+            }
+            o = new int[n - naCount];
+            for (int i = 0, pos = 0; i < n; i++) {
+                if (!isNA[i]) {
+                    o[pos++] = i;
+                }
+            }
+        } else {
+            o = new int[n];
+            for (int i = 0; i < n; i++) {
+                o[i] = i;
+            }
+        }
+
+        int m = o.length;
+        long[] k = new long[m];
+        long[] kTmp = new long[m];
+        int[] oTmp = new int[m];
+        for (int j = keys.length - 1; j >= 0; j--) {
+            computeKeys(keys[j], decreasing[j], naLastFlag, sortStr, scratch);
+            for (int i = 0; i < m; i++) {
+                k[i] = scratch[o[i]];
+            }
+            sort(k, o, kTmp, oTmp);
+        }
+
+        int[] starts = null;
+        int maxGroupSize = 0;
+        if (retgrp) {
+            boolean[] newGroup = new boolean[m];
+            int groups = 0;
+            for (int i = 0; i < m; i++) {
+                // 'k' holds the sorted keys of the first vector
+                if (i == 0 || k[i] != k[i - 1]) {
+                    newGroup[i] = true;
+                    groups++;
+                }
+            }
+            for (int j = 1; j < keys.length; j++) {
+                computeKeys(keys[j], decreasing[j], naLastFlag, sortStr, scratch);
+                for (int i = 1; i < m; i++) {
+                    if (!newGroup[i] && scratch[o[i]] != scratch[o[i - 1]]) {
+                        newGroup[i] = true;
+                        groups++;
+                    }
+                }
+            }
+            starts = new int[groups];
+            int g = 0;
+            for (int i = 0; i < m; i++) {
+                if (newGroup[i]) {
+                    if (g > 0) {
+                        maxGroupSize = Math.max(maxGroupSize, i + 1 - starts[g - 1]);
+                    }
+                    starts[g++] = i + 1;
+                }
+            }
+            if (g > 0) {
+                maxGroupSize = Math.max(maxGroupSize, m + 1 - starts[g - 1]);
+            }
+        }
+
+        for (int i = 0; i < m; i++) {
+            o[i]++;
+        }
+        return new Result(o, starts, maxGroupSize);
+    }
+
+    private static void computeKeys(RAbstractVector vec, boolean decreasing, boolean naLast, boolean sortStr, long[] dst) {
+        if (vec instanceof RIntVector) {
+            intKeys(((RIntVector) vec).getReadonlyData(), decreasing, naLast, dst);
+        } else if (vec instanceof RDoubleVector) {
+            doubleKeys(((RDoubleVector) vec).getReadonlyData(), decreasing, naLast, dst);
+        } else if (vec instanceof RLogicalVector) {
+            logicalKeys(((RLogicalVector) vec).getReadonlyData(), decreasing, naLast, dst);
+        } else if (vec instanceof RStringVector) {
+            stringKeys(((RStringVector) vec).getReadonlyStringData(), decreasing, naLast, sortStr, dst);
+        } else {
+            throw RInternalError.shouldNotReachHere(vec.getClass().getSimpleName());
+        }
+    }
+
+    private static void intKeys(int[] data, boolean decreasing, boolean naLast, long[] dst) {
+        // INT_NA is Integer.MIN_VALUE, so all other values map to [1, 2^32 - 1]
+        long naKey = naLast ? 1L << 32 : NA_FIRST;
+        for (int i = 0; i < dst.length; i++) {
+            int x = data[i];
+            if (RRuntime.isNA(x)) {
+                dst[i] = naKey;
+            } else {
+                long u = (long) x - Integer.MIN_VALUE;
+                dst[i] = decreasing ? (1L << 32) - u : u;
+            }
+        }
+    }
+
+    private static void logicalKeys(byte[] data, boolean decreasing, boolean naLast, long[] dst) {
+        long naKey = naLast ? 3 : NA_FIRST;
+        for (int i = 0; i < dst.length; i++) {
+            byte x = data[i];
+            if (RRuntime.isNA(x)) {
+                dst[i] = naKey;
+            } else {
+                long u = x + 1;
+                dst[i] = decreasing ? 3 - u : u;
+            }
+        }
+    }
+
+    private static void doubleKeys(double[] data, boolean decreasing, boolean naLast, long[] dst) {
+        // the twiddled bits of non-NaN values never are all zeros or all ones
+        long naKey = naLast ? -1L : NA_FIRST;
+        for (int i = 0; i < dst.length; i++) {
+            double x = data[i];
+            if (Double.isNaN(x)) {
+                dst[i] = naKey;
+            } else {
+                // normalizes -0.0 to 0.0
+                long bits = Double.doubleToRawLongBits(x == 0.0 ? 0.0 : x);
+                long u = bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+                dst[i] = decreasing ? ~u : u;
+            }
+        }
+    }
+
+    private static void stringKeys(String[] data, boolean decreasing, boolean naLast, boolean sortStr, long[] dst) {
+        HashMap<String, Integer> uniqueIndex = new HashMap<>();
+        int[] firstIndex = new int[dst.length];
+        for (int i = 0; i < dst.length; i++) {
+            String x = data[i];
+            if (!RRuntime.isNA(x)) {
+                Integer index = uniqueIndex.get(x);
+                if (index == null) {
+                    index = uniqueIndex.size();
+                    uniqueIndex.put(x, index);
+                    firstIndex[index] = i;
+                }
+                dst[i] = index;
+            }
+        }
+        int unique = uniqueIndex.size();
+        long[] rank = new long[unique];
+        if (sortStr) {
+            Integer[] sorted = new Integer[unique];
+            for (int u = 0; u < unique; u++) {
+                sorted[u] = u;
+            }
+            Arrays.sort(sorted, (a, b) -> compareCodePoints(data[firstIndex[a]], data[firstIndex[b]]));
+            for (int r = 0; r < unique; r++) {
+                rank[sorted[r]] = decreasing ? unique - r : r + 1;
+            }
+        } else {
+            // groups only: keep the order of the first appearance
+            for (int u = 0; u < unique; u++) {
+                rank[u] = u + 1;
+            }
+        }
+        long naKey = naLast ? unique + 1 : NA_FIRST;
+        for (int i = 0; i < dst.length; i++) {
+            dst[i] = RRuntime.isNA(data[i]) ? naKey : rank[(int) dst[i]];
+        }
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        int i = 0;
+        int j = 0;
+        while (i < la && j < lb) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb) {
+                return ca < cb ? -1 : 1;
+            }
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(la - i, lb - j);
+    }
+
+    /**
+     * Stable sort of the unsigned keys {@code k} and, in the same way, of the indexes {@code o}.
+     */
+    private static void sort(long[] k, int[] o, long[] kTmp, int[] oTmp) {
+        int m = k.length;
+        if (m < 2) {
+            return;
+        }
+        if (m < INSERTION_SORT_THRESHOLD) {
+            insertionSort(k, o);
+            return;
+        }
+        long min = k[0];
+        long max = k[0];
+        for (int i = 1; i < m; i++) {
+            long x = k[i];
+            if (Long.compareUnsigned(x, min) < 0) {
+                min = x;
+            } else if (Long.compareUnsigned(x, max) > 0) {
+                max = x;
+            }
+        }
+        long range = max - min;
+        if (range == 0) {
+            return;
+        }
+        int bits = Long.SIZE - Long.numberOfLeadingZeros(range);
+
+        long[] kSrc = k;
+        int[] oSrc = o;
+        long[] kDst = kTmp;
+        int[] oDst = oTmp;
+        int[] counts = new int[RADIX];
+        for (int shift = 0; shift < bits; shift += DIGIT_BITS) {
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < m; i++) {
+                counts[(int) (((kSrc[i] - min) >>> shift) & DIGIT_MASK)]++;
+            }
+            if (counts[(int) (((kSrc[0] - min) >>> shift) & DIGIT_MASK)] == m) {
+                // all elements share this digit
+                continue;
+            }
+            int sum = 0;
+            for (int d = 0; d < RADIX; d++) {
+                int c = counts[d];
+                counts[d] = sum;
+                sum += c;
+            }
+            for (int i = 0; i < m; i++) {
+                long x = kSrc[i];
+                int pos = counts[(int) (((x - min) >>> shift) & DIGIT_MASK)]++;
+                kDst[pos] = x;
+                oDst[pos] = oSrc[i];
+            }
+            long[] kSwap = kSrc;
+            kSrc = kDst;
+            kDst = kSwap;
+            int[] oSwap = oSrc;
+            oSrc = oDst;
+            oDst = oSwap;
+        }
+        if (kSrc != k) {
+            System.arraycopy(kSrc, 0, k, 0, m);
+            System.arraycopy(oSrc, 0, o, 0, m);
+        }
+    }
+
+    private static void insertionSort(long[] k, int[] o) {
+        for (int i = 1; i < k.length; i++) {
+            long x = k[i];
+            int oi = o[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(k[j], x) > 0) {
+                k[j + 1] = k[j];
+                o[j + 1] = o[j];
+                j--;
+            }
+            k[j + 1] = x;
+            o[j + 1] = oi;
+        }
+    }
+}
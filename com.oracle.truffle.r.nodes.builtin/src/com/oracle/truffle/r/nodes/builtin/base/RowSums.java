@@ -23,14 +23,19 @@ package com.oracle.truffle.r.nodes.builtin.base;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.PURE;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.INTERNAL;
 
+import com.oracle.truffle.api.dsl.ImportStatic;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.library.CachedLibrary;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
+import com.oracle.truffle.r.runtime.ops.ExactSum;
 
+@ImportStatic(ExactSum.class)
 @RBuiltin(name = "rowSums", kind = INTERNAL, parameterNames = {"X", "m", "n", "na.rm"}, behavior = PURE)
 public abstract class RowSums extends RowSumsBase {
 
@@ -38,6 +43,17 @@ public abstract class RowSums extends RowSumsBase {
         createCasts(RowSums.class);
     }
 
+    @Specialization(guards = "isFullPrecision()", limit = "getTypedVectorDataLibraryCacheSize()")
+    protected RDoubleVector rowSumsExact(RDoubleVector x, int rowNum, int colNum, boolean naRm,
+                    @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
+        double[] result = ExactSum.sumRows(dataLib.getReadonlyDoubleData(x.getData()), rowNum, colNum, naRm);
+        boolean isComplete = true;
+        for (int r = 0; r < rowNum; r++) {
+            isComplete &= !RRuntime.isNA(result[r]);
+        }
+        return RDataFactory.createDoubleVector(result, isComplete);
+    }
+
     @Specialization(limit = "getTypedVectorDataLibraryCacheSize()")
     protected RDoubleVector rowSums(RDoubleVector x, int rowNum, int colNum, boolean naRm,
                     @CachedLibrary("x.getData()") VectorDataLibrary dataLib) {
@@ -55,7 +55,9 @@ import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandomNumberProvider;
 import com.oracle.truffle.r.runtime.rng.RRNG;
+import com.oracle.truffle.r.runtime.rng.RandomNumberBuffer;
 
 @RBuiltin(name = "sample", kind = INTERNAL, parameterNames = {"x", "size", "replace", "prob"}, behavior = MODIFIES_STATE)
 public abstract class Sample extends RBuiltinNode.Arg4 {
@@ -141,20 +143,29 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
         // TODO:Add support of long integers.
         // The following code is transcribed from GNU R src/main/random.c lines 533-545 in
         // function do_sample.
+        // The uniform random numbers are drawn in blocks, every index takes at least
+        // RRNG.unifIndexDraws of them (for the smallest population in the case of sampling
+        // without replacement).
         int[] result = new int[size];
+        RandomNumberBuffer buffer = new RandomNumberBuffer(RRNG.currentGenerator(), size);
+        RandomNumberProvider rand = new RandomNumberProvider(buffer, RRNG.currentNormKind());
         /* avoid allocation for a single sample */
         if (sampleSizeProfile.profile(isRepeatable || size < 2)) {
+            int draws = RRNG.unifIndexDraws(x);
             for (int i = 0; i < size; i++) {
-                result[i] = (int) (RRNG.unifIndex(x) + 1);
+                buffer.expect(expectedDraws(draws, size - i));
+                result[i] = (int) (RRNG.unifIndex(rand, x) + 1);
             }
         } else {
             int n = x;
+            int draws = RRNG.unifIndexDraws(x - size + 1);
             int[] ix = new int[n];
             for (int i = 0; i < n; i++) {
                 ix[i] = i;
             }
             for (int i = 0; i < size; i++) {
-                int j = (int) RRNG.unifIndex(n);
+                buffer.expect(expectedDraws(draws, size - i));
+                int j = (int) RRNG.unifIndex(rand, n);
                 result[i] = ix[j] + 1;
                 ix[j] = ix[--n];
             }
@@ -162,6 +173,10 @@ public abstract class Sample extends RBuiltinNode.Arg4 {
         return RDataFactory.createIntVector(result, true);
     }
 
+    private static int expectedDraws(int drawsPerIndex, int remaining) {
+        return (int) Math.min(Integer.MAX_VALUE, (long) drawsPerIndex * remaining);
+    }
+
     @TruffleBoundary
     private void fixupProbability(double[] probArray, int x, int size, boolean isRepeatable) {
         // The following code is transcribed from GNU R src/main/random.c lines 429-449
@@ -54,6 +54,7 @@ import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractListVector;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.RLogicalVector;
 import com.oracle.truffle.r.runtime.data.RStringVector;
 
@@ -260,12 +261,14 @@ public class SortFunctions {
     /**
      * This a helper function for the code in sort.R. It does NOT return the input vectors sorted,
      * but returns an {@link RIntVector} of indices (positions) indicating the sort order (Or
-     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}. For
-     * now we delegate to {@code order} and do not implement the {@code retgrp} argument.
+     * {@link RNull#instance} if no vectors). In short it is a special variant of {@code order}
+     * that supports a different {@code decreasing} value for each vector and, if {@code retgrp} is
+     * {@code TRUE}, also returns the start positions of the groups of equal elements in the
+     * {@code starts} attribute and the size of the largest group in the {@code maxgrpn} attribute.
+     * The sorting itself is implemented in {@link RadixOrder}.
      */
     @RBuiltin(name = "radixsort", kind = INTERNAL, parameterNames = {"na.last", "decreasing", "retgrp", "sortstr", "..."}, behavior = PURE)
     public abstract static class RadixSort extends RBuiltinNode.Arg5 {
-        @Child private Order orderNode = OrderNodeGen.create();
 
         static {
             Casts casts = new Casts(RadixSort.class);
@@ -275,14 +278,8 @@ public class SortFunctions {
             casts.arg("sortstr").asLogicalVector().findFirst().map(toBoolean());
         }
 
-        @SuppressWarnings("unused")
         @Specialization
         protected Object radixSort(byte naLast, RLogicalVector decreasingVec, boolean retgrp, boolean sortstr, RArgsValuesAndNames zz) {
-            // Partial implementation just to get startup to work
-            if (retgrp) {
-                // sortstr only has an effect when retrgrp == true
-                throw RError.nyi(this, "radixsort: retgrp == TRUE not implemented");
-            }
             int nargs = zz.getLength();
             if (nargs == 0) {
                 return RNull.instance;
@@ -290,26 +287,39 @@ public class SortFunctions {
             if (nargs != decreasingVec.getLength()) {
                 throw error(RError.Message.RADIX_SORT_DEC_MATCH);
             }
-            /*
-             * Order takes a single decreasing argument that applies to all the vectors. We
-             * potentially have a different value for each vector, so we have to process one by one.
-             * However, OrderNode can't yet handle that, so we abort if nargs > 1 and the decreasing
-             * values don't match.
-             */
-            byte lastdb = RRuntime.LOGICAL_NA;
+            boolean[] decreasing = new boolean[nargs];
             for (int i = 0; i < nargs; i++) {
                 byte db = decreasingVec.getDataAt(i);
                 if (RRuntime.isNA(db)) {
                     throw error(RError.Message.RADIX_SORT_DEC_NOT_LOGICAL);
                 }
-                if (lastdb != RRuntime.LOGICAL_NA && db != lastdb) {
-                    throw RError.nyi(this, "radixsort: args > 1 with differing 'decreasing' values not implemented");
+                decreasing[i] = RRuntime.fromLogical(db);
+            }
+            RAbstractVector[] keys = new RAbstractVector[nargs];
+            int n = 0;
+            for (int i = 0; i < nargs; i++) {
+                Object arg = zz.getArgument(i);
+                if (!(arg instanceof RIntVector || arg instanceof RDoubleVector || arg instanceof RLogicalVector || arg instanceof RStringVector)) {
+                    throw error(RError.Message.RADIX_SORT_UNSUPPORTED_TYPE, i + 1, RRuntime.getRTypeName(arg));
+                }
+                keys[i] = (RAbstractVector) arg;
+                if (i == 0) {
+                    n = keys[i].getLength();
+                } else if (keys[i].getLength() != n) {
+                    throw error(RError.Message.ARGUMENT_LENGTHS_DIFFER);
                 }
-                lastdb = db;
             }
-            boolean decreasing = RRuntime.fromLogical(decreasingVec.getDataAt(0));
-            Object result = orderNode.execute(naLast, decreasing, zz);
-            return result;
+            return createResult(RadixOrder.order(keys, decreasing, n, naLast, retgrp, sortstr), retgrp);
+        }
+
+        @TruffleBoundary
+        private static RIntVector createResult(RadixOrder.Result result, boolean retgrp) {
+            RIntVector ans = RDataFactory.createIntVector(result.order, RDataFactory.COMPLETE_VECTOR);
+            if (retgrp) {
+                ans.setAttr("starts", RDataFactory.createIntVector(result.starts, RDataFactory.COMPLETE_VECTOR));
+                ans.setAttr("maxgrpn", result.maxGroupSize);
+            }
+            return ans;
         }
     }
 }
@@ -51,8 +51,10 @@ import com.oracle.truffle.r.runtime.RChannel;
 import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RSource;
+import com.oracle.truffle.r.runtime.RTaskQueue;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
 import com.oracle.truffle.r.runtime.context.ChildContextInfo;
+import com.oracle.truffle.r.runtime.context.ContextPool;
 import com.oracle.truffle.r.runtime.context.EvalThread;
 import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
@@ -90,6 +92,10 @@ public class FastRContext {
         private static void id(Casts casts) {
             casts.arg("id").asIntegerVector().mustBe(notEmpty()).findFirst();
         }
+
+        private static void capacity(Casts casts) {
+            casts.arg("capacity").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(0));
+        }
     }
 
     @RBuiltin(name = ".fastr.context.get", kind = PRIMITIVE, parameterNames = {}, behavior = READS_STATE)
@@ -459,33 +465,52 @@ public class FastRContext {
         return ChildContextInfo.createNoRestore(Client.RSCRIPT, null, contextKind, context, console.getStdin(), console.getStdout(), console.getStderr());
     }
 
-    @RBuiltin(name = ".fastr.channel.create", kind = PRIMITIVE, parameterNames = {"key"}, behavior = COMPLEX)
-    public abstract static class CreateChannel extends RBuiltinNode.Arg1 {
+    /**
+     * The capacity of the channel is the number of messages that can be sent in each direction
+     * before the sender blocks, zero stands for the value of the {@code ChannelCapacity} option.
+     */
+    @RBuiltin(name = ".fastr.channel.create", kind = PRIMITIVE, parameterNames = {"key", "capacity"}, behavior = COMPLEX)
+    public abstract static class CreateChannel extends RBuiltinNode.Arg2 {
+
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RMissing.instance, 0};
+        }
 
         static {
             Casts casts = new Casts(CreateChannel.class);
             CastsHelper.key(casts);
+            CastsHelper.capacity(casts);
         }
 
         @Specialization
         @TruffleBoundary
-        protected int createChannel(int key) {
-            return RChannel.createChannel(key);
+        protected int createChannel(int key, int capacity) {
+            return RChannel.createChannel(key, capacity);
         }
     }
 
-    @RBuiltin(name = ".fastr.channel.createForkChannel", kind = PRIMITIVE, parameterNames = {"portBaseNumber"}, behavior = COMPLEX)
-    public abstract static class CreateForkChannel extends RBuiltinNode.Arg1 {
+    /**
+     * @see CreateChannel
+     */
+    @RBuiltin(name = ".fastr.channel.createForkChannel", kind = PRIMITIVE, parameterNames = {"portBaseNumber", "capacity"}, behavior = COMPLEX)
+    public abstract static class CreateForkChannel extends RBuiltinNode.Arg2 {
+
+        @Override
+        public Object[] getDefaultParameterValues() {
+            return new Object[]{RMissing.instance, 0};
+        }
 
         static {
             Casts casts = new Casts(CreateForkChannel.class);
             casts.arg("portBaseNumber").asIntegerVector().mustBe(notEmpty()).findFirst();
+            CastsHelper.capacity(casts);
         }
 
         @Specialization
         @TruffleBoundary
-        protected RAbstractListVector createForkChannel(int portBaseNumber) {
-            int[] res = RChannel.createForkChannel(portBaseNumber);
+        protected RAbstractListVector createForkChannel(int portBaseNumber, int capacity) {
+            int[] res = RChannel.createForkChannel(portBaseNumber, capacity);
             return RDataFactory.createList(new Object[]{res[0], res[1]}, RDataFactory.createStringVector(new String[]{"channelId", "port"}, true));
         }
     }
@@ -596,4 +621,85 @@ public class FastRContext {
             }
         }
     }
+
+    /**
+     * Returns the channel ids of {@code size} workers of the persistent {@link ContextPool}, or
+     * {@code NULL} if the pool is not available.
+     */
+    @RBuiltin(name = ".fastr.context.pool", kind = PRIMITIVE, parameterNames = {"size"}, behavior = COMPLEX)
+    public abstract static class Pool extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(Pool.class);
+            casts.arg("size").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(1));
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected Object pool(int size) {
+            RContext context = RContext.getInstance();
+            int[] channels = context.stateContextPool.getChannels(context, size);
+            return channels == null ? RNull.instance : RDataFactory.createIntVector(channels, RDataFactory.COMPLETE_VECTOR);
+        }
+    }
+
+    /**
+     * Creates an {@link RTaskQueue} of {@code length} elements, a chunk size of zero stands for
+     * guided chunks.
+     */
+    @RBuiltin(name = ".fastr.taskqueue.create", kind = PRIMITIVE, parameterNames = {"length", "workers", "chunkSize"}, behavior = COMPLEX)
+    public abstract static class TaskQueueCreate extends RBuiltinNode.Arg3 {
+
+        static {
+            Casts casts = new Casts(TaskQueueCreate.class);
+            casts.arg("length").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(0));
+            casts.arg("workers").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(1));
+            casts.arg("chunkSize").asIntegerVector().findFirst().mustNotBeNA().mustBe(gte(0));
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected int create(int length, int workers, int chunkSize) {
+            return RTaskQueue.create(length, workers, chunkSize);
+        }
+    }
+
+    /**
+     * Returns the (one-based) indices of the next chunk of the task queue, or an empty vector if
+     * the queue is empty.
+     */
+    @RBuiltin(name = ".fastr.taskqueue.next", kind = PRIMITIVE, parameterNames = {"id"}, behavior = COMPLEX)
+    public abstract static class TaskQueueNext extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(TaskQueueNext.class);
+            CastsHelper.id(casts);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RIntVector next(int id) {
+            int[] chunk = RTaskQueue.nextChunk(id);
+            if (chunk == null) {
+                return RDataFactory.createEmptyIntVector();
+            }
+            return RDataFactory.createIntSequence(chunk[0] + 1, 1, chunk[1] - chunk[0]);
+        }
+    }
+
+    @RBuiltin(name = ".fastr.taskqueue.close", visibility = OFF, kind = PRIMITIVE, parameterNames = {"id"}, behavior = COMPLEX)
+    public abstract static class TaskQueueClose extends RBuiltinNode.Arg1 {
+
+        static {
+            Casts casts = new Casts(TaskQueueClose.class);
+            CastsHelper.id(casts);
+        }
+
+        @Specialization
+        @TruffleBoundary
+        protected RNull close(int id) {
+            RTaskQueue.close(id);
+            return RNull.instance;
+        }
+    }
 }
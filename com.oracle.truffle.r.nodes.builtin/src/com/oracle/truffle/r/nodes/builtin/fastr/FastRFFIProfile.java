@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+import com.oracle.truffle.r.runtime.ffi.RFFIProfile;
+import com.oracle.truffle.r.runtime.ffi.RFFIProfile.Entry;
+
+/**
+ * Returns the data collected by {@link RFFIProfile} as a list of three data frames: {@code upcalls}
+ * with one row per up-call, {@code downcalls} with one row per native symbol called via
+ * {@code .Call} or {@code .External} and {@code packages} with the down-calls aggregated per
+ * package. Each data frame has the columns {@code calls}, {@code time} (in seconds) and
+ * {@code bytes} (copied to native memory) and is sorted by decreasing time. If {@code reset} is
+ * {@code TRUE}, the collected data are cleared after they have been read.
+ */
+@RBuiltin(name = ".fastr.ffi.profile", kind = PRIMITIVE, parameterNames = {"reset"}, behavior = COMPLEX)
+public abstract class FastRFFIProfile extends RBuiltinNode.Arg1 {
+
+    static {
+        Casts casts = new Casts(FastRFFIProfile.class);
+        casts.arg("reset").asLogicalVector().findFirst().map(toBoolean());
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_FALSE};
+    }
+
+    @Specialization
+    @TruffleBoundary
+    protected RList profile(boolean reset) {
+        if (!RFFIProfile.isEnabled()) {
+            RError.warning(RError.SHOW_CALLER, RError.Message.GENERIC, "R FFI profiling is not enabled, use the FFIProfile option");
+        }
+        List<Entry> upCalls = sorted(RFFIProfile.getUpCalls());
+        List<Entry> downCalls = sorted(RFFIProfile.getDownCalls());
+        if (reset) {
+            RFFIProfile.reset();
+        }
+
+        Map<String, long[]> packages = new LinkedHashMap<>();
+        for (Entry entry : downCalls) {
+            long[] totals = packages.computeIfAbsent(entry.packageName, k -> new long[3]);
+            totals[0] += entry.getCount();
+            totals[1] += entry.getNanos();
+            totals[2] += entry.getBytes();
+        }
+        List<Map.Entry<String, long[]>> packageEntries = new ArrayList<>(packages.entrySet());
+        packageEntries.sort((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]));
+
+        String[] packageNames = new String[packageEntries.size()];
+        long[][] packageTotals = new long[packageEntries.size()][];
+        for (int i = 0; i < packageNames.length; i++) {
+            packageNames[i] = packageEntries.get(i).getKey();
+            packageTotals[i] = packageEntries.get(i).getValue();
+        }
+
+        String[] upNames = new String[upCalls.size()];
+        for (int i = 0; i < upNames.length; i++) {
+            upNames[i] = upCalls.get(i).name;
+        }
+        String[] downPackages = new String[downCalls.size()];
+        String[] downNames = new String[downCalls.size()];
+        for (int i = 0; i < downNames.length; i++) {
+            downPackages[i] = downCalls.get(i).packageName;
+            downNames[i] = downCalls.get(i).name;
+        }
+
+        RList upFrame = dataFrame(new String[]{"name"}, new Object[]{strings(upNames)}, totals(upCalls));
+        RList downFrame = dataFrame(new String[]{"package", "name"}, new Object[]{strings(downPackages), strings(downNames)}, totals(downCalls));
+        RList packagesFrame = dataFrame(new String[]{"package"}, new Object[]{strings(packageNames)}, packageTotals);
+        return RDataFactory.createList(new Object[]{upFrame, downFrame, packagesFrame}, strings(new String[]{"upcalls", "downcalls", "packages"}));
+    }
+
+    private static List<Entry> sorted(Collection<Entry> entries) {
+        List<Entry> result = new ArrayList<>(entries);
+        result.sort((a, b) -> Long.compare(b.getNanos(), a.getNanos()));
+        return result;
+    }
+
+    private static long[][] totals(List<Entry> entries) {
+        long[][] result = new long[entries.size()][];
+        for (int i = 0; i < result.length; i++) {
+            Entry entry = entries.get(i);
+            result[i] = new long[]{entry.getCount(), entry.getNanos(), entry.getBytes()};
+        }
+        return result;
+    }
+
+    private static RList dataFrame(String[] keyNames, Object[] keyColumns, long[][] totals) {
+        int rows = totals.length;
+        double[] calls = new double[rows];
+        double[] time = new double[rows];
+        double[] bytes = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            calls[i] = totals[i][0];
+            time[i] = totals[i][1] / 1e9;
+            bytes[i] = totals[i][2];
+        }
+        Object[] columns = new Object[keyColumns.length + 3];
+        String[] names = new String[columns.length];
+        System.arraycopy(keyColumns, 0, columns, 0, keyColumns.length);
+        System.arraycopy(keyNames, 0, names, 0, keyNames.length);
+        int i = keyColumns.length;
+        names[i] = "calls";
+        columns[i++] = RDataFactory.createDoubleVector(calls, RDataFactory.COMPLETE_VECTOR);
+        names[i] = "time";
+        columns[i++] = RDataFactory.createDoubleVector(time, RDataFactory.COMPLETE_VECTOR);
+        names[i] = "bytes";
+        columns[i] = RDataFactory.createDoubleVector(bytes, RDataFactory.COMPLETE_VECTOR);
+        RList result = RDataFactory.createList(columns, strings(names));
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -rows}, RDataFactory.INCOMPLETE_VECTOR));
+        return result;
+    }
+
+    private static RStringVector strings(String[] data) {
+        return RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+    }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.nodes.builtin.fastr;
+
+import static com.oracle.truffle.r.runtime.builtins.RBehavior.COMPLEX;
+import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
+
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Specialization;
+import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.context.MemoryStatistics;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RList;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.data.RStringVector;
+
+/**
+ * Returns the {@link MemoryStatistics} as a list with the elements {@code heap} (bytes used,
+ * committed, maximum and peak), {@code native} (bytes allocated in total, bytes held by R objects,
+ * number and size of native mirrors and number of pending references), {@code gc} (a data frame
+ * with the number of collections and the collection time in seconds per collector) and
+ * {@code vectors} (a data frame with the estimated number and size of live vectors per type, or
+ * {@code NULL} if the {@code VectorCensusSampling} option is not set). Values that are not
+ * available are {@code NA}.
+ */
+@RBuiltin(name = ".fastr.memstats", kind = PRIMITIVE, parameterNames = {}, behavior = COMPLEX)
+public abstract class FastRMemStats extends RBuiltinNode.Arg0 {
+
+    @Specialization
+    @TruffleBoundary
+    protected RList memstats() {
+        MemoryStatistics stats = MemoryStatistics.collect();
+        RDoubleVector heap = named(new String[]{"used", "committed", "max", "peak"}, stats.heapUsed, stats.heapCommitted, stats.heapMax, stats.heapPeak);
+        RDoubleVector nativeMemory = named(new String[]{"allocated", "wrapped", "mirrors", "mirrors.bytes", "pending.references"}, stats.nativeAllocated, stats.nativeWrapped, stats.nativeMirrors,
+                        stats.nativeMirrorsBytes, stats.pendingReferences);
+
+        int collectors = stats.collectors.length;
+        double[] counts = new double[collectors];
+        double[] times = new double[collectors];
+        for (int i = 0; i < collectors; i++) {
+            counts[i] = value(stats.collectionCounts[i]);
+            times[i] = stats.collectionTimes[i] < 0 ? RRuntime.DOUBLE_NA : stats.collectionTimes[i] / 1000.0;
+        }
+        RList gc = dataFrame(new String[]{"collector", "count", "time"}, strings(stats.collectors), doubles(counts), doubles(times));
+
+        Object vectors = RNull.instance;
+        if (stats.vectors != null) {
+            String[] types = new String[stats.vectors.size()];
+            double[] vectorCounts = new double[types.length];
+            double[] vectorBytes = new double[types.length];
+            int i = 0;
+            for (Map.Entry<RType, long[]> entry : stats.vectors.entrySet()) {
+                types[i] = entry.getKey().getName();
+                vectorCounts[i] = entry.getValue()[0];
+                vectorBytes[i] = entry.getValue()[1];
+                i++;
+            }
+            vectors = dataFrame(new String[]{"type", "count", "bytes"}, strings(types), doubles(vectorCounts), doubles(vectorBytes));
+        }
+        return RDataFactory.createList(new Object[]{heap, nativeMemory, gc, vectors}, strings(new String[]{"heap", "native", "gc", "vectors"}));
+    }
+
+    private static double value(long value) {
+        return value < 0 ? RRuntime.DOUBLE_NA : value;
+    }
+
+    private static RDoubleVector named(String[] names, long... values) {
+        double[] data = new double[values.length];
+        boolean complete = true;
+        for (int i = 0; i < values.length; i++) {
+            data[i] = value(values[i]);
+            complete &= values[i] >= 0;
+        }
+        return RDataFactory.createDoubleVector(data, complete, strings(names));
+    }
+
+    private static RList dataFrame(String[] names, Object... columns) {
+        int rows = ((RStringVector) columns[0]).getLength();
+        RList result = RDataFactory.createList(columns, strings(names));
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -rows}, RDataFactory.INCOMPLETE_VECTOR));
+        return result;
+    }
+
+    private static RDoubleVector doubles(double[] data) {
+        boolean complete = true;
+        for (double value : data) {
+            complete &= !RRuntime.isNA(value);
+        }
+        return RDataFactory.createDoubleVector(data, complete);
+    }
+
+    private static RStringVector strings(String[] data) {
+        return RDataFactory.createStringVector(data, RDataFactory.COMPLETE_VECTOR);
+    }
+}
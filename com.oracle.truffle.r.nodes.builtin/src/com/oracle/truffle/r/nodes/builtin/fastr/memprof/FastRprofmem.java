@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -23,6 +23,7 @@
 package com.oracle.truffle.r.nodes.builtin.fastr.memprof;
 
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.eq;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.gt;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 import static com.oracle.truffle.r.runtime.RVisibility.OFF;
@@ -34,10 +35,18 @@ import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
 import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RNull;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerRetention;
 
-@RBuiltin(name = ".fastr.profmem", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on"}, behavior = IO)
-public abstract class FastRprofmem extends RBuiltinNode.Arg1 {
+/**
+ * Turns the tracking of retained memory on or off. When on, every {@code sample}-th allocation is
+ * tracked by {@link MemAllocProfilerRetention} until it is collected, the retained memory per call
+ * site is reported by {@code .fastr.profmem.snapshot(diff = TRUE)}.
+ */
+@RBuiltin(name = ".fastr.profmem", visibility = OFF, kind = PRIMITIVE, parameterNames = {"on", "sample"}, behavior = IO)
+public abstract class FastRprofmem extends RBuiltinNode.Arg2 {
 
     public static final String STACKS_VIEW = "stacks";
     public static final String HOTSPOTS_VIEW = "hotspots";
@@ -45,6 +54,12 @@ public abstract class FastRprofmem extends RBuiltinNode.Arg1 {
     static {
         Casts casts = new Casts(FastRprofmem.class);
         casts.arg("on").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
+        casts.arg("sample").asIntegerVector().mustBe(singleElement()).findFirst().mustBe(gt(0), Message.MUST_BE_POSITIVE_INT, "sample");
+    }
+
+    @Override
+    public Object[] getDefaultParameterValues() {
+        return new Object[]{RRuntime.LOGICAL_TRUE, 100};
     }
 
     static void castViewArg(Casts casts) {
@@ -57,8 +72,14 @@ public abstract class FastRprofmem extends RBuiltinNode.Arg1 {
 
     @Specialization
     @TruffleBoundary
-    public Object doProfMem(@SuppressWarnings("unused") boolean on) {
-        // TODO: port to new instrumentation API, original code can be found in git history
-        throw error(Message.GENERIC, ".fastr.profmem is not available.");
+    public Object doProfMem(boolean on, int sample) {
+        // TODO: port the allocation stacks to the new instrumentation API, original code can be
+        // found in git history
+        if (on) {
+            MemAllocProfilerRetention.getInstance().start(sample);
+        } else {
+            MemAllocProfilerRetention.getInstance().stop();
+        }
+        return RNull.instance;
     }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,37 +24,83 @@ package com.oracle.truffle.r.nodes.builtin.fastr.memprof;
 
 import static com.oracle.truffle.r.nodes.builtin.fastr.memprof.FastRprofmem.castViewArg;
 import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.singleElement;
+import static com.oracle.truffle.r.nodes.builtin.CastBuilder.Predef.toBoolean;
 import static com.oracle.truffle.r.runtime.RVisibility.OFF;
 import static com.oracle.truffle.r.runtime.builtins.RBehavior.IO;
 import static com.oracle.truffle.r.runtime.builtins.RBuiltinKind.PRIMITIVE;
 
+import java.util.List;
+
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.api.interop.TruffleObject;
 import com.oracle.truffle.r.nodes.builtin.RBuiltinNode;
+import com.oracle.truffle.r.runtime.RError.Message;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.builtins.RBuiltin;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RList;
 import com.oracle.truffle.r.runtime.data.RNull;
 import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerPaths;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerRetention;
+import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerRetention.SiteStats;
 import com.oracle.truffle.r.runtime.instrument.memprof.MemAllocProfilerStacks;
 
-@RBuiltin(name = ".fastr.profmem.snapshot", visibility = OFF, kind = PRIMITIVE, parameterNames = {"name", "view"}, behavior = IO)
-public abstract class FastRprofmemSnapshot extends RBuiltinNode.Arg2 {
+/**
+ * Makes a snapshot of the allocation stacks. With {@code diff = TRUE} it instead returns a data
+ * frame with the memory retained by the objects tracked by {@link MemAllocProfilerRetention} per
+ * call site: the columns are {@code site}, {@code count} (estimated number of live objects),
+ * {@code retained} (estimated bytes) and {@code delta}, the change of {@code retained} since the
+ * previous {@code diff = TRUE} snapshot. The rows are sorted by decreasing {@code delta}, so sites
+ * that keep accumulating memory come first.
+ */
+@RBuiltin(name = ".fastr.profmem.snapshot", visibility = OFF, kind = PRIMITIVE, parameterNames = {"name", "view", "diff"}, behavior = IO)
+public abstract class FastRprofmemSnapshot extends RBuiltinNode.Arg3 {
 
     static {
         Casts casts = new Casts(FastRprofmemSnapshot.class);
-        casts.arg("name").asStringVector().mustBe(singleElement()).findFirst();
+        casts.arg("name").allowNull().asStringVector().mustBe(singleElement()).findFirst();
         castViewArg(casts);
+        casts.arg("diff").asLogicalVector().mustBe(singleElement()).findFirst().map(toBoolean());
     }
 
     @Override
     public Object[] getDefaultParameterValues() {
-        return new Object[]{RNull.instance, FastRprofmem.STACKS_VIEW};
+        return new Object[]{RNull.instance, FastRprofmem.STACKS_VIEW, RRuntime.LOGICAL_FALSE};
+    }
+
+    @Specialization(guards = "diff")
+    @TruffleBoundary
+    public RList makeDiff(@SuppressWarnings("unused") Object name, @SuppressWarnings("unused") String view, @SuppressWarnings("unused") boolean diff) {
+        MemAllocProfilerRetention retention = MemAllocProfilerRetention.getInstance();
+        if (!retention.isEnabled()) {
+            throw error(Message.GENERIC, "retention tracking is not enabled, use .fastr.profmem(TRUE)");
+        }
+        List<SiteStats> sites = retention.snapshotDiff();
+        int rows = sites.size();
+        String[] site = new String[rows];
+        double[] count = new double[rows];
+        double[] retained = new double[rows];
+        double[] delta = new double[rows];
+        for (int i = 0; i < rows; i++) {
+            SiteStats stats = sites.get(i);
+            site[i] = stats.getSite();
+            count[i] = stats.getCount();
+            retained[i] = stats.getRetained();
+            delta[i] = stats.getDelta();
+        }
+        Object[] columns = new Object[]{RDataFactory.createStringVector(site, RDataFactory.COMPLETE_VECTOR), RDataFactory.createDoubleVector(count, RDataFactory.COMPLETE_VECTOR),
+                        RDataFactory.createDoubleVector(retained, RDataFactory.COMPLETE_VECTOR), RDataFactory.createDoubleVector(delta, RDataFactory.COMPLETE_VECTOR)};
+        RList result = RDataFactory.createList(columns, RDataFactory.createStringVector(new String[]{"site", "count", "retained", "delta"}, RDataFactory.COMPLETE_VECTOR));
+        result.setClassAttr(RDataFactory.createStringVectorFromScalar(RRuntime.CLASS_DATA_FRAME));
+        result.setAttr(RRuntime.ROWNAMES_ATTR_KEY, RDataFactory.createIntVector(new int[]{RRuntime.INT_NA, -rows}, RDataFactory.INCOMPLETE_VECTOR));
+        return result;
     }
 
-    @Specialization
+    @Specialization(guards = "!diff")
     @TruffleBoundary
-    public TruffleObject makeSnapshot(String name, String view) {
-        MemAllocProfilerPaths snapshot = MemAllocProfilerStacks.getInstance().getStackPaths().getOrMakeSnapshot(name);
+    public TruffleObject makeSnapshot(Object name, String view, @SuppressWarnings("unused") boolean diff) {
+        MemAllocProfilerPaths snapshot = MemAllocProfilerStacks.getInstance().getStackPaths().getOrMakeSnapshot(name instanceof String ? (String) name : null);
 
         if (FastRprofmem.HOTSPOTS_VIEW.equals(view)) {
             snapshot = snapshot.toHS();
@@ -37,10 +37,12 @@ import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.NativeDataAccess;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RComplexVector;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.VectorDataReuse;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
 import org.junit.Test;
 import org.junit.experimental.theories.Theories;
 import org.junit.runner.RunWith;
@@ -147,6 +149,22 @@ public class VectorManipulationTest extends TestBase {
         });
     }
 
+    @Test
+    public void testNativeAllocatedVectors() {
+        execInContext(() -> {
+            RIntVector intVec = RDataFactory.createIntVectorNative(3);
+            assertThat("Not a native vector", intVec.getInternalManagedData() == null);
+            NativeMemory.putInt(NativeDataAccess.getNativeDataAddress(intVec), 1, 42);
+            assertDataContents(intVec, new int[]{0, 42, 0});
+
+            RDoubleVector doubleVec = RDataFactory.createDoubleVectorNative(2);
+            assertThat("Not a native vector", doubleVec.getInternalManagedData() == null);
+            NativeMemory.putDouble(NativeDataAccess.getNativeDataAddress(doubleVec), 0, 1.5);
+            assertDataContents(doubleVec, new double[]{1.5, 0});
+            return null;
+        });
+    }
+
     private static <ArrayT> void assertDataContents(RAbstractVector vec, ArrayT arr) {
         int len = vec.getLength();
         RType type = vec.getRType();
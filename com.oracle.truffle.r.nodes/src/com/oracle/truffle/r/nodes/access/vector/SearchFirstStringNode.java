@@ -40,12 +40,20 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 /**
  * This node encapsulates a speculative search of the first elements in an character vector and
- * returns an integer vector with their indices.
+ * returns an integer vector with their indices. Targets with at least
+ * {@link #ELEMENT_INDEX_THRESHOLD} elements are searched using the
+ * {@link RStringVector#getElementIndex() element index} that the target vector keeps across lookups.
  */
 final class SearchFirstStringNode extends Node {
 
     private static final int[] UNINTIALIZED_CACHED_INDICES = new int[0];
 
+    /**
+     * Minimal length of the target for which the element index of the target is used. The index
+     * costs about ten times the time of a linear search to build.
+     */
+    static final int ELEMENT_INDEX_THRESHOLD = 128;
+
     private final VectorLengthProfile targetLengthProfile = VectorLengthProfile.create();
     private final VectorLengthProfile elementsLengthProfile = VectorLengthProfile.create();
     private final ValueProfile targetClassProfile = ValueProfile.createClassProfile();
@@ -84,6 +92,10 @@ final class SearchFirstStringNode extends Node {
         targetNACheck.enable(target);
         elementsNACheck.enable(elements);
 
+        if (elementIndexProfile.profile(targetLength >= ELEMENT_INDEX_THRESHOLD)) {
+            // validating cached indices would take a linear scan of the target
+            return searchGeneric(targetProfiled, targetLength, elementsProfiled, elementsLength, notFoundStartIndex, false, names);
+        }
         if (cachedIndices == UNINTIALIZED_CACHED_INDICES) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
             cachedIndices = searchCached(targetProfiled, targetLength, elementsProfiled, elementsLength, names);
@@ -172,6 +184,7 @@ final class SearchFirstStringNode extends Node {
 
     private final BranchProfile notFoundProfile = BranchProfile.create();
     private final ConditionProfile hashingProfile = ConditionProfile.createBinaryProfile();
+    private final ConditionProfile elementIndexProfile = ConditionProfile.createBinaryProfile();
 
     private RIntVector searchGeneric(RStringVector target, int targetLength, RStringVector elements, int elementsLength, int notFoundStartIndex, boolean nullOnNotFound,
                     RStringVector names) {
@@ -181,17 +194,19 @@ final class SearchFirstStringNode extends Node {
         long hashingCost = targetLength * 10L + 10 /* constant overhead */;
         long lookupCost = elementsLength * 2L;
         long nestedLoopCost = targetLength * (long) elementsLength;
-        NonRecursiveHashMapCharacter map;
-        if (hashingProfile.profile(nestedLoopCost > hashingCost + lookupCost)) {
+        NonRecursiveHashMapCharacter map = null;
+        if (elementIndexProfile.profile(targetLength >= ELEMENT_INDEX_THRESHOLD)) {
+            map = target.getElementIndex();
+        }
+        if (map == null && hashingProfile.profile(nestedLoopCost > hashingCost + lookupCost)) {
             map = new NonRecursiveHashMapCharacter(targetLength);
-            for (int i = 0; i < targetLength; i++) {
+            // backwards, so that the first occurrence of duplicated names wins
+            for (int i = targetLength - 1; i >= 0; i--) {
                 String name = target.getDataAt(i);
                 if (!targetNACheck.check(name)) {
                     map.put(name, i);
                 }
             }
-        } else {
-            map = null;
         }
         int notFoundIndex = notFoundStartIndex;
         for (int i = 0; i < elementsLength; i++) {
@@ -29,6 +29,7 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.data.RComplex;
 import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleSeqVectorData;
 import com.oracle.truffle.r.runtime.data.RIntSeqVectorData;
 import com.oracle.truffle.r.runtime.data.RSeq;
@@ -97,6 +98,20 @@ public final class BinaryMapArithmeticFunctionNode extends BinaryMapNAFunctionNo
         return null;
     }
 
+    @Override
+    public RDoubleFusedVectorData.Operation getFusedOperation() {
+        if (arithmetic instanceof Add) {
+            return RDoubleFusedVectorData.Operation.ADD;
+        } else if (arithmetic instanceof Subtract) {
+            return RDoubleFusedVectorData.Operation.SUBTRACT;
+        } else if (arithmetic instanceof Multiply) {
+            return RDoubleFusedVectorData.Operation.MULTIPLY;
+        } else if (arithmetic instanceof Div) {
+            return RDoubleFusedVectorData.Operation.DIVIDE;
+        }
+        return null;
+    }
+
     private boolean isSequenceMulArithmetic() {
         return arithmetic instanceof Multiply || arithmetic instanceof IntegerDiv || arithmetic instanceof Div;
     }
@@ -25,10 +25,12 @@ package com.oracle.truffle.r.nodes.primitive;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.data.AbstractContainerLibrary;
 import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary;
 import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
+import com.oracle.truffle.r.runtime.ops.ParallelArithmetic;
 import com.oracle.truffle.r.runtime.data.WarningInfo;
 
 /**
@@ -102,6 +104,15 @@ public abstract class BinaryMapFunctionNode extends RBaseNode {
         return null;
     }
 
+    /**
+     * Returns the operation, if the double results of this function may be deferred and fused with
+     * other operations by {@link RDoubleFusedVectorData} and the double or integer results may be
+     * computed in parallel by {@link ParallelArithmetic}, or <code>null</code>.
+     */
+    public RDoubleFusedVectorData.Operation getFusedOperation() {
+        return null;
+    }
+
     /**
      * Enables the node for the two operation. Invoked once for each BinaryMap operation invocation.
      */
@@ -38,7 +38,12 @@ import com.oracle.truffle.r.runtime.RError;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RRaw;
 import com.oracle.truffle.r.runtime.data.RScalarVector;
 import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
@@ -50,6 +55,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.RandomIterator;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
+import com.oracle.truffle.r.runtime.ops.ParallelArithmetic;
 
 final class BinaryMapScalarNode extends BinaryMapNode {
 
@@ -168,6 +174,8 @@ final class BinaryMapVectorNode extends BinaryMapNode {
     private final ConditionProfile seenEmpty;
     private final ConditionProfile shareLeft;
     private final ConditionProfile shareRight;
+    private final ConditionProfile fuseProfile;
+    private final ConditionProfile parallelProfile;
     private final BranchProfile hasWarningsBranchProfile;
 
     // compile-time optimization flags
@@ -175,6 +183,10 @@ final class BinaryMapVectorNode extends BinaryMapNode {
     private final boolean mayFoldConstantTime;
     private final boolean mayShareLeft;
     private final boolean mayShareRight;
+    private final RDoubleFusedVectorData.Operation fusedOperation;
+    private final int fusedThreshold;
+    private final RDoubleFusedVectorData.Operation parallelOperation;
+    private final int parallelThreshold;
 
     BinaryMapVectorNode(BinaryMapFunctionNode function, RAbstractVector left, RAbstractVector right, RType argumentType, RType resultType, boolean copyAttributes, boolean isGeneric) {
         super(function, left, right, argumentType, resultType);
@@ -193,6 +205,13 @@ final class BinaryMapVectorNode extends BinaryMapNode {
         this.shareLeft = mayShareLeft ? ConditionProfile.createBinaryProfile() : null;
         this.shareRight = mayShareRight ? ConditionProfile.createBinaryProfile() : null;
         this.dimensionsProfile = mayContainMetadata ? ConditionProfile.createBinaryProfile() : null;
+        this.fusedThreshold = RContext.getInstance().getOption(FastROptions.FusedArithmeticThreshold);
+        this.fusedOperation = fusedThreshold > 0 && resultType == RType.Double && argumentType == RType.Double ? function.getFusedOperation() : null;
+        this.fuseProfile = fusedOperation != null ? ConditionProfile.createBinaryProfile() : null;
+        this.parallelThreshold = ParallelArithmetic.getThreshold();
+        boolean parallelTypes = resultType == argumentType && (resultType == RType.Double || resultType == RType.Integer);
+        this.parallelOperation = parallelThreshold > 0 && parallelTypes ? function.getFusedOperation() : null;
+        this.parallelProfile = parallelOperation != null ? ConditionProfile.createBinaryProfile() : null;
 
         this.hasWarningsBranchProfile = BranchProfile.create();
 
@@ -248,6 +267,18 @@ final class BinaryMapVectorNode extends BinaryMapNode {
             Object rightDataCast = rightLibrary.cast(rightData, argumentType);
             target = function.tryFoldConstantTime(warningInfo, leftDataCast, leftLength, rightDataCast, rightLength);
         }
+        if (fusedOperation != null && target == null) {
+            target = tryFuse(left, leftData, leftLength, right, rightData, rightLength);
+            if (target != null) {
+                warningInfo = new WarningInfo();
+            }
+        }
+        if (parallelOperation != null && target == null) {
+            target = tryParallel(left, leftData, leftLength, right, rightData, rightLength);
+            if (target != null) {
+                warningInfo = new WarningInfo();
+            }
+        }
         if (target == null) {
             int maxLength = maxLengthProfile.profile(leftLength >= rightLength) ? leftLength : rightLength;
 
@@ -294,6 +325,66 @@ final class BinaryMapVectorNode extends BinaryMapNode {
         return target;
     }
 
+    /**
+     * Defers the operation if the result is long enough and the operands are double vectors
+     * without attributes (of which the result would need a materialized copy anyway).
+     */
+    private RAbstractVector tryFuse(RAbstractVector left, Object leftData, int leftLength, RAbstractVector right, Object rightData, int rightLength) {
+        if (fuseProfile.profile(Math.max(leftLength, rightLength) >= fusedThreshold && left.getAttributes() == null && right.getAttributes() == null)) {
+            RDoubleFusedVectorData data = RDoubleFusedVectorData.create(fusedOperation, leftData, leftLength, rightData, rightLength);
+            if (data != null) {
+                // the result refers to the data of the operands, they must not be modified in place
+                data.shareOperands(left, right);
+                return RDataFactory.createFusedDoubleVector(data);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Computes the result in parallel if it is long enough and the operands are arrays of the
+     * argument type or scalars. Like in the sequential loop, an integer result is written into the
+     * array of a temporary operand of the same length, each element is read before it is
+     * overwritten. The double operations are computed by {@link RDoubleFusedVectorData}, which reads
+     * the operands again after writing a block to restore {@code NA}, so they always get a new
+     * array.
+     */
+    private RAbstractVector tryParallel(RAbstractVector left, Object leftData, int leftLength, RAbstractVector right, Object rightData, int rightLength) {
+        int length = Math.max(leftLength, rightLength);
+        if (parallelProfile.profile(length >= parallelThreshold && (leftLength == length || leftLength == 1) && (rightLength == length || rightLength == 1))) {
+            RAbstractVector result = null;
+            if (resultType == RType.Double) {
+                RDoubleFusedVectorData data = RDoubleFusedVectorData.create(parallelOperation, leftData, leftLength, rightData, rightLength);
+                if (data != null) {
+                    result = RDataFactory.createDoubleVector(data.getValues(), data.isComplete());
+                }
+            } else if (leftData instanceof RIntArrayVectorData && rightData instanceof RIntArrayVectorData) {
+                int[] leftValues = ((RIntArrayVectorData) leftData).getReadonlyIntData();
+                int[] rightValues = ((RIntArrayVectorData) rightData).getReadonlyIntData();
+                int[] values;
+                if (mayShareLeft && leftLength == length && ((RSharingAttributeStorage) left).isTemporary()) {
+                    values = leftValues;
+                } else if (mayShareRight && rightLength == length && ((RSharingAttributeStorage) right).isTemporary()) {
+                    values = rightValues;
+                } else {
+                    values = new int[length];
+                }
+                WarningInfo warningInfo = new WarningInfo();
+                boolean complete = ParallelArithmetic.applyInteger(parallelOperation, leftValues, rightValues, values, warningInfo);
+                if (warningInfo.hasIntergerOverflow()) {
+                    hasWarningsBranchProfile.enter();
+                    RError.warning(this, RError.Message.INTEGER_OVERFLOW);
+                }
+                result = RDataFactory.createIntVector(values, complete);
+            }
+            if (result != null) {
+                RBaseNode.reportWork(this, length);
+            }
+            return result;
+        }
+        return null;
+    }
+
     private VectorDataLibrary getResultLibrary() {
         if (resultLibrary == null) {
             CompilerDirectives.transferToInterpreterAndInvalidate();
@@ -38,6 +38,14 @@ public abstract class UnaryMapFunctionNode extends RBaseNode {
         return null;
     }
 
+    /**
+     * Returns <code>true</code> if this function is the arithmetic negation, which
+     * {@link UnaryMapNode} computes in parallel for long vectors.
+     */
+    public boolean isNegation() {
+        return false;
+    }
+
     /**
      * Enables all NA checks for the given input vectors.
      */
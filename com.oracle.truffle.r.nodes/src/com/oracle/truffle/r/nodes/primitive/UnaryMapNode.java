@@ -38,7 +38,10 @@ import com.oracle.truffle.r.nodes.profile.VectorLengthProfile;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.RComplex;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.runtime.data.RIntArrayVectorData;
 import com.oracle.truffle.r.runtime.data.RIntVector;
 import com.oracle.truffle.r.runtime.data.RScalarVector;
 import com.oracle.truffle.r.runtime.data.RSharingAttributeStorage;
@@ -47,6 +50,7 @@ import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.RandomIterator;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess.SequentialIterator;
 import com.oracle.truffle.r.runtime.nodes.RBaseNode;
+import com.oracle.truffle.r.runtime.ops.ParallelArithmetic;
 
 final class UnaryMapScalarNode extends UnaryMapNode {
 
@@ -106,12 +110,14 @@ final class UnaryMapVectorNode extends UnaryMapNode {
     private final VectorLengthProfile operandLengthProfile = VectorLengthProfile.create();
     private final BranchProfile hasAttributesProfile;
     private final ConditionProfile shareOperand;
+    private final ConditionProfile parallelProfile;
 
     // compile-time optimization flags
     private final boolean mayContainMetadata;
     private final boolean mayFoldConstantTime;
     private final boolean mayShareOperand;
     private final boolean isGeneric;
+    private final int parallelThreshold;
 
     UnaryMapVectorNode(UnaryMapFunctionNode scalarNode, RAbstractVector operand, RType argumentType, RType resultType, boolean isGeneric) {
         super(scalarNode, operand, argumentType, resultType);
@@ -127,6 +133,9 @@ final class UnaryMapVectorNode extends UnaryMapNode {
         this.shareOperand = mayShareOperand ? ConditionProfile.createBinaryProfile() : null;
         this.hasAttributesProfile = mayContainMetadata ? BranchProfile.create() : null;
 
+        boolean parallelTypes = resultType == argumentType && (resultType == RType.Double || resultType == RType.Integer);
+        this.parallelThreshold = parallelTypes && scalarNode.isNegation() ? ParallelArithmetic.getThreshold() : 0;
+        this.parallelProfile = parallelThreshold > 0 ? ConditionProfile.createBinaryProfile() : null;
     }
 
     @Override
@@ -145,6 +154,9 @@ final class UnaryMapVectorNode extends UnaryMapNode {
         if (mayFoldConstantTime) {
             target = function.tryFoldConstantTime(operand, operandLength);
         }
+        if (parallelThreshold > 0 && target == null) {
+            target = tryParallel(operand, operandLength);
+        }
         if (target == null) {
             VectorAccess operandAccess = isGeneric ? operand.slowPathAccess() : fastOperandAccess;
             boolean targetIsComplete = true;
@@ -175,6 +187,34 @@ final class UnaryMapVectorNode extends UnaryMapNode {
         return target;
     }
 
+    /**
+     * Computes the result in parallel if it is long enough and the operand is an array of the
+     * argument type. Like in the sequential loop, the result is written into the array of a
+     * temporary operand.
+     */
+    private RAbstractVector tryParallel(RAbstractVector operand, int operandLength) {
+        if (parallelProfile.profile(operandLength >= parallelThreshold)) {
+            boolean reuseOperand = mayShareOperand && operand.getRType() == resultType && ((RSharingAttributeStorage) operand).isTemporary();
+            RAbstractVector result = null;
+            if (operand instanceof RDoubleVector && ((RDoubleVector) operand).getData() instanceof RDoubleArrayVectorData) {
+                double[] operandValues = ((RDoubleArrayVectorData) ((RDoubleVector) operand).getData()).getReadonlyDoubleData();
+                double[] values = reuseOperand ? operandValues : new double[operandLength];
+                boolean complete = ParallelArithmetic.negate(operandValues, values);
+                result = RDataFactory.createDoubleVector(values, complete);
+            } else if (operand instanceof RIntVector && ((RIntVector) operand).getData() instanceof RIntArrayVectorData) {
+                int[] operandValues = ((RIntArrayVectorData) ((RIntVector) operand).getData()).getReadonlyIntData();
+                int[] values = reuseOperand ? operandValues : new int[operandLength];
+                boolean complete = ParallelArithmetic.negate(operandValues, values);
+                result = RDataFactory.createIntVector(values, complete);
+            }
+            if (result != null) {
+                RBaseNode.reportWork(this, operandLength);
+            }
+            return result;
+        }
+        return null;
+    }
+
     private RAbstractVector handleMetadata(RAbstractVector target, RAbstractVector operand) {
         RAbstractVector result = target;
         if (containsMetadata(operand) && operand != target) {
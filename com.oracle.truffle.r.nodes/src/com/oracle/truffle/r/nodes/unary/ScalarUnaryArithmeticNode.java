@@ -73,6 +73,11 @@ public class ScalarUnaryArithmeticNode extends UnaryMapNAFunctionNode {
         return false;
     }
 
+    @Override
+    public boolean isNegation() {
+        return arithmetic instanceof Negate;
+    }
+
     @Override
     public final double applyDouble(double operand) {
         if (operandNACheck.check(operand)) {
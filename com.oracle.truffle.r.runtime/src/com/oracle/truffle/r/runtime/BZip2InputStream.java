@@ -0,0 +1,490 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streaming decompressor for the bzip2 format. Only one block (at most 900k) of decompressed data
+ * is held in memory at any time. Concatenated streams, as produced e.g. by {@code pbzip2} or by
+ * appending to a {@code bzfile} connection, are decompressed as one stream.
+ */
+public final class BZip2InputStream extends InputStream {
+
+    static final int BLOCK_MAGIC_HI = 0x314159;
+    static final int BLOCK_MAGIC_LO = 0x265359;
+    static final int EOS_MAGIC_HI = 0x177245;
+    static final int EOS_MAGIC_LO = 0x385090;
+
+    static final int RUNA = 0;
+    static final int RUNB = 1;
+    static final int GROUP_SIZE = 50;
+    static final int MAX_GROUPS = 6;
+    static final int MAX_SELECTORS = 18002;
+    static final int MAX_ALPHA_SIZE = 258;
+    private static final int MAX_CODE_LEN = 20;
+
+    static final int[] CRC_TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int c = i << 24;
+            for (int j = 0; j < 8; j++) {
+                c = (c & 0x80000000) != 0 ? (c << 1) ^ 0x04c11db7 : c << 1;
+            }
+            CRC_TABLE[i] = c;
+        }
+    }
+
+    private InputStream in;
+    private final byte[] inBuf = new byte[8192];
+    private int inPos;
+    private int inLimit;
+    private long bitBuf;
+    private int bitCount;
+
+    private int blockSize100k;
+    private int[] tt;
+    private boolean inBlock;
+    private boolean eof;
+
+    private int storedBlockCRC;
+    private int storedCombinedCRC;
+    private int blockCRC;
+    private int combinedCRC;
+
+    // state of the output of the current block
+    private int tPos;
+    private int remaining;
+    private int lastChar;
+    private int runLength;
+    private int repeatChar;
+    private int repeatsLeft;
+
+    // scratch space for the Huffman decoding
+    private final byte[] selectors = new byte[MAX_SELECTORS];
+    private final byte[][] lengths = new byte[MAX_GROUPS][MAX_ALPHA_SIZE];
+    private final int[][] limit = new int[MAX_GROUPS][MAX_CODE_LEN + 3];
+    private final int[][] base = new int[MAX_GROUPS][MAX_CODE_LEN + 3];
+    private final int[][] perm = new int[MAX_GROUPS][MAX_ALPHA_SIZE];
+    private final int[] minLens = new int[MAX_GROUPS];
+
+    public BZip2InputStream(InputStream in) throws IOException {
+        this.in = in;
+        if (!readStreamHeader()) {
+            throw new IOException("not a bzip2 stream");
+        }
+    }
+
+    /**
+     * Decompresses the whole of {@code cdata} into {@code udata}, returning {@code true} if the
+     * decompressed data has exactly the length of {@code udata}.
+     */
+    public static boolean uncompress(byte[] udata, InputStream cdata) {
+        try (BZip2InputStream bzipStream = new BZip2InputStream(cdata)) {
+            int totalRead = 0;
+            int n;
+            while (totalRead < udata.length && (n = bzipStream.read(udata, totalRead, udata.length - totalRead)) > 0) {
+                totalRead += n;
+            }
+            return totalRead == udata.length && bzipStream.read() == -1;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (in == null) {
+            throw new IOException("stream closed");
+        }
+        if (len == 0) {
+            return 0;
+        }
+        int n = 0;
+        int crc = blockCRC;
+        while (n < len) {
+            if (repeatsLeft > 0) {
+                int count = Math.min(repeatsLeft, len - n);
+                for (int i = 0; i < count; i++) {
+                    b[off + n++] = (byte) repeatChar;
+                    crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ repeatChar) & 0xff];
+                }
+                repeatsLeft -= count;
+                continue;
+            }
+            if (remaining == 0) {
+                blockCRC = crc;
+                if (eof || !nextBlock()) {
+                    return n == 0 ? -1 : n;
+                }
+                crc = blockCRC;
+                continue;
+            }
+            int pos = tt[tPos];
+            int ch = pos & 0xff;
+            tPos = pos >>> 8;
+            remaining--;
+            if (runLength == 4) {
+                // the byte after four equal bytes is the number of additional repetitions
+                repeatChar = lastChar;
+                repeatsLeft = ch;
+                runLength = 0;
+                lastChar = -1;
+                continue;
+            }
+            if (ch == lastChar) {
+                runLength++;
+            } else {
+                lastChar = ch;
+                runLength = 1;
+            }
+            b[off + n++] = (byte) ch;
+            crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ ch) & 0xff];
+        }
+        blockCRC = crc;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) {
+            in.close();
+            in = null;
+            tt = null;
+        }
+    }
+
+    /**
+     * Finishes the current block and decodes the next one, returns {@code false} at the end of the
+     * (last) stream.
+     */
+    private boolean nextBlock() throws IOException {
+        if (inBlock) {
+            if (~blockCRC != storedBlockCRC) {
+                throw new IOException("bzip2 block CRC error");
+            }
+            combinedCRC = ((combinedCRC << 1) | (combinedCRC >>> 31)) ^ storedBlockCRC;
+            inBlock = false;
+        }
+        while (true) {
+            int magicHi = readBits(24);
+            int magicLo = readBits(24);
+            if (magicHi == BLOCK_MAGIC_HI && magicLo == BLOCK_MAGIC_LO) {
+                storedBlockCRC = readInt();
+                decodeBlock();
+                inBlock = true;
+                return true;
+            } else if (magicHi == EOS_MAGIC_HI && magicLo == EOS_MAGIC_LO) {
+                storedCombinedCRC = readInt();
+                if (storedCombinedCRC != combinedCRC) {
+                    throw new IOException("bzip2 stream CRC error");
+                }
+                // the stream is padded to a whole byte, another stream may follow
+                bitCount -= bitCount & 7;
+                if (!readStreamHeader()) {
+                    eof = true;
+                    return false;
+                }
+            } else {
+                throw new IOException("bzip2 data corrupted");
+            }
+        }
+    }
+
+    private boolean readStreamHeader() throws IOException {
+        if (!ensureBits(8)) {
+            return false;
+        }
+        if (readBits(8) != 'B' || !ensureBits(24) || readBits(8) != 'Z' || readBits(8) != 'h') {
+            // trailing garbage is ignored like in GNU R
+            return false;
+        }
+        int level = readBits(8) - '0';
+        if (level < 1 || level > 9) {
+            throw new IOException("invalid bzip2 block size");
+        }
+        if (tt == null || level > blockSize100k) {
+            tt = new int[level * 100000];
+        }
+        blockSize100k = level;
+        combinedCRC = 0;
+        return true;
+    }
+
+    private void decodeBlock() throws IOException {
+        blockCRC = 0xffffffff;
+        if (readBits(1) != 0) {
+            throw new IOException("randomised bzip2 blocks are not supported");
+        }
+        int origPtr = readBits(24);
+
+        // the symbol map
+        int[] seqToUnseq = new int[256];
+        int nInUse = 0;
+        int inUse16 = readBits(16);
+        for (int i = 0; i < 16; i++) {
+            if ((inUse16 & (0x8000 >>> i)) != 0) {
+                int inUse = readBits(16);
+                for (int j = 0; j < 16; j++) {
+                    if ((inUse & (0x8000 >>> j)) != 0) {
+                        seqToUnseq[nInUse++] = i * 16 + j;
+                    }
+                }
+            }
+        }
+        if (nInUse == 0) {
+            throw new IOException("bzip2 data corrupted");
+        }
+        int alphaSize = nInUse + 2;
+
+        // the selectors, MTF encoded
+        int nGroups = readBits(3);
+        int nSelectors = readBits(15);
+        if (nGroups < 2 || nGroups > MAX_GROUPS || nSelectors < 1) {
+            throw new IOException("bzip2 data corrupted");
+        }
+        byte[] pos = new byte[MAX_GROUPS];
+        for (int i = 0; i < nGroups; i++) {
+            pos[i] = (byte) i;
+        }
+        for (int i = 0; i < nSelectors; i++) {
+            int j = 0;
+            while (readBits(1) != 0) {
+                j++;
+                if (j >= nGroups) {
+                    throw new IOException("bzip2 data corrupted");
+                }
+            }
+            byte v = pos[j];
+            System.arraycopy(pos, 0, pos, 1, j);
+            pos[0] = v;
+            if (i < MAX_SELECTORS) {
+                selectors[i] = v;
+            }
+        }
+        nSelectors = Math.min(nSelectors, MAX_SELECTORS);
+
+        // the coding tables
+        for (int t = 0; t < nGroups; t++) {
+            int curr = readBits(5);
+            for (int i = 0; i < alphaSize; i++) {
+                while (true) {
+                    if (curr < 1 || curr > MAX_CODE_LEN) {
+                        throw new IOException("bzip2 data corrupted");
+                    }
+                    if (readBits(1) == 0) {
+                        break;
+                    }
+                    curr += readBits(1) == 0 ? 1 : -1;
+                }
+                lengths[t][i] = (byte) curr;
+            }
+            createDecodeTable(t, alphaSize);
+        }
+
+        // the MTF values
+        int[] unzftab = new int[256];
+        byte[] yy = new byte[256];
+        for (int i = 0; i < 256; i++) {
+            yy[i] = (byte) i;
+        }
+        int[] ttLocal = tt;
+        int limitLast = blockSize100k * 100000;
+        int eob = nInUse + 1;
+        int nblock = 0;
+        int groupNo = -1;
+        int groupPos = 0;
+        int table = 0;
+        int runAcc = 0;
+        int runBit = 1;
+        while (true) {
+            if (groupPos == 0) {
+                groupNo++;
+                if (groupNo >= nSelectors) {
+                    throw new IOException("bzip2 data corrupted");
+                }
+                groupPos = GROUP_SIZE;
+                table = selectors[groupNo];
+            }
+            groupPos--;
+            int sym = decodeSymbol(table);
+            if (sym == RUNA || sym == RUNB) {
+                runAcc += (sym == RUNA ? 1 : 2) * runBit;
+                runBit <<= 1;
+                if (runAcc > limitLast) {
+                    throw new IOException("bzip2 data corrupted");
+                }
+                continue;
+            }
+            if (runAcc > 0) {
+                // flush the pending run of the front symbol
+                if (nblock + runAcc > limitLast) {
+                    throw new IOException("bzip2 data corrupted");
+                }
+                int uc = seqToUnseq[yy[0] & 0xff];
+                unzftab[uc] += runAcc;
+                for (int i = 0; i < runAcc; i++) {
+                    ttLocal[nblock++] = uc;
+                }
+                runAcc = 0;
+                runBit = 1;
+            }
+            if (sym == eob) {
+                break;
+            }
+            if (nblock >= limitLast) {
+                throw new IOException("bzip2 data corrupted");
+            }
+            int j = sym - 1;
+            byte v = yy[j];
+            System.arraycopy(yy, 0, yy, 1, j);
+            yy[0] = v;
+            int uc = seqToUnseq[v & 0xff];
+            unzftab[uc]++;
+            ttLocal[nblock++] = uc;
+        }
+        if (origPtr >= nblock) {
+            throw new IOException("bzip2 data corrupted");
+        }
+
+        // inverse BWT
+        int[] cftab = new int[256];
+        for (int i = 0, sum = 0; i < 256; i++) {
+            cftab[i] = sum;
+            sum += unzftab[i];
+        }
+        for (int i = 0; i < nblock; i++) {
+            int uc = ttLocal[i] & 0xff;
+            ttLocal[cftab[uc]++] |= i << 8;
+        }
+        tPos = ttLocal[origPtr] >>> 8;
+        remaining = nblock;
+        lastChar = -1;
+        runLength = 0;
+        repeatsLeft = 0;
+    }
+
+    private void createDecodeTable(int t, int alphaSize) {
+        byte[] len = lengths[t];
+        int[] lim = limit[t];
+        int[] bas = base[t];
+        int[] prm = perm[t];
+        int minLen = 32;
+        int maxLen = 0;
+        for (int i = 0; i < alphaSize; i++) {
+            minLen = Math.min(minLen, len[i]);
+            maxLen = Math.max(maxLen, len[i]);
+        }
+        int pp = 0;
+        for (int i = minLen; i <= maxLen; i++) {
+            for (int j = 0; j < alphaSize; j++) {
+                if (len[j] == i) {
+                    prm[pp++] = j;
+                }
+            }
+        }
+        for (int i = 0; i < bas.length; i++) {
+            bas[i] = 0;
+            lim[i] = 0;
+        }
+        for (int i = 0; i < alphaSize; i++) {
+            bas[len[i] + 1]++;
+        }
+        for (int i = 1; i < bas.length; i++) {
+            bas[i] += bas[i - 1];
+        }
+        int vec = 0;
+        for (int i = minLen; i <= maxLen; i++) {
+            vec += bas[i + 1] - bas[i];
+            lim[i] = vec - 1;
+            vec <<= 1;
+        }
+        for (int i = minLen + 1; i <= maxLen; i++) {
+            bas[i] = ((lim[i - 1] + 1) << 1) - bas[i];
+        }
+        // codes longer than the longest one never match
+        for (int i = maxLen + 1; i < lim.length; i++) {
+            lim[i] = Integer.MAX_VALUE;
+        }
+        minLens[t] = minLen;
+    }
+
+    private int decodeSymbol(int t) throws IOException {
+        int[] lim = limit[t];
+        int zn = minLens[t];
+        int zvec = readBits(zn);
+        while (zvec > lim[zn]) {
+            zn++;
+            if (zn > MAX_CODE_LEN) {
+                throw new IOException("bzip2 data corrupted");
+            }
+            zvec = (zvec << 1) | readBits(1);
+        }
+        int idx = zvec - base[t][zn];
+        if (idx < 0 || idx >= MAX_ALPHA_SIZE) {
+            throw new IOException("bzip2 data corrupted");
+        }
+        return perm[t][idx];
+    }
+
+    private int readInt() throws IOException {
+        return (readBits(16) << 16) | readBits(16);
+    }
+
+    /**
+     * Makes sure that at least {@code n} bits are buffered, returns {@code false} at the end of the
+     * input.
+     */
+    private boolean ensureBits(int n) throws IOException {
+        while (bitCount < n) {
+            if (inPos == inLimit) {
+                inLimit = in.read(inBuf, 0, inBuf.length);
+                inPos = 0;
+                if (inLimit <= 0) {
+                    inLimit = 0;
+                    return false;
+                }
+            }
+            bitBuf = (bitBuf << 8) | (inBuf[inPos++] & 0xff);
+            bitCount += 8;
+        }
+        return true;
+    }
+
+    private int readBits(int n) throws IOException {
+        if (!ensureBits(n)) {
+            throw new EOFException("unexpected end of bzip2 stream");
+        }
+        bitCount -= n;
+        return (int) (bitBuf >>> bitCount) & ((1 << n) - 1);
+    }
+}
@@ -0,0 +1,580 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import static com.oracle.truffle.r.runtime.BZip2InputStream.BLOCK_MAGIC_HI;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.BLOCK_MAGIC_LO;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.CRC_TABLE;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.EOS_MAGIC_HI;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.EOS_MAGIC_LO;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.GROUP_SIZE;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.MAX_ALPHA_SIZE;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.MAX_GROUPS;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.RUNA;
+import static com.oracle.truffle.r.runtime.BZip2InputStream.RUNB;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+
+/**
+ * Streaming compressor for the bzip2 format, the output can be read by the {@code bzip2} tool and
+ * by {@link BZip2InputStream}. The data is compressed block by block, so only one block (at most
+ * 900k) is held in memory at any time.
+ *
+ * The Burrows-Wheeler transform is computed by sorting the rotations of the block with prefix
+ * doubling, which takes {@code O(n log n)} time regardless of how repetitive the data is.
+ */
+public final class BZip2OutputStream extends OutputStream {
+
+    private static final int MAX_CODE_LEN = 17;
+    private static final int ITERATIONS = 4;
+
+    private OutputStream out;
+    private final byte[] outBuf = new byte[8192];
+    private int outPos;
+    private long bitBuf;
+    private int bitCount;
+
+    private final byte[] block;
+    private final int blockLimit;
+    private int blockLength;
+    private int blockCRC = 0xffffffff;
+    private int combinedCRC;
+    private boolean finished;
+
+    // state of the initial run-length encoding
+    private int currentChar = -1;
+    private int runLength;
+
+    public BZip2OutputStream(OutputStream out) throws IOException {
+        this(out, 9);
+    }
+
+    /**
+     * @param blockSize100k the block size in units of 100k, {@code 1} to {@code 9}
+     */
+    public BZip2OutputStream(OutputStream out, int blockSize100k) throws IOException {
+        if (blockSize100k < 1 || blockSize100k > 9) {
+            throw new IllegalArgumentException("invalid bzip2 block size");
+        }
+        this.out = out;
+        // leave space for one run that does not fit
+        this.blockLimit = blockSize100k * 100000 - 19;
+        this.block = new byte[blockLimit];
+        writeBits(8, 'B');
+        writeBits(8, 'Z');
+        writeBits(8, 'h');
+        writeBits(8, '0' + blockSize100k);
+    }
+
+    /**
+     * Compresses {@code udata}, returns the compressed data.
+     */
+    public static byte[] compress(byte[] udata) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream(udata.length / 4 + 64);
+        try (BZip2OutputStream bzipStream = new BZip2OutputStream(bos)) {
+            bzipStream.write(udata);
+        }
+        return bos.toByteArray();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        int ch = b & 0xff;
+        if (ch == currentChar && runLength < 255) {
+            runLength++;
+        } else {
+            flushRun();
+            currentChar = ch;
+            runLength = 1;
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (out == null) {
+            throw new IOException("stream closed");
+        }
+        int ch = currentChar;
+        int run = runLength;
+        for (int i = off; i < off + len; i++) {
+            int c = b[i] & 0xff;
+            if (c == ch && run < 255) {
+                run++;
+            } else {
+                runLength = run;
+                flushRun();
+                ch = c;
+                run = 1;
+                currentChar = c;
+            }
+        }
+        runLength = run;
+    }
+
+    /**
+     * Completes the bzip2 stream without closing the underlying stream.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        flushRun();
+        currentChar = -1;
+        endBlock();
+        writeBits(24, EOS_MAGIC_HI);
+        writeBits(24, EOS_MAGIC_LO);
+        writeInt(combinedCRC);
+        if ((bitCount & 7) != 0) {
+            writeBits(8 - (bitCount & 7), 0);
+        }
+        out.write(outBuf, 0, outPos);
+        outPos = 0;
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            try {
+                finish();
+            } finally {
+                out.close();
+                out = null;
+            }
+        }
+    }
+
+    /**
+     * Adds the pending run of {@link #currentChar} to the block, runs of four and more bytes are
+     * stored as four bytes followed by the number of remaining repetitions.
+     */
+    private void flushRun() throws IOException {
+        if (runLength == 0) {
+            return;
+        }
+        int size = runLength < 4 ? runLength : 5;
+        if (blockLength + size > blockLimit) {
+            endBlock();
+        }
+        int ch = currentChar;
+        int crc = blockCRC;
+        for (int i = 0; i < runLength; i++) {
+            crc = (crc << 8) ^ CRC_TABLE[((crc >>> 24) ^ ch) & 0xff];
+        }
+        blockCRC = crc;
+        for (int i = 0; i < Math.min(runLength, 4); i++) {
+            block[blockLength++] = (byte) ch;
+        }
+        if (runLength >= 4) {
+            block[blockLength++] = (byte) (runLength - 4);
+        }
+        runLength = 0;
+    }
+
+    private void endBlock() throws IOException {
+        if (blockLength == 0) {
+            return;
+        }
+        int crc = ~blockCRC;
+        combinedCRC = ((combinedCRC << 1) | (combinedCRC >>> 31)) ^ crc;
+
+        int n = blockLength;
+        int[] sa = sortRotations(block, n);
+        byte[] last = new byte[n];
+        int origPtr = -1;
+        for (int i = 0; i < n; i++) {
+            int p = sa[i];
+            if (p == 0) {
+                origPtr = i;
+                last[i] = block[n - 1];
+            } else {
+                last[i] = block[p - 1];
+            }
+        }
+
+        writeBits(24, BLOCK_MAGIC_HI);
+        writeBits(24, BLOCK_MAGIC_LO);
+        writeInt(crc);
+        writeBits(1, 0);
+        writeBits(24, origPtr);
+        writeMTFValues(last, n);
+
+        blockLength = 0;
+        blockCRC = 0xffffffff;
+    }
+
+    /**
+     * Returns the start indexes of the rotations of {@code data[0, n)} in sorted order.
+     */
+    private static int[] sortRotations(byte[] data, int n) {
+        int[] sa = new int[n];
+        int[] rank = new int[n];
+        int[] tmp = new int[n];
+        int[] count = new int[Math.max(256, n)];
+        for (int i = 0; i < n; i++) {
+            rank[i] = data[i] & 0xff;
+            count[rank[i]]++;
+        }
+        for (int i = 1; i < 256; i++) {
+            count[i] += count[i - 1];
+        }
+        for (int i = n - 1; i >= 0; i--) {
+            sa[--count[rank[i]]] = i;
+        }
+        int classes = 256;
+        for (int k = 1; k < n; k <<= 1) {
+            // sa is sorted by the first k bytes, sort by the first 2k bytes: order by the second
+            // half is given by sa shifted by k, then stable counting sort by the first half
+            for (int i = 0; i < n; i++) {
+                int p = sa[i] - k;
+                tmp[i] = p < 0 ? p + n : p;
+            }
+            Arrays.fill(count, 0, classes, 0);
+            for (int i = 0; i < n; i++) {
+                count[rank[i]]++;
+            }
+            for (int i = 1; i < classes; i++) {
+                count[i] += count[i - 1];
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                int p = tmp[i];
+                sa[--count[rank[p]]] = p;
+            }
+            tmp[sa[0]] = 0;
+            classes = 1;
+            for (int i = 1; i < n; i++) {
+                int cur = sa[i];
+                int prev = sa[i - 1];
+                int curK = cur + k;
+                int prevK = prev + k;
+                if (rank[cur] != rank[prev] || rank[curK < n ? curK : curK - n] != rank[prevK < n ? prevK : prevK - n]) {
+                    classes++;
+                }
+                tmp[cur] = classes - 1;
+            }
+            int[] t = rank;
+            rank = tmp;
+            tmp = t;
+            if (classes == n) {
+                break;
+            }
+        }
+        return sa;
+    }
+
+    private void writeMTFValues(byte[] last, int n) throws IOException {
+        boolean[] inUse = new boolean[256];
+        for (int i = 0; i < n; i++) {
+            inUse[last[i] & 0xff] = true;
+        }
+        int[] unseqToSeq = new int[256];
+        int nInUse = 0;
+        for (int i = 0; i < 256; i++) {
+            if (inUse[i]) {
+                unseqToSeq[i] = nInUse++;
+            }
+        }
+        int alphaSize = nInUse + 2;
+        int eob = nInUse + 1;
+
+        // move-to-front followed by the run-length encoding of zeros with RUNA and RUNB
+        char[] mtfv = new char[n + 1];
+        int[] mtfFreq = new int[alphaSize];
+        byte[] yy = new byte[nInUse];
+        for (int i = 0; i < nInUse; i++) {
+            yy[i] = (byte) i;
+        }
+        int nMTF = 0;
+        int zPend = 0;
+        for (int i = 0; i < n; i++) {
+            byte v = (byte) unseqToSeq[last[i] & 0xff];
+            if (yy[0] == v) {
+                zPend++;
+                continue;
+            }
+            if (zPend > 0) {
+                nMTF = writeRun(mtfv, nMTF, mtfFreq, zPend);
+                zPend = 0;
+            }
+            int j = 1;
+            while (yy[j] != v) {
+                j++;
+            }
+            System.arraycopy(yy, 0, yy, 1, j);
+            yy[0] = v;
+            mtfv[nMTF++] = (char) (j + 1);
+            mtfFreq[j + 1]++;
+        }
+        if (zPend > 0) {
+            nMTF = writeRun(mtfv, nMTF, mtfFreq, zPend);
+        }
+        mtfv[nMTF++] = (char) eob;
+        mtfFreq[eob]++;
+
+        int nGroups = nMTF < 200 ? 2 : nMTF < 600 ? 3 : nMTF < 1200 ? 4 : nMTF < 2400 ? 5 : MAX_GROUPS;
+        int nSelectors = (nMTF + GROUP_SIZE - 1) / GROUP_SIZE;
+        byte[] selectors = new byte[nSelectors];
+        int[][] len = computeTables(mtfv, nMTF, mtfFreq, alphaSize, nGroups, selectors);
+
+        // the symbol map
+        int inUse16 = 0;
+        for (int i = 0; i < 16; i++) {
+            for (int j = 0; j < 16; j++) {
+                if (inUse[i * 16 + j]) {
+                    inUse16 |= 0x8000 >>> i;
+                }
+            }
+        }
+        writeBits(16, inUse16);
+        for (int i = 0; i < 16; i++) {
+            if ((inUse16 & (0x8000 >>> i)) != 0) {
+                int bits = 0;
+                for (int j = 0; j < 16; j++) {
+                    if (inUse[i * 16 + j]) {
+                        bits |= 0x8000 >>> j;
+                    }
+                }
+                writeBits(16, bits);
+            }
+        }
+
+        // the selectors, MTF encoded
+        writeBits(3, nGroups);
+        writeBits(15, nSelectors);
+        byte[] pos = new byte[nGroups];
+        for (int i = 0; i < nGroups; i++) {
+            pos[i] = (byte) i;
+        }
+        for (int i = 0; i < nSelectors; i++) {
+            byte v = selectors[i];
+            int j = 0;
+            while (pos[j] != v) {
+                j++;
+            }
+            System.arraycopy(pos, 0, pos, 1, j);
+            pos[0] = v;
+            for (int k = 0; k < j; k++) {
+                writeBits(1, 1);
+            }
+            writeBits(1, 0);
+        }
+
+        // the coding tables, delta encoded
+        int[][] codes = new int[nGroups][alphaSize];
+        for (int t = 0; t < nGroups; t++) {
+            int[] l = len[t];
+            int curr = l[0];
+            writeBits(5, curr);
+            for (int i = 0; i < alphaSize; i++) {
+                while (curr < l[i]) {
+                    writeBits(2, 2);
+                    curr++;
+                }
+                while (curr > l[i]) {
+                    writeBits(2, 3);
+                    curr--;
+                }
+                writeBits(1, 0);
+            }
+            assignCodes(l, codes[t], alphaSize);
+        }
+
+        // the data
+        for (int g = 0, gs = 0; gs < nMTF; g++, gs += GROUP_SIZE) {
+            int ge = Math.min(gs + GROUP_SIZE, nMTF);
+            int[] l = len[selectors[g]];
+            int[] c = codes[selectors[g]];
+            for (int i = gs; i < ge; i++) {
+                int sym = mtfv[i];
+                writeBits(l[sym], c[sym]);
+            }
+        }
+    }
+
+    /**
+     * Encodes a run of {@code zPend} zeros in bijective base 2 with the digits {@code RUNA} (1)
+     * and {@code RUNB} (2).
+     */
+    private static int writeRun(char[] mtfv, int nMTFStart, int[] mtfFreq, int zPend) {
+        int nMTF = nMTFStart;
+        int z = zPend - 1;
+        while (true) {
+            int sym = (z & 1) == 0 ? RUNA : RUNB;
+            mtfv[nMTF++] = (char) sym;
+            mtfFreq[sym]++;
+            if (z < 2) {
+                break;
+            }
+            z = (z - 2) >> 1;
+        }
+        return nMTF;
+    }
+
+    /**
+     * Chooses the coding table for each group of {@link BZip2InputStream#GROUP_SIZE} symbols and
+     * computes the code lengths of the tables, the tables are refined in a few iterations starting
+     * from tables that each cover a range of symbols with similar total frequency.
+     */
+    private static int[][] computeTables(char[] mtfv, int nMTF, int[] mtfFreq, int alphaSize, int nGroups, byte[] selectors) {
+        int[][] len = new int[nGroups][alphaSize];
+        int remF = nMTF;
+        int gs = 0;
+        for (int nPart = nGroups; nPart > 0; nPart--) {
+            int tFreq = remF / nPart;
+            int ge = gs - 1;
+            int aFreq = 0;
+            while (aFreq < tFreq && ge < alphaSize - 1) {
+                ge++;
+                aFreq += mtfFreq[ge];
+            }
+            if (ge > gs && nPart != nGroups && nPart != 1 && ((nGroups - nPart) % 2 == 1)) {
+                aFreq -= mtfFreq[ge];
+                ge--;
+            }
+            for (int v = 0; v < alphaSize; v++) {
+                len[nPart - 1][v] = v >= gs && v <= ge ? 0 : 15;
+            }
+            gs = ge + 1;
+            remF -= aFreq;
+        }
+
+        int[][] freq = new int[nGroups][alphaSize];
+        int[] cost = new int[nGroups];
+        for (int iter = 0; iter < ITERATIONS; iter++) {
+            for (int t = 0; t < nGroups; t++) {
+                Arrays.fill(freq[t], 0);
+            }
+            int g = 0;
+            for (int start = 0; start < nMTF; start += GROUP_SIZE) {
+                int end = Math.min(start + GROUP_SIZE, nMTF);
+                Arrays.fill(cost, 0);
+                for (int i = start; i < end; i++) {
+                    int sym = mtfv[i];
+                    for (int t = 0; t < nGroups; t++) {
+                        cost[t] += len[t][sym];
+                    }
+                }
+                int best = 0;
+                for (int t = 1; t < nGroups; t++) {
+                    if (cost[t] < cost[best]) {
+                        best = t;
+                    }
+                }
+                selectors[g++] = (byte) best;
+                for (int i = start; i < end; i++) {
+                    freq[best][mtfv[i]]++;
+                }
+            }
+            for (int t = 0; t < nGroups; t++) {
+                makeCodeLengths(len[t], freq[t], alphaSize);
+            }
+        }
+        return len;
+    }
+
+    /**
+     * Computes Huffman code lengths no longer than {@link #MAX_CODE_LEN}, if the tree is too deep,
+     * the frequencies are flattened and the tree is built again.
+     */
+    private static void makeCodeLengths(int[] len, int[] freq, int alphaSize) {
+        int[] weight = new int[2 * MAX_ALPHA_SIZE];
+        int[] parent = new int[2 * MAX_ALPHA_SIZE];
+        for (int i = 0; i < alphaSize; i++) {
+            weight[i] = Math.max(1, freq[i]) << 8;
+        }
+        while (true) {
+            PriorityQueue<Integer> heap = new PriorityQueue<>(alphaSize, (a, b) -> weight[a] != weight[b] ? Integer.compare(weight[a], weight[b]) : Integer.compare(a, b));
+            for (int i = 0; i < alphaSize; i++) {
+                heap.add(i);
+                parent[i] = -1;
+            }
+            int nNodes = alphaSize;
+            while (heap.size() > 1) {
+                int a = heap.poll();
+                int b = heap.poll();
+                weight[nNodes] = weight[a] + weight[b];
+                parent[a] = nNodes;
+                parent[b] = nNodes;
+                parent[nNodes] = -1;
+                heap.add(nNodes);
+                nNodes++;
+            }
+            boolean tooLong = false;
+            for (int i = 0; i < alphaSize; i++) {
+                int depth = 0;
+                for (int k = i; parent[k] >= 0; k = parent[k]) {
+                    depth++;
+                }
+                len[i] = depth;
+                tooLong |= depth > MAX_CODE_LEN;
+            }
+            if (!tooLong) {
+                return;
+            }
+            for (int i = 0; i < alphaSize; i++) {
+                weight[i] = (1 + ((weight[i] >> 8) / 2)) << 8;
+            }
+        }
+    }
+
+    private static void assignCodes(int[] len, int[] codes, int alphaSize) {
+        int minLen = 32;
+        int maxLen = 0;
+        for (int i = 0; i < alphaSize; i++) {
+            minLen = Math.min(minLen, len[i]);
+            maxLen = Math.max(maxLen, len[i]);
+        }
+        int vec = 0;
+        for (int n = minLen; n <= maxLen; n++) {
+            for (int i = 0; i < alphaSize; i++) {
+                if (len[i] == n) {
+                    codes[i] = vec++;
+                }
+            }
+            vec <<= 1;
+        }
+    }
+
+    private void writeInt(int value) throws IOException {
+        writeBits(16, value >>> 16);
+        writeBits(16, value & 0xffff);
+    }
+
+    private void writeBits(int n, int value) throws IOException {
+        bitBuf = (bitBuf << n) | value;
+        bitCount += n;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            if (outPos == outBuf.length) {
+                out.write(outBuf, 0, outPos);
+                outPos = 0;
+            }
+            outBuf[outPos++] = (byte) (bitBuf >>> bitCount);
+        }
+    }
+}
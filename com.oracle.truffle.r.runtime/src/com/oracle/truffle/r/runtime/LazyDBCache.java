@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2015, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2015, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -23,21 +23,98 @@
 package com.oracle.truffle.r.runtime;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.r.runtime.context.FastROptions;
 import com.oracle.truffle.r.runtime.context.RContext;
 
+/**
+ * Caches the contents of lazy-load database ({@code .rdb}) files. The files are memory-mapped
+ * read-only once per process and the mappings are shared by all contexts, a mapping is replaced
+ * when the size or the modification time of the file changes (e.g., when a package is
+ * re-installed). Each context additionally remembers the mappings it has used and, if the
+ * {@code LazyLoadValueCacheSize} option is set, keeps a bounded LRU cache of already unserialized
+ * values keyed by the file and the offset of the value.
+ */
 public class LazyDBCache {
 
+    private static final class MappedDB {
+        private final ByteBuffer data;
+        private final long size;
+        private final long lastModified;
+
+        MappedDB(ByteBuffer data, long size, long lastModified) {
+            this.data = data;
+            this.size = size;
+            this.lastModified = lastModified;
+        }
+    }
+
+    private static final Map<String, MappedDB> mappedDBs = new ConcurrentHashMap<>();
+
+    @TruffleBoundary
+    private static ByteBuffer map(TruffleFile file) throws IOException {
+        String key = file.getAbsoluteFile().getPath();
+        long size = file.size();
+        long lastModified = file.getLastModifiedTime().toMillis();
+        MappedDB db = mappedDBs.get(key);
+        if (db == null || db.size != size || db.lastModified != lastModified) {
+            ByteBuffer data;
+            try (SeekableByteChannel channel = file.newByteChannel(Collections.singleton(StandardOpenOption.READ))) {
+                if (channel instanceof FileChannel) {
+                    data = ((FileChannel) channel).map(FileChannel.MapMode.READ_ONLY, 0, size);
+                } else {
+                    // not a default file system, the file cannot be mapped
+                    data = ByteBuffer.wrap(file.readAllBytes());
+                }
+            }
+            db = new MappedDB(data, size, lastModified);
+            mappedDBs.put(key, db);
+        }
+        // every user gets its own position and limit
+        return db.data.asReadOnlyBuffer();
+    }
+
     public static final class ContextStateImpl implements RContext.ContextState {
-        private final Map<String, byte[]> dbCache = new HashMap<>();
+        private final Map<String, ByteBuffer> dbCache = new HashMap<>();
+        private Map<String, Object> valueCache = Collections.emptyMap();
+
+        @Override
+        public RContext.ContextState initialize(RContext context) {
+            int capacity = context.getOption(FastROptions.LazyLoadValueCacheSize);
+            if (capacity > 0) {
+                valueCache = new LinkedHashMap<String, Object>(16, 0.75f, true) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+                        return size() > capacity;
+                    }
+                };
+            }
+            return this;
+        }
 
-        public byte[] getData(RContext context, String dbPath) {
-            byte[] dbData = dbCache.get(dbPath);
+        /**
+         * Returns the contents of the given database file. The returned buffer must only be
+         * accessed using absolute positions or via {@link ByteBuffer#duplicate()}.
+         */
+        public ByteBuffer getData(RContext context, String dbPath) {
+            ByteBuffer dbData = dbCache.get(dbPath);
             if (dbData == null) {
                 try {
-                    dbData = context.getSafeTruffleFile(dbPath).readAllBytes();
+                    dbData = map(context.getSafeTruffleFile(dbPath));
                 } catch (IOException ex) {
                     // unexpected
                     throw RInternalError.shouldNotReachHere(ex);
@@ -47,9 +124,43 @@ public class LazyDBCache {
             return dbData;
         }
 
+        /**
+         * Returns the cached value stored at {@code offset} in the given database, or {@code null}.
+         */
+        public Object getValue(String dbPath, int offset) {
+            return valueCache.get(valueKey(dbPath, offset));
+        }
+
+        /**
+         * Caches a value read from the given database. Only values that cannot be modified in place
+         * (i.e., vectors that are permanently shared) should be cached.
+         */
+        public void putValue(String dbPath, int offset, Object value) {
+            if (isValueCacheEnabled()) {
+                valueCache.put(valueKey(dbPath, offset), value);
+            }
+        }
+
+        public boolean isValueCacheEnabled() {
+            return valueCache instanceof LinkedHashMap;
+        }
+
+        private static String valueKey(String dbPath, int offset) {
+            return dbPath + '#' + offset;
+        }
+
         public void remove(String dbPath) {
             // no an error if missing
             dbCache.remove(dbPath);
+            if (!valueCache.isEmpty()) {
+                String prefix = dbPath + '#';
+                Iterator<String> keys = valueCache.keySet().iterator();
+                while (keys.hasNext()) {
+                    if (keys.next().startsWith(prefix)) {
+                        keys.remove();
+                    }
+                }
+            }
         }
 
         public static ContextStateImpl newContextState() {
@@ -31,6 +31,7 @@ import com.oracle.truffle.api.RootCallTarget;
 import com.oracle.truffle.api.frame.FrameDescriptor;
 import com.oracle.truffle.api.frame.MaterializedFrame;
 import com.oracle.truffle.api.object.DynamicObject;
+import static com.oracle.truffle.r.runtime.context.FastROptions.ChannelCapacity;
 import static com.oracle.truffle.r.runtime.context.FastROptions.ChannelReceiveTimeout;
 
 import com.oracle.truffle.r.runtime.builtins.RBuiltinDescriptor;
@@ -60,6 +61,17 @@ import java.util.concurrent.TimeUnit;
 /**
  * Implementation of a channel abstraction used for communication between parallel contexts in
  * shared memory space.
+ *
+ * Messages are passed by reference wherever possible: atomic vectors and lists are made
+ * permanently shared so that neither side updates them in place, environments, promises and
+ * functions are transferred as their components. Only the objects that cannot be shared, i.e.,
+ * language objects, connections and package and namespace environments, are serialized. The
+ * global, base, empty and base namespace environments are transferred as a {@link SpecialEnv
+ * marker} and resolved in the receiving context.
+ *
+ * Each direction of a channel is a queue whose capacity is given when the channel is created, or
+ * by the {@code ChannelCapacity} option. A capacity larger than one allows the sender to post
+ * several messages, e.g., several tasks for a worker, without waiting for the receiver.
  */
 public class RChannel {
 
@@ -67,7 +79,6 @@ public class RChannel {
 
     private static final int INITIAL_CHANNEL_NUM = 4;
     private static final int CHANNEL_NUM_GROW_FACTOR = 2;
-    private static final int QUEUE_CAPACITY = 1;
 
     private static int[] keys = new int[INITIAL_CHANNEL_NUM];
     private static RChannel[] channels = new RChannel[INITIAL_CHANNEL_NUM];
@@ -79,16 +90,40 @@ public class RChannel {
      */
     private static final Semaphore create = new Semaphore(1, true);
 
-    private final ArrayBlockingQueue<Object> masterToClient = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
-    private final ArrayBlockingQueue<Object> clientToMaster = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final ArrayBlockingQueue<Object> masterToClient;
+    private final ArrayBlockingQueue<Object> clientToMaster;
+
+    private RChannel(int capacity) {
+        masterToClient = new ArrayBlockingQueue<>(capacity);
+        clientToMaster = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Returns the given capacity if it is positive, otherwise the value of the
+     * {@code ChannelCapacity} option.
+     */
+    private static int getCapacity(int capacity) {
+        if (capacity > 0) {
+            return capacity;
+        }
+        return Math.max(1, RContext.getInstance().getNonNegativeIntOption(ChannelCapacity));
+    }
 
     public static int createChannel(int key) {
+        return createChannel(key, 0);
+    }
+
+    /**
+     * Creates a channel with the given key and capacity, zero stands for the default capacity.
+     */
+    public static int createChannel(int key, int capacity) {
         if (key <= 0) {
             throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "channel's key must be positive");
         }
+        int actualCapacity = getCapacity(capacity);
         try {
             create.acquire();
-            return createChannelInternal(key)[0];
+            return createChannelInternal(key, actualCapacity)[0];
         } catch (InterruptedException x) {
             throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "error creating a channel");
         } finally {
@@ -97,6 +132,15 @@ public class RChannel {
     }
 
     public static int[] createForkChannel(int portBaseNumber) {
+        return createForkChannel(portBaseNumber, 0);
+    }
+
+    /**
+     * Creates a channel with a unique key derived from the given port number and with the given
+     * capacity, zero stands for the default capacity.
+     */
+    public static int[] createForkChannel(int portBaseNumber, int capacity) {
+        int actualCapacity = getCapacity(capacity);
         try {
             create.acquire();
 
@@ -112,7 +156,7 @@ public class RChannel {
                 }
             }
             assert port > 0;
-            return createChannelInternal(port);
+            return createChannelInternal(port, actualCapacity);
         } catch (InterruptedException x) {
             throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "error creating a channel");
         } finally {
@@ -120,7 +164,7 @@ public class RChannel {
         }
     }
 
-    private static int[] createChannelInternal(int key) throws RError {
+    private static int[] createChannelInternal(int key, int capacity) throws RError {
         while (true) {
             int freeSlot = -1;
             // start from one as we need slots that have distinguishable positive and negative
@@ -135,7 +179,7 @@ public class RChannel {
             }
             if (freeSlot != -1) {
                 keys[freeSlot] = key;
-                channels[freeSlot] = new RChannel();
+                channels[freeSlot] = new RChannel(capacity);
                 return new int[]{freeSlot, key};
             } else {
                 int[] keysTmp = new int[keys.length * CHANNEL_NUM_GROW_FACTOR];
@@ -256,6 +300,44 @@ public class RChannel {
 
     private static class TransmitterCommon extends RSerialize.RefCounter {
 
+        /**
+         * Environments that exist in every context and are transferred by name.
+         */
+        protected enum SpecialEnv {
+            GLOBAL,
+            BASE,
+            EMPTY,
+            BASE_NAMESPACE;
+
+            static SpecialEnv of(Object o) {
+                if (o == REnvironment.globalEnv()) {
+                    return GLOBAL;
+                } else if (o == REnvironment.baseEnv()) {
+                    return BASE;
+                } else if (o == REnvironment.emptyEnv()) {
+                    return EMPTY;
+                } else if (o == REnvironment.baseNamespaceEnv()) {
+                    return BASE_NAMESPACE;
+                }
+                return null;
+            }
+
+            REnvironment getEnvironment() {
+                switch (this) {
+                    case GLOBAL:
+                        return REnvironment.globalEnv();
+                    case BASE:
+                        return REnvironment.baseEnv();
+                    case EMPTY:
+                        return REnvironment.emptyEnv();
+                    case BASE_NAMESPACE:
+                        return REnvironment.baseNamespaceEnv();
+                    default:
+                        throw RInternalError.shouldNotReachHere();
+                }
+            }
+        }
+
         protected static class SerializedRef {
             private final int index;
 
@@ -553,6 +635,8 @@ public class RChannel {
         private Object convertPrivate(Object o) throws IOException {
             if (o instanceof RList) {
                 return convertPrivateListSlow(o);
+            } else if (o instanceof REnvironment && SpecialEnv.of(o) != null) {
+                return SpecialEnv.of(o);
             } else if (shareableEnv(o)) {
                 return convertPrivateEnv(o);
             } else if (o instanceof RPromise) {
@@ -657,6 +741,8 @@ public class RChannel {
             Object ret = el;
             if (el instanceof SerializedRef) {
                 ret = getReadRef(((SerializedRef) el).getIndex());
+            } else if (el instanceof SpecialEnv) {
+                ret = ((SpecialEnv) el).getEnvironment();
             } else {
                 if (el instanceof SerializedList) {
                     RList elList = ((SerializedList) el).getList();
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2014, 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -24,23 +24,28 @@ package com.oracle.truffle.r.runtime;
 
 import com.oracle.truffle.api.TruffleFile;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
-import java.lang.ProcessBuilder.Redirect;
-import java.nio.file.OpenOption;
-import java.nio.file.StandardOpenOption;
-import java.util.Arrays;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
 
+import org.tukaani.xz.FinishableOutputStream;
+import org.tukaani.xz.FinishableWrapperOutputStream;
 import org.tukaani.xz.LZMA2InputStream;
+import org.tukaani.xz.LZMA2Options;
 
 import com.oracle.truffle.r.runtime.context.RContext;
 import com.oracle.truffle.r.runtime.ffi.ZipRFFI;
 
 /**
- * Abstracts the implementation of the various forms of compression used in R. Since the C API for
- * LZMA is very complex (as used by GnuR), we use an 'xz' subprocess to do the work.
+ * Abstracts the implementation of the various forms of compression used in R. GZIP uses the native
+ * zlib, except for reading lazy-load databases, which uses {@link Inflater}. BZIP2 and LZMA are
+ * implemented in Java ({@link BZip2InputStream}, {@link BZip2OutputStream} and the XZ library), so
+ * no external processes are needed.
  */
 public class RCompression {
     public enum Type {
@@ -111,7 +116,7 @@ public class RCompression {
             case GZIP:
                 return gzipUncompress(udata, cdata);
             case BZIP2:
-                throw RInternalError.unimplemented("BZIP2 compression");
+                return BZip2InputStream.uncompress(udata, new ByteArrayInputStream(cdata));
             case XZ:
                 return lzmaUncompress(udata, cdata);
             default:
@@ -120,6 +125,32 @@ public class RCompression {
         }
     }
 
+    /**
+     * As {@link #uncompress(Type, byte[], byte[])}, but reads the compressed data between the
+     * position and the limit of {@code cdata}, which is typically a slice of a memory-mapped
+     * lazy-load database, without copying them to an array first. GZIP (zlib) data are inflated
+     * with {@link Inflater} rather than with the native zlib.
+     */
+    public static boolean uncompress(Type type, byte[] udata, ByteBuffer cdata) {
+        switch (type) {
+            case NONE:
+                if (cdata.remaining() > udata.length) {
+                    return false;
+                }
+                cdata.get(udata, 0, cdata.remaining());
+                return true;
+            case GZIP:
+                return inflate(udata, cdata);
+            case BZIP2:
+                return BZip2InputStream.uncompress(udata, new ByteBufferInputStream(cdata));
+            case XZ:
+                return lzmaUncompress(udata, new ByteBufferInputStream(cdata));
+            default:
+                assert false;
+                return false;
+        }
+    }
+
     /**
      * Uncompress for internal use in {@code LazyLoadDBInsertValue} where size of uncompressed data
      * is known.
@@ -137,7 +168,7 @@ public class RCompression {
             case GZIP:
                 return gzipCompress(udata, cdata);
             case BZIP2:
-                throw RInternalError.unimplemented("BZIP2 compression");
+                return bzipCompress(udata, cdata);
             case XZ:
                 return lzmaCompress(udata, cdata);
             default:
@@ -157,37 +188,81 @@ public class RCompression {
     }
 
     /**
-     * There is no obvious counterpart to {@link LZMA2InputStream} and according to the XZ forum it
-     * is not implemented for Java, so have to use sub-process.
+     * Compresses to a raw LZMA2 stream (no XZ container), which is what GnuR uses in lazy-load
+     * databases. The dictionary is not larger than the data, which keeps the memory used by
+     * compression and decompression proportional to the size of the data.
      */
     private static boolean lzmaCompress(byte[] udata, byte[] cdata) {
-        int rc;
-        ProcessBuilder pb = new ProcessBuilder("xz", "--compress", "--format=raw", "--lzma2", "--stdout");
-        pb.redirectError(Redirect.INHERIT);
         try {
-            Process p = pb.start();
-            OutputStream os = p.getOutputStream();
-            InputStream is = p.getInputStream();
-            ProcessOutputManager.OutputThread readThread = new ProcessOutputManager.OutputThreadFixed("xz", is, cdata);
-            readThread.start();
-            os.write(udata);
-            os.close();
-            rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                return true;
-            }
-        } catch (InterruptedException | IOException ex) {
+            LZMA2Options options = new LZMA2Options();
+            options.setDictSize(Math.max(LZMA2Options.DICT_SIZE_MIN, Math.min(options.getDictSize(), udata.length)));
+            ByteArrayOutputStream bos = new ByteArrayOutputStream(udata.length / 2 + 64);
+            FinishableOutputStream lzmaStream = options.getOutputStream(new FinishableWrapperOutputStream(bos));
+            lzmaStream.write(udata);
+            lzmaStream.finish();
+            return copyCompressed(bos.toByteArray(), cdata);
+        } catch (IOException ex) {
             return false;
         }
-        assert rc != 0;
-        return false;
+    }
 
+    private static boolean bzipCompress(byte[] udata, byte[] cdata) {
+        try {
+            return copyCompressed(BZip2OutputStream.compress(udata), cdata);
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    private static boolean copyCompressed(byte[] compressed, byte[] cdata) {
+        if (compressed.length > cdata.length) {
+            return false;
+        }
+        System.arraycopy(compressed, 0, cdata, 0, compressed.length);
+        return true;
+    }
+
+    /**
+     * The size of the chunks of compressed data passed to the {@link Inflater}, the input cannot be
+     * passed as a {@link ByteBuffer} directly before Java 11.
+     */
+    private static final int INFLATE_CHUNK_SIZE = 64 * 1024;
+
+    private static boolean inflate(byte[] udata, ByteBuffer cdata) {
+        Inflater inflater = new Inflater();
+        try {
+            byte[] chunk = new byte[Math.min(INFLATE_CHUNK_SIZE, cdata.remaining())];
+            int total = 0;
+            while (total < udata.length) {
+                if (inflater.needsInput()) {
+                    if (!cdata.hasRemaining()) {
+                        return false;
+                    }
+                    int n = Math.min(chunk.length, cdata.remaining());
+                    cdata.get(chunk, 0, n);
+                    inflater.setInput(chunk, 0, n);
+                }
+                int n = inflater.inflate(udata, total, udata.length - total);
+                if (n == 0 && (inflater.finished() || inflater.needsDictionary())) {
+                    break;
+                }
+                total += n;
+            }
+            return total == udata.length;
+        } catch (DataFormatException ex) {
+            return false;
+        } finally {
+            inflater.end();
+        }
     }
 
     private static boolean lzmaUncompress(byte[] udata, byte[] data) {
+        return lzmaUncompress(udata, new ByteArrayInputStream(data));
+    }
+
+    private static boolean lzmaUncompress(byte[] udata, InputStream data) {
         int dictSize = udata.length < LZMA2InputStream.DICT_SIZE_MIN ? LZMA2InputStream.DICT_SIZE_MIN : udata.length;
-        try (LZMA2InputStream lzmaStream = new LZMA2InputStream(new ByteArrayInputStream(data), dictSize)) {
+        try (LZMA2InputStream lzmaStream = new LZMA2InputStream(data, dictSize)) {
             int totalRead = 0;
             int n;
             while ((n = lzmaStream.read(udata, totalRead, udata.length - totalRead)) > 0) {
@@ -199,55 +274,38 @@ public class RCompression {
         }
     }
 
-    public static byte[] bzipUncompressFromFile(TruffleFile path) throws IOException {
-        String[] command = new String[]{"bzip2", "-dc", path.getPath()};
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.redirectError(Redirect.INHERIT);
-        Process p = pb.start();
-        InputStream is = p.getInputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        try {
-            int rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                return Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
-            }
-        } catch (InterruptedException ex) {
-            // fall through
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer}.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
         }
-        throw new IOException();
-    }
 
-    public static void bzipCompressToFile(byte[] data, TruffleFile path, boolean append) throws IOException {
-        String[] command = new String[]{"bzip2", "-zc"};
-        int rc;
-        ProcessBuilder pb = new ProcessBuilder(command);
-        pb.redirectError(Redirect.INHERIT);
-        Process p = pb.start();
-        InputStream is = p.getInputStream();
-        OutputStream os = p.getOutputStream();
-        ProcessOutputManager.OutputThreadVariable readThread = new ProcessOutputManager.OutputThreadVariable(command[0], is);
-        readThread.start();
-        os.write(data);
-        os.close();
-        try {
-            rc = p.waitFor();
-            if (rc == 0) {
-                readThread.join();
-                byte[] cData = Arrays.copyOf(readThread.getData(), readThread.getTotalRead());
-                OpenOption[] openOptions = append ? new OpenOption[]{StandardOpenOption.APPEND} : new OpenOption[0];
-                path.newOutputStream(openOptions).write(cData);
-                return;
-            } else {
-                throw new IOException("bzip2 error code: " + rc);
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
             }
-        } catch (InterruptedException ex) {
-            // fall through
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
         }
-        throw new IOException();
     }
 
     public static String getBz2Version() throws IOException {
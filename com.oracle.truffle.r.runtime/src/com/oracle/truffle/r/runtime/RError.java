@@ -957,6 +957,7 @@ public final class RError extends RuntimeException implements TruffleException {
         NOT_A_VECTOR("argument %d is not a vector"),
         RADIX_SORT_DEC_MATCH("length(decreasing) must match the number of order arguments"),
         RADIX_SORT_DEC_NOT_LOGICAL("'decreasing' elements must be TRUE or FALSE"),
+        RADIX_SORT_UNSUPPORTED_TYPE("Column %d passed to [f]order is type '%s', not yet supported."),
         COERCE_NON_FACTOR("attempting to coerce non-factor"),
         MALFORMED_FACTOR("malformed factor"),
         GAP_MUST_BE_NON_NEGATIVE("'gap' must be non-negative integer"),
@@ -27,6 +27,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
@@ -330,6 +332,12 @@ public class RSerialize {
 
     private abstract static class Common extends RefCounter {
 
+        /**
+         * Logical vectors are stored as integers, which are decoded and encoded in chunks of this
+         * size.
+         */
+        protected static final int LOGICAL_CHUNK_SIZE = 8192;
+
         protected final CallHook hook;
         protected final ContextStateImpl contextState;
 
@@ -853,13 +861,13 @@ public class RSerialize {
                 case INTSXP: {
                     int len = stream.readInt();
                     int[] data = new int[len];
+                    stream.readInts(data, 0, len);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        int intVal = stream.readInt();
-                        if (intVal == RRuntime.INT_NA) {
+                        if (data[i] == RRuntime.INT_NA) {
                             complete = false;
+                            break;
                         }
-                        data[i] = intVal;
                     }
                     result = RDataFactory.createIntVector(data, complete);
                     break;
@@ -869,13 +877,18 @@ public class RSerialize {
                     int len = stream.readInt();
                     byte[] data = new byte[len];
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
-                    for (int i = 0; i < len; i++) {
-                        int intVal = stream.readInt();
-                        if (intVal == RRuntime.INT_NA) {
-                            complete = false;
-                            data[i] = RRuntime.LOGICAL_NA;
-                        } else {
-                            data[i] = (byte) intVal;
+                    int[] chunk = new int[Math.min(len, LOGICAL_CHUNK_SIZE)];
+                    for (int i = 0; i < len; i += chunk.length) {
+                        int n = Math.min(len - i, chunk.length);
+                        stream.readInts(chunk, 0, n);
+                        for (int j = 0; j < n; j++) {
+                            int intVal = chunk[j];
+                            if (intVal == RRuntime.INT_NA) {
+                                complete = false;
+                                data[i + j] = RRuntime.LOGICAL_NA;
+                            } else {
+                                data[i + j] = (byte) intVal;
+                            }
                         }
                     }
                     result = RDataFactory.createLogicalVector(data, complete);
@@ -885,13 +898,13 @@ public class RSerialize {
                 case REALSXP: {
                     int len = stream.readInt();
                     double[] data = new double[len];
+                    stream.readDoubles(data, 0, len);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
-                        double doubleVal = stream.readDouble();
-                        if (RRuntime.isNA(doubleVal)) {
+                        if (RRuntime.isNA(data[i])) {
                             complete = false;
+                            break;
                         }
-                        data[i] = doubleVal;
                     }
                     result = RDataFactory.createDoubleVector(data, complete);
                     break;
@@ -900,23 +913,21 @@ public class RSerialize {
                 case CPLXSXP: {
                     int len = stream.readInt();
                     double[] data = new double[2 * len];
+                    stream.readDoubles(data, 0, 2 * len);
                     boolean complete = RDataFactory.COMPLETE_VECTOR;
                     for (int i = 0; i < len; i++) {
                         int ix = 2 * i;
-                        double reVal = stream.readDouble();
+                        double reVal = data[ix];
                         if (RRuntime.isNA(reVal)) {
                             complete = false;
                         }
-                        double imVal = stream.readDouble();
+                        double imVal = data[ix + 1];
                         if (RRuntime.isNA(imVal)) {
                             complete = false;
                         }
                         if (RRuntime.isNA(reVal) && RRuntime.isNA(imVal)) {
                             data[ix] = RRuntime.COMPLEX_NA_REAL_PART;
                             data[ix + 1] = RRuntime.COMPLEX_NA_IMAGINARY_PART;
-                        } else {
-                            data[ix] = reVal;
-                            data[ix + 1] = imVal;
                         }
                     }
                     result = RDataFactory.createComplexVector(data, complete);
@@ -1228,6 +1239,23 @@ public class RSerialize {
 
         abstract void readRaw(byte[] data) throws IOException;
 
+        /**
+         * Reads {@code len} integers into {@code dst} starting at index {@code off}.
+         */
+        void readInts(int[] dst, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                dst[off + i] = readInt();
+            }
+        }
+
+        /**
+         * Reads {@code len} doubles into {@code dst} starting at index {@code off}.
+         */
+        void readDoubles(double[] dst, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                dst[off + i] = readDouble();
+            }
+        }
     }
 
     @SuppressWarnings("unused")
@@ -1304,6 +1332,16 @@ public class RSerialize {
                 offset += data.length;
             }
 
+            void readInts(int[] dst, int off, int n) {
+                ByteBuffer.wrap(buf, offset, n * Integer.BYTES).order(ByteOrder.BIG_ENDIAN).asIntBuffer().get(dst, off, n);
+                offset += n * Integer.BYTES;
+            }
+
+            void readDoubles(double[] dst, int off, int n) {
+                ByteBuffer.wrap(buf, offset, n * Double.BYTES).order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().get(dst, off, n);
+                offset += n * Double.BYTES;
+            }
+
             void readData(int n) throws IOException {
                 if (offset + n > size) {
                     if (offset != size) {
@@ -1368,6 +1406,28 @@ public class RSerialize {
             ensureData(data.length).readRaw(data);
         }
 
+        /**
+         * Reads the values in chunks that fit into the default buffer, each chunk is decoded by a
+         * single bulk get from a big-endian view of the buffer.
+         */
+        @Override
+        void readInts(int[] dst, int off, int len) throws IOException {
+            int chunkSize = defaultBuffer.buf.length / Integer.BYTES;
+            for (int i = 0; i < len; i += chunkSize) {
+                int n = Math.min(len - i, chunkSize);
+                ensureData(n * Integer.BYTES).readInts(dst, off + i, n);
+            }
+        }
+
+        @Override
+        void readDoubles(double[] dst, int off, int len) throws IOException {
+            int chunkSize = defaultBuffer.buf.length / Double.BYTES;
+            for (int i = 0; i < len; i += chunkSize) {
+                int n = Math.min(len - i, chunkSize);
+                ensureData(n * Double.BYTES).readDoubles(dst, off + i, n);
+            }
+        }
+
         private Buffer ensureData(int n) throws IOException {
             Buffer usedBuffer;
             if (n > defaultBuffer.buf.length) {
@@ -1465,6 +1525,23 @@ public class RSerialize {
 
         abstract void flush() throws IOException;
 
+        /**
+         * Writes {@code len} integers from {@code src} starting at index {@code off}.
+         */
+        void writeInts(int[] src, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                writeInt(src[off + i]);
+            }
+        }
+
+        /**
+         * Writes {@code len} doubles from {@code src} starting at index {@code off}.
+         */
+        void writeDoubles(double[] src, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                writeDouble(src[off + i]);
+            }
+        }
     }
 
     private static class XdrOutputFormat extends POutputStream {
@@ -1541,6 +1618,30 @@ public class RSerialize {
             buf[offset++] = (byte) (valueBits & 0xff);
         }
 
+        @Override
+        void writeInts(int[] src, int off, int len) throws IOException {
+            int i = 0;
+            while (i < len) {
+                ensureSpace(Integer.BYTES);
+                int n = Math.min(len - i, (buf.length - offset) / Integer.BYTES);
+                ByteBuffer.wrap(buf, offset, n * Integer.BYTES).order(ByteOrder.BIG_ENDIAN).asIntBuffer().put(src, off + i, n);
+                offset += n * Integer.BYTES;
+                i += n;
+            }
+        }
+
+        @Override
+        void writeDoubles(double[] src, int off, int len) throws IOException {
+            int i = 0;
+            while (i < len) {
+                ensureSpace(Double.BYTES);
+                int n = Math.min(len - i, (buf.length - offset) / Double.BYTES);
+                ByteBuffer.wrap(buf, offset, n * Double.BYTES).order(ByteOrder.BIG_ENDIAN).asDoubleBuffer().put(src, off + i, n);
+                offset += n * Double.BYTES;
+                i += n;
+            }
+        }
+
         private void ensureSpace(int n) throws IOException {
             if (offset + n > buf.length) {
                 flushBuffer();
@@ -1774,6 +1875,16 @@ public class RSerialize {
 
                             case INTSXP:
                             case LGLSXP: {
+                                if (obj instanceof RIntVector && ((RIntVector) obj).isMaterialized()) {
+                                    int[] data = ((RIntVector) obj).getReadonlyData();
+                                    stream.writeInt(data.length);
+                                    stream.writeInts(data, 0, data.length);
+                                    break;
+                                }
+                                if (obj instanceof RLogicalVector && ((RLogicalVector) obj).isMaterialized()) {
+                                    writeLogicalData(((RLogicalVector) obj).getReadonlyData());
+                                    break;
+                                }
                                 // logicals are written as ints
                                 RAbstractVector vector = (RAbstractVector) obj;
                                 VectorAccess access = vector.slowPathAccess();
@@ -1788,6 +1899,12 @@ public class RSerialize {
 
                             case REALSXP: {
                                 RDoubleVector vector = (RDoubleVector) obj;
+                                if (vector.isMaterialized()) {
+                                    double[] data = vector.getReadonlyData();
+                                    stream.writeInt(data.length);
+                                    stream.writeDoubles(data, 0, data.length);
+                                    break;
+                                }
                                 VectorAccess access = vector.slowPathAccess();
                                 try (SequentialIterator iter = access.access(vector)) {
                                     stream.writeInt(access.getLength(iter));
@@ -1800,6 +1917,10 @@ public class RSerialize {
 
                             case CPLXSXP: {
                                 RComplexVector vector = (RComplexVector) obj;
+                                if (vector.isMaterialized()) {
+                                    writeComplexData(vector.getReadonlyData());
+                                    break;
+                                }
                                 VectorAccess access = vector.slowPathAccess();
                                 try (SequentialIterator iter = access.access(vector)) {
                                     stream.writeInt(access.getLength(iter));
@@ -1986,6 +2107,41 @@ public class RSerialize {
             return result;
         }
 
+        /**
+         * Writes the data of a logical vector as integers, converted in chunks.
+         */
+        private void writeLogicalData(byte[] data) throws IOException {
+            stream.writeInt(data.length);
+            int[] chunk = new int[Math.min(data.length, LOGICAL_CHUNK_SIZE)];
+            for (int i = 0; i < data.length; i += chunk.length) {
+                int n = Math.min(data.length - i, chunk.length);
+                for (int j = 0; j < n; j++) {
+                    byte value = data[i + j];
+                    chunk[j] = value == RRuntime.LOGICAL_NA ? RRuntime.INT_NA : value;
+                }
+                stream.writeInts(chunk, 0, n);
+            }
+        }
+
+        /**
+         * Writes the data of a complex vector, {@code NA} elements are written as {@code NA} in
+         * both parts.
+         */
+        private void writeComplexData(double[] data) throws IOException {
+            int len = data.length / 2;
+            stream.writeInt(len);
+            int runStart = 0;
+            for (int i = 0; i < len; i++) {
+                if (RRuntime.isComplexNA(data[2 * i], data[2 * i + 1])) {
+                    stream.writeDoubles(data, 2 * runStart, 2 * (i - runStart));
+                    stream.writeDouble(RRuntime.DOUBLE_NA);
+                    stream.writeDouble(RRuntime.DOUBLE_NA);
+                    runStart = i + 1;
+                }
+            }
+            stream.writeDoubles(data, 2 * runStart, 2 * (len - runStart));
+        }
+
         private void outStringVec(RStringVector vec, boolean strsxp) throws IOException {
             if (!strsxp) {
                 stream.writeInt(0);
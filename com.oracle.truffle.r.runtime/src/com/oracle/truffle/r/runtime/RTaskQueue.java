@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A queue of loop indices shared by the workers of a parallel {@code lapply}, used to schedule the
+ * elements dynamically: instead of splitting the elements among the workers up front, each worker
+ * takes the next chunk of indices whenever it has finished the previous one, so that a worker that
+ * got cheap elements does not sit idle while another one is still busy.
+ *
+ * The queue is a single atomic counter, taking a chunk is a compare-and-set on it. If no fixed
+ * chunk size is given, the chunks are guided, i.e., each chunk is a share of the remaining indices
+ * that decreases as the queue drains, which keeps the number of round trips low at the beginning
+ * and the load balanced at the end.
+ *
+ * Queues are registered in a static table, like {@link RChannel channels}, so that they can be
+ * accessed by their id from all contexts.
+ */
+public final class RTaskQueue {
+
+    private static final ConcurrentHashMap<Integer, RTaskQueue> queues = new ConcurrentHashMap<>();
+    private static final AtomicInteger nextId = new AtomicInteger(1);
+
+    private final int length;
+    private final int workers;
+    private final int chunkSize;
+    private final AtomicInteger next = new AtomicInteger(0);
+
+    private RTaskQueue(int length, int workers, int chunkSize) {
+        this.length = length;
+        this.workers = workers;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates a queue of the indices {@code [0, length)} to be processed by the given number of
+     * workers. A chunk size of zero stands for guided chunks.
+     */
+    public static int create(int length, int workers, int chunkSize) {
+        assert length >= 0 && workers > 0 && chunkSize >= 0;
+        int id = nextId.getAndIncrement();
+        queues.put(id, new RTaskQueue(length, workers, chunkSize));
+        return id;
+    }
+
+    /**
+     * Takes the next chunk of indices from the queue with the given id. The result holds the first
+     * index and the index after the last one, or is {@code null} if the queue is empty.
+     */
+    public static int[] nextChunk(int id) {
+        RTaskQueue queue = queues.get(id);
+        if (queue == null) {
+            throw RError.error(RError.SHOW_CALLER2, RError.Message.GENERIC, "task queue with specified id does not exist");
+        }
+        return queue.nextChunk();
+    }
+
+    public static void close(int id) {
+        queues.remove(id);
+    }
+
+    private int[] nextChunk() {
+        while (true) {
+            int from = next.get();
+            if (from >= length) {
+                return null;
+            }
+            int remaining = length - from;
+            int size = chunkSize > 0 ? chunkSize : Math.max(1, (remaining + 2 * workers - 1) / (2 * workers));
+            int to = from + Math.min(size, remaining);
+            if (next.compareAndSet(from, to)) {
+                return new int[]{from, to};
+            }
+        }
+    }
+}
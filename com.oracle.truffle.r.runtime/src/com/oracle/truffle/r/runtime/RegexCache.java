@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.ffi.PCRERFFI;
+
+/**
+ * Per-context cache of compiled regular expressions used by the {@code grep} family of builtins.
+ * Both {@link Pattern java.util.regex} patterns and patterns compiled by PCRE are cached, keyed by
+ * the engine, the flags and the pattern string. The cache is a bounded LRU map; its capacity is
+ * given by the {@code RegexCacheSize} option, zero disables caching.
+ *
+ * PCRE patterns are compiled against character tables created by {@code pcre_maketables}, these
+ * are also created only once per context. The tables depend on the {@code LC_CTYPE} locale, so
+ * {@link #invalidatePCRE()} drops them together with the PCRE patterns when the locale changes.
+ * Note that PCRE patterns evicted from the cache are not freed, which is what happened to every
+ * compiled PCRE pattern before this cache existed.
+ */
+public final class RegexCache {
+
+    private enum Engine {
+        JAVA,
+        PCRE
+    }
+
+    private static final class Key {
+        private final Engine engine;
+        private final int flags;
+        private final String pattern;
+
+        Key(Engine engine, int flags, String pattern) {
+            this.engine = engine;
+            this.flags = flags;
+            this.pattern = pattern;
+        }
+
+        @Override
+        public int hashCode() {
+            return (pattern.hashCode() * 31 + flags) * 31 + engine.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return engine == other.engine && flags == other.flags && pattern.equals(other.pattern);
+        }
+    }
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Object> cache;
+    private long pcreTables;
+    private long hits;
+    private long misses;
+
+    public RegexCache(int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.cache = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > RegexCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the compiled {@link Pattern} for the given regular expression and
+     * {@link Pattern#compile(String, int) flags}, compiling it if necessary.
+     *
+     * @throws java.util.regex.PatternSyntaxException if the pattern is not valid
+     */
+    @TruffleBoundary
+    public synchronized Pattern getPattern(String pattern, int flags) {
+        Key key = new Key(Engine.JAVA, flags, pattern);
+        Pattern result = (Pattern) cache.get(key);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result = Pattern.compile(pattern, flags);
+        if (capacity > 0) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the cached result of compiling the given pattern with PCRE or {@code null}.
+     */
+    @TruffleBoundary
+    public synchronized PCRERFFI.Result getPCREPattern(String pattern, int flags) {
+        PCRERFFI.Result result = (PCRERFFI.Result) cache.get(new Key(Engine.PCRE, flags, pattern));
+        if (result != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return result;
+    }
+
+    /**
+     * Caches a successfully compiled PCRE pattern, to be called after a miss in
+     * {@link #getPCREPattern(String, int)}.
+     */
+    @TruffleBoundary
+    public synchronized void putPCREPattern(String pattern, int flags, PCRERFFI.Result compiled) {
+        assert compiled.result != 0;
+        if (capacity > 0) {
+            cache.put(new Key(Engine.PCRE, flags, pattern), compiled);
+        }
+    }
+
+    /**
+     * Returns the PCRE character tables of this context, or {@code 0} if they have not been created
+     * yet.
+     */
+    public synchronized long getPCRETables() {
+        return pcreTables;
+    }
+
+    public synchronized void setPCRETables(long tables) {
+        pcreTables = tables;
+    }
+
+    /**
+     * Drops the PCRE character tables and the patterns compiled against them. To be called when
+     * the {@code LC_CTYPE} locale changes.
+     */
+    @TruffleBoundary
+    public synchronized void invalidatePCRE() {
+        pcreTables = 0;
+        cache.keySet().removeIf(key -> key.engine == Engine.PCRE);
+    }
+
+    /**
+     * Returns the number of lookups that found a compiled pattern, the number of lookups that did
+     * not, the number of cached patterns and the capacity of the cache.
+     */
+    @TruffleBoundary
+    public synchronized long[] getStatistics() {
+        return new long[]{hits, misses, cache.size(), capacity};
+    }
+
+    @TruffleBoundary
+    public synchronized void resetStatistics() {
+        hits = 0;
+        misses = 0;
+    }
+}
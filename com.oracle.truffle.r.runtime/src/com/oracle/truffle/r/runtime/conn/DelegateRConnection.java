@@ -644,6 +644,21 @@ abstract class DelegateRConnection extends RBaseObject implements RConnection, B
         return new CompressedOutputRConnection(base, new GZIPOutputStream(os, GZIP_BUFFER_SIZE), true);
     }
 
+    static DelegateRConnection createGZIPDelegateOutputConnection(BaseRConnection base, OutputStream os, int level) throws IOException {
+        assert base.getOpenMode().canWrite();
+        return new CompressedOutputRConnection(base, new LevelGZIPOutputStream(os, level), true);
+    }
+
+    /**
+     * A {@link GZIPOutputStream} with the given deflate level instead of the default one.
+     */
+    private static final class LevelGZIPOutputStream extends GZIPOutputStream {
+        LevelGZIPOutputStream(OutputStream os, int level) throws IOException {
+            super(os, GZIP_BUFFER_SIZE);
+            def.setLevel(level);
+        }
+    }
+
     static DelegateRConnection createGZIPDelegateInputConnection(BaseRConnection base, InputStream is) throws IOException {
         assert base.getOpenMode().canRead();
         return new CompressedInputRConnection(base, new GZIPInputStream(is, GZIP_BUFFER_SIZE));
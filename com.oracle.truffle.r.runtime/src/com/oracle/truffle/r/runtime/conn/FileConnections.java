@@ -22,8 +22,6 @@
  */
 package com.oracle.truffle.r.runtime.conn;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
@@ -39,6 +37,8 @@ import org.tukaani.xz.XZOutputStream;
 
 import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.TruffleFile;
+import com.oracle.truffle.r.runtime.BZip2InputStream;
+import com.oracle.truffle.r.runtime.BZip2OutputStream;
 import com.oracle.truffle.r.runtime.RCompression;
 import com.oracle.truffle.r.runtime.RCompression.Type;
 import com.oracle.truffle.r.runtime.RError;
@@ -142,10 +142,14 @@ public class FileConnections {
      * Base class for all modes of gzfile/bzfile/xzfile connections. N.B. In GNU R these can read
      * gzip, bzip, lzma and uncompressed files, and this has to be implemented by reading the first
      * few bytes of the file and detecting the type of the file.
+     *
+     * The {@code compression} level selects the deflate level of gzip, the block size of bzip2 (in
+     * units of 100k, at least 1) and the LZMA2 preset of xz. The XZ library does not implement the
+     * "extreme" presets that GNU R selects by negative levels, their absolute value is used instead.
      */
     public static class CompressedRConnection extends BasePathRConnection {
         private final RCompression.Type cType;
-        @SuppressWarnings("unused") private final int compression; // TODO
+        private final int compression;
 
         public CompressedRConnection(TruffleFile path, String modeString, Type cType, String encoding, int compression) throws IOException {
             super(path.getPath(), path, mapConnectionClass(cType), modeString, AbstractOpenMode.ReadBinary, encoding);
@@ -217,11 +221,11 @@ public class FileConnections {
             case Append:
             case AppendBinary:
                 TruffleFile afile = base.path;
-                return new CompressedOutputRConnection(base, new XZOutputStream(afile.newOutputStream(StandardOpenOption.APPEND), new LZMA2Options(), XZ.CHECK_CRC32), false);
+                return new CompressedOutputRConnection(base, new XZOutputStream(afile.newOutputStream(StandardOpenOption.APPEND), xzOptions(base), XZ.CHECK_CRC32), false);
             case Write:
             case WriteBinary:
                 TruffleFile wfile = base.path;
-                return new CompressedOutputRConnection(base, new XZOutputStream(wfile.newOutputStream(), new LZMA2Options(), XZ.CHECK_CRC32), false);
+                return new CompressedOutputRConnection(base, new XZOutputStream(wfile.newOutputStream(), xzOptions(base), XZ.CHECK_CRC32), false);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
@@ -232,19 +236,34 @@ public class FileConnections {
         switch (base.getOpenMode().abstractOpenMode) {
             case Read:
             case ReadBinary:
-                byte[] bzipUdata = RCompression.bzipUncompressFromFile(base.path);
-                return new ByteStreamCompressedInputRConnection(base, new ByteArrayInputStream(bzipUdata));
+                return new CompressedInputRConnection(base, new BZip2InputStream(base.path.newInputStream()));
             case Append:
             case AppendBinary:
-                return new BZip2OutputRConnection(base, new ByteArrayOutputStream(), true);
+                // appending creates a new bzip2 stream, concatenated streams are read as one
+                return new CompressedOutputRConnection(base, new BZip2OutputStream(base.path.newOutputStream(StandardOpenOption.APPEND), Math.max(1, getCompression(base, 9))), false);
             case Write:
             case WriteBinary:
-                return new BZip2OutputRConnection(base, new ByteArrayOutputStream(), false);
+                return new CompressedOutputRConnection(base, new BZip2OutputStream(base.path.newOutputStream(), Math.max(1, getCompression(base, 9))), false);
             default:
                 throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
         }
     }
 
+    /**
+     * Returns the compression level of a gzfile/bzfile/xzfile connection or the given default for
+     * other connections (e.g. {@code file} opened on a compressed file).
+     */
+    private static int getCompression(BasePathRConnection base, int defaultLevel) {
+        if (base instanceof CompressedRConnection) {
+            return ((CompressedRConnection) base).compression;
+        }
+        return defaultLevel;
+    }
+
+    private static LZMA2Options xzOptions(BasePathRConnection base) throws IOException {
+        return new LZMA2Options(Math.min(LZMA2Options.PRESET_MAX, Math.abs(getCompression(base, LZMA2Options.PRESET_DEFAULT))));
+    }
+
     @TruffleBoundary
     private static DelegateRConnection createDelegateConnection(BasePathRConnection base, RCompression.Type cType, boolean raw) throws IOException {
         AbstractOpenMode openMode = base.getOpenMode().abstractOpenMode;
@@ -278,10 +297,10 @@ public class FileConnections {
                         return DelegateRConnection.createGZIPDelegateInputConnection(base, base.path.newInputStream());
                     case Append:
                     case AppendBinary:
-                        return DelegateRConnection.createGZIPDelegateOutputConnection(base, base.path.newOutputStream(StandardOpenOption.APPEND));
+                        return DelegateRConnection.createGZIPDelegateOutputConnection(base, base.path.newOutputStream(StandardOpenOption.APPEND), getCompression(base, 6));
                     case Write:
                     case WriteBinary:
-                        return DelegateRConnection.createGZIPDelegateOutputConnection(base, base.path.newOutputStream());
+                        return DelegateRConnection.createGZIPDelegateOutputConnection(base, base.path.newOutputStream(), getCompression(base, 6));
                     default:
                         throw RError.nyi(RError.SHOW_CALLER2, "open mode: " + base.getOpenMode());
                 }
@@ -755,29 +774,4 @@ public class FileConnections {
             writeOffset = raf.getFilePointer();
         }
     }
-
-    private static class ByteStreamCompressedInputRConnection extends CompressedInputRConnection {
-        ByteStreamCompressedInputRConnection(BasePathRConnection base, ByteArrayInputStream is) {
-            super(base, is);
-        }
-    }
-
-    private static class BZip2OutputRConnection extends CompressedOutputRConnection {
-        private final ByteArrayOutputStream bos;
-        private final boolean append;
-
-        BZip2OutputRConnection(BasePathRConnection base, ByteArrayOutputStream os, boolean append) {
-            super(base, os, false);
-            this.bos = os;
-            this.append = append;
-        }
-
-        @Override
-        public void close() throws IOException {
-            flush();
-            // Now actually do the compression using sub-process
-            byte[] data = bos.toByteArray();
-            RCompression.bzipCompressToFile(data, ((BasePathRConnection) base).path, append);
-        }
-    }
 }
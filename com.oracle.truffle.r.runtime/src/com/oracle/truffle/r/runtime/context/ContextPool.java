@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.context;
+
+import java.util.ArrayList;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.launcher.RCmdOptions.Client;
+import com.oracle.truffle.r.runtime.RChannel;
+import com.oracle.truffle.r.runtime.RSource;
+import com.oracle.truffle.r.runtime.context.RContext.ConsoleIO;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.runtime.data.RNull;
+
+/**
+ * A pool of child contexts that are kept alive between parallel computations, used by the
+ * {@code parallel} package overrides so that {@code mclapply} does not pay for creating and
+ * initializing a new context per call and so that the workers keep their loaded packages and
+ * compiled code.
+ *
+ * Each worker evaluates a loop that receives {@code list(fun, args, tag)} from its channel, sends
+ * back {@code list(tag, result)} with the result of {@code do.call(fun, args)} or the error
+ * condition, and exits when it receives {@code NULL}. The tag lets the master drop results of
+ * calls that it no longer waits for. The workers are stopped when the context that owns the pool
+ * is disposed.
+ *
+ * Only {@link ContextKind#SHARE_NOTHING} workers are pooled, a pool is not available if the
+ * {@code SharedContexts} option is set.
+ */
+public final class ContextPool implements RContext.ContextState {
+
+    /**
+     * Channel keys of the workers are generated from this number, see
+     * {@link RChannel#createForkChannel(int, int)}.
+     */
+    private static final int PORT_BASE_NUMBER = 50000;
+
+    /**
+     * How long to wait for a worker to finish its current task before it is interrupted, and then
+     * again for the interrupted worker to exit.
+     */
+    private static final long JOIN_TIMEOUT_MILLIS = 2000;
+
+    private static final String WORKER_CODE = "ch <- .fastr.channel.get(%dL)\n" +
+                    "repeat {\n" +
+                    "    msg <- .fastr.channel.receive(ch)\n" +
+                    "    if (is.null(msg)) break\n" +
+                    "    res <- tryCatch(do.call(msg[[1L]], msg[[2L]], quote = TRUE), error = function(e) e)\n" +
+                    "    .fastr.channel.send(ch, list(msg[[3L]], res))\n" +
+                    "}\n" +
+                    ".fastr.channel.close(ch)";
+
+    private static final class Worker {
+        private final EvalThread thread;
+        private final int channel;
+
+        Worker(EvalThread thread, int channel) {
+            this.thread = thread;
+            this.channel = channel;
+        }
+    }
+
+    private final ArrayList<Worker> workers = new ArrayList<>();
+
+    private ContextPool() {
+    }
+
+    public static ContextPool newContextState() {
+        return new ContextPool();
+    }
+
+    /**
+     * Returns the master side channel ids of the first {@code size} workers, starting new workers
+     * if the pool is smaller, or {@code null} if the pool is not available.
+     */
+    @TruffleBoundary
+    public synchronized int[] getChannels(RContext context, int size) {
+        if (FastROptions.sharedContextsOptionValue) {
+            return null;
+        }
+        int start = workers.size();
+        if (start < size) {
+            ConsoleIO console = context.getConsole();
+            EvalThread[] threads = new EvalThread[size - start];
+            for (int i = 0; i < threads.length; i++) {
+                int[] channel = RChannel.createForkChannel(PORT_BASE_NUMBER, 0);
+                ChildContextInfo info = ChildContextInfo.createNoRestore(Client.RSCRIPT, null, ContextKind.SHARE_NOTHING, context, console.getStdin(), console.getStdout(), console.getStderr());
+                threads[i] = new EvalThread(context.threads, info, RSource.fromTextInternalInvisible(String.format(WORKER_CODE, channel[1]), RSource.Internal.CONTEXT_EVAL));
+                workers.add(new Worker(threads[i], channel[0]));
+            }
+            for (EvalThread thread : threads) {
+                thread.start();
+            }
+            for (EvalThread thread : threads) {
+                thread.waitForInit();
+            }
+        }
+        int[] result = new int[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = workers.get(i).channel;
+        }
+        return result;
+    }
+
+    @Override
+    public synchronized void beforeDispose(RContext context) {
+        for (Worker worker : workers) {
+            RChannel.send(worker.channel, RNull.instance);
+        }
+        for (Worker worker : workers) {
+            try {
+                worker.thread.join(JOIN_TIMEOUT_MILLIS);
+                if (worker.thread.isAlive()) {
+                    // still busy with a task whose result nobody waits for
+                    worker.thread.interrupt();
+                    worker.thread.join(JOIN_TIMEOUT_MILLIS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        workers.clear();
+    }
+}
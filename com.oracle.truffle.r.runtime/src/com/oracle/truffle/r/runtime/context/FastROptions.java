@@ -82,8 +82,24 @@ public class FastROptions {
     public static final OptionKey<String> Rdebug = new OptionKey<>("");
     @Option(category = OptionCategory.EXPERT, help = "Load the system, site and user profile scripts.") //
     public static final OptionKey<Boolean> LoadProfiles = new OptionKey<>(!FastRConfig.ManagedMode);
-    @Option(category = OptionCategory.EXPERT, help = "Use 128 bit arithmetic in sum builtin") //
+    @Option(category = OptionCategory.EXPERT, help = "Use extended precision arithmetic in sum, mean, colSums, rowSums and cumsum") //
     public static final OptionKey<Boolean> FullPrecisionSum = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal length of double vectors for which the results of +, -, * and / are computed lazily, fusing chains of these operations into one loop, 0 disables it") //
+    public static final OptionKey<Integer> FusedArithmeticThreshold = new OptionKey<>(0);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal length of vectors for which +, -, * and / of doubles, +, -, * of integers and unary minus are computed in parallel, 0 disables it") //
+    public static final OptionKey<Integer> ParallelArithmeticThreshold = new OptionKey<>(1 << 20);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal number of multiply-adds (rows * columns * inner dimension) for which %*%, crossprod and tcrossprod use native BLAS, values <= 0 disable BLAS") //
+    public static final OptionKey<Integer> BlasMatMultThreshold = new OptionKey<>(1 << 18);
+    @Option(category = OptionCategory.EXPERT, help = "Number of compiled regular expressions cached by grep, sub, regexpr and related functions, 0 disables the cache") //
+    public static final OptionKey<Integer> RegexCacheSize = new OptionKey<>(64);
+    @Option(category = OptionCategory.EXPERT, help = "Maximal number of atomic vectors read by lazyLoadDBfetch that are cached per context, so that they are not unserialized again, 0 disables the cache") //
+    public static final OptionKey<Integer> LazyLoadValueCacheSize = new OptionKey<>(0);
+    @Option(category = OptionCategory.EXPERT, help = "Minimal length of integer and double vectors allocated by native code (Rf_allocVector) for which the data are allocated directly in native memory, values <= 0 disable it") //
+    public static final OptionKey<Integer> NativeVectorAllocThreshold = new OptionKey<>(1 << 16);
+    @Option(category = OptionCategory.EXPERT, help = "Collect the number of calls, time and bytes copied to native memory per R FFI up-call and native symbol, see .fastr.ffi.profile") //
+    public static final OptionKey<Boolean> FFIProfile = new OptionKey<>(false);
+    @Option(category = OptionCategory.EXPERT, help = "Track every N-th allocated vector to estimate the live vectors per type reported by gc and .fastr.memstats, values <= 0 disable it") //
+    public static final OptionKey<Integer> VectorCensusSampling = new OptionKey<>(0);
     @Option(category = OptionCategory.EXPERT, help = "Argument writes do not trigger state transitions") //
     public static final OptionKey<Boolean> InvisibleArgs = new OptionKey<>(true);
     @Option(category = OptionCategory.EXPERT, help = "Disable reference count decrements") //
@@ -123,6 +139,8 @@ public class FastROptions {
     public static final OptionKey<String> AdditionalOptions = new OptionKey<>("");
     @Option(category = OptionCategory.INTERNAL, help = "Enables timeout (in seconds) when receiving messages from a channel") //
     public static final OptionKey<Integer> ChannelReceiveTimeout = new OptionKey<>(0);
+    @Option(category = OptionCategory.EXPERT, help = "Default number of messages that can be sent through a channel in each direction before the sender blocks") //
+    public static final OptionKey<Integer> ChannelCapacity = new OptionKey<>(1);
     @Option(category = OptionCategory.EXPERT, help = "Restrict force splitting of call targets") //
     public static final OptionKey<Boolean> RestrictForceSplitting = new OptionKey<>(true);
     @Option(category = OptionCategory.INTERNAL, help = "Turn on explicit GC via the gc built-in. Otherwise calls to gc are ignored.") //
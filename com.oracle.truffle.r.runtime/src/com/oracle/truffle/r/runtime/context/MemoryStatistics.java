@@ -0,0 +1,170 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.context;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.Map;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.NativeDataAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
+import com.oracle.truffle.r.runtime.ffi.util.ResourcesCleaner;
+import com.oracle.truffle.r.runtime.instrument.memprof.VectorCensus;
+
+/**
+ * A snapshot of the memory usage of the VM as reported by {@code gc} and {@code .fastr.memstats}.
+ * The heap and garbage collector numbers come from the JVM management beans, the native memory
+ * numbers from {@link NativeMemory}, {@link NativeDataAccess} and {@link ResourcesCleaner}, and the
+ * live vectors per type from the {@link VectorCensus}, if it is enabled. Sizes are in bytes, values
+ * that are not available are {@code -1}.
+ */
+public final class MemoryStatistics {
+
+    public final long heapUsed;
+    public final long heapCommitted;
+    public final long heapMax;
+    /**
+     * Sum of the peak usage of the heap memory pools since the start or the last
+     * {@link #resetPeak()}.
+     */
+    public final long heapPeak;
+    public final long nativeAllocated;
+    public final long nativeWrapped;
+    public final long nativeMirrors;
+    public final long nativeMirrorsBytes;
+    public final long pendingReferences;
+    public final String[] collectors;
+    public final long[] collectionCounts;
+    /**
+     * Accumulated collection (pause) time per collector in milliseconds.
+     */
+    public final long[] collectionTimes;
+    /**
+     * Estimated number and size of the live vectors per type, {@code null} if the census is not
+     * enabled.
+     */
+    public final Map<RType, long[]> vectors;
+
+    private MemoryStatistics() {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        heapUsed = heap.getUsed();
+        heapCommitted = heap.getCommitted();
+        heapMax = heap.getMax();
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid() && pool.getPeakUsage() != null) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        heapPeak = Math.max(peak, heapUsed);
+        nativeAllocated = NativeMemory.getAllocatedBytes();
+        nativeWrapped = NativeMemory.getWrappedBytes();
+        nativeMirrors = NativeDataAccess.getNativeMirrorsCount();
+        nativeMirrorsBytes = NativeDataAccess.getNativeMirrorsDataBytes();
+        pendingReferences = ResourcesCleaner.getPendingCount();
+        List<GarbageCollectorMXBean> gcBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = new String[gcBeans.size()];
+        collectionCounts = new long[gcBeans.size()];
+        collectionTimes = new long[gcBeans.size()];
+        for (int i = 0; i < collectors.length; i++) {
+            GarbageCollectorMXBean gcBean = gcBeans.get(i);
+            collectors[i] = gcBean.getName();
+            collectionCounts[i] = gcBean.getCollectionCount();
+            collectionTimes[i] = gcBean.getCollectionTime();
+        }
+        vectors = VectorCensus.getInstance().isEnabled() ? VectorCensus.getInstance().count() : null;
+    }
+
+    @TruffleBoundary
+    public static MemoryStatistics collect() {
+        return new MemoryStatistics();
+    }
+
+    /**
+     * Resets the peak usage of the heap memory pools.
+     */
+    @TruffleBoundary
+    public static void resetPeak() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isValid()) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * @return the number of collections of all collectors, or {@code -1} if not available
+     */
+    public long getCollectionCount() {
+        return sum(collectionCounts);
+    }
+
+    /**
+     * @return the accumulated collection time of all collectors in milliseconds, or {@code -1} if
+     *         not available
+     */
+    public long getCollectionTime() {
+        return sum(collectionTimes);
+    }
+
+    private static long sum(long[] values) {
+        long result = -1;
+        for (long value : values) {
+            if (value >= 0) {
+                result = Math.max(result, 0) + value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the estimated number of live vectors, or {@code -1} if the census is not enabled
+     */
+    public long getVectorCount() {
+        return sumVectors(0);
+    }
+
+    /**
+     * @return the estimated size of the live vectors, or {@code -1} if the census is not enabled
+     */
+    public long getVectorBytes() {
+        return sumVectors(1);
+    }
+
+    private long sumVectors(int index) {
+        if (vectors == null) {
+            return -1;
+        }
+        long result = 0;
+        for (long[] totals : vectors.values()) {
+            result += totals[index];
+        }
+        return result;
+    }
+}
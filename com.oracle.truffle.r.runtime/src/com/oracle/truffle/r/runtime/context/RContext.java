@@ -94,6 +94,7 @@ import com.oracle.truffle.r.runtime.RProfile;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RRuntimeASTAccess;
 import com.oracle.truffle.r.runtime.RSerialize;
+import com.oracle.truffle.r.runtime.RegexCache;
 import com.oracle.truffle.r.runtime.ReturnException;
 import com.oracle.truffle.r.runtime.SuppressFBWarnings;
 import com.oracle.truffle.r.runtime.TempPathName;
@@ -112,7 +113,9 @@ import com.oracle.truffle.r.runtime.env.REnvironment;
 import com.oracle.truffle.r.runtime.ffi.DLL;
 import com.oracle.truffle.r.runtime.ffi.RFFIContext;
 import com.oracle.truffle.r.runtime.ffi.RFFIFactory;
+import com.oracle.truffle.r.runtime.ffi.RFFIProfile;
 import com.oracle.truffle.r.runtime.instrument.InstrumentationState;
+import com.oracle.truffle.r.runtime.instrument.memprof.VectorCensus;
 import com.oracle.truffle.r.runtime.interop.FastrInteropTryContextState;
 import com.oracle.truffle.r.runtime.nodes.RCodeBuilder;
 import com.oracle.truffle.r.runtime.nodes.RSyntaxNode;
@@ -366,6 +369,7 @@ public final class RContext {
     public final InstrumentationState stateInstrumentation;
     public final ContextStateImpl stateInternalCode;
     public final DLL.ContextStateImpl stateDLL;
+    public final ContextPool stateContextPool;
     public final GCTortureState gcTorture;
     public volatile EventLoopState eventLoopState;
     public final AltRepContext altRepContext;
@@ -379,6 +383,10 @@ public final class RContext {
     @CompilationFinal public Object gridContext = null;
     public final AtomicBoolean interruptResize = new AtomicBoolean(false);
     public boolean internalGraphicsInitialized = false;
+    /**
+     * Set by {@code gcinfo}, makes {@code gc} report the memory statistics.
+     */
+    public boolean gcInfo = false;
 
     public final WeakHashMap<String, WeakReference<String>> stringMap = new WeakHashMap<>();
     public final WeakHashMap<Source, REnvironment> sourceRefEnvironments = new WeakHashMap<>();
@@ -386,6 +394,7 @@ public final class RContext {
     public final List<String> libraryPaths = new ArrayList<>(1);
     public final Map<Integer, Thread> threads = new ConcurrentHashMap<>();
     public final LanguageClosureCache languageClosureCache = new LanguageClosureCache();
+    public final RegexCache regexCache;
     public final Map<String, Source> sourceCache = new ConcurrentHashMap<>();
 
     private final AllocationReporter allocationReporter;
@@ -393,8 +402,9 @@ public final class RContext {
     private final FastROptions fastrOptions;
 
     private ContextState[] contextStates() {
-        return new ContextState[]{stateREnvVars, stateRLocale, stateRProfile, stateTempPath, stateROptions, stateREnvironment, stateRErrorHandling, stateRConnection, stateStdConnections, stateRNG,
-                        stateRFFI,
+        // the pool goes first so that its workers are stopped before anything else is disposed
+        return new ContextState[]{stateContextPool, stateREnvVars, stateRLocale, stateRProfile, stateTempPath, stateROptions, stateREnvironment, stateRErrorHandling, stateRConnection, stateStdConnections,
+                        stateRNG, stateRFFI,
                         stateRSerialize, stateLazyDBCache, stateInstrumentation, stateDLL};
     }
 
@@ -483,6 +493,7 @@ public final class RContext {
         this.stateInstrumentation = InstrumentationState.newContextState(instrumenter);
         this.stateInternalCode = ContextStateImpl.newContextState();
         this.stateDLL = DLL.ContextStateImpl.newContextState();
+        this.stateContextPool = ContextPool.newContextState();
 
         this.rffiUpCallTargets = new RFFIUpCallTargets();
 
@@ -496,6 +507,13 @@ public final class RContext {
         RDataFactory.setAllocationTracingEnabled(allocationReporter.isActive());
 
         this.fastrOptions = new FastROptions(this);
+        this.regexCache = new RegexCache(getOption(FastROptions.RegexCacheSize));
+        if (getOption(FastROptions.FFIProfile)) {
+            RFFIProfile.enable();
+        }
+        if (getOption(FastROptions.VectorCensusSampling) > 0) {
+            VectorCensus.getInstance().enable(getOption(FastROptions.VectorCensusSampling));
+        }
     }
 
     static void outputWelcomeMessage(RStartParams rsp) {
@@ -53,9 +53,12 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractContainer;
 import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.ShareObjectNode;
 import com.oracle.truffle.r.runtime.ffi.FFIMaterializeNode;
+import com.oracle.truffle.r.runtime.ffi.RFFIProfile;
+import com.oracle.truffle.r.runtime.ffi.util.LongHandleTable;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.NativeMemoryWrapper;
+import com.oracle.truffle.r.runtime.ffi.util.ResourcesCleaner;
 import com.oracle.truffle.r.runtime.ffi.util.ResourcesCleaner.ReleasableWeakReference;
 
 import javax.management.MBeanServer;
@@ -64,6 +67,7 @@ import java.lang.management.ManagementFactory;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.logging.Level;
@@ -147,7 +151,38 @@ public final class NativeDataAccess {
                 // anyway
                 nativeMirrorInfo.remove(id);
             }
-            nativeMirrors.remove(id, this);
+            addToReleased(this);
+        }
+    }
+
+    /*
+     * Handles released by the reference queue worker are removed from the table in batches, once
+     * the queue is drained or the buffer is full. A handle that is not removed yet refers to a
+     * collected object, so it cannot be looked up successfully either way, and the conditional
+     * removal does not remove a newer mapping for the same id (address).
+     */
+    private static final int RELEASE_BATCH_SIZE = 1024;
+    private static final long[] releasedIds = new long[RELEASE_BATCH_SIZE];
+    private static final Object[] releasedHandles = new Object[RELEASE_BATCH_SIZE];
+    private static int releasedCount;
+
+    static {
+        ResourcesCleaner.addDrainListener(NativeDataAccess::flushReleased);
+    }
+
+    private static synchronized void addToReleased(NativeHandleWrapper handle) {
+        releasedIds[releasedCount] = handle.id;
+        releasedHandles[releasedCount] = handle;
+        if (++releasedCount == RELEASE_BATCH_SIZE) {
+            flushReleased();
+        }
+    }
+
+    private static synchronized void flushReleased() {
+        if (releasedCount != 0) {
+            nativeMirrors.removeAll(releasedIds, releasedHandles, releasedCount);
+            Arrays.fill(releasedHandles, 0, releasedCount, null);
+            releasedCount = 0;
         }
     }
 
@@ -305,9 +340,16 @@ public final class NativeDataAccess {
         }
 
         NativeMemoryWrapper setDataAddress(long address) {
+            return setDataAddress(address, 0);
+        }
+
+        /**
+         * @param size size of the memory block in bytes if known, zero otherwise
+         */
+        NativeMemoryWrapper setDataAddress(long address, long size) {
             // use setExternalDataAddress for empty data address
             assert address != getEmptyDataAddress();
-            this.dataAddress = NativeMemory.wrapNativeMemory(address, delegate);
+            this.dataAddress = NativeMemory.wrapNativeMemory(address, size, delegate);
             if (dataAddressToNativeMirrors != null) {
                 addToAddressDebugMapping(address);
             }
@@ -323,8 +365,11 @@ public final class NativeDataAccess {
         void allocateNative(Object source, int vectorLength, long elementsCount, ElementType type) {
             assert getDataAddress() == 0;
             if (vectorLength != 0) {
-                setDataAddress(NativeMemory.allocate(type, elementsCount, source));
+                setDataAddress(NativeMemory.allocate(type, elementsCount, source), elementsCount * type.getBytes());
                 NativeMemory.copyMemory(source, dataAddress, type, elementsCount);
+                if (RFFIProfile.isEnabled()) {
+                    RFFIProfile.recordCopiedToNative(elementsCount * type.getBytes());
+                }
             } else {
                 setExternalDataAddress(getEmptyDataAddress());
             }
@@ -334,6 +379,18 @@ public final class NativeDataAccess {
             assert this.length == 0 || dataAddress.getAddress() != getEmptyDataAddress();
         }
 
+        /**
+         * Allocates zero initialized native memory for a vector that does not have any data yet.
+         */
+        @TruffleBoundary
+        void allocateNative(int vectorLength, ElementType type) {
+            assert getDataAddress() == 0 && vectorLength > 0;
+            long size = vectorLength * (long) type.getBytes();
+            setDataAddress(NativeMemory.allocate(size, "native vector"), size);
+            NativeMemory.setMemory(dataAddress.getAddress(), size, (byte) 0);
+            this.length = vectorLength;
+        }
+
         @TruffleBoundary
         void initializeAltrep(RBaseObject altrepVec, long address, int altrepLength) {
             assert altrepVec.isAltRep();
@@ -346,11 +403,14 @@ public final class NativeDataAccess {
         @TruffleBoundary
         void allocateNativeString(byte[] bytes) {
             assert getDataAddress() == 0;
-            setDataAddress(NativeMemory.allocate(bytes.length + 1L, "NativeString"));
+            setDataAddress(NativeMemory.allocate(bytes.length + 1L, "NativeString"), bytes.length + 1L);
             NativeMemory.copyMemory(bytes, dataAddress, ElementType.BYTE, bytes.length);
             // append C strings termination
             NativeMemory.putByte(dataAddress, bytes.length, (byte) 0);
             this.length = bytes.length + 1;
+            if (RFFIProfile.isEnabled()) {
+                RFFIProfile.recordCopiedToNative(bytes.length + 1L);
+            }
 
             // ensure that marker address is not used
             assert dataAddress.getAddress() != getEmptyDataAddress();
@@ -361,10 +421,14 @@ public final class NativeDataAccess {
             if (wrappers.length == 0) {
                 setExternalDataAddress(getEmptyDataAddress());
             } else {
-                NativeMemoryWrapper addr = setDataAddress(NativeMemory.allocate(wrappers.length * (long) Long.BYTES, "CharSXPWrapper"));
+                long size = wrappers.length * (long) Long.BYTES;
+                NativeMemoryWrapper addr = setDataAddress(NativeMemory.allocate(size, "CharSXPWrapper"), size);
                 for (int i = 0; i < wrappers.length; i++) {
                     NativeMemory.putLong(addr, i, getPointer(wrappers[i]));
                 }
+                if (RFFIProfile.isEnabled()) {
+                    RFFIProfile.recordCopiedToNative(size);
+                }
             }
         }
 
@@ -373,7 +437,8 @@ public final class NativeDataAccess {
             if (elements.length == 0) {
                 setExternalDataAddress(getEmptyDataAddress());
             } else {
-                NativeMemoryWrapper addr = setDataAddress(NativeMemory.allocate(elements.length * (long) Long.BYTES, "SEXP array"));
+                long size = elements.length * (long) Long.BYTES;
+                NativeMemoryWrapper addr = setDataAddress(NativeMemory.allocate(size, "SEXP array"), size);
                 for (int i = 0; i < elements.length; i++) {
                     Object element = elements[i];
                     Object materialized = FFIMaterializeNode.uncachedMaterialize(element);
@@ -400,7 +465,7 @@ public final class NativeDataAccess {
     // The counter is initialized to invalid address and incremented by 2 to always get invalid
     // address value
     private static final AtomicLong counter = new AtomicLong(0xdef000000000001L);
-    private static final ConcurrentHashMap<Long, NativeHandleWrapper> nativeMirrors = new ConcurrentHashMap<>(512);
+    private static final LongHandleTable<NativeHandleWrapper> nativeMirrors = new LongHandleTable<>();
 
     // For debugging purposes:
     private static final ConcurrentHashMap<Long, NativeMirror> dataAddressToNativeMirrors = System.getenv(FastROptions.NATIVE_DATA_INSPECTOR) != null ? new ConcurrentHashMap<>(512) : null;
@@ -485,9 +550,25 @@ public final class NativeDataAccess {
         nativeMirrorInfo.put(mirror.nativeHandle.getId(), new RuntimeException(arg.getClass().getSimpleName() + " " + argInfo));
     }
 
+    /**
+     * Returns the number of handles of native mirrors that are currently registered, including
+     * handles of already collected objects that were not removed yet.
+     */
+    public static int getNativeMirrorsCount() {
+        return nativeMirrors.size();
+    }
+
+    /**
+     * Returns the size in bytes of the native memory allocated for the data of native mirrors (and
+     * other native memory with known size managed by {@link NativeMemory}) that was not freed yet.
+     */
+    public static long getNativeMirrorsDataBytes() {
+        return NativeMemory.getWrappedBytes();
+    }
+
     /**
      * For given native mirror ID returns the Java side object (vector). TruffleBoundary because it
-     * calls into HashMap.
+     * calls into the handle table.
      */
     @TruffleBoundary
     public static Object lookup(long address) {
@@ -1361,6 +1442,24 @@ public final class NativeDataAccess {
 
     public static void setNativeContents(RBaseObject obj, long address, int length) {
         assert obj.getNativeMirror() != null;
+        invalidateNoNative(obj);
+        NativeMirror mirror = obj.getNativeMirror();
+        mirror.setExternalDataAddress(address);
+        mirror.length = length;
+    }
+
+    /**
+     * Allocates the data of a vector that is created with its data in native memory, the memory is
+     * zero initialized and freed once the vector is collected. Such vectors can be passed to native
+     * code via {@code DATAPTR} without copying.
+     */
+    static void allocateNativeContents(RBaseObject obj, int length, ElementType type) {
+        assert obj.getNativeMirror() != null;
+        invalidateNoNative(obj);
+        obj.getNativeMirror().allocateNative(length, type);
+    }
+
+    private static void invalidateNoNative(RBaseObject obj) {
         if (noDoubleNative.isValid() && obj instanceof RDoubleVector) {
             noDoubleNative.invalidate();
         } else if (noComplexNative.isValid() && obj instanceof RComplexVector) {
@@ -1374,9 +1473,6 @@ public final class NativeDataAccess {
         } else if (noStringNative.isValid() && obj instanceof RStringVector) {
             noStringNative.invalidate();
         }
-        NativeMirror mirror = obj.getNativeMirror();
-        mirror.setExternalDataAddress(address);
-        mirror.length = length;
     }
 
     public static void setNativeWrapper(RBaseObject obj, Object wrapper) {
@@ -1410,6 +1506,8 @@ public final class NativeDataAccess {
     public interface NativeDataInspectorMBean {
         int getNativeMirrorsSize();
 
+        long getNativeMirrorsDataBytes();
+
         String getObject(String idString);
 
         String getAttribute(String idString, String attrName);
@@ -1436,7 +1534,12 @@ public final class NativeDataAccess {
 
         @Override
         public int getNativeMirrorsSize() {
-            return NativeDataAccess.nativeMirrors.size();
+            return NativeDataAccess.getNativeMirrorsCount();
+        }
+
+        @Override
+        public long getNativeMirrorsDataBytes() {
+            return NativeDataAccess.getNativeMirrorsDataBytes();
         }
 
         @Override
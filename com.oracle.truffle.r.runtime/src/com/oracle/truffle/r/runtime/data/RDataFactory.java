@@ -764,6 +764,15 @@ public final class RDataFactory {
         return traceDataCreated(RIntVector.fromNative(address, length));
     }
 
+    /**
+     * Creates a vector whose zero initialized data are allocated in native memory, which makes
+     * handing the data to native code free. Element access from Java is slower than for vectors
+     * backed by a Java array.
+     */
+    public static RIntVector createIntVectorNative(int length) {
+        return traceDataCreated(RIntVector.createNative(length));
+    }
+
     public static RIntVector createIntVector(int length) {
         return createIntVector(length, false);
     }
@@ -800,6 +809,15 @@ public final class RDataFactory {
         return traceDataCreated(RDoubleVector.fromNative(address, length));
     }
 
+    /**
+     * Creates a vector whose zero initialized data are allocated in native memory, which makes
+     * handing the data to native code free. Element access from Java is slower than for vectors
+     * backed by a Java array.
+     */
+    public static RDoubleVector createDoubleVectorNative(int length) {
+        return traceDataCreated(RDoubleVector.createNative(length));
+    }
+
     public static RDoubleVector createDoubleVector(int length) {
         return createDoubleVector(length, false);
     }
@@ -1036,6 +1054,10 @@ public final class RDataFactory {
         return traceDataCreated(RDoubleVector.createSequence(start, stride, length));
     }
 
+    public static RDoubleVector createFusedDoubleVector(RDoubleFusedVectorData data) {
+        return traceDataCreated(RDoubleVector.createFused(data));
+    }
+
     public static RIntVector createEmptyIntVector() {
         return createIntVector(new int[0], true);
     }
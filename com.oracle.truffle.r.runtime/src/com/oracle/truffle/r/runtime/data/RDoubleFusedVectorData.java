@@ -0,0 +1,487 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.data;
+
+import static com.oracle.truffle.r.runtime.data.model.RAbstractVector.ENABLE_COMPLETE;
+
+import java.util.Arrays;
+
+import com.oracle.truffle.api.CompilerAsserts;
+import com.oracle.truffle.api.CompilerDirectives;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.dsl.Cached;
+import com.oracle.truffle.api.dsl.Cached.Shared;
+import com.oracle.truffle.api.interop.TruffleObject;
+import com.oracle.truffle.api.library.ExportLibrary;
+import com.oracle.truffle.api.library.ExportMessage;
+import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.Iterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
+import com.oracle.truffle.r.runtime.data.VectorDataLibrary.SeqIterator;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+import com.oracle.truffle.r.runtime.ops.ParallelArithmetic;
+import com.oracle.truffle.r.runtime.ops.na.NACheck;
+
+/**
+ * Double vector data representing the deferred result of an arithmetic operation on double vectors
+ * of the same length or on a vector and a scalar. The operands are either arrays of double vectors,
+ * scalars, or other instances of this class, so a chain of operations like
+ * {@code (x - m) / s * w + b} forms an expression tree over the input vectors.
+ *
+ * The elements are computed when the data are first read in bulk, e.g., by an iterator or when the
+ * vector is materialized, in a single loop over the whole expression. This saves allocating and
+ * traversing the intermediate results. The computation goes in blocks of {@link #BLOCK_SIZE}
+ * elements, so that the intermediate values of a block stay in the cache, and long vectors are
+ * split among several threads by {@link ParallelArithmetic}. Afterwards the computed array is kept
+ * and the operands are released. Like sequences, the data are not writeable.
+ *
+ * The operand arrays are referenced directly, therefore whoever creates the data has to make sure
+ * that the vectors owning them are not modified in place afterwards, e.g., by
+ * {@link #shareOperands}.
+ */
+@ExportLibrary(VectorDataLibrary.class)
+public final class RDoubleFusedVectorData implements TruffleObject {
+
+    /**
+     * The operations that can be deferred. They have to give the same results as
+     * {@code BinaryMapArithmeticFunctionNode} including the handling of {@code NA}.
+     */
+    public enum Operation {
+        ADD,
+        SUBTRACT,
+        MULTIPLY,
+        DIVIDE;
+
+        double apply(double left, double right) {
+            switch (this) {
+                case ADD:
+                    return left + right;
+                case SUBTRACT:
+                    return left - right;
+                case MULTIPLY:
+                    return left * right;
+                case DIVIDE:
+                    return left / right;
+                default:
+                    throw CompilerDirectives.shouldNotReachHere();
+            }
+        }
+    }
+
+    /**
+     * Maximal number of operations in one expression, operands of larger expressions are computed
+     * first. This bounds the cost of computing individual elements and the depth of the recursion.
+     */
+    public static final int MAX_OPERATIONS = 8;
+
+    static final int BLOCK_SIZE = 1024;
+
+    private final Operation operation;
+    private final int length;
+    private final int operations;
+    private final boolean complete;
+
+    /*
+     * The operands are double[] (of the same length as this vector), Double or
+     * RDoubleFusedVectorData. They are cleared once the values are computed, which may happen
+     * while an expression that refers to this one is being computed. The values are therefore
+     * published before the operands are cleared and readers that find an operand cleared take the
+     * values instead.
+     */
+    private Object left;
+    private Object right;
+    private volatile double[] values;
+
+    /*
+     * The vectors marked shared by #shareOperands, released once the values are computed. The
+     * values may be computed by several threads at once, only one of them takes the vectors.
+     */
+    private RSharingAttributeStorage[] sharedOperands;
+
+    private RDoubleFusedVectorData(Operation operation, Object left, Object right, int length, int operations, boolean complete) {
+        this.operation = operation;
+        this.left = left;
+        this.right = right;
+        this.length = length;
+        this.operations = operations;
+        this.complete = complete && ENABLE_COMPLETE;
+    }
+
+    /**
+     * Creates the deferred result of {@code left <operation> right}, or returns {@code null} if the
+     * operands are not supported. The lengths must be the same or one of them must be {@code 1}.
+     */
+    @TruffleBoundary
+    public static RDoubleFusedVectorData create(Operation operation, Object leftData, int leftLength, Object rightData, int rightLength) {
+        int resultLength = Math.max(leftLength, rightLength);
+        if ((leftLength != resultLength && leftLength != 1) || (rightLength != resultLength && rightLength != 1)) {
+            return null;
+        }
+        Object leftOperand = toOperand(leftData, leftLength, resultLength);
+        Object rightOperand = toOperand(rightData, rightLength, resultLength);
+        if (leftOperand == null || rightOperand == null) {
+            return null;
+        }
+        int operations = 1 + getOperations(leftOperand) + getOperations(rightOperand);
+        if (operations > MAX_OPERATIONS) {
+            // compute the larger operand now and use its values
+            if (getOperations(leftOperand) >= getOperations(rightOperand)) {
+                leftOperand = ((RDoubleFusedVectorData) leftOperand).getValues();
+            } else {
+                rightOperand = ((RDoubleFusedVectorData) rightOperand).getValues();
+            }
+            operations = 1 + getOperations(leftOperand) + getOperations(rightOperand);
+        }
+        return new RDoubleFusedVectorData(operation, leftOperand, rightOperand, resultLength, operations, isComplete(leftData) && isComplete(rightData));
+    }
+
+    private static Object toOperand(Object data, int dataLength, int resultLength) {
+        if (data instanceof RDoubleFusedVectorData) {
+            RDoubleFusedVectorData fused = (RDoubleFusedVectorData) data;
+            return fused.values != null ? fused.values : fused;
+        } else if (data instanceof RDoubleArrayVectorData) {
+            double[] array = ((RDoubleArrayVectorData) data).getReadonlyDoubleData();
+            if (dataLength == 1 && resultLength != 1) {
+                return array[0];
+            }
+            return array;
+        }
+        return null;
+    }
+
+    /**
+     * Marks the vectors owning the operand arrays as shared, so that they are copied rather than
+     * modified in place while this expression refers to their arrays. The references are released
+     * when the values are computed. If the values are never computed, the vectors stay shared,
+     * which costs at most a copy when they are modified.
+     */
+    @TruffleBoundary
+    public void shareOperands(RAbstractVector leftVector, RAbstractVector rightVector) {
+        RSharingAttributeStorage leftShared = left instanceof double[] ? share(leftVector) : null;
+        RSharingAttributeStorage rightShared = right instanceof double[] ? share(rightVector) : null;
+        if (leftShared != null || rightShared != null) {
+            sharedOperands = new RSharingAttributeStorage[]{leftShared, rightShared};
+        }
+    }
+
+    private static RSharingAttributeStorage share(RAbstractVector vector) {
+        if (vector instanceof RSharingAttributeStorage) {
+            RSharingAttributeStorage storage = (RSharingAttributeStorage) vector;
+            if (!storage.isTemporary() && !storage.isSharedPermanent()) {
+                storage.incRefCount();
+                return storage;
+            }
+        }
+        return null;
+    }
+
+    private void releaseOperands() {
+        RSharingAttributeStorage[] operands;
+        synchronized (this) {
+            operands = sharedOperands;
+            sharedOperands = null;
+        }
+        if (operands != null) {
+            for (RSharingAttributeStorage storage : operands) {
+                // the vector may have been made permanently shared or released by its owner
+                // meanwhile
+                if (storage != null && !storage.isTemporary() && !storage.isSharedPermanent()) {
+                    storage.decRefCount();
+                }
+            }
+        }
+    }
+
+    private static int getOperations(Object operand) {
+        return operand instanceof RDoubleFusedVectorData ? ((RDoubleFusedVectorData) operand).operations : 0;
+    }
+
+    private static boolean isComplete(Object data) {
+        return VectorDataLibrary.getFactory().getUncached().isComplete(data);
+    }
+
+    /**
+     * Returns the computed elements, computing them if necessary. The result must not be modified.
+     */
+    @TruffleBoundary
+    public double[] getValues() {
+        if (values == null) {
+            double[] result = new double[length];
+            if (ParallelArithmetic.isParallel(length)) {
+                ParallelArithmetic.forEachChunk(length, (from, to) -> evaluate(from, to, result));
+            } else {
+                evaluate(0, length, result);
+            }
+            values = result;
+            left = null;
+            right = null;
+            releaseOperands();
+            return result;
+        }
+        return values;
+    }
+
+    private void evaluate(int from, int to, double[] result) {
+        double[][] scratch = new double[2 * operations][];
+        for (int blockFrom = from; blockFrom < to; blockFrom += BLOCK_SIZE) {
+            evaluate(blockFrom, Math.min(BLOCK_SIZE, to - blockFrom), result, blockFrom, scratch, 0);
+        }
+    }
+
+    /**
+     * Computes {@code count} elements starting at {@code from} into {@code target}. The operands
+     * that are expressions are computed into the scratch buffers of the next level.
+     */
+    private void evaluate(int from, int count, double[] target, int targetOffset, double[][] scratch, int level) {
+        double[] computed = values;
+        Object left = this.left;
+        Object right = this.right;
+        if (computed == null && (left == null || right == null)) {
+            // computed in the meantime
+            computed = values;
+        }
+        if (computed != null) {
+            System.arraycopy(computed, from, target, targetOffset, count);
+            return;
+        }
+        double[] l;
+        int lOffset;
+        if (left instanceof double[]) {
+            l = (double[]) left;
+            lOffset = from;
+        } else {
+            l = getScratch(scratch, level);
+            lOffset = 0;
+            if (left instanceof Double) {
+                Arrays.fill(l, 0, count, (double) left);
+            } else {
+                ((RDoubleFusedVectorData) left).evaluate(from, count, l, 0, scratch, level + 2);
+            }
+        }
+        double[] r;
+        int rOffset;
+        if (right instanceof double[]) {
+            r = (double[]) right;
+            rOffset = from;
+        } else {
+            r = getScratch(scratch, level + 1);
+            rOffset = 0;
+            if (right instanceof Double) {
+                Arrays.fill(r, 0, count, (double) right);
+            } else {
+                ((RDoubleFusedVectorData) right).evaluate(from, count, r, 0, scratch, level + 2);
+            }
+        }
+        switch (operation) {
+            case ADD:
+                for (int i = 0; i < count; i++) {
+                    target[targetOffset + i] = l[lOffset + i] + r[rOffset + i];
+                }
+                break;
+            case SUBTRACT:
+                for (int i = 0; i < count; i++) {
+                    target[targetOffset + i] = l[lOffset + i] - r[rOffset + i];
+                }
+                break;
+            case MULTIPLY:
+                for (int i = 0; i < count; i++) {
+                    target[targetOffset + i] = l[lOffset + i] * r[rOffset + i];
+                }
+                break;
+            case DIVIDE:
+                for (int i = 0; i < count; i++) {
+                    target[targetOffset + i] = l[lOffset + i] / r[rOffset + i];
+                }
+                break;
+            default:
+                throw CompilerDirectives.shouldNotReachHere();
+        }
+        if (!complete) {
+            for (int i = 0; i < count; i++) {
+                double value = target[targetOffset + i];
+                if (Double.isNaN(value)) {
+                    target[targetOffset + i] = handleNA(l[lOffset + i], r[rOffset + i], value);
+                }
+            }
+        }
+    }
+
+    private static double[] getScratch(double[][] scratch, int index) {
+        if (scratch[index] == null) {
+            scratch[index] = new double[BLOCK_SIZE];
+        }
+        return scratch[index];
+    }
+
+    /**
+     * The arithmetic on IEEE NaNs does not preserve the R {@code NA} reliably, this gives the same
+     * results as {@code BinaryMapArithmeticFunctionNode}.
+     */
+    private static double handleNA(double l, double r, double result) {
+        if (RRuntime.isNA(l)) {
+            return RRuntime.DOUBLE_NA;
+        } else if (RRuntime.isNA(r)) {
+            return Double.isNaN(l) ? l : RRuntime.DOUBLE_NA;
+        }
+        return result;
+    }
+
+    private double evaluateAt(int index) {
+        double[] computed = values;
+        if (computed != null) {
+            return computed[index];
+        }
+        Object left = this.left;
+        Object right = this.right;
+        if (left == null || right == null) {
+            return values[index];
+        }
+        double l = evaluateOperandAt(left, index);
+        double r = evaluateOperandAt(right, index);
+        double result = operation.apply(l, r);
+        return Double.isNaN(result) ? handleNA(l, r, result) : result;
+    }
+
+    private static double evaluateOperandAt(Object operand, int index) {
+        if (operand instanceof double[]) {
+            return ((double[]) operand)[index];
+        } else if (operand instanceof Double) {
+            return (double) operand;
+        } else {
+            return ((RDoubleFusedVectorData) operand).evaluateAt(index);
+        }
+    }
+
+    @ExportMessage
+    public NACheck getNACheck(@Shared("naCheck") @Cached() NACheck na) {
+        na.enable(!complete);
+        return na;
+    }
+
+    @SuppressWarnings("static-method")
+    @ExportMessage
+    public RType getType() {
+        return RType.Double;
+    }
+
+    @ExportMessage
+    public int getLength() {
+        return length;
+    }
+
+    @ExportMessage
+    public RDoubleArrayVectorData materialize() {
+        return new RDoubleArrayVectorData(getDoubleDataCopy(), complete);
+    }
+
+    @ExportMessage
+    public RDoubleArrayVectorData copy(@SuppressWarnings("unused") boolean deep) {
+        return materialize();
+    }
+
+    @ExportMessage
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @ExportMessage
+    public double[] getReadonlyDoubleData() {
+        return getValues();
+    }
+
+    @ExportMessage
+    public double[] getDoubleDataCopy() {
+        double[] result = getValues();
+        return Arrays.copyOf(result, result.length);
+    }
+
+    // Read access to the elements:
+
+    @ExportMessage
+    public SeqIterator iterator(@Shared("naCheck") @Cached() NACheck naCheck,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        SeqIterator it = new SeqIterator(getValues(), length);
+        naCheck.enable(!complete);
+        it.initLoopConditionProfile(loopProfile);
+        return it;
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public boolean nextImpl(SeqIterator it, boolean loopCondition,
+                    @Shared("SeqItLoopProfile") @Cached("createCountingProfile()") LoopConditionProfile loopProfile) {
+        return it.next(loopCondition, loopProfile);
+    }
+
+    @ExportMessage
+    @SuppressWarnings("static-method")
+    public void nextWithWrap(SeqIterator it,
+                    @Cached("createBinaryProfile()") ConditionProfile wrapProfile) {
+        it.nextWithWrap(wrapProfile);
+    }
+
+    @ExportMessage
+    public RandomAccessIterator randomAccessIterator(@Shared("naCheck") @Cached() NACheck naCheck) {
+        naCheck.enable(!complete);
+        return new RandomAccessIterator(getValues());
+    }
+
+    @ExportMessage
+    public Object getDataAtAsObject(int index) {
+        return getDoubleAt(index);
+    }
+
+    @ExportMessage
+    @TruffleBoundary
+    public double getDoubleAt(int index) {
+        // single elements are computed without computing the whole vector
+        return evaluateAt(index);
+    }
+
+    @ExportMessage
+    public double getNextDouble(SeqIterator it, @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = getStore(it)[it.getIndex()];
+        naCheck.check(value);
+        return value;
+    }
+
+    @ExportMessage
+    public double getDouble(RandomAccessIterator it, int index, @Shared("naCheck") @Cached() NACheck naCheck) {
+        double value = getStore(it)[index];
+        naCheck.check(value);
+        return value;
+    }
+
+    private static double[] getStore(Iterator it) {
+        return (double[]) it.getStore();
+    }
+
+    @Override
+    public String toString() {
+        CompilerAsserts.neverPartOfCompilation();
+        return values != null ? "fused(" + length + ", computed)" : "fused(" + operation + ", " + length + ")";
+    }
+}
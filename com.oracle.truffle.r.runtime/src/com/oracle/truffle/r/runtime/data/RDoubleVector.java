@@ -46,6 +46,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector.RMaterializedVect
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromDoubleAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 import java.util.Arrays;
@@ -94,6 +95,10 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return new RDoubleVector(new RDoubleSeqVectorData(start, stride, length), length);
     }
 
+    public static RDoubleVector createFused(RDoubleFusedVectorData data) {
+        return new RDoubleVector(data, data.getLength());
+    }
+
     public static RDoubleVector createClosure(RAbstractVector delegate, boolean keepAttrs) {
         RDoubleVector result = new RDoubleVector(VectorDataClosure.fromVector(delegate, RType.Double), delegate.getLength());
         if (keepAttrs) {
@@ -122,6 +127,14 @@ public final class RDoubleVector extends RAbstractNumericVector implements RMate
         return result;
     }
 
+    static RDoubleVector createNative(int length) {
+        RDoubleVector result = new RDoubleVector();
+        NativeDataAccess.toNative(result);
+        NativeDataAccess.allocateNativeContents(result, length, ElementType.DOUBLE);
+        result.setData(new RDoubleNativeVectorData(result), length);
+        return result;
+    }
+
     @Override
     @Ignore // AbstractContainerLibrary
     public boolean isMaterialized() {
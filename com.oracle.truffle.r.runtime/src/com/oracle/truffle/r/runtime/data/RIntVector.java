@@ -49,6 +49,7 @@ import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
 import com.oracle.truffle.r.runtime.data.nodes.FastPathVectorAccess.FastPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.SlowPathVectorAccess.SlowPathFromIntAccess;
 import com.oracle.truffle.r.runtime.data.nodes.VectorAccess;
+import com.oracle.truffle.r.runtime.ffi.util.NativeMemory.ElementType;
 import com.oracle.truffle.r.runtime.ops.na.NACheck;
 
 import java.util.Arrays;
@@ -96,6 +97,14 @@ public final class RIntVector extends RAbstractNumericVector {
         return result;
     }
 
+    static RIntVector createNative(int length) {
+        RIntVector result = new RIntVector();
+        NativeDataAccess.toNative(result);
+        NativeDataAccess.allocateNativeContents(result, length, ElementType.INT);
+        result.setData(new RIntNativeVectorData(result), length);
+        return result;
+    }
+
     public static RIntVector createSequence(int start, int stride, int length) {
         return new RIntVector(new RIntSeqVectorData(start, stride, length), length);
     }
@@ -22,6 +22,7 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.interop.TruffleObject;
@@ -30,6 +31,7 @@ import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.profiles.BranchProfile;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.Iterator;
@@ -49,6 +51,10 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
     private final String[] data;
     private RStringVector owner;
     private boolean complete;
+    /**
+     * Lazily created by {@link #getElementIndex()}, reset by every write.
+     */
+    private NonRecursiveHashMapCharacter elementIndex;
 
     RStringArrayVectorData(String[] data, boolean complete) {
         this.data = data;
@@ -63,6 +69,30 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
         return new RStringCharSXPData(result);
     }
 
+    /**
+     * @see RStringVector#getElementIndex()
+     */
+    NonRecursiveHashMapCharacter getElementIndex() {
+        NonRecursiveHashMapCharacter result = elementIndex;
+        if (result == null) {
+            result = createElementIndex(data);
+            elementIndex = result;
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private static NonRecursiveHashMapCharacter createElementIndex(String[] data) {
+        NonRecursiveHashMapCharacter result = new NonRecursiveHashMapCharacter(data.length);
+        // backwards, so that the first occurrence of duplicated elements wins
+        for (int i = data.length - 1; i >= 0; i--) {
+            if (!RRuntime.isNA(data[i])) {
+                result.put(data[i], i);
+            }
+        }
+        return result;
+    }
+
     @Override
     public void setOwner(RAbstractContainer newOwner) {
         owner = (RStringVector) newOwner;
@@ -183,11 +213,13 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
+        elementIndex = null;
         return new SeqWriteIterator(data, data.length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        elementIndex = null;
         return new RandomAccessWriteIterator(data);
     }
 
@@ -216,6 +248,7 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
     @ExportMessage
     public void setStringAt(int index, String value, @Shared("setCompleteProfile") @Cached BranchProfile setCompleteProfile) {
         data[index] = value;
+        elementIndex = null;
         if (RRuntime.isNA(value)) {
             setCompleteProfile.enter();
             if (owner != null) {
@@ -228,12 +261,14 @@ class RStringArrayVectorData implements TruffleObject, VectorDataWithOwner {
     @ExportMessage
     public void setNextString(SeqWriteIterator it, String value) {
         getStore(it)[it.getIndex()] = value;
+        elementIndex = null;
         // complete flag will be updated in commit method
     }
 
     @ExportMessage
     public void setString(RandomAccessWriteIterator it, int index, String value) {
         getStore(it)[index] = value;
+        elementIndex = null;
         // complete flag will be updated in commit method
     }
 
@@ -22,12 +22,15 @@
  */
 package com.oracle.truffle.r.runtime.data;
 
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.Cached.Shared;
 import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.LoopConditionProfile;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
+import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessIterator;
 import com.oracle.truffle.r.runtime.data.VectorDataLibrary.RandomAccessWriteIterator;
@@ -38,6 +41,10 @@ import com.oracle.truffle.r.runtime.ops.na.NACheck;
 @ExportLibrary(VectorDataLibrary.class)
 public class RStringCharSXPData {
     private final CharSXPWrapper[] data;
+    /**
+     * Lazily created by {@link #getElementIndex()}, reset by every write.
+     */
+    private NonRecursiveHashMapCharacter elementIndex;
 
     public RStringCharSXPData(CharSXPWrapper[] data) {
         this.data = data;
@@ -53,6 +60,32 @@ public class RStringCharSXPData {
 
     public void setWrappedAt(int index, CharSXPWrapper value) {
         data[index] = value;
+        elementIndex = null;
+    }
+
+    /**
+     * @see RStringVector#getElementIndex()
+     */
+    NonRecursiveHashMapCharacter getElementIndex() {
+        NonRecursiveHashMapCharacter result = elementIndex;
+        if (result == null) {
+            result = createElementIndex(data);
+            elementIndex = result;
+        }
+        return result;
+    }
+
+    @TruffleBoundary
+    private static NonRecursiveHashMapCharacter createElementIndex(CharSXPWrapper[] data) {
+        NonRecursiveHashMapCharacter result = new NonRecursiveHashMapCharacter(data.length);
+        // backwards, so that the first occurrence of duplicated elements wins
+        for (int i = data.length - 1; i >= 0; i--) {
+            String element = data[i].getContents();
+            if (!RRuntime.isNA(element)) {
+                result.put(element, i);
+            }
+        }
+        return result;
     }
 
     @ExportMessage
@@ -144,26 +177,31 @@ public class RStringCharSXPData {
 
     @ExportMessage
     public SeqWriteIterator writeIterator() {
+        elementIndex = null;
         return new SeqWriteIterator(data, data.length);
     }
 
     @ExportMessage
     public RandomAccessWriteIterator randomAccessWriteIterator() {
+        elementIndex = null;
         return new RandomAccessWriteIterator(null);
     }
 
     @ExportMessage
     public void setStringAt(int index, String value) {
         data[index] = CharSXPWrapper.create(value);
+        elementIndex = null;
     }
 
     @ExportMessage
     public void setNextString(SeqWriteIterator it, String value) {
         data[it.getIndex()] = CharSXPWrapper.create(value);
+        elementIndex = null;
     }
 
     @ExportMessage
     public void setString(@SuppressWarnings("unused") RandomAccessWriteIterator it, int index, String value) {
         data[index] = CharSXPWrapper.create(value);
+        elementIndex = null;
     }
 }
@@ -31,6 +31,7 @@ import com.oracle.truffle.api.library.ExportLibrary;
 import com.oracle.truffle.api.library.ExportMessage;
 import com.oracle.truffle.api.library.ExportMessage.Ignore;
 import com.oracle.truffle.api.profiles.ConditionProfile;
+import com.oracle.truffle.r.runtime.Collections.NonRecursiveHashMapCharacter;
 import com.oracle.truffle.r.runtime.RInternalError;
 import com.oracle.truffle.r.runtime.RRuntime;
 import com.oracle.truffle.r.runtime.RType;
@@ -301,6 +302,23 @@ public final class RStringVector extends RAbstractAtomicVector implements RMater
         return getUncachedDataLib().getStringAt(data, i);
     }
 
+    /**
+     * Returns a map from the elements of this vector to the (zero-based) index of their first
+     * occurrence, {@code NA} elements are not included. The map is created lazily and kept with the
+     * data of this vector until the next write to them, so that repeated name lookups in long names
+     * vectors do not have to scan the whole vector. Returns {@code null} if the data are not stored
+     * in a Java array, e.g., if this vector is a closure or has been moved to native memory.
+     */
+    public NonRecursiveHashMapCharacter getElementIndex() {
+        Object localData = data;
+        if (localData instanceof RStringArrayVectorData) {
+            return ((RStringArrayVectorData) localData).getElementIndex();
+        } else if (localData instanceof RStringCharSXPData) {
+            return ((RStringCharSXPData) localData).getElementIndex();
+        }
+        return null;
+    }
+
     private RStringVector updateDataAt(int i, String right, NACheck rightNACheck) {
         if (this.isShared()) {
             throw RInternalError.shouldNotReachHere("update shared vector");
@@ -24,6 +24,7 @@ package com.oracle.truffle.r.runtime.env.frame;
 
 import static com.oracle.truffle.r.runtime.context.FastROptions.SearchPathForcePromises;
 
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,6 +33,7 @@ import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.oracle.truffle.api.Assumption;
 import com.oracle.truffle.api.CompilerAsserts;
@@ -201,8 +203,12 @@ public final class FrameSlotChangeMonitor {
          */
         private final WeakHashMap<Object, WeakReference<LookupResult>> lookupResults = new WeakHashMap<>(2);
 
-        private WeakReference<FrameDescriptor> enclosingFrameDescriptor = new WeakReference<>(null);
-        private Assumption enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+        /*
+         * The enclosing descriptor and its assumption are only changed while holding the lock of
+         * FrameSlotChangeMonitor, but they are read without it.
+         */
+        private volatile WeakReference<FrameDescriptor> enclosingFrameDescriptor = new WeakReference<>(null);
+        private volatile Assumption enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
         private final Assumption containsNoActiveBindingAssumption = Truffle.getRuntime().createAssumption("contains no active binding");
 
         private FrameDescriptorMetaData(String name, MaterializedFrame singletonFrame) {
@@ -212,11 +218,14 @@ public final class FrameSlotChangeMonitor {
 
         public void updateEnclosingFrameDescriptor(FrameDescriptor newEnclosingDescriptor) {
             CompilerAsserts.neverPartOfCompilation();
-            if (enclosingFrameDescriptorAssumption != null) {
-                enclosingFrameDescriptorAssumption.invalidate();
-            }
+            // publish the new state before invalidating the old assumption, so that a concurrent
+            // reader either gets the new assumption or one that is going to be invalidated
+            Assumption oldAssumption = enclosingFrameDescriptorAssumption;
             enclosingFrameDescriptor = new WeakReference<>(newEnclosingDescriptor);
             enclosingFrameDescriptorAssumption = Truffle.getRuntime().createAssumption("enclosing frame descriptor");
+            if (oldAssumption != null) {
+                oldAssumption.invalidate();
+            }
         }
 
         public FrameDescriptor getEnclosingFrameDescriptor() {
@@ -225,6 +234,14 @@ public final class FrameSlotChangeMonitor {
             return enclosingFrameDescriptor.get();
         }
 
+        /**
+         * Like {@link #getEnclosingFrameDescriptor()}, for use without holding the lock, when the
+         * enclosing descriptor may be changing concurrently.
+         */
+        public FrameDescriptor peekEnclosingFrameDescriptor() {
+            return enclosingFrameDescriptor.get();
+        }
+
         public Assumption getEnclosingFrameDescriptorAssumption() {
             return enclosingFrameDescriptorAssumption;
         }
@@ -234,7 +251,72 @@ public final class FrameSlotChangeMonitor {
         }
     }
 
-    private static final WeakHashMap<FrameDescriptor, FrameDescriptorMetaData> frameDescriptors = new WeakHashMap<>();
+    /**
+     * Maps frame descriptors (compared by identity) to their meta data without preventing the
+     * descriptors from being collected. Unlike a {@link WeakHashMap}, it can be read and updated
+     * without the lock of {@link FrameSlotChangeMonitor}, so that contexts and threads creating
+     * functions and environments in parallel do not contend on it. Only the changes of the
+     * enclosing descriptor hierarchy and of the lookup results are serialized.
+     */
+    private static final class MetaDataMap {
+        private final ConcurrentHashMap<Object, FrameDescriptorMetaData> map = new ConcurrentHashMap<>();
+        private final ReferenceQueue<FrameDescriptor> queue = new ReferenceQueue<>();
+
+        private static final class WeakKey extends WeakReference<FrameDescriptor> {
+            private final int hash;
+
+            WeakKey(FrameDescriptor descriptor, ReferenceQueue<FrameDescriptor> queue) {
+                super(descriptor, queue);
+                this.hash = System.identityHashCode(descriptor);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                if (obj == this) {
+                    return true;
+                }
+                FrameDescriptor descriptor = get();
+                return descriptor != null && obj instanceof WeakKey && ((WeakKey) obj).get() == descriptor;
+            }
+        }
+
+        private static final class LookupKey {
+            private final FrameDescriptor descriptor;
+
+            LookupKey(FrameDescriptor descriptor) {
+                this.descriptor = descriptor;
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(descriptor);
+            }
+
+            @Override
+            public boolean equals(Object obj) {
+                return obj instanceof WeakKey && ((WeakKey) obj).get() == descriptor;
+            }
+        }
+
+        FrameDescriptorMetaData get(FrameDescriptor descriptor) {
+            return descriptor == null ? null : map.get(new LookupKey(descriptor));
+        }
+
+        void put(FrameDescriptor descriptor, FrameDescriptorMetaData metaData) {
+            Object stale;
+            while ((stale = queue.poll()) != null) {
+                map.remove(stale);
+            }
+            map.put(new WeakKey(descriptor, queue), metaData);
+        }
+    }
+
+    private static final MetaDataMap frameDescriptors = new MetaDataMap();
 
     /**
      * This function tries to fulfill the lookup for the given name in the given frame based only on
@@ -350,7 +432,7 @@ public final class FrameSlotChangeMonitor {
         return frame == null ? null : frame instanceof NSBaseMaterializedFrame ? ((NSBaseMaterializedFrame) frame).getMarkerFrameDescriptor() : frame.getFrameDescriptor();
     }
 
-    private static synchronized FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
+    private static FrameDescriptorMetaData getMetaData(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData result = frameDescriptors.get(descriptor);
         assert result != null : "null metadata for " + descriptor;
@@ -368,20 +450,25 @@ public final class FrameSlotChangeMonitor {
         return target;
     }
 
-    public static synchronized boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
+    public static boolean isEnclosingFrameDescriptor(FrameDescriptor descriptor, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
         FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
-        return target.getEnclosingFrameDescriptor() == newEnclosingDescriptor;
+        return target.peekEnclosingFrameDescriptor() == newEnclosingDescriptor;
     }
 
-    public static synchronized void initializeEnclosingFrame(FrameDescriptor descriptor, Frame newEnclosingFrame) {
+    public static void initializeEnclosingFrame(FrameDescriptor descriptor, Frame newEnclosingFrame) {
         CompilerAsserts.neverPartOfCompilation();
         FrameDescriptorMetaData target = getDescriptorMetaData(descriptor);
-
         FrameDescriptor newEnclosingDescriptor = handleBaseNamespaceEnv(newEnclosingFrame);
+        // this function can be called multiple times with the same enclosing descriptor, which
+        // does not need the lock
+        if (target.peekEnclosingFrameDescriptor() != newEnclosingDescriptor) {
+            initializeEnclosingFrame(descriptor, target, newEnclosingDescriptor);
+        }
+    }
 
-        // this function can be called multiple times with the same enclosing descriptor
+    private static synchronized void initializeEnclosingFrame(FrameDescriptor descriptor, FrameDescriptorMetaData target, FrameDescriptor newEnclosingDescriptor) {
         if (target.getEnclosingFrameDescriptor() != newEnclosingDescriptor) {
             assert target.getEnclosingFrameDescriptor() == null : "existing enclosing descriptor while initializing " + target.name;
             assert target.lookupResults.isEmpty() : "existing lookup results while initializing " + target.name;
@@ -394,7 +481,7 @@ public final class FrameSlotChangeMonitor {
         }
     }
 
-    public static synchronized void initializeEnclosingFrame(Frame frame, Frame newEnclosingFrame) {
+    public static void initializeEnclosingFrame(Frame frame, Frame newEnclosingFrame) {
         initializeEnclosingFrame(handleBaseNamespaceEnv(frame), newEnclosingFrame);
     }
 
@@ -973,28 +1060,28 @@ public final class FrameSlotChangeMonitor {
      * Initializes the internal data structures for a newly created frame descriptor that is
      * intended to be used for a non-function frame (and thus will only ever be used for one frame).
      */
-    public static synchronized void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
+    public static void initializeNonFunctionFrameDescriptor(String name, MaterializedFrame frame) {
         CompilerAsserts.neverPartOfCompilation();
         frameDescriptors.put(handleBaseNamespaceEnv(frame), new FrameDescriptorMetaData(name, frame));
     }
 
-    public static synchronized FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
+    public static FrameDescriptor initializeFunctionFrameDescriptor(String name, FrameDescriptor frameDescriptor) {
         CompilerAsserts.neverPartOfCompilation();
         frameDescriptors.put(frameDescriptor, new FrameDescriptorMetaData(name, null));
         return frameDescriptor;
     }
 
-    public static synchronized Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
+    public static Assumption getEnclosingFrameDescriptorAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getEnclosingFrameDescriptorAssumption();
+        return getMetaData(descriptor).getEnclosingFrameDescriptorAssumption();
     }
 
-    public static synchronized Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
+    public static Assumption getContainsNoActiveBindingAssumption(FrameDescriptor descriptor) {
         CompilerAsserts.neverPartOfCompilation();
-        return frameDescriptors.get(descriptor).getContainsNoActiveBindingAssumption();
+        return getMetaData(descriptor).getContainsNoActiveBindingAssumption();
     }
 
-    public static synchronized StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
+    public static StableValue<Object> getStableValueAssumption(FrameDescriptor descriptor, FrameSlot frameSlot, Object value) {
         CompilerAsserts.neverPartOfCompilation();
         StableValue<Object> stableValue = getFrameSlotInfo(frameSlot).getStableValue();
         if (stableValue != null) {
@@ -1005,13 +1092,13 @@ public final class FrameSlotChangeMonitor {
         return stableValue;
     }
 
-    public static synchronized MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
+    public static MaterializedFrame getSingletonFrame(FrameDescriptor descriptor) {
         WeakReference<MaterializedFrame> singleton = getMetaData(descriptor).singletonFrame;
         return singleton == null ? null : singleton.get();
     }
 
     public static boolean isValidFrameDescriptor(FrameDescriptor frameDesc) {
-        return getMetaData(frameDesc) != null;
+        return frameDescriptors.get(frameDesc) != null;
     }
 
     /*
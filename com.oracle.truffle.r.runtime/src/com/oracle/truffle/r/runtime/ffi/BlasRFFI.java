@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+/**
+ * Collection of statically typed methods (from the reference BLAS library bundled with R) that are
+ * used by the implementation of matrix products ({@code %*%}, {@code crossprod} and
+ * {@code tcrossprod}). All matrices are in column-major order and the {@code char} arguments have
+ * the usual BLAS meaning.
+ */
+public final class BlasRFFI {
+    private final DownCallNodeFactory downCallNodeFactory;
+
+    public BlasRFFI(DownCallNodeFactory downCallNodeFactory) {
+        this.downCallNodeFactory = downCallNodeFactory;
+    }
+
+    /**
+     * The native BLAS library is not available in the managed mode.
+     */
+    public static boolean isAvailable() {
+        return RFFIFactory.getFactoryType() != RFFIFactory.Type.MANAGED;
+    }
+
+    /**
+     * {@code C := alpha*op(A)*op(B) + beta*C}.
+     */
+    public static final class DgemmNode extends NativeCallNode {
+
+        public static DgemmNode create() {
+            return RFFIFactory.getBlasRFFI().createDgemmNode();
+        }
+
+        private DgemmNode(DownCallNodeFactory factory) {
+            super(factory.createDownCallNode());
+        }
+
+        public void execute(char transA, char transB, int m, int n, int k, double alpha, double[] a, int lda, double[] b, int ldb, double beta, double[] c, int ldc) {
+            call(NativeFunction.dgemm, transA, transB, m, n, k, alpha, a, lda, b, ldb, beta, c, ldc);
+        }
+    }
+
+    /**
+     * {@code C := alpha*A*A' + beta*C} or {@code C := alpha*A'*A + beta*C}, only the triangle of
+     * {@code C} given by {@code uplo} is computed.
+     */
+    public static final class DsyrkNode extends NativeCallNode {
+
+        public static DsyrkNode create() {
+            return RFFIFactory.getBlasRFFI().createDsyrkNode();
+        }
+
+        private DsyrkNode(DownCallNodeFactory factory) {
+            super(factory.createDownCallNode());
+        }
+
+        public void execute(char uplo, char trans, int n, int k, double alpha, double[] a, int lda, double beta, double[] c, int ldc) {
+            call(NativeFunction.dsyrk, uplo, trans, n, k, alpha, a, lda, beta, c, ldc);
+        }
+    }
+
+    /**
+     * {@code y := alpha*op(A)*x + beta*y}.
+     */
+    public static final class DgemvNode extends NativeCallNode {
+
+        public static DgemvNode create() {
+            return RFFIFactory.getBlasRFFI().createDgemvNode();
+        }
+
+        private DgemvNode(DownCallNodeFactory factory) {
+            super(factory.createDownCallNode());
+        }
+
+        public void execute(char trans, int m, int n, double alpha, double[] a, int lda, double[] x, int incx, double beta, double[] y, int incy) {
+            call(NativeFunction.dgemv, trans, m, n, alpha, a, lda, x, incx, beta, y, incy);
+        }
+    }
+
+    public DgemmNode createDgemmNode() {
+        return new DgemmNode(downCallNodeFactory);
+    }
+
+    public DsyrkNode createDsyrkNode() {
+        return new DsyrkNode(downCallNodeFactory);
+    }
+
+    public DgemvNode createDgemvNode() {
+        return new DgemvNode(downCallNodeFactory);
+    }
+}
@@ -43,9 +43,13 @@ public interface CallRFFI {
             LibHandle handle = dllInfo == null ? null : dllInfo.handle;
             Type rffiType = handle == null ? stateRFFI.getDefaultRFFIType() : handle.getRFFIType();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), rffiType);
+            RFFIProfile.Call profiledCall = RFFIProfile.isEnabled() ? RFFIProfile.enterDownCall(nativeCallInfo) : null;
             try {
                 return execute(nativeCallInfo, args);
             } finally {
+                if (profiledCall != null) {
+                    RFFIProfile.exitDownCall(profiledCall);
+                }
                 stateRFFI.afterDowncall(before, rffiType, AfterDownCallProfiles.getUncached());
             }
         }
@@ -62,9 +66,13 @@ public interface CallRFFI {
         default void dispatch(VirtualFrame frame, NativeCallInfo nativeCallInfo, Object[] args) {
             RFFIContext stateRFFI = RContext.getInstance().getStateRFFI();
             Object before = stateRFFI.beforeDowncall(frame == null ? null : frame.materialize(), nativeCallInfo.dllInfo.handle.getRFFIType());
+            RFFIProfile.Call profiledCall = RFFIProfile.isEnabled() ? RFFIProfile.enterDownCall(nativeCallInfo) : null;
             try {
                 execute(frame, nativeCallInfo, args);
             } finally {
+                if (profiledCall != null) {
+                    RFFIProfile.exitDownCall(profiledCall);
+                }
                 stateRFFI.afterDowncall(before, nativeCallInfo.dllInfo.handle.getRFFIType(), AfterDownCallProfiles.getUncached());
             }
         }
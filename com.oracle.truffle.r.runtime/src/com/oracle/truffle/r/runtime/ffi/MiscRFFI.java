@@ -38,20 +38,6 @@ public final class MiscRFFI {
         this.downCallNodeFactory = downCallNodeFactory;
     }
 
-    public static final class ExactSumNode extends NativeCallNode {
-        private ExactSumNode(DownCallNodeFactory factory) {
-            super(factory.createDownCallNode());
-        }
-
-        public double execute(double[] values, boolean hasNa, boolean naRm) {
-            return (double) call(NativeFunction.exactSumFunc, values, values.length, hasNa ? 1 : 0, naRm ? 1 : 0);
-        }
-
-        public static ExactSumNode create() {
-            return RFFIFactory.getMiscRFFI().createExactSumNode();
-        }
-    }
-
     public static final class DqrlsNode extends NativeCallNode {
         private DqrlsNode(DownCallNodeFactory factory) {
             super(factory.createDownCallNode());
@@ -156,10 +142,6 @@ public final class MiscRFFI {
 
     }
 
-    public ExactSumNode createExactSumNode() {
-        return new ExactSumNode(downCallNodeFactory);
-    }
-
     public DqrlsNode createDqrlsNode() {
         return new DqrlsNode(downCallNodeFactory);
     }
@@ -76,8 +76,11 @@ public enum NativeFunction {
     zunmqr("(string, string, sint32, sint32, sint32, [double], sint32, [double], [double], sint32, [double], sint32) : sint32", "call_lapack_"),
     ztrtrs("(string, string, string, sint32, sint32, [double], sint32, [double], sint32) : sint32", "call_lapack_"),
     dtrsm("(string, string, string, string, sint32, sint32, double, [double], sint32, [double], sint32) : void", "call_lapack_"),
+    // blas
+    dgemm("(uint8, uint8, sint32, sint32, sint32, double, [double], sint32, [double], sint32, double, [double], sint32) : void", "call_blas_"),
+    dsyrk("(uint8, uint8, sint32, sint32, double, [double], sint32, double, [double], sint32) : void", "call_blas_"),
+    dgemv("(uint8, sint32, sint32, double, [double], sint32, [double], sint32, double, [double], sint32) : void", "call_blas_"),
     // misc
-    exactSumFunc("([double], sint32, sint32, sint32): double", "call_misc_"),
     dqrls("([double], sint32, sint32, [double], sint32, double, [double], [double], [double], [sint32], [sint32], [double], [double]): void", "call_misc_"),
     before_graphics_op("():sint32", "", baseLibrary(), true),
     after_graphics_op("(pointer,pointer,sint32): sint32", "", baseLibrary(), true),
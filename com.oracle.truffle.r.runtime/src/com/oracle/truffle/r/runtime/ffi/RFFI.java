@@ -32,6 +32,8 @@ import com.oracle.truffle.r.runtime.context.RContext.ContextState;
  * package.</li>
  * <li>{@link LapackRFFI}: the specific, typed, foreign functions required by the built-in
  * {@code Lapack} functions.</li>
+ * <li>{@link BlasRFFI}: the specific, typed, foreign functions from BLAS used for matrix
+ * products.</li>
  * <li>{@link StatsRFFI}: native functions in the {@code stats} package.</li>
  * <li>{@link ToolsRFFI}: native functions in the {@code tools} package.</li>
  * <li>{@link CRFFI}: {@code .C} and {@code .Fortran} call interface.</li>
@@ -58,13 +60,14 @@ public abstract class RFFI implements ContextState {
     public final ZipRFFI zipRFFI;
     public final PCRERFFI pcreRFFI;
     public final LapackRFFI lapackRFFI;
+    public final BlasRFFI blasRFFI;
     public final StatsRFFI statsRFFI;
     public final ToolsRFFI toolsRFFI;
     public final REmbedRFFI embedRFFI;
     public final MiscRFFI miscRFFI;
 
     protected RFFI(CRFFI cRFFI, BaseRFFI baseRFFI, AltrepRFFI altrepRFFI, CallRFFI callRFFI, DLLRFFI dllRFFI, UserRngRFFI userRngRFFI, ZipRFFI zipRFFI, PCRERFFI pcreRFFI, LapackRFFI lapackRFFI,
-                    StatsRFFI statsRFFI,
+                    BlasRFFI blasRFFI, StatsRFFI statsRFFI,
                     ToolsRFFI toolsRFFI, REmbedRFFI embedRFFI, MiscRFFI miscRFFI) {
         this.cRFFI = cRFFI;
         this.baseRFFI = baseRFFI;
@@ -75,6 +78,7 @@ public abstract class RFFI implements ContextState {
         this.zipRFFI = zipRFFI;
         this.pcreRFFI = pcreRFFI;
         this.lapackRFFI = lapackRFFI;
+        this.blasRFFI = blasRFFI;
         this.statsRFFI = statsRFFI;
         this.toolsRFFI = toolsRFFI;
         this.embedRFFI = embedRFFI;
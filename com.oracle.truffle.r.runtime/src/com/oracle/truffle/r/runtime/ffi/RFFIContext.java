@@ -62,9 +62,9 @@ public abstract class RFFIContext extends RFFI {
 
     protected RFFIContext(RFFIContextState rffiContextState, CRFFI cRFFI, BaseRFFI baseRFFI, AltrepRFFI altrepRFFI, CallRFFI callRFFI, DLLRFFI dllRFFI, UserRngRFFI userRngRFFI, ZipRFFI zipRFFI,
                     PCRERFFI pcreRFFI,
-                    LapackRFFI lapackRFFI, StatsRFFI statsRFFI,
+                    LapackRFFI lapackRFFI, BlasRFFI blasRFFI, StatsRFFI statsRFFI,
                     ToolsRFFI toolsRFFI, REmbedRFFI rEmbedRFFI, MiscRFFI miscRFFI) {
-        super(cRFFI, baseRFFI, altrepRFFI, callRFFI, dllRFFI, userRngRFFI, zipRFFI, pcreRFFI, lapackRFFI, statsRFFI, toolsRFFI, rEmbedRFFI, miscRFFI);
+        super(cRFFI, baseRFFI, altrepRFFI, callRFFI, dllRFFI, userRngRFFI, zipRFFI, pcreRFFI, lapackRFFI, blasRFFI, statsRFFI, toolsRFFI, rEmbedRFFI, miscRFFI);
         this.rffiContextState = rffiContextState;
         // forward constructor
     }
@@ -109,6 +109,10 @@ public abstract class RFFIFactory {
         return getRFFI().lapackRFFI;
     }
 
+    public static BlasRFFI getBlasRFFI() {
+        return getRFFI().blasRFFI;
+    }
+
     public static StatsRFFI getStatsRFFI() {
         return getRFFI().statsRFFI;
     }
@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.oracle.truffle.api.Assumption;
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.Truffle;
+
+/**
+ * Aggregating profiler of the R FFI boundary. Unlike {@link RFFILog}, which traces every call, it
+ * only keeps per up-call and per native symbol counters: the number of calls, the cumulative
+ * time and the number of bytes of R data copied to native memory while the call was active.
+ *
+ * Profiling is enabled by the {@code FFIProfile} option and cannot be disabled again. While it is
+ * disabled, {@link #isEnabled()} folds to {@code false} in compiled code, so the instrumentation
+ * of the call sites costs nothing.
+ *
+ * The time of a down-call includes the time of the up-calls made from it and the time of nested
+ * down-calls.
+ */
+public final class RFFIProfile {
+
+    private static final Assumption disabled = Truffle.getRuntime().createAssumption("RFFI profile disabled");
+
+    private RFFIProfile() {
+        // only static members
+    }
+
+    public static final class Entry {
+        public final String packageName;
+        public final String name;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        private Entry(String packageName, String name) {
+            this.packageName = packageName;
+            this.name = name;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getNanos() {
+            return nanos.sum();
+        }
+
+        public long getBytes() {
+            return bytes.sum();
+        }
+    }
+
+    /**
+     * An active call, created when the call is entered and passed to the corresponding exit method.
+     */
+    public static final class Call {
+        private final Entry entry;
+        private final Call previous;
+        private final long start;
+
+        private Call(Entry entry, Call previous) {
+            this.entry = entry;
+            this.previous = previous;
+            this.start = System.nanoTime();
+        }
+    }
+
+    private static final class ThreadState {
+        private Call upCall;
+        private Call downCall;
+    }
+
+    private static final ConcurrentHashMap<String, Entry> upCalls = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, Entry> downCalls = new ConcurrentHashMap<>();
+    private static final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(ThreadState::new);
+
+    public static boolean isEnabled() {
+        return !disabled.isValid();
+    }
+
+    public static void enable() {
+        disabled.invalidate();
+    }
+
+    @TruffleBoundary
+    public static Call enterUpCall(String name) {
+        ThreadState state = threadState.get();
+        Entry entry = upCalls.computeIfAbsent(name, n -> new Entry(null, n));
+        state.upCall = new Call(entry, state.upCall);
+        return state.upCall;
+    }
+
+    @TruffleBoundary
+    public static void exitUpCall(Call call) {
+        threadState.get().upCall = call.previous;
+        record(call);
+    }
+
+    @TruffleBoundary
+    public static Call enterDownCall(NativeCallInfo nativeCallInfo) {
+        ThreadState state = threadState.get();
+        String packageName = nativeCallInfo.dllInfo == null ? "" : nativeCallInfo.dllInfo.name;
+        Entry entry = downCalls.computeIfAbsent(packageName + "::" + nativeCallInfo.name, n -> new Entry(packageName, nativeCallInfo.name));
+        state.downCall = new Call(entry, state.downCall);
+        return state.downCall;
+    }
+
+    @TruffleBoundary
+    public static void exitDownCall(Call call) {
+        threadState.get().downCall = call.previous;
+        record(call);
+    }
+
+    private static void record(Call call) {
+        call.entry.count.increment();
+        call.entry.nanos.add(System.nanoTime() - call.start);
+    }
+
+    /**
+     * Attributes the given number of bytes copied from R data to native memory to the innermost
+     * active up-call and down-call of the current thread.
+     */
+    @TruffleBoundary
+    public static void recordCopiedToNative(long bytes) {
+        ThreadState state = threadState.get();
+        if (state.upCall != null) {
+            state.upCall.entry.bytes.add(bytes);
+        }
+        if (state.downCall != null) {
+            state.downCall.entry.bytes.add(bytes);
+        }
+    }
+
+    @TruffleBoundary
+    public static Collection<Entry> getUpCalls() {
+        return new ArrayList<>(upCalls.values());
+    }
+
+    @TruffleBoundary
+    public static Collection<Entry> getDownCalls() {
+        return new ArrayList<>(downCalls.values());
+    }
+
+    @TruffleBoundary
+    public static void reset() {
+        upCalls.clear();
+        downCalls.clear();
+    }
+}
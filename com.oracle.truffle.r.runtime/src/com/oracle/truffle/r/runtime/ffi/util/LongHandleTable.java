@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ffi.util;
+
+import java.util.concurrent.locks.StampedLock;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+
+/**
+ * Concurrent map from {@code long} handles to objects, used for the handles of objects that
+ * escaped to native code. Unlike a {@code ConcurrentHashMap<Long, V>}, it neither boxes the keys
+ * nor allocates a node per entry: the keys and values are stored in parallel arrays with open
+ * addressing and linear probing.
+ *
+ * The table is split into stripes, each with its own {@link StampedLock}. Lookups are optimistic
+ * reads that only take the read lock if a concurrent update interfered, updates take the write
+ * lock of one stripe. {@link #removeAll} removes a batch of entries taking each stripe's lock only
+ * once.
+ *
+ * Zero is not a valid key, it marks empty slots.
+ */
+public final class LongHandleTable<V> {
+    private static final int STRIPES_BITS = 5;
+    private static final int STRIPES = 1 << STRIPES_BITS;
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+    private static final long EMPTY = 0;
+
+    private static final class Stripe {
+        private final StampedLock lock = new StampedLock();
+        private long[] keys = new long[INITIAL_STRIPE_CAPACITY];
+        private Object[] values = new Object[INITIAL_STRIPE_CAPACITY];
+        private volatile int size;
+    }
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public LongHandleTable() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    private Stripe getStripe(long hash) {
+        return stripes[(int) (hash >>> (64 - STRIPES_BITS))];
+    }
+
+    @SuppressWarnings("unchecked")
+    @TruffleBoundary
+    public V get(long key) {
+        assert key != EMPTY;
+        long hash = mix(key);
+        Stripe stripe = getStripe(hash);
+        long stamp = stripe.lock.tryOptimisticRead();
+        if (stamp != 0) {
+            Object result = find(stripe.keys, stripe.values, key, hash);
+            if (stripe.lock.validate(stamp)) {
+                return (V) result;
+            }
+        }
+        stamp = stripe.lock.readLock();
+        try {
+            return (V) find(stripe.keys, stripe.values, key, hash);
+        } finally {
+            stripe.lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Maps the key to the value, replacing the previous mapping if any.
+     */
+    @TruffleBoundary
+    public void put(long key, V value) {
+        assert key != EMPTY && value != null;
+        long hash = mix(key);
+        Stripe stripe = getStripe(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            int mask = stripe.keys.length - 1;
+            int i = (int) hash & mask;
+            while (true) {
+                long k = stripe.keys[i];
+                if (k == key) {
+                    stripe.values[i] = value;
+                    return;
+                }
+                if (k == EMPTY) {
+                    stripe.keys[i] = key;
+                    stripe.values[i] = value;
+                    break;
+                }
+                i = (i + 1) & mask;
+            }
+            int newSize = stripe.size + 1;
+            stripe.size = newSize;
+            if (newSize * 4 > stripe.keys.length * 3) {
+                grow(stripe);
+            }
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the mapping of the key if it is mapped to the given value.
+     */
+    @TruffleBoundary
+    public boolean remove(long key, V value) {
+        long hash = mix(key);
+        Stripe stripe = getStripe(hash);
+        long stamp = stripe.lock.writeLock();
+        try {
+            return removeLocked(stripe, key, hash, value);
+        } finally {
+            stripe.lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Removes the mappings of the first {@code count} keys that are mapped to the corresponding
+     * values.
+     */
+    @TruffleBoundary
+    public void removeAll(long[] keys, Object[] values, int count) {
+        int[] stripeIndices = new int[count];
+        int[] stripeCounts = new int[STRIPES];
+        for (int i = 0; i < count; i++) {
+            int index = (int) (mix(keys[i]) >>> (64 - STRIPES_BITS));
+            stripeIndices[i] = index;
+            stripeCounts[index]++;
+        }
+        for (int s = 0; s < STRIPES; s++) {
+            if (stripeCounts[s] == 0) {
+                continue;
+            }
+            Stripe stripe = stripes[s];
+            long stamp = stripe.lock.writeLock();
+            try {
+                for (int i = 0; i < count; i++) {
+                    if (stripeIndices[i] == s) {
+                        removeLocked(stripe, keys[i], mix(keys[i]), values[i]);
+                    }
+                }
+            } finally {
+                stripe.lock.unlockWrite(stamp);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of mappings, which may be inaccurate if the table is being updated
+     * concurrently.
+     */
+    public int size() {
+        int result = 0;
+        for (Stripe stripe : stripes) {
+            result += stripe.size;
+        }
+        return result;
+    }
+
+    private static Object find(long[] keys, Object[] values, long key, long hash) {
+        if (keys.length != values.length) {
+            // inconsistent optimistic read of a stripe that is being resized
+            return null;
+        }
+        int mask = keys.length - 1;
+        int i = (int) hash & mask;
+        for (int n = 0; n < keys.length; n++) {
+            long k = keys[i];
+            if (k == key) {
+                return values[i];
+            }
+            if (k == EMPTY) {
+                return null;
+            }
+            i = (i + 1) & mask;
+        }
+        return null;
+    }
+
+    private static boolean removeLocked(Stripe stripe, long key, long hash, Object value) {
+        long[] keys = stripe.keys;
+        Object[] values = stripe.values;
+        int mask = keys.length - 1;
+        int i = (int) hash & mask;
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        if (values[i] != value) {
+            return false;
+        }
+        // backward shift deletion: move the following entries of the probe sequence to the hole
+        // unless their home slot lies after the hole
+        int hole = i;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            long k = keys[j];
+            if (k == EMPTY) {
+                break;
+            }
+            int home = (int) mix(k) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                keys[hole] = k;
+                values[hole] = values[j];
+                hole = j;
+            }
+        }
+        keys[hole] = EMPTY;
+        values[hole] = null;
+        stripe.size = stripe.size - 1;
+        return true;
+    }
+
+    private static void grow(Stripe stripe) {
+        long[] oldKeys = stripe.keys;
+        Object[] oldValues = stripe.values;
+        long[] newKeys = new long[oldKeys.length * 2];
+        Object[] newValues = new Object[newKeys.length];
+        int mask = newKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k != EMPTY) {
+                int j = (int) mix(k) & mask;
+                while (newKeys[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                newKeys[j] = k;
+                newValues[j] = oldValues[i];
+            }
+        }
+        stripe.keys = newKeys;
+        stripe.values = newValues;
+    }
+}
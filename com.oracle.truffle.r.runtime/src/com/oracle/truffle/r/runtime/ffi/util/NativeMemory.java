@@ -32,6 +32,7 @@ import java.util.Arrays;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantLock;
 
 import com.oracle.truffle.api.CompilerDirectives;
@@ -69,6 +70,10 @@ public abstract class NativeMemory {
             this.bytes = bytes;
             this.offset = offset;
         }
+
+        public int getBytes() {
+            return bytes;
+        }
     }
 
     private static final Unsafe UNSAFE = initUnsafe();
@@ -93,6 +98,7 @@ public abstract class NativeMemory {
     public static long allocate(long size, Object debugInfo) {
         traceAllocateStart(size, debugInfo);
         long result = UNSAFE.allocateMemory(size);
+        allocatedBytes.addAndGet(size);
         traceAllocate(result, size, debugInfo);
         return result;
     }
@@ -100,6 +106,7 @@ public abstract class NativeMemory {
     public static long allocate(ElementType type, long size, Object debugInfo) {
         traceAllocateStart(size, debugInfo);
         long result = UNSAFE.allocateMemory(size * type.bytes);
+        allocatedBytes.addAndGet(size * type.bytes);
         traceAllocate(result, size, debugInfo);
         return result;
     }
@@ -112,9 +119,38 @@ public abstract class NativeMemory {
 
     @TruffleBoundary
     public static NativeMemoryWrapper wrapNativeMemory(long address, Object owner) {
-        return new FreeingNativeMemoryWrapper(address, owner);
+        return new FreeingNativeMemoryWrapper(address, 0, owner);
+    }
+
+    /**
+     * As {@link #wrapNativeMemory(long, Object)}, but the size of the memory block is known and is
+     * accounted in {@link #getWrappedBytes()} until the memory is freed.
+     */
+    @TruffleBoundary
+    public static NativeMemoryWrapper wrapNativeMemory(long address, long size, Object owner) {
+        return new FreeingNativeMemoryWrapper(address, size, owner);
     }
 
+    /**
+     * Returns the total size of the native memory blocks that are currently wrapped with a known
+     * size, i.e., that will be freed once their owners are collected.
+     */
+    public static long getWrappedBytes() {
+        return wrappedBytes.get();
+    }
+
+    private static final AtomicLong wrappedBytes = new AtomicLong();
+
+    /**
+     * Returns the total size of the native memory allocated via {@link #allocate(long, Object)}
+     * since the start of the VM, including memory that was freed since.
+     */
+    public static long getAllocatedBytes() {
+        return allocatedBytes.get();
+    }
+
+    private static final AtomicLong allocatedBytes = new AtomicLong();
+
     /**
      * Allows to wrap native memory address in the same object as
      * {@link #wrapNativeMemory(long, Object)}, but without cleaning-up the memory when the owning
@@ -134,6 +170,25 @@ public abstract class NativeMemory {
         copyMemory(source, type.offset, type.bytes, destination, elementsCount);
     }
 
+    /**
+     * Copies {@code elementsCount} elements of the Java array {@code source} starting at index
+     * {@code fromIndex} to the native memory at {@code destination}.
+     */
+    public static void copyMemory(Object source, int fromIndex, long destination, ElementType type, long elementsCount) {
+        UNSAFE.copyMemory(source, type.offset + (long) fromIndex * type.bytes, null, destination, type.bytes * elementsCount);
+    }
+
+    /**
+     * Copies {@code bytes} bytes of native memory, the regions must not overlap.
+     */
+    public static void copyMemory(long source, long destination, long bytes) {
+        UNSAFE.copyMemory(source, destination, bytes);
+    }
+
+    public static void setMemory(long address, long bytes, byte value) {
+        UNSAFE.setMemory(address, bytes, value);
+    }
+
     private static void copyMemory(Object source, int elementBase, long elementSize, long destination, long elementsCount) {
         // this takes relevant args as longs to make sure any calculations do not overflow
         UNSAFE.copyMemory(source, elementBase, null, destination, elementSize * elementsCount);
@@ -301,6 +356,7 @@ public abstract class NativeMemory {
      */
     private static final class FreeingNativeMemoryWrapper extends NativeMemoryWrapper implements Releasable {
         @SuppressFBWarnings(value = "UWF_NULL_FIELD", justification = "used for debugging") private final String ownerInfo;
+        private final long size;
 
         /**
          * The instances need to be kept alive until they are pooled from the reference queue and
@@ -310,8 +366,13 @@ public abstract class NativeMemory {
         private static final EconomicSet<NativeMemoryWrapper> active = EconomicSet.create();
         private static final ReentrantLock activeLock = new ReentrantLock();
 
-        private FreeingNativeMemoryWrapper(long address, Object owner) {
+        private FreeingNativeMemoryWrapper(long address, long size, Object owner) {
             super(address, owner, ResourcesCleaner.nativeReferenceQueue());
+            ResourcesCleaner.registered();
+            this.size = size;
+            if (size != 0) {
+                wrappedBytes.addAndGet(size);
+            }
             // Assertion check: creating NativeMemoryWrapper for address that was not allocated via
             // NativeMemory.allocate
             assert ALLOCATED == null || ALLOCATED.get(getAddress()) != null : "MEMORY ERROR: " + Long.toHexString(getAddress()) + " " + owner.getClass().getSimpleName();
@@ -334,6 +395,9 @@ public abstract class NativeMemory {
         @Override
         public void release() {
             NativeMemory.free(getAddress(), ownerInfo);
+            if (size != 0) {
+                wrappedBytes.addAndGet(-size);
+            }
             try {
                 activeLock.lock();
                 assert active.contains(this) : "MEMORY ERROR";
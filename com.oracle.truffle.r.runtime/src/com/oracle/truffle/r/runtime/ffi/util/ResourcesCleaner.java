@@ -27,6 +27,8 @@ import java.io.StringWriter;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import com.oracle.truffle.api.CompilerDirectives;
@@ -54,6 +56,7 @@ public class ResourcesCleaner {
     public abstract static class ReleasableWeakReference<T> extends WeakReference<T> implements Releasable {
         public ReleasableWeakReference(T referent) {
             super(referent, nativeReferenceQueue());
+            registered();
         }
     }
 
@@ -68,6 +71,24 @@ public class ResourcesCleaner {
 
     private static final ReferenceQueue<Object> nativeRefQueue = new ReferenceQueue<>();
     private static final AtomicReference<Thread> nativeRefQueueThread = new AtomicReference<>(null);
+    private static final CopyOnWriteArrayList<Runnable> drainListeners = new CopyOnWriteArrayList<>();
+    private static final AtomicLong pending = new AtomicLong();
+
+    /**
+     * Counts a reference registered with {@link #nativeReferenceQueue()} whose resource is released
+     * by {@link Releasable#release()}.
+     */
+    static void registered() {
+        pending.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of {@link Releasable} references whose resources were not released yet,
+     * i.e., whose referents are still alive or are waiting in the reference queue.
+     */
+    public static long getPendingCount() {
+        return pending.get();
+    }
 
     private static void initNativeRefQueueThread() {
         Thread thread = nativeRefQueueThread.get();
@@ -88,9 +109,16 @@ public class ResourcesCleaner {
                                 try {
                                     while (true) {
                                         Reference<?> ref = nativeRefQueue.remove();
-                                        if (ref instanceof Releasable) {
+                                        // release everything that is already enqueued before
+                                        // notifying the listeners, so that they can process the
+                                        // whole batch at once
+                                        do {
+                                            release(ref);
+                                            ref = nativeRefQueue.poll();
+                                        } while (ref != null);
+                                        for (Runnable listener : drainListeners) {
                                             try {
-                                                ((Releasable) ref).release();
+                                                listener.run();
                                             } catch (Throwable ex) {
                                                 assert false : "MEMORY ERROR: " + getDebugInfo(ex);
                                             }
@@ -108,6 +136,26 @@ public class ResourcesCleaner {
         }
     }
 
+    private static void release(Reference<?> ref) {
+        if (ref instanceof Releasable) {
+            pending.decrementAndGet();
+            try {
+                ((Releasable) ref).release();
+            } catch (Throwable ex) {
+                assert false : "MEMORY ERROR: " + getDebugInfo(ex);
+            }
+        }
+    }
+
+    /**
+     * Registers a listener that is run by the queue worker thread every time it has released all
+     * the references that were enqueued. {@link Releasable#release()} implementations can use it to
+     * postpone work that is cheaper to do in batches.
+     */
+    public static void addDrainListener(Runnable listener) {
+        drainListeners.add(listener);
+    }
+
     private static String getDebugInfo(Throwable ex) {
         try {
             StringWriter writer = new StringWriter();
@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument.memprof;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.api.frame.Frame;
+import com.oracle.truffle.api.source.SourceSection;
+import com.oracle.truffle.r.runtime.RArguments;
+import com.oracle.truffle.r.runtime.RCaller;
+import com.oracle.truffle.r.runtime.Utils;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RFunction;
+import com.oracle.truffle.r.runtime.data.RObjectSize;
+import com.oracle.truffle.r.runtime.nodes.RSyntaxElement;
+
+/**
+ * Tracks which sampled allocations are still alive. Every {@code N}-th R object reported by
+ * {@link RDataFactory} is tagged with the R call site that allocated it (the function name and the
+ * source position of its call) and kept via a {@link WeakReference}, so tracking does not change
+ * what is retained. A {@link #snapshot() snapshot} computes the size of the surviving objects with
+ * {@link RObjectSize} and aggregates them per site; the sizes are scaled by the sampling interval
+ * to estimate the bytes retained by all allocations of that site.
+ *
+ * Like {@link MemAllocProfilerStacks}, this is a singleton since there is at most one profiling
+ * session at any moment.
+ */
+public final class MemAllocProfilerRetention implements RDataFactory.Listener {
+
+    private static final MemAllocProfilerRetention instance = new MemAllocProfilerRetention();
+
+    private static final String UNKNOWN_SITE = "<unknown>";
+
+    private final AtomicLong allocations = new AtomicLong();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final Set<TrackedRef> tracked = ConcurrentHashMap.newKeySet();
+    private volatile int sampleInterval;
+    private Map<String, SiteStats> baseline = Collections.emptyMap();
+
+    private MemAllocProfilerRetention() {
+    }
+
+    /**
+     * @return the single instance of the tracker
+     */
+    public static MemAllocProfilerRetention getInstance() {
+        return instance;
+    }
+
+    private static final class TrackedRef extends WeakReference<Object> {
+        private final String site;
+        private final int weight;
+
+        TrackedRef(Object referent, String site, int weight, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.site = site;
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * The estimated number and size of the live objects allocated at one site.
+     */
+    public static final class SiteStats {
+        private final String site;
+        private long count;
+        private long retained;
+        private long delta;
+
+        SiteStats(String site) {
+            this.site = site;
+        }
+
+        public String getSite() {
+            return site;
+        }
+
+        /**
+         * @return the estimated number of live objects
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the estimated retained memory in bytes
+         */
+        public long getRetained() {
+            return retained;
+        }
+
+        /**
+         * @return the change of {@link #getRetained()} since the previous snapshot
+         */
+        public long getDelta() {
+            return delta;
+        }
+    }
+
+    /**
+     * Starts tracking every {@code interval}-th allocation, discarding previously tracked objects.
+     */
+    public synchronized void start(int interval) {
+        assert interval > 0;
+        clear();
+        if (sampleInterval == 0) {
+            RDataFactory.addListener(this);
+        }
+        sampleInterval = interval;
+    }
+
+    /**
+     * Stops tracking and discards the tracked objects.
+     */
+    public synchronized void stop() {
+        if (sampleInterval != 0) {
+            sampleInterval = 0;
+            RDataFactory.removeListener(this);
+        }
+        clear();
+    }
+
+    public boolean isEnabled() {
+        return sampleInterval != 0;
+    }
+
+    private void clear() {
+        tracked.clear();
+        allocations.set(0);
+        baseline = Collections.emptyMap();
+        while (queue.poll() != null) {
+            // drain
+        }
+    }
+
+    @Override
+    @TruffleBoundary
+    public void reportAllocation(RBaseObject data) {
+        int interval = sampleInterval;
+        if (interval == 0 || allocations.incrementAndGet() % interval != 0) {
+            return;
+        }
+        expungeStale();
+        tracked.add(new TrackedRef(data, getSite(), interval, queue));
+    }
+
+    private void expungeStale() {
+        Object ref;
+        while ((ref = queue.poll()) != null) {
+            tracked.remove(ref);
+        }
+    }
+
+    private static String getSite() {
+        Frame frame = Utils.getActualCurrentFrame();
+        if (frame == null) {
+            return UNKNOWN_SITE;
+        }
+        RFunction function = RArguments.getFunction(frame);
+        String name = function == null ? null : function.getRootNode().getName();
+        if (name == null) {
+            name = UNKNOWN_SITE;
+        }
+        RCaller caller = RArguments.getCall(frame);
+        if (caller != null && caller.isValidCaller() && !caller.isPromise()) {
+            RSyntaxElement call = caller.getSyntaxNode();
+            SourceSection section = call == null ? null : call.getLazySourceSection();
+            if (section != null && section.isAvailable()) {
+                return name + " (" + section.getSource().getName() + "#" + section.getStartLine() + ")";
+            }
+        }
+        return name;
+    }
+
+    /**
+     * Computes the estimated retained memory per allocation site.
+     *
+     * @return the statistics of all sites with live objects, sorted by decreasing retained size
+     */
+    @TruffleBoundary
+    public List<SiteStats> snapshot() {
+        return snapshot(false);
+    }
+
+    /**
+     * Like {@link #snapshot()}, but computes the change of the retained memory per site since the
+     * previous call of this method and remembers the result as the new baseline. Sites whose
+     * objects were all collected since then are reported with zero retained memory, the result is
+     * sorted by decreasing delta.
+     */
+    @TruffleBoundary
+    public synchronized List<SiteStats> snapshotDiff() {
+        return snapshot(true);
+    }
+
+    private List<SiteStats> snapshot(boolean diff) {
+        expungeStale();
+        Map<String, SiteStats> sites = new HashMap<>();
+        for (TrackedRef ref : tracked) {
+            Object referent = ref.get();
+            if (referent != null) {
+                SiteStats stats = sites.computeIfAbsent(ref.site, SiteStats::new);
+                stats.count += ref.weight;
+                stats.retained += RObjectSize.getObjectSize(referent) * ref.weight;
+            }
+        }
+        List<SiteStats> result;
+        if (diff) {
+            Map<String, SiteStats> previous = baseline;
+            for (SiteStats stats : sites.values()) {
+                SiteStats old = previous.get(stats.site);
+                stats.delta = old == null ? stats.retained : stats.retained - old.retained;
+            }
+            result = new ArrayList<>(sites.values());
+            for (SiteStats old : previous.values()) {
+                if (!sites.containsKey(old.site)) {
+                    SiteStats gone = new SiteStats(old.site);
+                    gone.delta = -old.retained;
+                    result.add(gone);
+                }
+            }
+            baseline = sites;
+            result.sort((a, b) -> Long.compare(b.delta, a.delta));
+        } else {
+            result = new ArrayList<>(sites.values());
+            result.sort((a, b) -> Long.compare(b.retained, a.retained));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.instrument.memprof;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RType;
+import com.oracle.truffle.r.runtime.data.RBaseObject;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RObjectSize;
+import com.oracle.truffle.r.runtime.data.model.RAbstractVector;
+
+/**
+ * Estimates the number and size of the live R vectors per {@link RType}. Every {@code N}-th vector
+ * reported by {@link RDataFactory} is kept via a {@link WeakReference}; a {@link #count() count}
+ * sums the sizes of the surviving vectors, as computed by {@link RObjectSize}, and scales them by
+ * the sampling interval. The census is enabled by the {@code VectorCensusSampling} option.
+ *
+ * Like {@link MemAllocProfilerStacks}, this is a singleton shared by all contexts.
+ */
+public final class VectorCensus implements RDataFactory.Listener {
+
+    private static final VectorCensus instance = new VectorCensus();
+
+    private final AtomicLong allocations = new AtomicLong();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+    private final Set<SampleRef> samples = ConcurrentHashMap.newKeySet();
+    private volatile int sampleInterval;
+
+    private VectorCensus() {
+    }
+
+    public static VectorCensus getInstance() {
+        return instance;
+    }
+
+    private static final class SampleRef extends WeakReference<Object> {
+        private final RType type;
+        private final int weight;
+
+        SampleRef(RAbstractVector referent, int weight, ReferenceQueue<Object> queue) {
+            super(referent, queue);
+            this.type = referent.getRType();
+            this.weight = weight;
+        }
+    }
+
+    /**
+     * Starts sampling every {@code interval}-th vector allocation, subsequent calls only change the
+     * interval.
+     */
+    public synchronized void enable(int interval) {
+        assert interval > 0;
+        if (sampleInterval == 0) {
+            RDataFactory.addListener(this);
+        }
+        sampleInterval = interval;
+    }
+
+    public boolean isEnabled() {
+        return sampleInterval != 0;
+    }
+
+    @Override
+    @TruffleBoundary
+    public void reportAllocation(RBaseObject data) {
+        int interval = sampleInterval;
+        if (interval == 0 || !(data instanceof RAbstractVector) || allocations.incrementAndGet() % interval != 0) {
+            return;
+        }
+        Object ref;
+        while ((ref = queue.poll()) != null) {
+            samples.remove(ref);
+        }
+        samples.add(new SampleRef((RAbstractVector) data, interval, queue));
+    }
+
+    /**
+     * Returns the estimated number of live vectors (first element) and their size in bytes (second
+     * element) per type; types without sampled live vectors are omitted.
+     */
+    @TruffleBoundary
+    public Map<RType, long[]> count() {
+        Map<RType, long[]> result = new EnumMap<>(RType.class);
+        for (SampleRef ref : samples) {
+            Object vector = ref.get();
+            if (vector == null) {
+                continue;
+            }
+            long[] totals = result.computeIfAbsent(ref.type, t -> new long[2]);
+            totals[0] += ref.weight;
+            totals[1] += RObjectSize.getObjectSize(vector) * ref.weight;
+        }
+        return result;
+    }
+}
@@ -65,6 +65,22 @@ public class RandomFunctions {
         }
     }
 
+    /**
+     * Implemented by random functions that can generate a whole vector of values for scalar
+     * parameters at once, drawing the uniform random numbers in blocks via
+     * {@link RandomNumberGenerator#fillDoubles(double[], int, int)}. The random numbers drawn must be
+     * exactly those that would be drawn by generating the values one by one.
+     */
+    public interface RandFunctionBlock {
+        /**
+         * Fills {@code result} with random values for the given parameters and returns
+         * {@code true}. Returns {@code false}, without drawing any random numbers, if the values
+         * cannot be generated this way, e.g., for invalid parameters, the caller then generates them
+         * one by one. The values written to {@code result} are never NaN.
+         */
+        boolean fillBlock(double a, double b, double c, double[] result, RandomNumberProvider rand);
+    }
+
     /**
      * Convenient wrapper of the current random number generator and current "norm kind" value.
      */
@@ -96,5 +112,32 @@ public class RandomFunctions {
         public double expRand() {
             return SExp.expRand(generator);
         }
+
+        /**
+         * Fills {@code dst} with uniform random numbers.
+         */
+        public void unifRand(double[] dst) {
+            generator.fillDoubles(dst, 0, dst.length);
+        }
+
+        /**
+         * Fills {@code dst} with standard normal random numbers and returns {@code true}, or
+         * returns {@code false}, without drawing any random numbers, if the current norm kind does
+         * not use a fixed number of uniform random numbers per value.
+         */
+        public boolean normRand(double[] dst) {
+            if (normKind != NormKind.INVERSION) {
+                return false;
+            }
+            SNorm.normRandInversion(generator, dst);
+            return true;
+        }
+
+        /**
+         * Fills {@code dst} with standard exponential random numbers.
+         */
+        public void expRand(double[] dst) {
+            SExp.expRand(generator, dst);
+        }
     }
 }
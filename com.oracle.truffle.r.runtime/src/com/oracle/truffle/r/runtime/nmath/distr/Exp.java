@@ -19,6 +19,8 @@
  */
 package com.oracle.truffle.r.runtime.nmath.distr;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
 import com.oracle.truffle.r.runtime.nmath.DPQ;
@@ -28,6 +30,7 @@ import com.oracle.truffle.r.runtime.nmath.MathFunctions.Function2_2;
 import com.oracle.truffle.r.runtime.nmath.RMath;
 import com.oracle.truffle.r.runtime.nmath.RMathError;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction1_Double;
+import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunctionBlock;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandomNumberProvider;
 import com.oracle.truffle.r.runtime.nmath.distr.ExpFactory.RExpNodeGen;
 
@@ -65,7 +68,7 @@ public final class Exp {
     }
 
     @GenerateUncached
-    public abstract static class RExp extends RandFunction1_Double {
+    public abstract static class RExp extends RandFunction1_Double implements RandFunctionBlock {
         @Specialization
         public double exec(double scale, RandomNumberProvider rand) {
             if (!Double.isFinite(scale) || scale <= 0.0) {
@@ -74,6 +77,22 @@ public final class Exp {
             return scale * rand.expRand();
         }
 
+        @Override
+        public boolean fillBlock(double scale, double b, double c, double[] result, RandomNumberProvider rand) {
+            if (!Double.isFinite(scale) || scale <= 0.0) {
+                if (scale == 0.) {
+                    Arrays.fill(result, 0.);
+                    return true;
+                }
+                return false;
+            }
+            rand.expRand(result);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = scale * result[i];
+            }
+            return true;
+        }
+
         public static RExp create() {
             return RExpNodeGen.create();
         }
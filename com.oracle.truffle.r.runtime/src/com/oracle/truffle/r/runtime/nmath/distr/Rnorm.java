@@ -19,6 +19,8 @@
  */
 package com.oracle.truffle.r.runtime.nmath.distr;
 
+import java.util.Arrays;
+
 import com.oracle.truffle.api.dsl.Cached;
 import com.oracle.truffle.api.dsl.GenerateUncached;
 import com.oracle.truffle.api.dsl.Specialization;
@@ -27,10 +29,11 @@ import com.oracle.truffle.api.profiles.ConditionProfile;
 import com.oracle.truffle.api.profiles.ValueProfile;
 import com.oracle.truffle.r.runtime.nmath.RMathError;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunction2_Double;
+import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandFunctionBlock;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandomNumberProvider;
 
 @GenerateUncached
-public abstract class Rnorm extends RandFunction2_Double {
+public abstract class Rnorm extends RandFunction2_Double implements RandFunctionBlock {
 
     @Specialization
     public double exec(double muIn, double sigmaIn, RandomNumberProvider rand,
@@ -51,6 +54,24 @@ public abstract class Rnorm extends RandFunction2_Double {
         }
     }
 
+    @Override
+    public boolean fillBlock(double mu, double sigma, double c, double[] result, RandomNumberProvider rand) {
+        if (Double.isNaN(mu) || !Double.isFinite(sigma) || sigma < 0.) {
+            return false;
+        }
+        if (sigma == 0. || !Double.isFinite(mu)) {
+            Arrays.fill(result, mu);
+            return true;
+        }
+        if (!rand.normRand(result)) {
+            return false;
+        }
+        for (int i = 0; i < result.length; i++) {
+            result[i] = mu + sigma * result[i];
+        }
+        return true;
+    }
+
     public static Rnorm create() {
         return RnormNodeGen.create();
     }
@@ -20,6 +20,7 @@
 package com.oracle.truffle.r.runtime.nmath.distr;
 
 import com.oracle.truffle.api.CompilerDirectives.CompilationFinal;
+import com.oracle.truffle.r.runtime.rng.RandomNumberBuffer;
 import com.oracle.truffle.r.runtime.rng.RandomNumberGenerator;
 
 /**
@@ -54,6 +55,18 @@ public final class SExp {
                     1.0000000000000000
     };
 
+    /**
+     * Fills {@code dst} with standard exponential random numbers. Every value takes at least one
+     * uniform random number, which allows to draw them in blocks.
+     */
+    public static void expRand(RandomNumberGenerator generator, double[] dst) {
+        RandomNumberBuffer buffer = new RandomNumberBuffer(generator, dst.length);
+        for (int i = 0; i < dst.length; i++) {
+            buffer.expect(dst.length - i);
+            dst[i] = expRand(buffer);
+        }
+    }
+
     public static double expRand(RandomNumberGenerator generator) {
         double a = 0.;
         // precaution if u = 0 is ever returned
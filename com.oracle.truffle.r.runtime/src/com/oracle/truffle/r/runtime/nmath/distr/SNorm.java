@@ -113,12 +113,35 @@ public final class SNorm {
 
     private static final double BIG = 134217728; /* 2^27 */
 
+    /**
+     * Number of values generated from one block of uniform random numbers in
+     * {@link #normRandInversion(RandomNumberGenerator, double[])}.
+     */
+    private static final int INVERSION_BLOCK_SIZE = 2048;
+
     static double BMNormKeep = 0.0;
 
     private SNorm() {
         // only static members
     }
 
+    /**
+     * Fills {@code dst} with values generated by the {@code INVERSION} method, which takes exactly
+     * two uniform random numbers per value, so these are drawn in blocks.
+     */
+    public static void normRandInversion(RandomNumberGenerator rand, double[] dst) {
+        double[] u = new double[2 * Math.min(dst.length, INVERSION_BLOCK_SIZE)];
+        for (int start = 0; start < dst.length; start += INVERSION_BLOCK_SIZE) {
+            int count = Math.min(dst.length - start, INVERSION_BLOCK_SIZE);
+            rand.fillDoubles(u, 0, 2 * count);
+            for (int i = 0; i < count; i++) {
+                /* unif_rand() alone is not of high enough precision */
+                double u1 = (int) (BIG * u[2 * i]) + u[2 * i + 1];
+                dst[start + i] = Qnorm.qnorm(u1 / BIG, 0.0, 1.0, true, false);
+            }
+        }
+    }
+
     @SuppressWarnings("unused")
     public static double normRand(RandomNumberGenerator rand, NormKind normKind) {
         double s;
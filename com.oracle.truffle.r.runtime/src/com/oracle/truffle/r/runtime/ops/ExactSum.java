@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ops;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+
+/**
+ * Extended precision summation of doubles, used by {@code sum}, {@code mean}, {@code colSums},
+ * {@code rowSums} and {@code cumsum} when the {@code FullPrecisionSum} option is set. This is the
+ * Java replacement of the {@code long double} accumulation of GNU R: the sum is kept as an
+ * unevaluated pair of doubles (double-double), whose low part collects the rounding errors of the
+ * high part computed by the error-free "two sum" transformation (Neumaier summation). The
+ * {@code long double} has also a wider exponent range, so that, e.g., {@code 1e308 + 1e308 - 1e308}
+ * is {@code 1e308}. Once the sum of finite values overflows, the accumulator therefore continues
+ * with all the values scaled by {@link #SCALE}, which is undone when the result is read. Values
+ * smaller than {@code 2^-958} lose precision after that, which is far below the rounding error of
+ * such a sum unless it cancels out almost completely.
+ *
+ * An instance of this class is a mutable accumulator. {@link #sum(double[], int, int, boolean)}
+ * sums a range of an array in chunks of {@link #CHUNK_SIZE} elements and then merges the chunk sums
+ * in order. When there is more than {@link #PARALLEL_THRESHOLD} elements of work, the chunks (or
+ * the columns and rows in {@link #sumColumns} and {@link #sumRows}) are processed in parallel on
+ * the common fork-join pool. Because the chunk boundaries do not depend on the number of threads,
+ * the result is the same whether the sum runs in parallel or not.
+ */
+public final class ExactSum {
+
+    /**
+     * Number of elements summed by one accumulator before it is merged into the total.
+     */
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Ranges longer than this are summed in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 20;
+
+    /**
+     * The factor applied to the values once the sum overflows, no sum of fewer than
+     * {@code 2^63} doubles overflows after that.
+     */
+    private static final double SCALE = 0x1p-64;
+
+    private double hi;
+    private double lo;
+    private boolean na;
+    private boolean scaled;
+
+    public static boolean isFullPrecision() {
+        return RContext.getInstance().getOption(FastROptions.FullPrecisionSum);
+    }
+
+    /**
+     * Adds a value to the sum, an {@code NA} makes the result {@code NA}. Callers that remove
+     * {@code NA}s are responsible for not passing them in.
+     */
+    public void add(double value) {
+        if (RRuntime.isNA(value)) {
+            na = true;
+        } else {
+            addScaled(scaled ? value * SCALE : value);
+        }
+    }
+
+    /**
+     * Adds a value that is already scaled like this sum.
+     */
+    private void addScaled(double value) {
+        double v = value;
+        double s = hi + v;
+        if (!scaled && Double.isInfinite(s) && Double.isFinite(hi) && Double.isFinite(v)) {
+            scale();
+            v *= SCALE;
+            s = hi + v;
+        }
+        double bp = s - hi;
+        lo += (hi - (s - bp)) + (v - bp);
+        hi = s;
+    }
+
+    private void scale() {
+        scaled = true;
+        hi *= SCALE;
+        lo *= SCALE;
+    }
+
+    /**
+     * Adds the sum accumulated by {@code other} to this sum.
+     */
+    public void merge(ExactSum other) {
+        na |= other.na;
+        if (other.scaled && !scaled) {
+            scale();
+        }
+        addScaled(scaled && !other.scaled ? other.hi * SCALE : other.hi);
+        // adding the high part may have scaled this sum
+        lo += scaled && !other.scaled ? other.lo * SCALE : other.lo;
+    }
+
+    public boolean isNA() {
+        return na;
+    }
+
+    /**
+     * Returns the sum rounded to a double, {@code NA} if an {@code NA} was added.
+     */
+    public double get() {
+        if (na) {
+            return RRuntime.DOUBLE_NA;
+        }
+        // once the sum is infinite or NaN, the low part is meaningless (NaN)
+        double result = Double.isFinite(hi) ? hi + lo : hi;
+        return scaled ? result / SCALE : result;
+    }
+
+    /**
+     * Sums {@code values[from..to)}. If {@code naRm} is set, {@code NA} and {@code NaN} values are
+     * skipped, otherwise the result is {@code NA} if there is any {@code NA} in the range.
+     */
+    @TruffleBoundary
+    public static double sum(double[] values, int from, int to, boolean naRm) {
+        int chunks = (int) ((to - (long) from + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        if (chunks <= 1) {
+            return sumChunk(values, from, to, naRm).get();
+        }
+        ExactSum[] partial = new ExactSum[chunks];
+        if (isParallel(to - (long) from)) {
+            ForkJoinPool.commonPool().invoke(new RangeTask(0, chunks, 1, (fromChunk, toChunk) -> {
+                partial[fromChunk] = sumChunk(values, from, to, naRm, fromChunk);
+            }));
+        } else {
+            for (int i = 0; i < chunks; i++) {
+                partial[i] = sumChunk(values, from, to, naRm, i);
+                if (partial[i].na) {
+                    return RRuntime.DOUBLE_NA;
+                }
+            }
+        }
+        ExactSum result = partial[0];
+        for (int i = 1; i < chunks; i++) {
+            result.merge(partial[i]);
+        }
+        return result.get();
+    }
+
+    private static ExactSum sumChunk(double[] values, int from, int to, boolean naRm, int chunk) {
+        int chunkFrom = from + chunk * CHUNK_SIZE;
+        return sumChunk(values, chunkFrom, Math.min(to, chunkFrom + CHUNK_SIZE), naRm);
+    }
+
+    private static ExactSum sumChunk(double[] values, int from, int to, boolean naRm) {
+        ExactSum result = new ExactSum();
+        for (int i = from; i < to; i++) {
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                if (naRm) {
+                    continue;
+                } else if (RRuntime.isNA(value)) {
+                    result.na = true;
+                    break;
+                }
+            }
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the columns of the column-major {@code rowNum x colNum} matrix {@code values}, see
+     * {@link #sum(double[], int, int, boolean)}.
+     */
+    @TruffleBoundary
+    public static double[] sumColumns(double[] values, int rowNum, int colNum, boolean naRm) {
+        double[] result = new double[colNum];
+        RangeTask.Action action = (fromCol, toCol) -> {
+            for (int c = fromCol; c < toCol; c++) {
+                result[c] = sum(values, c * rowNum, (c + 1) * rowNum, naRm);
+            }
+        };
+        if (isParallel((long) rowNum * colNum)) {
+            ForkJoinPool.commonPool().invoke(new RangeTask(0, colNum, Math.max(1, CHUNK_SIZE / Math.max(1, rowNum)), action));
+        } else {
+            action.run(0, colNum);
+        }
+        return result;
+    }
+
+    /**
+     * Sums the rows of the column-major {@code rowNum x colNum} matrix {@code values}, see
+     * {@link #sum(double[], int, int, boolean)}.
+     */
+    @TruffleBoundary
+    public static double[] sumRows(double[] values, int rowNum, int colNum, boolean naRm) {
+        double[] result = new double[rowNum];
+        RangeTask.Action action = (fromRow, toRow) -> {
+            // walk the matrix by columns, accumulating a block of rows at once
+            ExactSum[] sums = new ExactSum[toRow - fromRow];
+            for (int r = 0; r < sums.length; r++) {
+                sums[r] = new ExactSum();
+            }
+            for (int c = 0; c < colNum; c++) {
+                int pos = c * rowNum + fromRow;
+                for (int r = 0; r < sums.length; r++) {
+                    double value = values[pos + r];
+                    if (!naRm || !Double.isNaN(value)) {
+                        sums[r].add(value);
+                    }
+                }
+            }
+            for (int r = 0; r < sums.length; r++) {
+                result[fromRow + r] = sums[r].get();
+            }
+        };
+        if (isParallel((long) rowNum * colNum)) {
+            ForkJoinPool.commonPool().invoke(new RangeTask(0, rowNum, Math.max(1, CHUNK_SIZE / Math.max(1, colNum)), action));
+        } else {
+            action.run(0, rowNum);
+        }
+        return result;
+    }
+
+    private static boolean isParallel(long work) {
+        return work > PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+}
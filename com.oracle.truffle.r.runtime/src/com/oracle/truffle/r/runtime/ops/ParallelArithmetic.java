@@ -0,0 +1,235 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ops;
+
+import java.util.concurrent.ForkJoinPool;
+
+import com.oracle.truffle.api.CompilerDirectives.TruffleBoundary;
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData;
+import com.oracle.truffle.r.runtime.data.WarningInfo;
+
+/**
+ * Element-wise arithmetic on long vectors, computed in chunks of {@link #CHUNK_SIZE} elements on
+ * the common fork-join pool. It is used by {@code BinaryMapVectorNode}, {@code UnaryMapVectorNode}
+ * and {@link RDoubleFusedVectorData} for vectors of at least {@code ParallelArithmeticThreshold}
+ * elements. The map function nodes that compute the elements otherwise keep their NA checks and
+ * profiles in the AST and cannot be used from several threads at once, so the supported operations
+ * are implemented here again with the same results, including {@code NA} and integer overflow.
+ *
+ * The chunk boundaries do not depend on the number of threads. Each chunk records whether it
+ * produced an {@code NA} or an integer overflow, and the flags of all chunks are merged once they
+ * are done, so the result, its completeness and the warnings are the same as those of the
+ * sequential loop.
+ */
+public final class ParallelArithmetic {
+
+    /**
+     * Number of elements computed by one task.
+     */
+    public static final int CHUNK_SIZE = 1 << 16;
+
+    private static final byte SEEN_NA = 1;
+    private static final byte SEEN_OVERFLOW = 2;
+
+    private ParallelArithmetic() {
+        // no instances
+    }
+
+    public interface ChunkAction {
+        void run(int from, int to);
+    }
+
+    /**
+     * Returns the minimal length of vectors that are computed in parallel in the current context,
+     * or {@code 0} if the parallel computation is disabled or there is only one thread to run it.
+     */
+    public static int getThreshold() {
+        if (ForkJoinPool.getCommonPoolParallelism() <= 1) {
+            return 0;
+        }
+        return Math.max(0, RContext.getInstance().getOption(FastROptions.ParallelArithmeticThreshold));
+    }
+
+    /**
+     * Returns {@code true} if a vector of the given length should be computed in parallel.
+     */
+    public static boolean isParallel(int length) {
+        // a single chunk cannot be split
+        if (length <= CHUNK_SIZE) {
+            return false;
+        }
+        int threshold = getThreshold();
+        return threshold > 0 && length >= threshold;
+    }
+
+    /**
+     * Runs the action on consecutive chunks of {@code [0..length)}, in parallel if there is more
+     * than one chunk and more than one thread.
+     */
+    @TruffleBoundary
+    public static void forEachChunk(int length, ChunkAction action) {
+        int chunks = getChunks(length);
+        RangeTask.Action chunkAction = (fromChunk, toChunk) -> {
+            for (int chunk = fromChunk; chunk < toChunk; chunk++) {
+                int from = chunk * CHUNK_SIZE;
+                action.run(from, Math.min(length, from + CHUNK_SIZE));
+            }
+        };
+        if (chunks > 1 && ForkJoinPool.getCommonPoolParallelism() > 1) {
+            ForkJoinPool.commonPool().invoke(new RangeTask(0, chunks, 1, chunkAction));
+        } else {
+            chunkAction.run(0, chunks);
+        }
+    }
+
+    /**
+     * Computes {@code left <operation> right} for integer vectors into {@code result}, giving the
+     * same results as {@code BinaryMapArithmeticFunctionNode}. The operands have the length of the
+     * result or are scalars of length {@code 1}. An integer overflow is reported in
+     * {@code warningInfo}.
+     *
+     * @return {@code true} if the result contains no {@code NA}
+     */
+    @TruffleBoundary
+    public static boolean applyInteger(RDoubleFusedVectorData.Operation operation, int[] left, int[] right, int[] result, WarningInfo warningInfo) {
+        byte[] flags = new byte[getChunks(result.length)];
+        forEachChunk(result.length, (from, to) -> flags[from / CHUNK_SIZE] = applyInteger(operation, left, right, result, from, to));
+        int merged = merge(flags);
+        if ((merged & SEEN_OVERFLOW) != 0) {
+            warningInfo.setIntergerOverflow(true);
+        }
+        return (merged & SEEN_NA) == 0;
+    }
+
+    private static byte applyInteger(RDoubleFusedVectorData.Operation operation, int[] left, int[] right, int[] result, int from, int to) {
+        int leftStride = left.length == 1 ? 0 : 1;
+        int rightStride = right.length == 1 ? 0 : 1;
+        byte flags = 0;
+        for (int i = from; i < to; i++) {
+            int l = left[i * leftStride];
+            int r = right[i * rightStride];
+            int value;
+            if (l == RRuntime.INT_NA || r == RRuntime.INT_NA) {
+                value = RRuntime.INT_NA;
+            } else {
+                switch (operation) {
+                    case ADD:
+                        value = l + r;
+                        // NA is the result of an overflow, but it can also be a valid sum
+                        if (((l ^ value) & (r ^ value)) < 0 || value == RRuntime.INT_NA) {
+                            flags |= SEEN_OVERFLOW;
+                            value = RRuntime.INT_NA;
+                        }
+                        break;
+                    case SUBTRACT:
+                        value = l - r;
+                        if (((l ^ r) & (l ^ value)) < 0 || value == RRuntime.INT_NA) {
+                            flags |= SEEN_OVERFLOW;
+                            value = RRuntime.INT_NA;
+                        }
+                        break;
+                    case MULTIPLY:
+                        long product = (long) l * (long) r;
+                        if ((int) product != product) {
+                            flags |= SEEN_OVERFLOW;
+                            value = RRuntime.INT_NA;
+                        } else {
+                            value = (int) product;
+                        }
+                        break;
+                    default:
+                        throw RInternalError.shouldNotReachHere("integer division does not give an integer result");
+                }
+            }
+            if (value == RRuntime.INT_NA) {
+                flags |= SEEN_NA;
+            }
+            result[i] = value;
+        }
+        return flags;
+    }
+
+    /**
+     * Computes {@code -operand} into {@code result}.
+     *
+     * @return {@code true} if the result contains no {@code NA}
+     */
+    @TruffleBoundary
+    public static boolean negate(int[] operand, int[] result) {
+        byte[] flags = new byte[getChunks(result.length)];
+        forEachChunk(result.length, (from, to) -> {
+            byte chunkFlags = 0;
+            for (int i = from; i < to; i++) {
+                int value = operand[i];
+                // the negation of NA (Integer.MIN_VALUE) is NA
+                result[i] = -value;
+                if (value == RRuntime.INT_NA) {
+                    chunkFlags = SEEN_NA;
+                }
+            }
+            flags[from / CHUNK_SIZE] = chunkFlags;
+        });
+        return (merge(flags) & SEEN_NA) == 0;
+    }
+
+    /**
+     * Computes {@code -operand} into {@code result}.
+     *
+     * @return {@code true} if the result contains no {@code NA}
+     */
+    @TruffleBoundary
+    public static boolean negate(double[] operand, double[] result) {
+        byte[] flags = new byte[getChunks(result.length)];
+        forEachChunk(result.length, (from, to) -> {
+            byte chunkFlags = 0;
+            for (int i = from; i < to; i++) {
+                double value = operand[i];
+                if (RRuntime.isNA(value)) {
+                    // changing the sign would make it an ordinary NaN
+                    result[i] = RRuntime.DOUBLE_NA;
+                    chunkFlags = SEEN_NA;
+                } else {
+                    result[i] = -value;
+                }
+            }
+            flags[from / CHUNK_SIZE] = chunkFlags;
+        });
+        return (merge(flags) & SEEN_NA) == 0;
+    }
+
+    private static int getChunks(int length) {
+        return (int) ((length + (long) CHUNK_SIZE - 1) / CHUNK_SIZE);
+    }
+
+    private static int merge(byte[] flags) {
+        int result = 0;
+        for (byte chunkFlags : flags) {
+            result |= chunkFlags;
+        }
+        return result;
+    }
+}
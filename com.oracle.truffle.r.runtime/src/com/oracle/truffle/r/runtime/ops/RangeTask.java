@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.ops;
+
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits {@code [from..to)} in halves until the ranges are at most {@code grain} long and runs the
+ * action on each of them.
+ */
+final class RangeTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    interface Action {
+        void run(int from, int to);
+    }
+
+    private final int from;
+    private final int to;
+    private final int grain;
+    private final transient Action action;
+
+    RangeTask(int from, int to, int grain, Action action) {
+        this.from = from;
+        this.to = to;
+        this.grain = grain;
+        this.action = action;
+    }
+
+    @Override
+    protected void compute() {
+        if (to - from <= grain) {
+            action.run(from, to);
+        } else {
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, grain, action), new RangeTask(mid, to, grain, action));
+        }
+    }
+}
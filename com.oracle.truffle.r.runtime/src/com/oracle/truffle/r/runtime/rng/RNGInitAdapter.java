@@ -28,7 +28,19 @@ public abstract class RNGInitAdapter implements RandomNumberGenerator {
     protected static final int MAX_ISEED_SIZE = 625;
 
     // TODO: it seems like GNU R this is shared between the generators (does it matter?)
-    private int[] iSeed = new int[MAX_ISEED_SIZE + 1];
+    private int[] iSeed;
+
+    protected RNGInitAdapter() {
+        this(MAX_ISEED_SIZE);
+    }
+
+    /**
+     * Allows generators with a small state to have {@code .Random.seed} of the same length as in
+     * GnuR, i.e., the kind code followed by {@code nSeed} seeds.
+     */
+    protected RNGInitAdapter(int nSeed) {
+        iSeed = new int[nSeed + 1];
+    }
 
     @Override
     public void setISeed(int[] seeds) {
@@ -44,14 +44,15 @@ import com.oracle.truffle.r.runtime.ffi.BaseRFFI;
 import com.oracle.truffle.r.runtime.nmath.RandomFunctions.RandomNumberProvider;
 import static com.oracle.truffle.r.runtime.rng.RRNG.SampleKind.REJECTION;
 import static com.oracle.truffle.r.runtime.rng.RRNG.SampleKind.ROUNDING;
+import com.oracle.truffle.r.runtime.rng.lecuyer.LecuyerCMRG;
 import com.oracle.truffle.r.runtime.rng.mm.MarsagliaMulticarry;
 import com.oracle.truffle.r.runtime.rng.mt.MersenneTwister;
 import com.oracle.truffle.r.runtime.rng.user.UserRNG;
 
 /**
  * Facade class to the R random number generators, (see src/main/RNG.c in GnuR). The individual
- * generators are implemented in their own class. Currently there are only two implemented, the
- * default, {@link MersenneTwister} and {@link MarsagliaMulticarry}.
+ * generators are implemented in their own class. Currently there are only three implemented, the
+ * default, {@link MersenneTwister}, {@link MarsagliaMulticarry} and {@link LecuyerCMRG}.
  *
  * The fact that the R programmer can set {@code .Random.seed} explicitly, as opposed to the
  * recommended approach of calling {@code set.seed}, is something of a pain as it changes the
@@ -80,7 +81,7 @@ public class RRNG {
         KNUTH_TAOCP(),
         USER_UNIF(UserRNG::new),
         KNUTH_TAOCP2(),
-        LECUYER_CMRG();
+        LECUYER_CMRG(LecuyerCMRG::new);
 
         @CompilationFinal(dimensions = 1) static final Kind[] VALUES = values();
 
@@ -288,24 +289,27 @@ public class RRNG {
         return currentGenerator().genrandDouble();
     }
 
-    private static double ru() {
-        return (Math.floor(U * RRNG.unifRand()) + RRNG.unifRand()) / U;
+    private static double unifRand(RandomNumberProvider rand) {
+        return rand != null ? rand.unifRand() : unifRand();
     }
 
-    private static double unifIndex0(double dn) {
-        double cut = MAX_INT;
+    private static double ru(RandomNumberProvider rand) {
+        return (Math.floor(U * unifRand(rand)) + unifRand(rand)) / U;
+    }
 
+    private static double unifIndex0Cut() {
         switch (RRNG.currentKind()) {
             case KNUTH_TAOCP:
             case USER_UNIF:
             case KNUTH_TAOCP2:
-                cut = 33554431.0; /* 2^25 - 1 */
-                break;
+                return 33554431.0; /* 2^25 - 1 */
             default:
-                break;
+                return MAX_INT;
         }
+    }
 
-        double u = dn > cut ? ru() : RRNG.unifRand();
+    private static double unifIndex0(RandomNumberProvider rand, double dn) {
+        double u = dn > unifIndex0Cut() ? ru(rand) : unifRand(rand);
         return Math.floor(dn * u);
     }
 
@@ -316,7 +320,7 @@ public class RRNG {
         // generate a random non-negative integer < 2 ^ bits in 16 bit chunks
         long v = 0;
         for (int n = 0; n <= bits; n += 16) {
-            double ru = rand != null ? rand.unifRand() : unifRand();
+            double ru = unifRand(rand);
             int v1 = (int) Math.floor(ru * 65536);
             v = 65536 * v + v1;
         }
@@ -331,7 +335,7 @@ public class RRNG {
 
     public static double unifIndex(RandomNumberProvider rand, double dn) {
         if (RRNG.currentSampleKind() == ROUNDING) {
-            return unifIndex0(dn);
+            return unifIndex0(rand, dn);
         }
 
         // rejection sampling from integers below the next larger power of two
@@ -346,6 +350,22 @@ public class RRNG {
         return dv;
     }
 
+    /**
+     * Returns the minimal number of uniform random numbers drawn by {@link #unifIndex(double)} for
+     * the given {@code dn}, which is also the exact number unless rejection sampling is used. This
+     * allows to draw them in blocks, see {@link RandomNumberBuffer}.
+     */
+    public static int unifIndexDraws(double dn) {
+        if (RRNG.currentSampleKind() == ROUNDING) {
+            return dn > unifIndex0Cut() ? 2 : 1;
+        }
+        if (dn <= 0) {
+            return 0;
+        }
+        int bits = (int) Math.ceil(Math.log(dn) / LOG2);
+        return bits / 16 + 1;
+    }
+
     /**
      * Set the seed and optionally the RNG kind and norm kind.
      *
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.runtime.rng;
+
+import com.oracle.truffle.r.runtime.RInternalError;
+import com.oracle.truffle.r.runtime.rng.RRNG.Kind;
+
+/**
+ * Reads the values of a {@link RandomNumberGenerator} from blocks filled by
+ * {@link RandomNumberGenerator#fillDoubles(double[], int, int)}. This is meant for code generating
+ * many random values where each value is made from a varying number of uniform random numbers,
+ * e.g., rejection sampling, and so the uniform random numbers cannot be simply drawn up front.
+ *
+ * The state of the underlying generator must end up the same as if the values were drawn one by
+ * one, therefore the buffer never draws a value that is not going to be read: the caller announces
+ * by {@link #expect(int)} how many values it is certainly going to read from now on and a block
+ * never holds more than that. The only exception is the value that is being read, so the buffer can
+ * also be used without any {@link #expect(int)}, in which case it draws the values one by one.
+ */
+public final class RandomNumberBuffer implements RandomNumberGenerator {
+
+    private static final int MAX_BLOCK_SIZE = 4096;
+
+    private final RandomNumberGenerator generator;
+    private final double[] block;
+    private int pos;
+    private int limit;
+    private int expected;
+
+    /**
+     * @param sizeHint the expected number of values to be read, used to size the block
+     */
+    public RandomNumberBuffer(RandomNumberGenerator generator, int sizeHint) {
+        assert !(generator instanceof RandomNumberBuffer);
+        this.generator = generator;
+        this.block = new double[Math.max(1, Math.min(MAX_BLOCK_SIZE, sizeHint))];
+    }
+
+    /**
+     * Announces that at least {@code count} values are going to be read from now on.
+     */
+    public void expect(int count) {
+        expected = count;
+    }
+
+    @Override
+    public double genrandDouble() {
+        if (pos == limit) {
+            limit = Math.max(1, Math.min(expected, block.length));
+            pos = 0;
+            generator.fillDoubles(block, 0, limit);
+        }
+        if (expected > 0) {
+            expected--;
+        }
+        return block[pos++];
+    }
+
+    @Override
+    public void fillDoubles(double[] dst, int off, int len) {
+        int buffered = Math.min(len, limit - pos);
+        System.arraycopy(block, pos, dst, off, buffered);
+        pos += buffered;
+        generator.fillDoubles(dst, off + buffered, len - buffered);
+        expected = Math.max(0, expected - len);
+    }
+
+    @Override
+    public void init(int seed) {
+        throw RInternalError.shouldNotReachHere("the state of a buffered generator must not be changed");
+    }
+
+    @Override
+    public void fixupSeeds(boolean initial) {
+        throw RInternalError.shouldNotReachHere("the state of a buffered generator must not be changed");
+    }
+
+    @Override
+    public void setISeed(int[] seeds) {
+        throw RInternalError.shouldNotReachHere("the state of a buffered generator must not be changed");
+    }
+
+    /**
+     * Note: the seeds are only up to date once all the drawn values were read.
+     */
+    @Override
+    public int[] getSeeds() {
+        return generator.getSeeds();
+    }
+
+    @Override
+    public Kind getKind() {
+        return generator.getKind();
+    }
+
+    @Override
+    public int getNSeed() {
+        return generator.getNSeed();
+    }
+}
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995-2012, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -37,6 +37,17 @@ public interface RandomNumberGenerator {
 
     double genrandDouble();
 
+    /**
+     * Fills {@code dst[off, off + len)} with the next {@code len} values that
+     * {@link #genrandDouble()} would return. Generators should override this with a loop over
+     * their state that does not go through {@link #genrandDouble()} for every value.
+     */
+    default void fillDoubles(double[] dst, int off, int len) {
+        for (int i = 0; i < len; i++) {
+            dst[off + i] = genrandDouble();
+        }
+    }
+
     Kind getKind();
 
     /**
@@ -1,7 +1,7 @@
 /*
  * Copyright (c) 1995-2012, The R Core Team
  * Copyright (c) 2003, The R Foundation
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * This program is free software; you can redistribute it and/or modify
  * it under the terms of the GNU General Public License as published by
@@ -63,6 +63,20 @@ public final class MarsagliaMulticarry extends RNGInitAdapter {
         return fixup(d); /* in [0,1) */
     }
 
+    @Override
+    public void fillDoubles(double[] dst, int off, int len) {
+        int state0 = getISeedItem(0);
+        int state1 = getISeedItem(1);
+        for (int i = 0; i < len; i++) {
+            state0 = 36969 * (state0 & 0177777) + (state0 >>> 16);
+            state1 = 18000 * (state1 & 0177777) + (state1 >>> 16);
+            int x = (state0 << 16) ^ (state1 & 0177777);
+            dst[off + i] = fixup((x & 0xffffffffL) * I2_32M1);
+        }
+        setISeedItem(0, state0);
+        setISeedItem(1, state1);
+    }
+
     @Override
     public Kind getKind() {
         return Kind.MARSAGLIA_MULTICARRY;
@@ -124,6 +124,7 @@ static const R_CallMethodDef CallEntries[] = {
         CALLDEF(rapi_dotCall, 2),
         CALLDEF(testMissingArgWithATTRIB, 0),
         CALLDEF(testPRIMFUN, 2),
+        CALLDEF(test_get_region, 3),
         #include "init_api.h"
         {NULL, NULL, 0}
 };
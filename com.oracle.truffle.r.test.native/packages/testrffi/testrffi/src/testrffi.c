@@ -1174,3 +1174,28 @@ SEXP testdiv(SEXP n) {
     UNPROTECT(1);
     return resVec;
 }
+
+// copies a region of an integer or double vector into a native buffer via *_GET_REGION
+SEXP test_get_region(SEXP x, SEXP from, SEXP size) {
+    R_xlen_t n = INTEGER_VALUE(size);
+    R_xlen_t count;
+    R_xlen_t i;
+    SEXP resVec;
+    if (TYPEOF(x) == INTSXP) {
+        int *buf = (int *) R_alloc(n, sizeof(int));
+        count = INTEGER_GET_REGION(x, INTEGER_VALUE(from), n, buf);
+        PROTECT(resVec = allocVector(INTSXP, count));
+        for (i = 0; i < count; i++) {
+            INTEGER(resVec)[i] = buf[i];
+        }
+    } else {
+        double *buf = (double *) R_alloc(n, sizeof(double));
+        count = REAL_GET_REGION(x, INTEGER_VALUE(from), n, buf);
+        PROTECT(resVec = allocVector(REALSXP, count));
+        for (i = 0; i < count; i++) {
+            REAL(resVec)[i] = buf[i];
+        }
+    }
+    UNPROTECT(1);
+    return resVec;
+}
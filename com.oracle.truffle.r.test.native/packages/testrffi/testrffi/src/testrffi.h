@@ -176,3 +176,5 @@ extern SEXP testPRIMFUN(SEXP fun, SEXP args);
 extern SEXP testTrace();
 
 extern SEXP testdiv(SEXP n);
+
+extern SEXP test_get_region(SEXP x, SEXP from, SEXP size);
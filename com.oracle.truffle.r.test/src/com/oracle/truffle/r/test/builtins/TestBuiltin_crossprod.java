@@ -121,4 +121,10 @@ public class TestBuiltin_crossprod extends TestBase {
     public void testCrossprodDimnames() {
         assertEval("{ crossprod(structure(1:9, .Dim=c(3L,3L), .Dimnames=list(c('a', 'b', 'c'), c('A', 'B', 'C'))), structure(1:9, .Dim=c(3L,3L), .Dimnames=list(c('d', 'e', 'f'), c('D', 'E', 'F')))) }");
     }
+
+    @Test
+    public void testCrossprodLarge() {
+        assertEval("{ x <- matrix(seq(0, 1, length.out=200*150), 200); r <- crossprod(x); c(dim(r), isSymmetric(r), all.equal(r, t(x) %*% x)) }");
+        assertEval("{ x <- matrix(seq(0, 1, length.out=200*150), 200); y <- matrix(seq(1, 2, length.out=200*150), 200); r <- crossprod(x, y); c(dim(r), all.equal(r, t(x) %*% y)) }");
+    }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2014, Purdue University
- * Copyright (c) 2014, 2018, Oracle and/or its affiliates
+ * Copyright (c) 2014, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -29,13 +29,11 @@ public class TestBuiltin_gcinfo extends TestBase {
 
     @Test
     public void testgcinfo1() {
-        // FIXME com.oracle.truffle.r.runtime.RInternalError: not implemented: .Internal gcinfo
-        assertEval(Ignored.Unimplemented, "argv <- list(list()); .Internal(gcinfo(argv[[1]]))");
+        assertEval("argv <- list(list()); .Internal(gcinfo(argv[[1]]))");
     }
 
     @Test
     public void testgcinfo2() {
-        // FIXME com.oracle.truffle.r.runtime.RInternalError: not implemented: .Internal gcinfo
-        assertEval(Ignored.Unimplemented, "argv <- list(FALSE); .Internal(gcinfo(argv[[1]]))");
+        assertEval("argv <- list(FALSE); .Internal(gcinfo(argv[[1]]))");
     }
 }
@@ -14,7 +14,7 @@
  * Franklin Street, Fifth Floor, Boston, MA 02110-1301, USA.
  *
  * Copyright (c) 2012-2014, Purdue University
- * Copyright (c) 2013, 2019, Oracle and/or its affiliates
+ * Copyright (c) 2013, 2020, Oracle and/or its affiliates
  *
  * All rights reserved.
  */
@@ -239,4 +239,19 @@ public class TestBuiltin_gsub extends TestBase {
         assertEval("gsub('b','\\\\1m','Abb')");
         assertEval("gsub('@CXX11@', '$(CXX11)', '    CPLUS=\"@CXX11@\"                           \\'', fixed=FALSE)");
     }
+
+    @Test
+    public void testCachedPatterns() {
+        assertEval("{ x <- c('a1b22', 'c333', NA); for (i in 1:3) print(gsub('[0-9]+', '#', x)); for (i in 1:3) print(gsub('[0-9]+', '#', x, perl=TRUE)) }");
+        assertEval("{ x <- c('aXb', 'AxB'); for (i in 1:2) { print(sub('x', '-', x, ignore.case=TRUE, perl=TRUE)); print(sub('x', '-', x, perl=TRUE)) } }");
+        assertEval("{ for (i in 1:2) { print(regexpr('b+', c('abbc', 'cd'))); print(strsplit(c('a1b2c', 'd3e'), '[0-9]')) } }");
+        assertEvalFastR("{ invisible(.fastr.regexcache.stats(TRUE)); for (i in 1:5) gsub('[aeiou]{2}', '_', 'queue'); s <- .fastr.regexcache.stats(); s[['hits']] >= 4 && s[['misses']] >= 1 }", "TRUE");
+    }
+
+    @Test
+    public void testCachedPatternsLocale() {
+        // changing LC_CTYPE drops the PCRE patterns compiled against the tables of the old locale
+        assertEvalFastR("{ gsub('[a]+', 'b', 'xaa', perl=TRUE); invisible(Sys.setlocale('LC_CTYPE', Sys.getlocale('LC_CTYPE'))); invisible(.fastr.regexcache.stats(TRUE)); " +
+                        "r <- gsub('[a]+', 'b', 'xaa', perl=TRUE); s <- .fastr.regexcache.stats(); c(r, s[['misses']] >= 1) }", "c('xb', 'TRUE')");
+    }
 }
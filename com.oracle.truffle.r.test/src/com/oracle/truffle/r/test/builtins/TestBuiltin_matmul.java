@@ -53,4 +53,12 @@ public class TestBuiltin_matmul extends TestBase {
         assertEval("numeric() %*% matrix(0, nrow=1, ncol=0)");
         assertEval("numeric() %*% matrix(0, nrow=0, ncol=1)");
     }
+
+    @Test
+    public void testMatmulLarge() {
+        // large enough to be delegated to BLAS
+        assertEval("{ a <- matrix(seq(0, 1, length.out=200*150), 200); b <- matrix(seq(1, 2, length.out=150*100), 150); r <- a %*% b; c(dim(r), all.equal(r[17, 33], sum(a[17, ] * b[, 33]))) }");
+        assertEval("{ a <- matrix(seq(0, 1, length.out=300*300), 300); v <- seq(-1, 1, length.out=300); r <- a %*% v; c(dim(r), all.equal(r[42], sum(a[42, ] * v))) }");
+        assertEval("{ a <- matrix(seq(0, 1, length.out=200*150), 200); b <- matrix(seq(1, 2, length.out=150*100), 150); a[3, 5] <- NA; b[7, 9] <- NaN; r <- a %*% b; c(r[3, 1], r[1, 9], r[3, 9]) }");
+    }
 }
@@ -180,4 +180,13 @@ public class TestBuiltin_order extends TestBase {
         assertEval("order(NULL)");
         assertEval("order(c(NULL, c(1,2,0)))");
     }
+
+    @Test
+    public void testOrderLong() {
+        // long enough for the merge sort and its parallel variant
+        assertEval("set.seed(1); x <- sample(c(-0, 0, 1:50, NA, NaN), 1e5, replace=TRUE); o <- order(x); c(sum(o), o[c(1:5, 99996:1e5)], is.unsorted(x[o], na.rm=TRUE))");
+        assertEval("set.seed(1); x <- sample(100L, 2e5, replace=TRUE); o <- order(x, decreasing=TRUE, na.last=FALSE); c(o[1:10], is.unsorted(rev(x[o])))");
+        assertEval("set.seed(1); x <- sample(c(letters, NA), 1e5, replace=TRUE); o <- order(x, na.last=FALSE); c(o[1:10], o[99991:1e5])");
+        assertEval("set.seed(1); x <- complex(real=sample(5, 1000, replace=TRUE), imaginary=sample(5, 1000, replace=TRUE)); order(x)[1:20]");
+    }
 }
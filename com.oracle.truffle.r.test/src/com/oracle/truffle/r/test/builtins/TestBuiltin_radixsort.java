@@ -64,4 +64,20 @@ public class TestBuiltin_radixsort extends TestBase {
         // at InternalNode$InternalCallWrapNode.prepareArgs(InternalNode.java:309)
         assertEval(Ignored.ImplementationError, "argv <- list(structure(integer(0), .Label = character(0), class = 'factor'), TRUE, FALSE); .Internal(radixsort(argv[[1]], argv[[2]], argv[[3]]))");
     }
+
+    @Test
+    public void testRadixSortArgs() {
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, TRUE), FALSE, TRUE, c(2L, 1L, 2L, 1L, NA), c(1.5, -2, NaN, 3, 0)))");
+        assertEval(".Internal(radixsort(FALSE, c(TRUE, FALSE), FALSE, TRUE, c('b', NA, 'a', 'b', 'a'), c(3L, 1L, 2L, 1L, NA)))");
+        assertEval(".Internal(radixsort(NA, FALSE, FALSE, TRUE, c(3, NA, -0, 0, -Inf, Inf, NaN, 1e-300)))");
+        assertEval(".Internal(radixsort(TRUE, TRUE, FALSE, TRUE, c(TRUE, NA, FALSE, TRUE)))");
+        assertEval(".Internal(radixsort(TRUE, c(FALSE, TRUE), TRUE, TRUE, c(2L, 1L, 2L, 1L, 2L), c('x', 'y', 'x', 'z', 'w')))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, FALSE, c('b', 'a', 'b', NA, 'c', 'a')))");
+        assertEval(".Internal(radixsort(TRUE, FALSE, TRUE, TRUE, integer(0)))");
+        assertEval("x <- c(5L, 3L, 1000000L, -7L, NA, 3L); order(x, method='radix'); order(x, method='radix', decreasing=TRUE, na.last=FALSE)");
+        assertEval("x <- c(2.5, -1, 1e10, NA, 0, -1); sort(x, method='radix'); sort(x, method='radix', decreasing=TRUE)");
+        assertEval("set.seed(42); x <- sample(1000L, 500, replace=TRUE); y <- runif(500); identical(order(x, -y, method='radix'), order(x, -y))");
+        assertEval(Output.IgnoreErrorMessage, ".Internal(radixsort(TRUE, FALSE, FALSE, TRUE, 1+2i))");
+        assertEval(Output.IgnoreErrorMessage, ".Internal(radixsort(TRUE, c(FALSE, FALSE), FALSE, TRUE, 1:3, 1:2))");
+    }
 }
@@ -61,7 +61,7 @@ public class TestBuiltin_setseed extends TestBase {
 
     @Test
     public void testsetseed7() {
-        assertEval(Ignored.Unimplemented, "argv <- list(123, 7L, NULL); .Internal(set.seed(argv[[1]], argv[[2]], argv[[3]], NULL))");
+        assertEval("argv <- list(123, 7L, NULL); .Internal(set.seed(argv[[1]], argv[[2]], argv[[3]], NULL))");
     }
 
     @Test
@@ -69,6 +69,14 @@ public class TestBuiltin_setseed extends TestBase {
         assertEval("argv <- list(NULL, NULL, NULL); .Internal(set.seed(argv[[1]], argv[[2]], argv[[3]], NULL))");
     }
 
+    @Test
+    public void testLecuyerCMRG() {
+        assertEval("RNGkind(\"L'Ecuyer-CMRG\"); set.seed(123); print(.Random.seed); runif(5)");
+        assertEval("RNGkind(\"L'Ecuyer-CMRG\"); set.seed(42); rnorm(3); sample(10)");
+        assertEval("RNGkind(\"L'Ecuyer-CMRG\"); set.seed(123); s <- parallel::nextRNGStream(.Random.seed); print(s); .Random.seed <- s; runif(3)");
+        assertEval("RNGkind(\"L'Ecuyer-CMRG\"); set.seed(123); parallel::nextRNGSubStream(parallel::nextRNGStream(.Random.seed))");
+    }
+
     @Test
     public void testArgCasts() {
         assertEval(Output.IgnoreErrorMessage, "set.seed('hello world')");
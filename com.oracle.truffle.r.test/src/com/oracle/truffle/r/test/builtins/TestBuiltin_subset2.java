@@ -186,4 +186,20 @@ public class TestBuiltin_subset2 extends TestBase {
     public void testsubset234() {
         assertEval("argv <- list(structure(list(variog = c(0.00723952158228125, 0.014584633605134, 0.0142079356273193, 0.0184422668389517, 0.0111285046171491, 0.0199100817701382, 0.0270723108677323, 0.0341403794476899, 0.0283206569034573, 0.03752550654923), dist = c(1, 6, 7, 8, 13, 14, 15, 20, 21, 22), n.pairs = structure(c(16L, 16L, 144L, 16L, 16L, 128L, 16L, 16L, 112L, 16L), .Dim = 10L, .Dimnames = structure(list(c('1', '6', '7', '8', '13', '14', '15', '20', '21', '22')), .Names = ''))), .Names = c('variog', 'dist', 'n.pairs'), collapse = TRUE, row.names = c(NA, 10L), class = c('Variogram', 'data.frame')), 3L);.subset2(argv[[1]],argv[[2]]);");
     }
+
+    @Test
+    public void testLongNames() {
+        // long names vectors are searched using a hash index
+        String init = "l <- as.list(1:1000); names(l) <- paste0('n', 1:1000); ";
+        assertEval(init + "l[['n500']]");
+        assertEval(init + "l$n1000");
+        assertEval(init + "l[['n500']]; names(l)[[10]] <- 'n500'; l[['n500']]");
+        assertEval(init + "l[['n500']]; names(l)[[500]] <- 'x'; l$n500");
+        assertEval(init + "l[['n500']]; names(l)[[500]] <- 'x'; l[['n500']]");
+        assertEval(init + "l$n99");
+        assertEval(init + "l$n99999");
+        assertEval("l <- as.list(1:1000); names(l) <- rep(c('a', 'b', NA), length.out = 1000); list(l[['b']], l$b, l[c('a', 'b', NA)])");
+        assertEval("v <- 1:1000; names(v) <- paste0('n', 1:1000); v[c('n1', 'n1000', 'zz', 'n1')]");
+        assertEval("v <- 1:1000; names(v) <- paste0('n', 1:1000); v[['n7']] <- 42L; v[c('zz', 'n1001')] <- 0L; v[c('n7', 'zz', 'n1001')]");
+    }
 }
@@ -78,4 +78,10 @@ public class TestBuiltin_tcrossprod extends TestBase {
         assertEval("tcrossprod(matrix(1:4, nrow=2))");
         assertEval("apply(array(NA, dim=c(2,1)), 2 ,tcrossprod)");
     }
+
+    @Test
+    public void testTcrossprodLarge() {
+        assertEval("{ x <- matrix(seq(0, 1, length.out=200*150), 200); r <- tcrossprod(x); c(dim(r), isSymmetric(r), all.equal(r, x %*% t(x))) }");
+        assertEval("{ x <- matrix(seq(0, 1, length.out=200*150), 200); y <- matrix(seq(1, 2, length.out=200*150), 200); r <- tcrossprod(x, y); c(dim(r), all.equal(r, x %*% t(y))) }");
+    }
 }
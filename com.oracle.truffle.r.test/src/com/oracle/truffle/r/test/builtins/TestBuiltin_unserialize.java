@@ -185,4 +185,15 @@ public class TestBuiltin_unserialize extends TestBase {
         assertEval(Output.ContainsReferences, template("options(keep.source=FALSE); val <- new.env(hash=FALSE); val$e <- 5+9i; unserialize(serialize(val, connection=NULL, version=%0))", VERSIONS));
         assertEval(Output.ContainsReferences, template("options(keep.source=FALSE); val <- new.env(hash=FALSE); val$f <- NA; unserialize(serialize(val, connection=NULL, version=%0))", VERSIONS));
     }
+
+    @Test
+    public void testunserializeLongVectors() {
+        // larger than the read and write buffers
+        assertEval("x <- seq(0.5, by = 0.25, length.out = 20000); x[c(7, 9999)] <- NA; y <- unserialize(serialize(x, NULL)); list(identical(x, y), y[c(1, 7, 20000)])");
+        assertEval("x <- c(1:20000, NA); y <- unserialize(serialize(x + 0L, NULL)); list(identical(x, y), y[c(1, 20000, 20001)])");
+        assertEval("x <- rep(c(TRUE, NA, FALSE), 10000); identical(x, unserialize(serialize(x, NULL)))");
+        assertEval("tail(serialize(c(TRUE, NA, FALSE), NULL), 12)");
+        assertEval("x <- rep(c(TRUE, NA, FALSE), 10000); s <- serialize(x, NULL); c(length(s), s[length(s) - 3:0])");
+        assertEval("x <- complex(real = 1:10000, imaginary = -1); x[c(1, 5000)] <- NA; y <- unserialize(serialize(x, NULL)); list(identical(x, y), y[c(1, 2, 5000, 10000)])");
+    }
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2016, 2018, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2016, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -40,4 +40,23 @@ public class TestBuiltin_zzfile extends TestBase {
                         "{ f <- tempfile(); c <- %0zfile(f); writeLines(as.character(1:50), c); close(c); c <- %0zfile(f, \"a\"); writeLines(as.character(51:70), c); close(c); readLines(f) }",
                         CTYPES));
     }
+
+    @Test
+    public void testLarge() {
+        // more than one bzip2 block
+        assertEval(TestBase.template("{ f <- tempfile(); c <- %0zfile(f); x <- paste0('line', 1:300000); writeLines(x, c); close(c); c <- %0zfile(f); y <- readLines(c); close(c); c(length(y), identical(x, y)) }", CTYPES));
+        assertEval("{ f <- tempfile(); x <- list(a=1:100000, b=rnorm(10)); save(x, file=f, compress='bzip2'); y <- x; rm(x); load(f); identical(x, y) }");
+        assertEval("{ f <- tempfile(); x <- list(a=1:100000, b=rnorm(10)); save(x, file=f, compress='xz'); y <- x; rm(x); load(f); identical(x, y) }");
+    }
+
+    @Test
+    public void testCompressionLevel() {
+        for (String input : TestBase.template("{ x <- rep(paste0('line', 1:2000), 10); r <- logical(0); for (l in c(1, 9)) { f <- tempfile(); c <- %0zfile(f, compression=l); writeLines(x, c); close(c); " +
+                        "r <- c(r, identical(readLines(f), x)) }; r }", CTYPES)) {
+            assertEvalFastR(input, "c(TRUE, TRUE)");
+        }
+        assertEvalFastR("{ x <- rep(paste0('line', 1:2000), 10); s <- integer(0); for (l in c(0, 9)) { f <- tempfile(); c <- gzfile(f, compression=l); writeLines(x, c); close(c); s <- c(s, file.size(f)) }; s[[1]] > 10 * s[[2]] }",
+                        "TRUE");
+        assertEvalFastR("{ x <- paste0('line', 1:2000); f <- tempfile(); c <- xzfile(f, compression=-9); writeLines(x, c); close(c); identical(readLines(f), x) }", "TRUE");
+    }
 }
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.base;
+
+import static com.oracle.truffle.r.runtime.context.FastROptions.FusedArithmeticThreshold;
+import static com.oracle.truffle.r.runtime.context.FastROptions.ParallelArithmeticThreshold;
+
+import org.graalvm.options.OptionKey;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.RContext;
+import com.oracle.truffle.r.runtime.context.RContext.ContextKind;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRContext;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+/**
+ * Checks that the optional arithmetic paths enabled by options give the same results as the
+ * default ones. The options are read when the arithmetic nodes are created, so each expression is
+ * evaluated twice as newly parsed code, with the option off and on. The parallel arithmetic is
+ * disabled when the common fork-join pool has a single thread, the results are then compared with
+ * themselves.
+ */
+public class TestArithmeticOptions extends TestBase {
+
+    private static FastRContext context;
+
+    @BeforeClass
+    public static void setupClass() {
+        FastRSession session = FastRSession.create();
+        context = session.createContext(ContextKind.SHARE_PARENT_RW);
+    }
+
+    @AfterClass
+    public static void finishClass() {
+        context.close();
+    }
+
+    @Test
+    public void testFusedChain() {
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- runif(100); w <- runif(100); (x - 0.5) / 2 * w + 1 }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- runif(2000); y <- x; for (i in 1:20) y <- y * 1.01 + x; y }");
+        // single elements are computed without the rest of the vector
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- runif(100); y <- (x + 1) * x; c(y[[42]], sum(y), y[[1]]) }");
+    }
+
+    @Test
+    public void testFusedFallback() {
+        // operands with attributes and recycled operands take the eager path
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- matrix(runif(100), 10); y <- c(a = 1, runif(99)); list(x * 2 + 1, y - 1, (y + x) / 2) }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- runif(100); y <- runif(50); list(x + y, x * 3, 3 - x, x / x[[1]], (x + 1) + y) }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ x <- as.double(1:100); y <- 1:100; list(x + y, x * 2L, y - x) }");
+    }
+
+    @Test
+    public void testFusedNA() {
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ x <- c(1, NA, NaN, Inf, -Inf, 0, NA, NaN, rep(2, 20)); y <- c(NA, NaN, 1, Inf, Inf, 0, NaN, NA, rep(NA, 20)); " +
+                        "list(x + y, x * y, x / y, (x - y) * 2, y / x - x, 0 / (x * 0), anyNA(x + 1), is.na((x + y) * 2)) }");
+    }
+
+    @Test
+    public void testFusedInPlaceModification() {
+        // the operands are still referred to by the deferred results when they are modified
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ set.seed(1); x <- runif(100); y <- x * 2 + 1; x[1] <- 100; x[[2]] <- -1; z <- y; y[3] <- 0; list(x, y, z) }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ x <- as.double(1:100); y <- x + 1; x <- x * 3; x[5] <- 0; list(x, y) }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ f <- function(v) { w <- v * 2; v[1:10] <- 0; list(v, w + v) }; x <- as.double(1:100); list(f(x), x) }");
+        assertSameWithOption(FusedArithmeticThreshold, 10, "{ x <- as.double(1:100); y <- x - 1; y[1] <- 42; x[2] <- 42; list(x, y, x - y) }");
+    }
+
+    @Test
+    public void testParallel() {
+        // longer than ParallelArithmetic.CHUNK_SIZE, so that there are several chunks
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); x <- runif(200000); y <- sample(200000L); list(x * 2, 1 - x, x / x, -x, y + y, y - 1L, 3L * y, -y) }");
+        // the temporary operands are reused for the result
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); y <- sample(200000L); x <- runif(200000); list((y + 1L) * 2L, 5L - (y - 1L), -(y * 2L), -(x * 2), y, x) }");
+    }
+
+    @Test
+    public void testParallelAttributes() {
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); x <- matrix(runif(200000), 400); y <- matrix(sample(200000L), 400, dimnames = list(NULL, paste0('c', 1:500))); " +
+                        "list(x * 2, x - x, -x, y + 1L, -y, 2L * y, (y + 1L) - y) }");
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); y <- structure(sample(200000L), names = paste0('n', 1:200000), foo = 'bar'); list(y * 2L, -y, y - y) }");
+    }
+
+    @Test
+    public void testParallelNA() {
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); x <- runif(200000); x[150000] <- NA; x[3] <- NaN; y <- sample(200000L); y[199999] <- NA; " +
+                        "list(x + 1, -x, x * x, y - 1L, -y, y * y[1], anyNA(x + 1), anyNA(-x), anyNA(y + 1L), anyNA(-y), anyNA(y[-199999] + 1L), which(is.na(y * 2L))) }");
+        // integer overflow gives NA and a warning
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); y <- sample(200000L); msgs <- character(); " +
+                        "r <- withCallingHandlers(list(y * y, y + .Machine$integer.max, -.Machine$integer.max - y, y * 2L), warning = function(w) { msgs <<- c(msgs, conditionMessage(w)); invokeRestart('muffleWarning') }); " +
+                        "list(r, msgs, sapply(r, anyNA)) }");
+    }
+
+    @Test
+    public void testParallelFallback() {
+        // sequences, logical vectors, mixed types and recycled operands are computed sequentially
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ x <- 1:200000; list(x + 1L, x * 2, -x, x - rev(x)) }");
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); b <- runif(200000) > 0.5; list(b + b, -b, b * 2L, b + 0.5) }");
+        assertSameWithOption(ParallelArithmeticThreshold, 1000, "{ set.seed(1); x <- runif(200000); y <- sample(200000L); z <- sample(100000L); list(x + y, y * 0.5, y + z, z - y, x / 2L) }");
+    }
+
+    /**
+     * Evaluates the expression with the option set to {@code 0} and then to the given value and
+     * checks that the results are identical.
+     */
+    private static void assertSameWithOption(OptionKey<Integer> option, int value, String expression) {
+        int original = FastRSession.execInContext(context, () -> RContext.getInstance().getOption(option)).asInt();
+        try {
+            setOption(option, 0);
+            context.eval("R", "expected <- " + expression);
+            setOption(option, value);
+            Assert.assertTrue(expression, context.eval("R", "identical(expected, " + expression + ")").asBoolean());
+        } finally {
+            setOption(option, original);
+        }
+    }
+
+    private static void setOption(OptionKey<Integer> option, int value) {
+        FastRSession.execInContext(context, () -> {
+            RContext.getInstance().setOption(option, value);
+            return null;
+        });
+    }
+}
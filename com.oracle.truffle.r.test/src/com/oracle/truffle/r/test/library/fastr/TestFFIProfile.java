@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import static org.junit.Assert.assertEquals;
+
+import org.graalvm.polyglot.Context;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.context.FastROptions;
+import com.oracle.truffle.r.test.TestBase;
+import com.oracle.truffle.r.test.generate.FastRSession;
+
+// Checkstyle: stop line length check
+public class TestFFIProfile extends TestBase {
+
+    @Test
+    public void testProfileStructure() {
+        assertEvalFastR("{ p <- suppressWarnings(.fastr.ffi.profile()); names(p) }", "c('upcalls', 'downcalls', 'packages')");
+        assertEvalFastR("{ p <- suppressWarnings(.fastr.ffi.profile(TRUE)); c(class(p$downcalls), names(p$downcalls)) }", "c('data.frame', 'package', 'name', 'calls', 'time', 'bytes')");
+    }
+
+    @Test
+    public void testProfileCounts() {
+        // the option enables the profiler in the whole process, not only in this context
+        try (Context context = FastRSession.getContextBuilder("R", "llvm").option(FastROptions.getName(FastROptions.FFIProfile), "true").build()) {
+            // cfilter allocates its result with one up-call
+            String counts = context.eval("R", "{ invisible(.fastr.ffi.profile(TRUE)); x <- as.double(1:100); f <- rep(1, 3); " +
+                            "for (i in 1:5) .Call(stats:::C_cfilter, x, f, 2L, FALSE); p <- .fastr.ffi.profile(TRUE); " +
+                            "down <- p$downcalls[p$downcalls$name == 'cfilter', ]; up <- p$upcalls[p$upcalls$name == 'Rf_allocVector', ]; " +
+                            "paste(c(down$package, down$calls, p$packages$calls[p$packages$package == 'stats'], up$calls, down$time >= up$time), collapse = ' ') }").asString();
+            assertEquals("stats 5 5 5 TRUE", counts);
+            // the data are cleared by the reset
+            assertEquals(0, context.eval("R", "nrow(.fastr.ffi.profile()$downcalls)").asInt());
+        }
+    }
+}
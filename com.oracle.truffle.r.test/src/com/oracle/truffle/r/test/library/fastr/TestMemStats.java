@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastr;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+// Checkstyle: stop line length check
+public class TestMemStats extends TestBase {
+
+    @Test
+    public void testMemStats() {
+        assertEvalFastR("{ s <- .fastr.memstats(); names(s) }", "c('heap', 'native', 'gc', 'vectors')");
+        assertEvalFastR("{ s <- .fastr.memstats(); c(names(s$heap), s$heap[['used']] > 0) }", "c('used', 'committed', 'max', 'peak', 'TRUE')");
+        assertEvalFastR("{ s <- .fastr.memstats(); c(class(s$gc), names(s$gc)) }", "c('data.frame', 'collector', 'count', 'time')");
+    }
+
+    @Test
+    public void testGc() {
+        assertEvalFastR("{ g <- gc(full=FALSE); c(dim(g), g['Vcells', 'used'] > 0) }", "c(2, 7, 1)");
+        assertEvalFastR("{ old <- gcinfo(TRUE); c(old, gcinfo(old)) }", "c(FALSE, TRUE)");
+    }
+}
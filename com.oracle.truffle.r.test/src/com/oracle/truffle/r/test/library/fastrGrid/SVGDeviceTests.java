@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.fastrGrid;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.library.fastrGrid.device.DrawingContext;
+import com.oracle.truffle.r.library.fastrGrid.device.GridColor;
+import com.oracle.truffle.r.library.fastrGrid.device.SVGDevice;
+import com.oracle.truffle.r.test.TestBase;
+
+public class SVGDeviceTests extends TestBase {
+    private static final GridColor RED = new GridColor(255, 0, 0, GridColor.OPAQUE_ALPHA);
+
+    @Test
+    public void drawCirclesSharesStyle() {
+        SVGDevice dev = newDevice();
+        dev.drawCircles(new TestDrawingContext(RED, RED), new double[]{1, 2, 3}, new double[]{1, 2, 3}, new double[]{.1, .1, .1}, 0, 3);
+        String contents = dev.getContents();
+        assertEquals(3, count(contents, "<circle"));
+        assertEquals(1, count(contents, "fill:#"));
+        assertTrue(contents.endsWith("</svg>"));
+    }
+
+    @Test
+    public void drawRectsRange() {
+        SVGDevice dev = newDevice();
+        double[] values = new double[]{1, 2, 3, 4};
+        dev.drawRects(new TestDrawingContext(RED, GridColor.TRANSPARENT), values, values, values, values, 0, 1, 2);
+        String contents = dev.getContents();
+        assertEquals(2, count(contents, "<rect"));
+        assertEquals(1, count(contents, "stroke:#"));
+        assertEquals(0, count(contents, "transform"));
+    }
+
+    @Test
+    public void drawSegmentsSharesStyle() {
+        SVGDevice dev = newDevice();
+        double[] values = new double[]{1, 2};
+        dev.drawSegments(new TestDrawingContext(RED, GridColor.TRANSPARENT), values, values, values, values, 0, 2);
+        String contents = dev.getContents();
+        assertEquals(2, count(contents, "<polyline"));
+        assertEquals(1, count(contents, "stroke:#"));
+    }
+
+    @Test
+    public void repeatedStylesShareClass() {
+        SVGDevice dev = newDevice();
+        TestDrawingContext ctx = new TestDrawingContext(RED, GridColor.TRANSPARENT);
+        dev.drawCircle(ctx, 1, 1, .1);
+        dev.drawCircle(ctx, 2, 2, .1);
+        dev.drawRect(new TestDrawingContext(RED, GridColor.TRANSPARENT), 1, 1, 1, 1, 0);
+        String contents = dev.getContents();
+        assertEquals(3, count(contents, "class='c"));
+        assertEquals(1, count(contents, "stroke:#"));
+        assertEquals(0, count(contents, " style='stroke"));
+    }
+
+    @Test
+    public void stylesScopedByPage() {
+        // the same class names in two documents inlined in one HTML page must not clash
+        String first = drawRedCircle();
+        String second = drawRedCircle();
+        String firstId = getRootId(first);
+        String secondId = getRootId(second);
+        assertNotEquals(firstId, secondId);
+        assertEquals(1, count(first, "<style>#" + firstId + " .c0{"));
+        assertEquals(1, count(second, "<style>#" + secondId + " .c0{"));
+        assertEquals(0, count(first, "<style>."));
+    }
+
+    @Test
+    public void longPageInMemory() {
+        // the page for svg.string continues in a temporary file once it is long
+        assertEvalFastR("{ library(grid); svg('/dev/null'); grid.newpage(); set.seed(1); n <- 30000; grid.circle(runif(n), runif(n), r = 0.01); " +
+                        "s <- svg.string(); invisible(dev.off()); c(nchar(s) > 2^20, lengths(regmatches(s, gregexpr('<circle', s))) == n, grepl('^<\\?xml', s), grepl('</svg>$', s)) }",
+                        "rep(TRUE, 4L)");
+    }
+
+    @Test
+    public void transparentColorOpacity() {
+        SVGDevice dev = newDevice();
+        dev.drawCircle(new TestDrawingContext(new GridColor(0, 0, 255, 128), GridColor.TRANSPARENT), 1, 1, .1);
+        assertTrue(dev.getContents().contains("stroke-opacity:0.502"));
+    }
+
+    @Test
+    public void multiplePagesToFiles() {
+        // every page is streamed to a temporary file and moved to its own target file
+        assertEvalFastR("{ library(grid); d <- tempfile(); dir.create(d); svg(file.path(d, 'p%03d.svg')); " +
+                        "for (i in 1:3) { grid.newpage(); grid.rect(); grid.circle(r = i / 10) }; invisible(dev.off()); " +
+                        "pages <- lapply(file.path(d, list.files(d)), readLines, warn = FALSE); " +
+                        "c(length(pages), sum(sapply(pages, function(l) grepl('^<\\\\?xml', l[[1L]]) && grepl('</svg>$', l[[length(l)]])))) }", "c(3, 3)");
+    }
+
+    private static SVGDevice newDevice() {
+        SVGDevice dev = new SVGDevice("/dev/null", 7, 7);
+        dev.openNewPage();
+        return dev;
+    }
+
+    private static String drawRedCircle() {
+        SVGDevice dev = newDevice();
+        dev.drawCircle(new TestDrawingContext(RED, RED), 1, 1, .1);
+        return dev.getContents();
+    }
+
+    private static String getRootId(String contents) {
+        int start = contents.indexOf("<svg id='") + "<svg id='".length();
+        return contents.substring(start, contents.indexOf('\'', start));
+    }
+
+    private static int count(String text, String pattern) {
+        int result = 0;
+        int index = text.indexOf(pattern);
+        while (index != -1) {
+            result++;
+            index = text.indexOf(pattern, index + pattern.length());
+        }
+        return result;
+    }
+
+    private static final class TestDrawingContext implements DrawingContext {
+        private final GridColor color;
+        private final GridColor fillColor;
+
+        TestDrawingContext(GridColor color, GridColor fillColor) {
+            this.color = color;
+            this.fillColor = fillColor;
+        }
+
+        @Override
+        public byte[] getLineType() {
+            return DrawingContext.GRID_LINE_SOLID;
+        }
+
+        @Override
+        public double getLineWidth() {
+            return 1;
+        }
+
+        @Override
+        public GridLineJoin getLineJoin() {
+            return GridLineJoin.ROUND;
+        }
+
+        @Override
+        public GridLineEnd getLineEnd() {
+            return GridLineEnd.ROUND;
+        }
+
+        @Override
+        public double getLineMitre() {
+            return 10;
+        }
+
+        @Override
+        public GridColor getColor() {
+            return color;
+        }
+
+        @Override
+        public double getFontSize() {
+            return 12;
+        }
+
+        @Override
+        public GridFontStyle getFontStyle() {
+            return GridFontStyle.PLAIN;
+        }
+
+        @Override
+        public String getFontFamily() {
+            return "";
+        }
+
+        @Override
+        public double getLineHeight() {
+            return 1.2;
+        }
+
+        @Override
+        public GridColor getFillColor() {
+            return fillColor;
+        }
+    }
+}
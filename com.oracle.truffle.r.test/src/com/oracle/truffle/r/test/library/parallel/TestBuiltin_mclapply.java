@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2019, Oracle and/or its affiliates. All rights reserved.
+ * Copyright (c) 2019, 2020, Oracle and/or its affiliates. All rights reserved.
  * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
  *
  * This code is free software; you can redistribute it and/or modify it
@@ -46,6 +46,20 @@ public class TestBuiltin_mclapply extends TestBase {
         assertEval(Ignored.ImplementationError, "f <- function() { res <- parallel:::mclapply(1:3, function(i) i)}; f() ; f()");
     }
 
+    @Test
+    public void testMCLapplyNoPreschedule() {
+        assertEval("parallel:::mclapply(c(a=1, b=2, c=3, d=4, e=5), function(i) i * 2, mc.preschedule=FALSE, mc.cores=2)");
+        // the pool is reused by the second call
+        assertEval("f <- function() { res <- parallel:::mclapply(1:10, function(i) { Sys.sleep(0.01 * (i %% 3)); i }, mc.preschedule=FALSE, mc.cores=2); print(unlist(res)) }; f(); f()");
+        assertEval("res <- suppressWarnings(parallel:::mclapply(1:4, function(i) if (i == 3) stop('boom') else i, mc.preschedule=FALSE, mc.cores=2)); inherits(res[[3]], 'try-error'); res[-3]");
+        // one random number stream per element, whichever worker computes it
+        assertEval("{ RNGkind(\"L'Ecuyer-CMRG\"); f <- function(cores) { set.seed(42); unlist(parallel:::mclapply(1:6, function(i) runif(1), mc.preschedule=FALSE, mc.cores=cores)) }; " +
+                        "res <- identical(f(2), f(3)); RNGkind('default'); res }");
+        // a stale result left in the channel of a worker is not taken for the result of the next call
+        assertEvalFastR("{ ch <- .fastr.context.pool(2L); .fastr.channel.send(ch[[1L]], list(function() 'stale', list(), -1L)); " +
+                        "unlist(parallel:::mclapply(1:4, function(i) i, mc.preschedule=FALSE, mc.cores=2)) }", "1:4");
+    }
+
     @Test
     public void testMCLapplyNested() {
         // race-conditions, easilly reproducible with LLVM
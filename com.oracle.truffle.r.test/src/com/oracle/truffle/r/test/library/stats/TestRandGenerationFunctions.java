@@ -102,6 +102,17 @@ public class TestRandGenerationFunctions extends TestBase {
         assertEval("for(gen in c(\"Buggy Kinderman-Ramage\", \"Ahrens-Dieter\", \"Box-Muller\", \"Inversion\", \"Kinderman-Ramage\", \"default\")) { print(paste0(gen, \":\")); RNGkind(NULL,gen); set.seed(42); print(rnorm(30)); }");
     }
 
+    @Test
+    public void testBlocks() {
+        // large vectors with scalar parameters draw the uniform random numbers in blocks, the
+        // values and the state of the generator must be the same as when drawing them one by one
+        String[] kinds = {"Mersenne-Twister", "Marsaglia-Multicarry", "L'Ecuyer-CMRG"};
+        assertEval(template("RNGkind('%0'); set.seed(7); x <- runif(10000, 1, 3); y <- runif(1); set.seed(7); z <- runif(10001, c(1, 1), 3); c(identical(x, z[1:10000]), y == z[[10001]], x[c(1, 624, 625, 5000, 10000)])", kinds));
+        assertEval(template("RNGkind('%0'); set.seed(8); x <- rnorm(5000, 2, 3); y <- runif(1); set.seed(8); z <- rnorm(5001, c(2, 2), 3); c(identical(x, z[1:5000]), x[c(1, 2049, 5000)], y)", kinds));
+        assertEval(template("RNGkind('%0'); set.seed(9); x <- rexp(10000, 2); y <- runif(1); set.seed(9); z <- rexp(10000, c(2, 2)); c(identical(x, z), x[c(1, 4097, 10000)], y)", kinds));
+        assertEval(template("RNGkind('%0', sample.kind = '%1'); set.seed(10); x <- sample(100000, 10000, replace = TRUE); y <- sample(1000); c(x[c(1, 5000, 10000)], y[c(1, 500, 1000)], runif(1))", kinds, new String[]{"Rounding", "Rejection"}));
+    }
+
     @Test
     public void testDotRandomSeed() {
         assertEval(Output.IgnoreErrorContext, "{ .Random.seed }");
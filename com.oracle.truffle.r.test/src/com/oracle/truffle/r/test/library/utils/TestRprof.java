@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.library.utils;
+
+import org.junit.Test;
+
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestRprof extends TestBase {
+
+    @Test
+    public void testHeader() {
+        assertEval("{ f <- tempfile(); Rprof(f, interval = 0.01); Rprof(NULL); readLines(f) }");
+        assertEval("{ f <- tempfile(); Rprof(f, interval = 0.01, line.profiling = TRUE); Rprof(NULL); readLines(f)[[1L]] }");
+    }
+
+    @Test
+    public void testSamples() {
+        // the loop runs long enough to be sampled, every sample is a line of quoted function names
+        // and every folded stack is a line of function names separated by ';' and a count
+        assertEvalFastR("{ f <- tempfile(); folded <- tempfile(); options(fastr.rprof.folded = folded); " +
+                        "g <- function(n) { s <- 0; for (i in 1:n) s <- s + sqrt(i); s }; " +
+                        "Rprof(f, interval = 0.001); t0 <- proc.time()[[3L]]; while (proc.time()[[3L]] - t0 < 0.5) g(1000); Rprof(NULL); " +
+                        "options(fastr.rprof.folded = NULL); samples <- readLines(f); stacks <- readLines(folded); samples <- samples[nzchar(samples)]; " +
+                        "c(samples[[1L]] == 'sample.interval=1000', length(samples) > 1L, all(grepl('^(\"[^\"]+\" )+$', samples[-1L])), " +
+                        "length(stacks) > 0L, all(grepl('^[^ ;]+(;[^ ;]+)* [0-9]+$', stacks)), any(grepl('(^|;)g [0-9]+$', stacks))) }", "rep(TRUE, 6L)");
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.ops.ExactSum;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestExactSum extends TestBase {
+
+    @Test
+    public void testCancellation() {
+        double[] values = {1e100, 1.0, -1e100, 1e-20, 3.0};
+        Assert.assertEquals(4.0, ExactSum.sum(values, 0, values.length, false), 0.0);
+        Assert.assertEquals(1.0, ExactSum.sum(values, 0, 3, false), 0.0);
+    }
+
+    @Test
+    public void testLongVector() {
+        // long enough to be summed in chunks and in parallel
+        Random random = new Random(42);
+        double[] values = new double[3000000];
+        BigDecimal exact = BigDecimal.ZERO;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian() * Math.pow(10, random.nextInt(20) - 10);
+            exact = exact.add(new BigDecimal(values[i]));
+        }
+        double sum = ExactSum.sum(values, 0, values.length, false);
+        Assert.assertEquals(exact.doubleValue(), sum, 0.0);
+        // the result does not depend on the scheduling of the chunks
+        Assert.assertEquals(sum, ExactSum.sum(values, 0, values.length, false), 0.0);
+    }
+
+    @Test
+    public void testNA() {
+        double[] values = {1.0, RRuntime.DOUBLE_NA, Double.NaN, 2.0};
+        Assert.assertTrue(RRuntime.isNA(ExactSum.sum(values, 0, values.length, false)));
+        Assert.assertEquals(3.0, ExactSum.sum(values, 0, values.length, true), 0.0);
+        Assert.assertTrue(Double.isNaN(ExactSum.sum(values, 2, 4, false)));
+        Assert.assertEquals(Double.POSITIVE_INFINITY, ExactSum.sum(new double[]{1.0, Double.POSITIVE_INFINITY, 2.0}, 0, 3, false), 0.0);
+    }
+
+    @Test
+    public void testOverflow() {
+        // the intermediate sum exceeds the range of doubles, like in GNU R with long double
+        double[] values = {1e308, 1e308, -1e308};
+        Assert.assertEquals(1e308, ExactSum.sum(values, 0, values.length, false), 0.0);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, ExactSum.sum(values, 0, 2, false), 0.0);
+        Assert.assertEquals(Double.NEGATIVE_INFINITY, ExactSum.sum(new double[]{1e308, 1e308, Double.NEGATIVE_INFINITY}, 0, 3, false), 0.0);
+        Assert.assertEquals(2.5, ExactSum.sum(new double[]{1e308, 1e308, 0.5, -1e308, 2.0, -1e308}, 0, 6, false), 0.0);
+
+        // the overflow in one of the chunks that are summed in parallel
+        double[] longValues = new double[3000000];
+        longValues[5] = 1e308;
+        longValues[6] = 1e308;
+        longValues[longValues.length - 1] = -1.5e308;
+        longValues[longValues.length / 2] = 3.0;
+        Assert.assertEquals(1e308 - 1.5e308 + 1e308, ExactSum.sum(longValues, 0, longValues.length, false), 0.0);
+
+        // 1e308 1e308
+        // 1e308 -1e308
+        // -1e308 1.0
+        double[] matrix = {1e308, 1e308, -1e308, 1e308, -1e308, 1.0};
+        Assert.assertArrayEquals(new double[]{1e308, 1.0}, ExactSum.sumColumns(matrix, 3, 2, false), 0.0);
+        Assert.assertArrayEquals(new double[]{Double.POSITIVE_INFINITY, 0.0, -1e308 + 1.0}, ExactSum.sumRows(matrix, 3, 2, false), 0.0);
+
+        ExactSum sum = new ExactSum();
+        sum.add(1e308);
+        sum.add(1e308);
+        Assert.assertEquals(Double.POSITIVE_INFINITY, sum.get(), 0.0);
+        sum.add(-1e308);
+        Assert.assertEquals(1e308, sum.get(), 0.0);
+    }
+
+    @Test
+    public void testColumnsAndRows() {
+        // 1 4
+        // 2 5
+        // 3 NaN
+        double[] values = {1.0, 2.0, 3.0, 4.0, 5.0, Double.NaN};
+        Assert.assertArrayEquals(new double[]{6.0, 9.0}, ExactSum.sumColumns(values, 3, 2, true), 0.0);
+        Assert.assertArrayEquals(new double[]{5.0, 7.0, 3.0}, ExactSum.sumRows(values, 3, 2, true), 0.0);
+        Assert.assertTrue(Double.isNaN(ExactSum.sumRows(values, 3, 2, false)[2]));
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData.Operation;
+import com.oracle.truffle.r.runtime.data.WarningInfo;
+import com.oracle.truffle.r.runtime.ops.BinaryArithmetic;
+import com.oracle.truffle.r.runtime.ops.ParallelArithmetic;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestParallelArithmetic extends TestBase {
+
+    private static final int LENGTH = 3 * ParallelArithmetic.CHUNK_SIZE + 17;
+
+    private static BinaryArithmetic createArithmetic(Operation operation) {
+        switch (operation) {
+            case ADD:
+                return BinaryArithmetic.ADD.createOperation();
+            case SUBTRACT:
+                return BinaryArithmetic.SUBTRACT.createOperation();
+            case MULTIPLY:
+                return BinaryArithmetic.MULTIPLY.createOperation();
+            default:
+                throw new IllegalArgumentException(operation.toString());
+        }
+    }
+
+    private static int nextOperand(Random random) {
+        // small values and values that overflow, but no NA
+        int value = random.nextBoolean() ? random.nextInt(2000) - 1000 : random.nextInt();
+        return value == RRuntime.INT_NA ? 0 : value;
+    }
+
+    @Test
+    public void testChunks() {
+        AtomicIntegerArray visits = new AtomicIntegerArray(LENGTH);
+        ParallelArithmetic.forEachChunk(LENGTH, (from, to) -> {
+            Assert.assertEquals(0, from % ParallelArithmetic.CHUNK_SIZE);
+            for (int i = from; i < to; i++) {
+                visits.incrementAndGet(i);
+            }
+        });
+        for (int i = 0; i < LENGTH; i++) {
+            Assert.assertEquals(1, visits.get(i));
+        }
+    }
+
+    @Test
+    public void testInteger() {
+        Random random = new Random(42);
+        int[] left = new int[LENGTH];
+        int[] right = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            left[i] = nextOperand(random);
+            right[i] = nextOperand(random);
+        }
+        for (Operation operation : new Operation[]{Operation.ADD, Operation.SUBTRACT, Operation.MULTIPLY}) {
+            BinaryArithmetic arithmetic = createArithmetic(operation);
+            int[] result = new int[LENGTH];
+            WarningInfo warningInfo = new WarningInfo();
+            boolean complete = ParallelArithmetic.applyInteger(operation, left, right, result, warningInfo);
+            WarningInfo expectedWarningInfo = new WarningInfo();
+            boolean expectedComplete = true;
+            for (int i = 0; i < LENGTH; i++) {
+                int expected = arithmetic.op(expectedWarningInfo, left[i], right[i]);
+                Assert.assertEquals(expected, result[i]);
+                expectedComplete &= expected != RRuntime.INT_NA;
+            }
+            Assert.assertEquals(expectedComplete, complete);
+            Assert.assertTrue(expectedWarningInfo.hasIntergerOverflow());
+            Assert.assertEquals(expectedWarningInfo.hasIntergerOverflow(), warningInfo.hasIntergerOverflow());
+
+            // scalar operand
+            ParallelArithmetic.applyInteger(operation, left, new int[]{7}, result, new WarningInfo());
+            for (int i = 0; i < LENGTH; i++) {
+                Assert.assertEquals(arithmetic.op(null, left[i], 7), result[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testInPlace() {
+        // the map nodes write the result into the array of a temporary operand
+        int[] left = new int[LENGTH];
+        int[] right = new int[LENGTH];
+        double[] operand = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            left[i] = i;
+            right[i] = LENGTH - i;
+            operand[i] = i * 0.5;
+        }
+        int[] expected = new int[LENGTH];
+        ParallelArithmetic.applyInteger(Operation.MULTIPLY, left, right, expected, new WarningInfo());
+        ParallelArithmetic.applyInteger(Operation.MULTIPLY, left, right, right, new WarningInfo());
+        Assert.assertArrayEquals(expected, right);
+
+        double[] expectedNegated = new double[LENGTH];
+        ParallelArithmetic.negate(operand, expectedNegated);
+        ParallelArithmetic.negate(operand, operand);
+        Assert.assertArrayEquals(expectedNegated, operand, 0.0);
+    }
+
+    @Test
+    public void testIntegerNA() {
+        int[] left = new int[LENGTH];
+        int[] right = new int[LENGTH];
+        left[ParallelArithmetic.CHUNK_SIZE + 1] = RRuntime.INT_NA;
+        int[] result = new int[LENGTH];
+        WarningInfo warningInfo = new WarningInfo();
+        Assert.assertFalse(ParallelArithmetic.applyInteger(Operation.ADD, left, right, result, warningInfo));
+        Assert.assertFalse(warningInfo.hasIntergerOverflow());
+        Assert.assertEquals(RRuntime.INT_NA, result[ParallelArithmetic.CHUNK_SIZE + 1]);
+
+        // an overflow in the last chunk only
+        left[LENGTH - 1] = Integer.MAX_VALUE;
+        right[LENGTH - 1] = 1;
+        left[ParallelArithmetic.CHUNK_SIZE + 1] = 0;
+        Assert.assertFalse(ParallelArithmetic.applyInteger(Operation.ADD, left, right, result, warningInfo));
+        Assert.assertTrue(warningInfo.hasIntergerOverflow());
+        Assert.assertEquals(RRuntime.INT_NA, result[LENGTH - 1]);
+
+        // the sum -2^31 is NA, which is reported as an overflow
+        left[LENGTH - 1] = Integer.MIN_VALUE + 1;
+        right[LENGTH - 1] = -1;
+        warningInfo = new WarningInfo();
+        Assert.assertFalse(ParallelArithmetic.applyInteger(Operation.ADD, left, right, result, warningInfo));
+        Assert.assertTrue(warningInfo.hasIntergerOverflow());
+
+        left[LENGTH - 1] = 1 << 16;
+        right[LENGTH - 1] = 1 << 16;
+        warningInfo = new WarningInfo();
+        Assert.assertFalse(ParallelArithmetic.applyInteger(Operation.MULTIPLY, left, right, result, warningInfo));
+        Assert.assertTrue(warningInfo.hasIntergerOverflow());
+        Assert.assertEquals(RRuntime.INT_NA, result[LENGTH - 1]);
+    }
+
+    @Test
+    public void testNegate() {
+        double[] operand = new double[LENGTH];
+        int[] intOperand = new int[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            operand[i] = i * 0.5;
+            intOperand[i] = i;
+        }
+        double[] result = new double[LENGTH];
+        int[] intResult = new int[LENGTH];
+        Assert.assertTrue(ParallelArithmetic.negate(operand, result));
+        Assert.assertTrue(ParallelArithmetic.negate(intOperand, intResult));
+        for (int i = 0; i < LENGTH; i++) {
+            Assert.assertEquals(-operand[i], result[i], 0.0);
+            Assert.assertEquals(-i, intResult[i]);
+        }
+
+        operand[LENGTH - 1] = RRuntime.DOUBLE_NA;
+        operand[LENGTH - 2] = Double.NaN;
+        intOperand[LENGTH - 1] = RRuntime.INT_NA;
+        Assert.assertFalse(ParallelArithmetic.negate(operand, result));
+        Assert.assertFalse(ParallelArithmetic.negate(intOperand, intResult));
+        Assert.assertTrue(RRuntime.isNA(result[LENGTH - 1]));
+        Assert.assertTrue(Double.isNaN(result[LENGTH - 2]) && !RRuntime.isNA(result[LENGTH - 2]));
+        Assert.assertEquals(RRuntime.INT_NA, intResult[LENGTH - 1]);
+    }
+}
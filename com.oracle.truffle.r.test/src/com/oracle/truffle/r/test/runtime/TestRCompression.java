@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.zip.Deflater;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.RCompression;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestRCompression extends TestBase {
+
+    @Test
+    public void testUncompressGzipFromBuffer() {
+        Random random = new Random(42);
+        for (int size : new int[]{0, 1, 100, 100000, 1000000}) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; i++) {
+                data[i] = (byte) random.nextInt(16);
+            }
+            Deflater deflater = new Deflater();
+            deflater.setInput(data);
+            deflater.finish();
+            byte[] compressed = new byte[size + 128];
+            int compressedLength = deflater.deflate(compressed);
+            deflater.end();
+
+            // the compressed data are a slice of a larger (direct) buffer like in a mapped file
+            int offset = 13;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(offset + compressedLength + 7);
+            buffer.position(offset);
+            buffer.put(compressed, 0, compressedLength);
+            buffer.limit(offset + compressedLength).position(offset);
+
+            byte[] uncompressed = new byte[size];
+            Assert.assertTrue(RCompression.uncompress(RCompression.Type.GZIP, uncompressed, buffer));
+            Assert.assertArrayEquals(data, uncompressed);
+
+            if (size > 100) {
+                buffer.limit(offset + compressedLength / 2).position(offset);
+                Assert.assertFalse(RCompression.uncompress(RCompression.Type.GZIP, new byte[size], buffer));
+            }
+        }
+    }
+
+    @Test
+    public void testUncompressNoneFromBuffer() {
+        byte[] data = {1, 2, 3, 4, 5, 6};
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        buffer.limit(5).position(2);
+        byte[] uncompressed = new byte[3];
+        Assert.assertTrue(RCompression.uncompress(RCompression.Type.NONE, uncompressed, buffer));
+        Assert.assertArrayEquals(new byte[]{3, 4, 5}, uncompressed);
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.RRuntime;
+import com.oracle.truffle.r.runtime.data.RDataFactory;
+import com.oracle.truffle.r.runtime.data.RDoubleArrayVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData;
+import com.oracle.truffle.r.runtime.data.RDoubleFusedVectorData.Operation;
+import com.oracle.truffle.r.runtime.data.RDoubleVector;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestRDoubleFusedVectorData extends TestBase {
+
+    private static RDoubleArrayVectorData data(double... values) {
+        boolean complete = true;
+        for (double value : values) {
+            complete &= !RRuntime.isNA(value);
+        }
+        return new RDoubleArrayVectorData(values, complete);
+    }
+
+    @Test
+    public void testChain() {
+        // (x - 0.5) / 2 * w + 1 over several blocks
+        Random random = new Random(42);
+        int length = 5000;
+        double[] x = new double[length];
+        double[] w = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = random.nextDouble();
+            w[i] = random.nextDouble();
+        }
+        RDoubleFusedVectorData result = RDoubleFusedVectorData.create(Operation.SUBTRACT, data(x), length, data(0.5), 1);
+        result = RDoubleFusedVectorData.create(Operation.DIVIDE, result, length, data(2), 1);
+        result = RDoubleFusedVectorData.create(Operation.MULTIPLY, result, length, data(w), length);
+        result = RDoubleFusedVectorData.create(Operation.ADD, result, length, data(1), 1);
+        Assert.assertEquals((x[4321] - 0.5) / 2 * w[4321] + 1, result.getDoubleAt(4321), 0.0);
+        double[] values = result.getValues();
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals((x[i] - 0.5) / 2 * w[i] + 1, values[i], 0.0);
+        }
+        Assert.assertTrue(result.isComplete());
+    }
+
+    @Test
+    public void testNA() {
+        RDoubleFusedVectorData result = RDoubleFusedVectorData.create(Operation.ADD, data(1, RRuntime.DOUBLE_NA, Double.NaN, Double.NaN), 4, data(2, 3, 4, RRuntime.DOUBLE_NA), 4);
+        result = RDoubleFusedVectorData.create(Operation.MULTIPLY, data(2), 1, result, 4);
+        Assert.assertFalse(result.isComplete());
+        double[] values = result.getValues();
+        Assert.assertEquals(6, values[0], 0.0);
+        Assert.assertTrue(RRuntime.isNA(values[1]));
+        Assert.assertTrue(Double.isNaN(values[2]) && !RRuntime.isNA(values[2]));
+        // NaN + NA is NaN
+        Assert.assertTrue(Double.isNaN(values[3]) && !RRuntime.isNA(values[3]));
+    }
+
+    @Test
+    public void testOperandComputedFirst() {
+        // the inner expression releases its operands when computed, the outer one takes its values
+        int length = 3000;
+        double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = i;
+        }
+        RDoubleFusedVectorData inner = RDoubleFusedVectorData.create(Operation.ADD, data(x), length, data(1), 1);
+        RDoubleFusedVectorData outer = RDoubleFusedVectorData.create(Operation.MULTIPLY, inner, length, data(2), 1);
+        RDoubleFusedVectorData other = RDoubleFusedVectorData.create(Operation.SUBTRACT, inner, length, data(x), length);
+        Assert.assertEquals(length, inner.getValues()[length - 1], 0.0);
+        Assert.assertEquals(2 * length, outer.getDoubleAt(length - 1), 0.0);
+        double[] values = outer.getValues();
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(2 * (i + 1), values[i], 0.0);
+        }
+        values = other.getValues();
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(1, values[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testUnsupported() {
+        Assert.assertNull(RDoubleFusedVectorData.create(Operation.ADD, data(1, 2, 3), 3, data(1, 2), 2));
+        // long chains compute their operands first
+        RDoubleFusedVectorData result = RDoubleFusedVectorData.create(Operation.ADD, data(1, 2), 2, data(1), 1);
+        for (int i = 0; i < 2 * RDoubleFusedVectorData.MAX_OPERATIONS; i++) {
+            result = RDoubleFusedVectorData.create(Operation.ADD, result, 2, data(1), 1);
+        }
+        Assert.assertArrayEquals(new double[]{2 + 2 * RDoubleFusedVectorData.MAX_OPERATIONS, 3 + 2 * RDoubleFusedVectorData.MAX_OPERATIONS}, result.getValues(), 0.0);
+    }
+
+    @Test
+    public void testReleaseOperandsOnce() throws InterruptedException {
+        // the vector is referenced by a variable and marked shared by the expression
+        RDoubleVector x = RDataFactory.createDoubleVector(new double[]{1, 2, 3}, true);
+        x.incRefCount();
+        RDoubleFusedVectorData result = RDoubleFusedVectorData.create(Operation.MULTIPLY, x.getData(), 3, data(2), 1);
+        result.shareOperands(x, x);
+        Assert.assertTrue(x.isShared());
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(result::getValues);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        result.getValues();
+        Assert.assertFalse(x.isShared());
+        Assert.assertFalse(x.isTemporary());
+    }
+}
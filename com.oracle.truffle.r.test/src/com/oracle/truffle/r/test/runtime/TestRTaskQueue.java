@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.oracle.truffle.r.runtime.RTaskQueue;
+import com.oracle.truffle.r.test.TestBase;
+
+public class TestRTaskQueue extends TestBase {
+
+    @Test
+    public void testGuidedChunks() {
+        int id = RTaskQueue.create(100, 2, 0);
+        try {
+            // the first chunk is a quarter of the indices for two workers
+            Assert.assertArrayEquals(new int[]{0, 25}, RTaskQueue.nextChunk(id));
+            int expected = 25;
+            int previousSize = 25;
+            int[] chunk;
+            while ((chunk = RTaskQueue.nextChunk(id)) != null) {
+                Assert.assertEquals(expected, chunk[0]);
+                int size = chunk[1] - chunk[0];
+                Assert.assertTrue(size >= 1 && size <= previousSize);
+                previousSize = size;
+                expected = chunk[1];
+            }
+            Assert.assertEquals(100, expected);
+        } finally {
+            RTaskQueue.close(id);
+        }
+    }
+
+    @Test
+    public void testFixedChunks() {
+        int id = RTaskQueue.create(10, 3, 4);
+        try {
+            Assert.assertArrayEquals(new int[]{0, 4}, RTaskQueue.nextChunk(id));
+            Assert.assertArrayEquals(new int[]{4, 8}, RTaskQueue.nextChunk(id));
+            Assert.assertArrayEquals(new int[]{8, 10}, RTaskQueue.nextChunk(id));
+            Assert.assertNull(RTaskQueue.nextChunk(id));
+            Assert.assertNull(RTaskQueue.nextChunk(id));
+        } finally {
+            RTaskQueue.close(id);
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        int id = RTaskQueue.create(0, 4, 0);
+        try {
+            Assert.assertNull(RTaskQueue.nextChunk(id));
+        } finally {
+            RTaskQueue.close(id);
+        }
+    }
+
+    @Test
+    public void testConcurrentWorkers() throws InterruptedException {
+        // every index is handed out exactly once, however the workers interleave
+        int length = 100000;
+        int id = RTaskQueue.create(length, 4, 0);
+        AtomicIntegerArray taken = new AtomicIntegerArray(length);
+        ArrayList<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                int[] chunk;
+                while ((chunk = RTaskQueue.nextChunk(id)) != null) {
+                    for (int j = chunk[0]; j < chunk[1]; j++) {
+                        taken.incrementAndGet(j);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        RTaskQueue.close(id);
+        for (int i = 0; i < length; i++) {
+            Assert.assertEquals(1, taken.get(i));
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020, Oracle and/or its affiliates. All rights reserved.
+ * DO NOT ALTER OR REMOVE COPYRIGHT NOTICES OR THIS FILE HEADER.
+ *
+ * This code is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU General Public License version 3 only, as
+ * published by the Free Software Foundation.
+ *
+ * This code is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or
+ * FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License
+ * version 3 for more details (a copy is included in the LICENSE file that
+ * accompanied this code).
+ *
+ * You should have received a copy of the GNU General Public License version
+ * 3 along with this work; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin St, Fifth Floor, Boston, MA 02110-1301 USA.
+ *
+ * Please contact Oracle, 500 Oracle Parkway, Redwood Shores, CA 94065 USA
+ * or visit www.oracle.com if you need additional information or have any
+ * questions.
+ */
+package com.oracle.truffle.r.test.runtime.ffi;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.oracle.truffle.r.runtime.ffi.util.LongHandleTable;
+import org.junit.Test;
+
+public class LongHandleTableTests {
+
+    private static final long BASE = 0xdef000000000001L;
+
+    @Test
+    public void testPutGetRemove() {
+        LongHandleTable<String> table = new LongHandleTable<>();
+        int count = 10000;
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = "v" + i;
+            table.put(BASE + 2L * i, values[i]);
+        }
+        assertEquals(count, table.size());
+        for (int i = 0; i < count; i++) {
+            assertSame(values[i], table.get(BASE + 2L * i));
+        }
+        assertNull(table.get(BASE + 1));
+
+        // remove every other entry, the remaining ones must still be reachable
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(table.remove(BASE + 2L * i, values[i]));
+        }
+        assertEquals(count / 2, table.size());
+        for (int i = 0; i < count; i++) {
+            if (i % 2 == 0) {
+                assertNull(table.get(BASE + 2L * i));
+            } else {
+                assertSame(values[i], table.get(BASE + 2L * i));
+            }
+        }
+    }
+
+    @Test
+    public void testConditionalRemove() {
+        LongHandleTable<Object> table = new LongHandleTable<>();
+        Object first = new Object();
+        Object second = new Object();
+        table.put(42, first);
+        table.put(42, second);
+        assertEquals(1, table.size());
+        assertFalse(table.remove(42, first));
+        assertSame(second, table.get(42));
+        assertTrue(table.remove(42, second));
+        assertNull(table.get(42));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testRemoveAll() {
+        LongHandleTable<Integer> table = new LongHandleTable<>();
+        int count = 5000;
+        long[] keys = new long[count];
+        Object[] values = new Object[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = 0x7f0000001000L + 16L * i;
+            // the values are compared by identity
+            Integer value = i;
+            values[i] = value;
+            table.put(keys[i], value);
+        }
+        // the last entry is expected with a different value and must stay
+        values[count - 1] = -1;
+        table.removeAll(keys, values, count);
+        assertEquals(1, table.size());
+        assertEquals(Integer.valueOf(count - 1), table.get(keys[count - 1]));
+        for (int i = 0; i < count - 1; i++) {
+            assertNull(table.get(keys[i]));
+        }
+    }
+}
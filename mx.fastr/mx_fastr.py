@@ -121,6 +121,25 @@ def run_grid_server(args, **kwargs):
     vmArgs.append('com.oracle.truffle.r.library.fastrGrid.device.remote.server.RemoteDeviceServer')
     return mx.run_java(vmArgs + args, jdk=get_default_jdk(), **kwargs)
 
+def rjmh(args):
+    '''
+    Runs the JMH benchmarks from com.oracle.truffle.r.benchmarks. The arguments are passed to JMH,
+    e.g., a regular expression selecting the benchmarks. Unless a result format is given (-rf), the
+    results are written as JSON to jmh-result.json in the current directory.
+    '''
+    setREnvironment()
+    jdk = get_default_jdk()
+    dists = ['FASTR', 'FASTR_BENCHMARKS']
+    if mx.suite("sulong", fatalIfMissing=False):
+        dists.append('SULONG')
+    vmArgs = mx.get_runtime_jvm_args(dists, jdk=jdk)
+    vmArgs += set_graal_options()
+    vmArgs += _sulong_options()
+    vmArgs = _sanitize_vmArgs(jdk, vmArgs)
+    if '-rf' not in args:
+        args = ['-rf', 'json', '-rff', 'jmh-result.json'] + args
+    return mx.run_java(vmArgs + ['org.openjdk.jmh.Main'] + args, jdk=jdk)
+
 def r_classpath(args):
     print(mx.classpath('FASTR', jdk=mx.get_jdk()) + ":" + mx.classpath('SULONG', jdk=mx.get_jdk()))  # pylint: disable=superfluous-parens
 
@@ -969,6 +988,7 @@ _commands = {
     'rembed' : [rembed, '[options]'],
     'rembedtest' : [rembedtest, '[options]'],
     'r-cp' : [r_classpath, '[options]'],
+    'rjmh' : [rjmh, '[JMH options]'],
     'pkgtest' : [pkgtest, ['options']],
     'r-pkgtest-analyze' : [r_pkgtest_analyze, ['options']],
     'r-findtop100' : [find_top100, ['options']],
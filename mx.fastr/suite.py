@@ -378,6 +378,21 @@ suite = {
       "workingSets" : "FastR,Test",
       "spotbugsIgnoresGenerated" : True,
     },
+
+    "com.oracle.truffle.r.benchmarks" : {
+      "sourceDirs" : ["src"],
+      "dependencies" : [
+        "mx:JMH_1_21",
+        "sdk:GRAAL_SDK",
+      ],
+      "annotationProcessors" : [
+        "mx:JMH_1_21",
+      ],
+      "checkstyle" : "com.oracle.truffle.r.runtime",
+      "javaCompliance" : "8+",
+      "workingSets" : "FastR,Test",
+      "spotbugsIgnoresGenerated" : True,
+    },
   },
 
   "distributions" : {
@@ -485,6 +500,20 @@ suite = {
       "maven" : False
     },
 
+    "FASTR_BENCHMARKS" : {
+      "description" : "JMH benchmarks of R kernels, run by 'mx rjmh'",
+      "dependencies" : [
+        "com.oracle.truffle.r.benchmarks",
+      ],
+      "exclude" : [
+        "mx:JMH_1_21",
+      ],
+      "distDependencies" : [
+        "sdk:GRAAL_SDK",
+      ],
+      "maven" : False
+    },
+
     # see mx_fastr_dists.mx_register_dynamic_suite_constituents for the definitions of some RFFI-dependent distributions
   },
 }